@@ -22,6 +22,7 @@ public enum ThreadName {
   JDBC_SERVICE("JDBC-ServerServiceImpl"),
   JDBC_CLIENT("JDBC-Client"),
   MERGE_SERVICE("Merge-ServerServiceImpl"),
+  MERGE_FILE_SERVICE("Merge-File-ServerServiceImpl"),
   CLOSE_MERGE_SERVICE("Close-Merge-ServerServiceImpl"),
   CLOSE_MERGE_DAEMON("Close-Merge-Daemon-Thread"),
   CLOSE_DAEMON("Close-Daemon-Thread"),
@@ -32,8 +33,11 @@ public enum ThreadName {
   FORCE_FLUSH_ALL_POLICY("IoTDB-ForceFlushAllPolicy-Thread"),
   STAT_MONITOR("StatMonitor-ServerServiceImpl"),
   FLUSH_SERVICE("Flush-ServerServiceImpl"),
+  FLUSH_ENCODING_SERVICE("Flush-Encoding-ServerServiceImpl"),
   WAL_DAEMON("IoTDB-MultiFileLogNodeManager-Sync-Thread"),
   WAL_FORCE_DAEMON("IoTDB-MultiFileLogNodeManager-Force-Thread"),
+  WAL_GROUP_COMMIT_DAEMON("IoTDB-WAL-GroupCommit-Thread"),
+  WAL_RECOVERY("WAL-Recovery"),
   INDEX_SERVICE("Index-ServerServiceImpl"),
   SYNC_CLIENT("Sync-Client"),
   SYNC_SERVER("Sync-Server"),
@@ -66,6 +66,17 @@ public class IoTDBConfig {
    */
   private long forceWalPeriodInMs = 10;
 
+  /**
+   * If group commit is enabled, write ahead logs are appended to a queue without locking, and a
+   * single flusher thread writes and forces the logs of concurrent writers together.
+   */
+  private boolean enableWalGroupCommit = false;
+
+  /**
+   * With group commit enabled, whether a write waits until its log has been forced to disk.
+   */
+  private boolean waitWalGroupCommit = true;
+
   /**
    * Data directory.
    */
@@ -133,6 +144,18 @@ public class IoTDBConfig {
    */
   private int mergeConcurrentThreads = Runtime.getRuntime().availableProcessors();
 
+  /**
+   * The maximum number of TsFiles merged concurrently, shared by all the merging storage groups.
+   * When the value <= 0, use the CPU core number.
+   */
+  private int mergeFileConcurrentThreads = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * The maximum bytes read and written per second by all the merge tasks. The unit is MB. When the
+   * value <= 0, merge is not throttled.
+   */
+  private long mergeThroughputMBPerSec = 0;
+
   /**
    * Maximum number of folders open at the same time.
    */
@@ -165,11 +188,42 @@ public class IoTDBConfig {
    */
   private boolean enableTimingCloseAndMerge = true;
 
+  /**
+   * When set true, the chunks of a TsFile that no overflow data overlaps and no deletion touches
+   * are copied into the merged TsFile without being decoded. Else, all the data of the TsFile is
+   * read and rewritten.
+   */
+  private boolean enableMergeChunkCopy = true;
+
+  /**
+   * When set true, the small sealed TsFiles of a storage group are compacted into larger ones in
+   * the background.
+   */
+  private boolean enableCompaction = true;
+
+  /**
+   * How many adjacent sealed TsFiles of similar size are compacted into one TsFile. The TsFiles
+   * whose sizes differ by less than this factor are of similar size.
+   */
+  private int compactionFileNum = 10;
+
   /**
    * How many threads can concurrently flush. When <= 0, use CPU core number.
    */
   private int concurrentFlushThread = Runtime.getRuntime().availableProcessors();
 
+  /**
+   * How many threads can concurrently sort and encode the series of the flushing memtables. When
+   * <= 0, use CPU core number.
+   */
+  private int concurrentFlushEncodingThread = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * How many storage groups can replay their write ahead logs concurrently on startup. When <= 0,
+   * use CPU core number.
+   */
+  private int walRecoveryThreadNum = Runtime.getRuntime().availableProcessors();
+
   private ZoneId zoneID = ZoneId.systemDefault();
   /**
    * BufferWriteProcessor and OverflowProcessor will immediately flush if this threshold is
@@ -247,6 +301,27 @@ public class IoTDBConfig {
    * Cache size of {@code checkAndGetDataTypeCache} in {@link MManager}.
    */
   private int mManagerCacheSize = 400000;
+  /**
+   * Max number of series whose last point is cached in {@code LastValueCache}. The cache is
+   * disabled if it is not positive.
+   */
+  private int lastValueCacheSize = 100000;
+  /**
+   * Max size in byte of the metadata of TsFiles cached in memory, which is shared by
+   * {@code TsFileMetaDataCache} and {@code RowGroupBlockMetaDataCache}. The cache is disabled if
+   * it is not positive.
+   */
+  private long metadataCacheSizeInByte = 64 * 1024 * 1024L;
+  /**
+   * Max size in byte of the chunks cached in {@code ChunkCache}, which are shared by all the
+   * queries. The cache is disabled if it is not positive.
+   */
+  private long chunkCacheSizeInByte = 128 * 1024 * 1024L;
+  /**
+   * Whether sealed TsFiles are read through memory-mapped windows instead of copying the chunks and
+   * pages from the file channel.
+   */
+  private boolean enableMmapTsFileReader = false;
   /**
    * The maximum size of a single log in byte. If a log exceeds this size, it cannot be written to
    * the WAL file and an exception is thrown.
@@ -464,6 +539,22 @@ public class IoTDBConfig {
     this.forceWalPeriodInMs = forceWalPeriodInMs;
   }
 
+  public boolean isEnableWalGroupCommit() {
+    return enableWalGroupCommit;
+  }
+
+  public void setEnableWalGroupCommit(boolean enableWalGroupCommit) {
+    this.enableWalGroupCommit = enableWalGroupCommit;
+  }
+
+  public boolean isWaitWalGroupCommit() {
+    return waitWalGroupCommit;
+  }
+
+  public void setWaitWalGroupCommit(boolean waitWalGroupCommit) {
+    this.waitWalGroupCommit = waitWalGroupCommit;
+  }
+
   public String getDataDir() {
     return dataDir;
   }
@@ -564,6 +655,22 @@ public class IoTDBConfig {
     this.mergeConcurrentThreads = mergeConcurrentThreads;
   }
 
+  public int getMergeFileConcurrentThreads() {
+    return mergeFileConcurrentThreads;
+  }
+
+  public void setMergeFileConcurrentThreads(int mergeFileConcurrentThreads) {
+    this.mergeFileConcurrentThreads = mergeFileConcurrentThreads;
+  }
+
+  public long getMergeThroughputMBPerSec() {
+    return mergeThroughputMBPerSec;
+  }
+
+  public void setMergeThroughputMBPerSec(long mergeThroughputMBPerSec) {
+    this.mergeThroughputMBPerSec = mergeThroughputMBPerSec;
+  }
+
   public int getMaxOpenFolder() {
     return maxOpenFolder;
   }
@@ -612,6 +719,30 @@ public class IoTDBConfig {
     this.enableTimingCloseAndMerge = enableTimingCloseAndMerge;
   }
 
+  public boolean isEnableMergeChunkCopy() {
+    return enableMergeChunkCopy;
+  }
+
+  public void setEnableMergeChunkCopy(boolean enableMergeChunkCopy) {
+    this.enableMergeChunkCopy = enableMergeChunkCopy;
+  }
+
+  public boolean isEnableCompaction() {
+    return enableCompaction;
+  }
+
+  public void setEnableCompaction(boolean enableCompaction) {
+    this.enableCompaction = enableCompaction;
+  }
+
+  public int getCompactionFileNum() {
+    return compactionFileNum;
+  }
+
+  public void setCompactionFileNum(int compactionFileNum) {
+    this.compactionFileNum = compactionFileNum;
+  }
+
   public int getConcurrentFlushThread() {
     return concurrentFlushThread;
   }
@@ -620,6 +751,22 @@ public class IoTDBConfig {
     this.concurrentFlushThread = concurrentFlushThread;
   }
 
+  public int getConcurrentFlushEncodingThread() {
+    return concurrentFlushEncodingThread;
+  }
+
+  public void setConcurrentFlushEncodingThread(int concurrentFlushEncodingThread) {
+    this.concurrentFlushEncodingThread = concurrentFlushEncodingThread;
+  }
+
+  public int getWalRecoveryThreadNum() {
+    return walRecoveryThreadNum;
+  }
+
+  public void setWalRecoveryThreadNum(int walRecoveryThreadNum) {
+    this.walRecoveryThreadNum = walRecoveryThreadNum;
+  }
+
   public void setZoneID(ZoneId zoneID) {
     this.zoneID = zoneID;
   }
@@ -760,6 +907,38 @@ public class IoTDBConfig {
     this.mManagerCacheSize = mManagerCacheSize;
   }
 
+  public int getLastValueCacheSize() {
+    return lastValueCacheSize;
+  }
+
+  public void setLastValueCacheSize(int lastValueCacheSize) {
+    this.lastValueCacheSize = lastValueCacheSize;
+  }
+
+  public long getMetadataCacheSizeInByte() {
+    return metadataCacheSizeInByte;
+  }
+
+  public void setMetadataCacheSizeInByte(long metadataCacheSizeInByte) {
+    this.metadataCacheSizeInByte = metadataCacheSizeInByte;
+  }
+
+  public long getChunkCacheSizeInByte() {
+    return chunkCacheSizeInByte;
+  }
+
+  public void setChunkCacheSizeInByte(long chunkCacheSizeInByte) {
+    this.chunkCacheSizeInByte = chunkCacheSizeInByte;
+  }
+
+  public boolean isEnableMmapTsFileReader() {
+    return enableMmapTsFileReader;
+  }
+
+  public void setEnableMmapTsFileReader(boolean enableMmapTsFileReader) {
+    this.enableMmapTsFileReader = enableMmapTsFileReader;
+  }
+
   public int getMaxLogEntrySize() {
     return maxLogEntrySize;
   }
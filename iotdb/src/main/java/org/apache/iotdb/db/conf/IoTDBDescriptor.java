@@ -126,6 +126,10 @@ public class IoTDBDescriptor {
       conf.setForceWalPeriodInMs(Long
           .parseLong(properties.getProperty("force_wal_period_in_ms",
                   Long.toString(conf.getForceWalPeriodInMs()))));
+      conf.setEnableWalGroupCommit(Boolean.parseBoolean(properties.getProperty(
+          "enable_wal_group_commit", Boolean.toString(conf.isEnableWalGroupCommit()))));
+      conf.setWaitWalGroupCommit(Boolean.parseBoolean(properties.getProperty(
+          "wait_wal_group_commit", Boolean.toString(conf.isWaitWalGroupCommit()))));
 
       conf.setDataDir(properties.getProperty("data_dir", conf.getDataDir()));
       conf.setBufferWriteDirs(properties.getProperty("tsfile_dir", conf.DEFAULT_TSFILE_DIR)
@@ -145,6 +149,15 @@ public class IoTDBDescriptor {
           || conf.getMergeConcurrentThreads() > Runtime.getRuntime().availableProcessors()) {
         conf.setMergeConcurrentThreads(Runtime.getRuntime().availableProcessors());
       }
+      conf.setMergeFileConcurrentThreads(Integer
+          .parseInt(properties.getProperty("merge_file_concurrent_threads",
+              Integer.toString(conf.getMergeFileConcurrentThreads())).trim()));
+      if (conf.getMergeFileConcurrentThreads() <= 0) {
+        conf.setMergeFileConcurrentThreads(Runtime.getRuntime().availableProcessors());
+      }
+      conf.setMergeThroughputMBPerSec(Long
+          .parseLong(properties.getProperty("merge_throughput_mb_per_sec",
+              Long.toString(conf.getMergeThroughputMBPerSec())).trim()));
 
       conf.setFetchSize(Integer.parseInt(properties.getProperty("fetch_size",
           Integer.toString(conf.getFetchSize()))));
@@ -158,6 +171,18 @@ public class IoTDBDescriptor {
       conf.setEnableTimingCloseAndMerge(Boolean.parseBoolean(properties
           .getProperty("enable_timing_close_and_Merge",
                   Boolean.toString(conf.isEnableTimingCloseAndMerge())).trim()));
+      conf.setEnableMergeChunkCopy(Boolean.parseBoolean(properties
+          .getProperty("enable_merge_chunk_copy",
+                  Boolean.toString(conf.isEnableMergeChunkCopy())).trim()));
+      conf.setEnableCompaction(Boolean.parseBoolean(properties
+          .getProperty("enable_compaction",
+                  Boolean.toString(conf.isEnableCompaction())).trim()));
+      conf.setCompactionFileNum(Integer.parseInt(properties
+          .getProperty("compaction_file_num",
+                  Integer.toString(conf.getCompactionFileNum())).trim()));
+      if (conf.getCompactionFileNum() < 2) {
+        conf.setCompactionFileNum(2);
+      }
 
       conf.setMemThresholdWarning((long) (Runtime.getRuntime().maxMemory() * Double.parseDouble(
           properties.getProperty("mem_threshold_warning",
@@ -216,6 +241,20 @@ public class IoTDBDescriptor {
         conf.setConcurrentFlushThread(Runtime.getRuntime().availableProcessors());
       }
 
+      conf.setConcurrentFlushEncodingThread(Integer
+          .parseInt(properties.getProperty("concurrent_flush_encoding_thread",
+                  Integer.toString(conf.getConcurrentFlushEncodingThread()))));
+      if (conf.getConcurrentFlushEncodingThread() <= 0) {
+        conf.setConcurrentFlushEncodingThread(Runtime.getRuntime().availableProcessors());
+      }
+
+      conf.setWalRecoveryThreadNum(Integer
+          .parseInt(properties.getProperty("wal_recovery_thread_num",
+                  Integer.toString(conf.getWalRecoveryThreadNum()))));
+      if (conf.getWalRecoveryThreadNum() <= 0) {
+        conf.setWalRecoveryThreadNum(Runtime.getRuntime().availableProcessors());
+      }
+
       conf.setEnableMemMonitor(Boolean
           .parseBoolean(properties.getProperty("enable_mem_monitor",
                   Boolean.toString(conf.isEnableMemMonitor())).trim()));
@@ -231,6 +270,18 @@ public class IoTDBDescriptor {
       conf.setmManagerCacheSize(Integer
           .parseInt(properties.getProperty("schema_manager_cache_size",
                   Integer.toString(conf.getmManagerCacheSize())).trim()));
+      conf.setLastValueCacheSize(Integer
+          .parseInt(properties.getProperty("last_value_cache_size",
+                  Integer.toString(conf.getLastValueCacheSize())).trim()));
+      conf.setMetadataCacheSizeInByte(Long
+          .parseLong(properties.getProperty("metadata_cache_size_in_byte",
+                  Long.toString(conf.getMetadataCacheSizeInByte())).trim()));
+      conf.setChunkCacheSizeInByte(Long
+          .parseLong(properties.getProperty("chunk_cache_size_in_byte",
+                  Long.toString(conf.getChunkCacheSizeInByte())).trim()));
+      conf.setEnableMmapTsFileReader(Boolean
+          .parseBoolean(properties.getProperty("enable_mmap_tsfile_reader",
+                  Boolean.toString(conf.isEnableMmapTsFileReader())).trim()));
 
       int maxLogEntrySize = Integer
           .parseInt(properties.getProperty("max_log_entry_size",
@@ -34,6 +34,7 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.Processor;
 import org.apache.iotdb.db.engine.filenode.FileNodeManager;
 import org.apache.iotdb.db.engine.memcontrol.BasicMemController;
+import org.apache.iotdb.db.engine.memcontrol.MemReservation;
 import org.apache.iotdb.db.engine.memtable.IMemTable;
 import org.apache.iotdb.db.engine.memtable.MemSeriesLazyMerger;
 import org.apache.iotdb.db.engine.memtable.MemTableFlushUtil;
@@ -65,6 +66,7 @@ public class BufferWriteProcessor extends Processor {
   private volatile Future<Boolean> flushFuture = new ImmediateFuture<>(true);
   private ReentrantLock flushQueryLock = new ReentrantLock();
   private AtomicLong memSize = new AtomicLong();
+  private MemReservation memReservation = new MemReservation(this);
   private long memThreshold = TSFileDescriptor.getInstance().getConfig().groupSizeInByte;
   private IMemTable workMemTable;
   private IMemTable flushMemTable;
@@ -74,7 +76,7 @@ public class BufferWriteProcessor extends Processor {
 
   //lastFlushTime time unit: nanosecond
   private long lastFlushTime = -1;
-  private long valueCount = 0;
+  private AtomicLong valueCount = new AtomicLong();
 
   private String baseDir;
   private String fileName;
@@ -169,30 +171,53 @@ public class BufferWriteProcessor extends Processor {
    */
   public boolean write(TSRecord tsRecord) throws BufferWriteProcessorException {
     long memUsage = MemUtils.getRecordSize(tsRecord);
-    BasicMemController.UsageLevel level = BasicMemController.getInstance()
-        .reportUse(this, memUsage);
+    if (writeMemTable(tsRecord, memUsage) == BasicMemController.UsageLevel.DANGEROUS) {
+      return false;
+    }
+    checkMemThreshold4Flush(memUsage);
+    return true;
+  }
+
+  /**
+   * write a ts record into the memtable without flushing it. Records of different devices can be
+   * written concurrently, because the memtables are only switched by a flush, which the caller
+   * must exclude, e.g. by holding the read lock of the filenode processor.
+   *
+   * @param tsRecord data to be written
+   * @return true if the memory usage reaches the memThreshold and {@link #flushIfNecessary()}
+   * should be called.
+   */
+  public boolean writeWithoutFlush(TSRecord tsRecord) {
+    long memUsage = MemUtils.getRecordSize(tsRecord);
+    if (writeMemTable(tsRecord, memUsage) == BasicMemController.UsageLevel.DANGEROUS) {
+      return false;
+    }
+    return memSize.addAndGet(memUsage) > memThreshold;
+  }
+
+  /**
+   * flush the memtable if its memory usage reaches the memThreshold.
+   *
+   * @throws BufferWriteProcessorException if a flushing operation occurs and failed.
+   */
+  public void flushIfNecessary() throws BufferWriteProcessorException {
+    checkMemThreshold4Flush(0);
+  }
+
+  private BasicMemController.UsageLevel writeMemTable(TSRecord tsRecord, long memUsage) {
+    BasicMemController.UsageLevel level = memReservation.use(memUsage);
     for (DataPoint dataPoint : tsRecord.dataPointList) {
       workMemTable.write(tsRecord.deviceId, dataPoint.getMeasurementId(), dataPoint.getType(),
           tsRecord.time,
-          dataPoint.getValue().toString());
+          dataPoint.getValue());
     }
-    valueCount++;
-    String memory;
-    switch (level) {
-      case SAFE:
-        checkMemThreshold4Flush(memUsage);
-        return true;
-      case WARNING:
-        memory = MemUtils.bytesCntToStr(BasicMemController.getInstance().getTotalUsage());
-        LOGGER.warn("Memory usage will exceed warning threshold, current : {}.", memory);
-        checkMemThreshold4Flush(memUsage);
-        return true;
-      case DANGEROUS:
-      default:
-        memory = MemUtils.bytesCntToStr(BasicMemController.getInstance().getTotalUsage());
-        LOGGER.warn("Memory usage will exceed dangerous threshold, current : {}.", memory);
-        return false;
+    valueCount.incrementAndGet();
+    if (level != BasicMemController.UsageLevel.SAFE) {
+      String memory = MemUtils.bytesCntToStr(BasicMemController.getInstance().getTotalUsage());
+      LOGGER.warn("Memory usage will exceed {} threshold, current : {}.",
+          level == BasicMemController.UsageLevel.WARNING ? "warning" : "dangerous", memory);
     }
+    return level;
   }
 
   private void checkMemThreshold4Flush(long addedMemory) throws BufferWriteProcessorException {
@@ -332,7 +357,7 @@ public class BufferWriteProcessor extends Processor {
     }
     lastFlushTime = System.nanoTime();
     // check value count
-    if (valueCount > 0) {
+    if (valueCount.get() > 0) {
       // waiting for the end of last flush operation.
       try {
         flushFuture.get();
@@ -352,10 +377,10 @@ public class BufferWriteProcessor extends Processor {
       if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
         logNode.notifyStartFlush();
       }
-      valueCount = 0;
+      valueCount.set(0);
       switchWorkToFlush();
       long version = versionController.nextVersion();
-      BasicMemController.getInstance().reportFree(this, memSize.get());
+      memReservation.release();
       memSize.set(0);
       // switch
       flushFuture = FlushManager.getInstance().submit(() -> flushTask("asynchronously",
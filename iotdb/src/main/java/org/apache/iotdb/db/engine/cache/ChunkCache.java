@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+
+/**
+ * This class is used to cache the chunks read from TsFiles for all the queries, so that the hot
+ * chunks are read from the disk only once. A chunk is identified by its file and the offset of its
+ * header, and the cached chunks of a file must be removed before the file is deleted or replaced.
+ */
+public class ChunkCache {
+
+  /**
+   * estimated memory of a chunk besides its data.
+   */
+  private static final long CHUNK_OVERHEAD = 256;
+  private static final long EXPECTED_CHUNK_SIZE = 64 * 1024L;
+
+  private final TinyLfuCache<Key, Chunk> cache;
+
+  private ChunkCache() {
+    cache = new TinyLfuCache<>(IoTDBDescriptor.getInstance().getConfig().getChunkCacheSizeInByte(),
+        EXPECTED_CHUNK_SIZE, chunk -> CHUNK_OVERHEAD + chunk.getData().remaining());
+  }
+
+  public static ChunkCache getInstance() {
+    return ChunkCacheHolder.INSTANCE;
+  }
+
+  /**
+   * get the chunk from the cache, or read it by the reader.
+   *
+   * @return a chunk whose data can be read independently of the other queries
+   */
+  public Chunk get(ChunkMetaData chunkMetaData, TsFileSequenceReader reader) throws IOException {
+    Key key = new Key(reader.getFileName(), chunkMetaData.getOffsetOfChunkHeader());
+    Chunk chunk = cache.get(key, () -> copyIfMapped(reader.readMemChunk(chunkMetaData)));
+    Chunk chunkRet = new Chunk(chunk.getHeader(), chunk.getData().duplicate());
+    chunkRet.setDeletedAt(chunkMetaData.getDeletedAt());
+    return chunkRet;
+  }
+
+  /**
+   * The data of a chunk read from a memory-mapped file is a slice of the mapped file, which is
+   * unmapped when the reader is closed, so it is copied to the heap before being cached, as the
+   * cached chunk may outlive the reader.
+   */
+  private static Chunk copyIfMapped(Chunk chunk) {
+    ByteBuffer data = chunk.getData();
+    if (!data.isDirect()) {
+      return chunk;
+    }
+    ByteBuffer copy = ByteBuffer.allocate(data.remaining());
+    copy.put(data.duplicate());
+    copy.flip();
+    return new Chunk(chunk.getHeader(), copy);
+  }
+
+  /**
+   * remove the cached chunks of a file.
+   */
+  public void remove(String filePath) {
+    cache.removeIf(key -> key.filePath.equals(filePath));
+  }
+
+  public void clear() {
+    cache.clear();
+  }
+
+  public long getHitCount() {
+    return cache.getHitCount();
+  }
+
+  public long getMissCount() {
+    return cache.getMissCount();
+  }
+
+  public long getUsedMemoryInByte() {
+    return cache.weightedSize();
+  }
+
+  private static final class Key {
+
+    private final String filePath;
+    private final long offset;
+
+    private Key(String filePath, long offset) {
+      this.filePath = filePath;
+      this.offset = offset;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return offset == key.offset && filePath.equals(key.filePath);
+    }
+
+    @Override
+    public int hashCode() {
+      return filePath.hashCode() * 31 + Long.hashCode(offset);
+    }
+  }
+
+  private static class ChunkCacheHolder {
+
+    private ChunkCacheHolder() {
+    }
+
+    private static final ChunkCache INSTANCE = new ChunkCache();
+  }
+}
@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+/**
+ * A count-min sketch estimating the access frequencies of the keys, in which each key is counted by
+ * four counters saturating at 15. All the counters are halved after a number of increments, so
+ * that the keys accessed frequently long ago are forgotten. Not thread safe.
+ */
+class FrequencySketch {
+
+  private static final int DEPTH = 4;
+  private static final int MAX_COUNT = 15;
+  private static final int COUNTERS_PER_KEY = 16;
+  private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+      0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+  private final byte[] table;
+  private final int mask;
+  private final int sampleSize;
+  private int additions;
+
+  /**
+   * @param expectedSize the expected number of keys in the cache
+   */
+  FrequencySketch(int expectedSize) {
+    expectedSize = Math.max(expectedSize, 16);
+    // several counters for each key to reduce the collisions
+    int width = Integer.highestOneBit(expectedSize * COUNTERS_PER_KEY - 1) << 1;
+    table = new byte[width];
+    mask = width - 1;
+    sampleSize = expectedSize * 10;
+  }
+
+  /**
+   * get the estimated frequency of the key, at most 15.
+   */
+  int frequency(int hashCode) {
+    int frequency = MAX_COUNT;
+    for (int i = 0; i < DEPTH; i++) {
+      frequency = Math.min(frequency, table[indexOf(hashCode, i)]);
+    }
+    return frequency;
+  }
+
+  void increment(int hashCode) {
+    boolean added = false;
+    for (int i = 0; i < DEPTH; i++) {
+      int index = indexOf(hashCode, i);
+      if (table[index] < MAX_COUNT) {
+        table[index]++;
+        added = true;
+      }
+    }
+    if (added && ++additions >= sampleSize) {
+      reset();
+    }
+  }
+
+  private void reset() {
+    for (int i = 0; i < table.length; i++) {
+      table[i] >>= 1;
+    }
+    additions /= 2;
+  }
+
+  private int indexOf(int hashCode, int i) {
+    long hash = (spread(hashCode) + SEEDS[i]) * SEEDS[i];
+    hash += hash >>> 32;
+    return (int) hash & mask;
+  }
+
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+}
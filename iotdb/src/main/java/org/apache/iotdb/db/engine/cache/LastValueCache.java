@@ -0,0 +1,206 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.TsPrimitiveType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * This class is used to cache the last point of time series in IoTDB, the key is the full path of
+ * a series. An entry is loaded by a query and then kept up to date by the insertions, and it is
+ * removed when the data of the series is deleted or updated.
+ * </p>
+ * To avoid caching a stale point, a query marks the entry as loading by
+ * <code>beginLoad()</code> before reading the data, and the insertions during the loading are
+ * merged into the loaded point in <code>endLoad()</code>.
+ * <p>
+ * The entries are kept in a {@link TinyLfuCache} of one unit of weight per series, so an insertion
+ * finds its entry without locking and updates the point of the entry by CAS, and only a query
+ * loading a series takes the eviction lock.
+ * </p>
+ */
+public class LastValueCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LastValueCache.class);
+
+  private static final State LOADING = new State(null, true);
+
+  private final int cacheSize;
+  private final TinyLfuCache<String, Entry> cache;
+
+  private AtomicLong cacheHitNum = new AtomicLong();
+  private AtomicLong cacheRequestNum = new AtomicLong();
+
+  private LastValueCache(int cacheSize) {
+    this.cacheSize = cacheSize;
+    cache = new TinyLfuCache<>(cacheSize, 1, entry -> 1);
+  }
+
+  public static LastValueCache getInstance() {
+    return LastValueCacheHolder.INSTANCE;
+  }
+
+  /**
+   * get the last point of a series. THREAD SAFE.
+   *
+   * @return null if the series is not cached
+   */
+  public TimeValuePair get(String path) {
+    cacheRequestNum.incrementAndGet();
+    Entry entry = cache.lookup(path);
+    if (entry == null) {
+      return null;
+    }
+    State state = entry.state.get();
+    if (state.loading) {
+      return null;
+    }
+    cacheHitNum.incrementAndGet();
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Cache hit: the number of requests for cache is {}, "
+          + "the number of hits for cache is {}", cacheRequestNum.get(), cacheHitNum.get());
+    }
+    return state.value;
+  }
+
+  /**
+   * mark the series as loading, must be invoked before the data of the series is read.
+   *
+   * @return a token which should be passed to <code>endLoad()</code>
+   */
+  public Object beginLoad(String path) {
+    Entry entry = new Entry();
+    if (cacheSize > 0) {
+      cache.put(path, entry);
+    }
+    return entry;
+  }
+
+  /**
+   * cache the loaded last point of the series, unless it has been invalidated or loaded by another
+   * query since <code>beginLoad()</code>.
+   *
+   * @param token the token returned by <code>beginLoad()</code>
+   * @param loaded the last point read from the data, null if there is no data
+   */
+  public void endLoad(String path, Object token, TimeValuePair loaded) {
+    Entry entry = cache.getIfPresent(path);
+    if (entry != token) {
+      return;
+    }
+    State state;
+    TimeValuePair value;
+    do {
+      state = entry.state.get();
+      // the points inserted during the loading are newer
+      value = state.value;
+      if (value == null || (loaded != null && loaded.getTimestamp() > value.getTimestamp())) {
+        value = loaded;
+      }
+    } while (value != null && !entry.state.compareAndSet(state, new State(value, false)));
+    if (value == null) {
+      cache.remove(path, entry);
+    }
+  }
+
+  /**
+   * update the last point of the series with an inserted point if the series is cached. THREAD
+   * SAFE.
+   */
+  public void update(String path, long time, TSDataType dataType, Object value) {
+    if (cacheSize <= 0) {
+      return;
+    }
+    Entry entry = cache.getIfPresent(path);
+    if (entry == null) {
+      return;
+    }
+    State state = entry.state.get();
+    if (state.value != null && time < state.value.getTimestamp()) {
+      return;
+    }
+    TimeValuePair point = new TimeValuePair(time, TsPrimitiveType.getByType(dataType, value));
+    while (!entry.state.compareAndSet(state, new State(point, state.loading))) {
+      state = entry.state.get();
+      if (state.value != null && time < state.value.getTimestamp()) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * remove the series if its data not after the given time is deleted.
+   */
+  public void delete(String path, long timestamp) {
+    Entry entry = cache.getIfPresent(path);
+    if (entry == null) {
+      return;
+    }
+    State state = entry.state.get();
+    if (state.loading || state.value.getTimestamp() <= timestamp) {
+      cache.remove(path, entry);
+    }
+  }
+
+  /**
+   * remove the series.
+   */
+  public void remove(String path) {
+    cache.remove(path);
+  }
+
+  /**
+   * clear the cache.
+   */
+  public void clear() {
+    cache.clear();
+  }
+
+  /**
+   * the cached point of a series, which is replaced as a whole by CAS.
+   */
+  private static class State {
+
+    private final TimeValuePair value;
+    private final boolean loading;
+
+    private State(TimeValuePair value, boolean loading) {
+      this.value = value;
+      this.loading = loading;
+    }
+  }
+
+  private static class Entry {
+
+    private final AtomicReference<State> state = new AtomicReference<>(LOADING);
+  }
+
+  private static class LastValueCacheHolder {
+
+    private static final LastValueCache INSTANCE = new LastValueCache(
+        IoTDBDescriptor.getInstance().getConfig().getLastValueCacheSize());
+  }
+}
@@ -0,0 +1,196 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import java.io.IOException;
+import java.util.Map.Entry;
+import java.util.Objects;
+import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.TinyLfuCache.Loader;
+import org.apache.iotdb.db.service.JMXService;
+import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetaData;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadata;
+import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadataIndex;
+import org.apache.iotdb.tsfile.file.metadata.TsFileMetaData;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+/**
+ * The memory budget shared by {@link TsFileMetaDataCache} and {@link RowGroupBlockMetaDataCache}.
+ * Both kinds of metadata are kept in one {@link TinyLfuCache}, weighted by their estimated sizes in
+ * memory.
+ */
+public class MetaDataCacheManager implements MetaDataCacheManagerMBean {
+
+  /**
+   * estimated memory of an object header and a reference to it.
+   */
+  private static final long OBJECT_OVERHEAD = 24;
+  private static final long MAP_ENTRY_OVERHEAD = 48;
+  private static final long EXPECTED_ENTRY_SIZE = 4 * 1024L;
+
+  private final String mbeanName = String
+      .format("%s:%s=%s", IoTDBConstant.IOTDB_PACKAGE, IoTDBConstant.JMX_TYPE, "MetaDataCache");
+  private final TinyLfuCache<Key, Object> cache;
+
+  private MetaDataCacheManager() {
+    cache = new TinyLfuCache<>(IoTDBDescriptor.getInstance().getConfig()
+        .getMetadataCacheSizeInByte(), EXPECTED_ENTRY_SIZE, MetaDataCacheManager::estimateSize);
+    JMXService.registerMBean(this, mbeanName);
+  }
+
+  public static MetaDataCacheManager getInstance() {
+    return MetaDataCacheManagerHolder.INSTANCE;
+  }
+
+  @SuppressWarnings("unchecked")
+  <V> V get(Key key, Loader<V> loader) throws IOException {
+    return (V) cache.get(key, loader::load);
+  }
+
+  void remove(Key key) {
+    cache.remove(key);
+  }
+
+  public void clear() {
+    cache.clear();
+  }
+
+  @Override
+  public long getHitCount() {
+    return cache.getHitCount();
+  }
+
+  @Override
+  public long getMissCount() {
+    return cache.getMissCount();
+  }
+
+  @Override
+  public double getHitRate() {
+    long hitCount = cache.getHitCount();
+    long requestCount = hitCount + cache.getMissCount();
+    return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+  }
+
+  @Override
+  public long getEvictionCount() {
+    return cache.getEvictionCount();
+  }
+
+  @Override
+  public int getEntryNum() {
+    return cache.size();
+  }
+
+  @Override
+  public long getUsedMemoryInByte() {
+    return cache.weightedSize();
+  }
+
+  @Override
+  public long getMaxMemoryInByte() {
+    return cache.getMaxWeight();
+  }
+
+  /**
+   * estimate the memory used by a cached TsFileMetaData or TsDeviceMetadata.
+   */
+  static long estimateSize(Object value) {
+    if (value instanceof TsFileMetaData) {
+      return estimateSize((TsFileMetaData) value);
+    } else if (value instanceof TsDeviceMetadata) {
+      return estimateSize((TsDeviceMetadata) value);
+    }
+    return OBJECT_OVERHEAD;
+  }
+
+  private static long estimateSize(TsFileMetaData fileMetaData) {
+    long size = OBJECT_OVERHEAD * 3 + estimateSize(fileMetaData.getCreatedBy());
+    for (Entry<String, TsDeviceMetadataIndex> entry : fileMetaData.getDeviceMap().entrySet()) {
+      // offset, len, startTime and endTime
+      size += MAP_ENTRY_OVERHEAD + estimateSize(entry.getKey()) + OBJECT_OVERHEAD + 28;
+    }
+    for (Entry<String, MeasurementSchema> entry : fileMetaData.getMeasurementSchema()
+        .entrySet()) {
+      // the schema refers to its encoder, compressor and props besides the measurement id
+      size += MAP_ENTRY_OVERHEAD + estimateSize(entry.getKey()) * 2 + OBJECT_OVERHEAD * 4;
+    }
+    return size;
+  }
+
+  private static long estimateSize(TsDeviceMetadata deviceMetadata) {
+    long size = OBJECT_OVERHEAD * 2 + 16;
+    for (ChunkGroupMetaData chunkGroupMetaData : deviceMetadata.getChunkGroupMetaDataList()) {
+      size += OBJECT_OVERHEAD * 2 + 32 + estimateSize(chunkGroupMetaData.getDeviceID());
+      for (ChunkMetaData chunkMetaData : chunkGroupMetaData.getChunkMetaDataList()) {
+        // the statistics in the digest are serialized values wrapped by ByteBuffers
+        size += OBJECT_OVERHEAD * 2 + 48 + estimateSize(chunkMetaData.getMeasurementUid());
+        if (chunkMetaData.getDigest() != null) {
+          size += chunkMetaData.getDigest().getSerializedSize() * 3L;
+        }
+      }
+    }
+    return size;
+  }
+
+  private static long estimateSize(String string) {
+    return string == null ? 0 : OBJECT_OVERHEAD * 2 + string.length() * 2L;
+  }
+
+  /**
+   * key of the metadata of a TsFile, or of a device in the TsFile.
+   */
+  static final class Key {
+
+    private final String filePath;
+    private final String deviceId;
+
+    Key(String filePath, String deviceId) {
+      this.filePath = filePath;
+      this.deviceId = deviceId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return Objects.equals(filePath, key.filePath) && Objects.equals(deviceId, key.deviceId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(filePath, deviceId);
+    }
+  }
+
+  private static class MetaDataCacheManagerHolder {
+
+    private MetaDataCacheManagerHolder() {
+    }
+
+    private static final MetaDataCacheManager INSTANCE = new MetaDataCacheManager();
+  }
+}
@@ -0,0 +1,445 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * <p>
+ * A cache bounded by the total weight of its entries, which uses the W-TinyLFU policy: a new entry
+ * enters a small LRU window, and when it leaves the window it is admitted into the main SLRU space
+ * only if it has been accessed more frequently than the entry it would evict. The frequencies are
+ * estimated by a {@link FrequencySketch}, so a scan of entries accessed once does not flush the
+ * frequently accessed ones.
+ * </p>
+ * The entries are read from a concurrent map without locking. The access orders are updated under a
+ * lock, which a hit skips when it is held by another thread. A missed entry is loaded by only one
+ * thread and the other threads requesting the same key wait for it, while different keys are
+ * loaded concurrently.
+ */
+public class TinyLfuCache<K, V> {
+
+  private static final int WINDOW_PERCENTAGE = 1;
+  private static final int PROTECTED_PERCENTAGE = 80;
+
+  private final long maxWeight;
+  private final long maxWindowWeight;
+  private final long maxProtectedWeight;
+  private final ToLongFunction<V> weigher;
+
+  private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<K, CompletableFuture<V>> loadings = new ConcurrentHashMap<>();
+
+  /**
+   * guards the fields below.
+   */
+  private final ReentrantLock evictionLock = new ReentrantLock();
+  private final FrequencySketch sketch;
+  private final AccessOrderQueue<K, V> window = new AccessOrderQueue<>();
+  private final AccessOrderQueue<K, V> probation = new AccessOrderQueue<>();
+  private final AccessOrderQueue<K, V> protectedQueue = new AccessOrderQueue<>();
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
+
+  /**
+   * @param maxWeight the max total weight of the entries, nothing is cached if it is not positive
+   * @param expectedEntryWeight the expected weight of an entry, which is used to size the sketch
+   * @param weigher computes the weight of a value, e.g. its size in byte
+   */
+  public TinyLfuCache(long maxWeight, long expectedEntryWeight, ToLongFunction<V> weigher) {
+    this.maxWeight = Math.max(0, maxWeight);
+    this.maxWindowWeight = this.maxWeight * WINDOW_PERCENTAGE / 100;
+    this.maxProtectedWeight = (this.maxWeight - maxWindowWeight) * PROTECTED_PERCENTAGE / 100;
+    this.weigher = weigher;
+    long expectedEntryNum = this.maxWeight / Math.max(1, expectedEntryWeight);
+    this.sketch = new FrequencySketch((int) Math.min(expectedEntryNum, 1 << 20));
+  }
+
+  /**
+   * get the value of the key, load it if it is not cached.
+   *
+   * @param loader loads the value of the key
+   */
+  public V get(K key, Loader<V> loader) throws IOException {
+    Node<K, V> node = data.get(key);
+    if (node != null) {
+      recordHit(node);
+      return node.value;
+    }
+
+    missCount.increment();
+    CompletableFuture<V> loading = new CompletableFuture<>();
+    CompletableFuture<V> existing = loadings.putIfAbsent(key, loading);
+    if (existing != null) {
+      return waitForLoading(existing);
+    }
+    try {
+      // the value may have been cached by another thread after the first lookup
+      node = data.get(key);
+      V value = node != null ? node.value : loader.load();
+      if (node == null) {
+        put(key, value);
+      }
+      loading.complete(value);
+      return value;
+    } catch (IOException | RuntimeException e) {
+      loading.completeExceptionally(e);
+      throw e;
+    } finally {
+      loadings.remove(key, loading);
+    }
+  }
+
+  /**
+   * get the value of the key without loading it, which is counted as an access like get().
+   *
+   * @return null if the key is not cached
+   */
+  public V lookup(K key) {
+    Node<K, V> node = data.get(key);
+    if (node == null) {
+      missCount.increment();
+      return null;
+    }
+    recordHit(node);
+    return node.value;
+  }
+
+  private void recordHit(Node<K, V> node) {
+    hitCount.increment();
+    if (evictionLock.tryLock()) {
+      try {
+        onAccess(node);
+      } finally {
+        evictionLock.unlock();
+      }
+    }
+  }
+
+  private V waitForLoading(CompletableFuture<V> loading) throws IOException {
+    try {
+      return loading.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  /**
+   * get the value of the key without loading it.
+   *
+   * @return null if the key is not cached
+   */
+  public V getIfPresent(K key) {
+    Node<K, V> node = data.get(key);
+    return node == null ? null : node.value;
+  }
+
+  /**
+   * cache the value of the key, the value is not cached if it is heavier than the cache.
+   */
+  public void put(K key, V value) {
+    long weight = weigher.applyAsLong(value);
+    evictionLock.lock();
+    try {
+      sketch.increment(key.hashCode());
+      if (weight > maxWeight) {
+        return;
+      }
+      Node<K, V> node = new Node<>(key, value, weight);
+      Node<K, V> old = data.put(key, node);
+      if (old != null) {
+        unlink(old);
+      }
+      node.queue = window;
+      window.add(node);
+      evict();
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  public void remove(K key) {
+    evictionLock.lock();
+    try {
+      Node<K, V> node = data.remove(key);
+      if (node != null) {
+        unlink(node);
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  /**
+   * remove the key only if it is mapped to the given value.
+   */
+  public void remove(K key, V value) {
+    evictionLock.lock();
+    try {
+      Node<K, V> node = data.get(key);
+      if (node != null && node.value == value) {
+        data.remove(key, node);
+        unlink(node);
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  /**
+   * remove the entries whose keys match the filter, which iterates all the entries.
+   */
+  public void removeIf(Predicate<? super K> filter) {
+    evictionLock.lock();
+    try {
+      for (Node<K, V> node : data.values()) {
+        if (filter.test(node.key)) {
+          data.remove(node.key, node);
+          unlink(node);
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  public void clear() {
+    evictionLock.lock();
+    try {
+      data.clear();
+      window.clear();
+      probation.clear();
+      protectedQueue.clear();
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private void onAccess(Node<K, V> node) {
+    if (node.queue == null) {
+      // removed
+      return;
+    }
+    sketch.increment(node.key.hashCode());
+    if (node.queue == probation) {
+      // promote to the protected space, the overflowed entries are demoted
+      probation.remove(node);
+      node.queue = protectedQueue;
+      protectedQueue.add(node);
+      while (protectedQueue.weight > maxProtectedWeight && protectedQueue.size() > 1) {
+        Node<K, V> demoted = protectedQueue.poll();
+        demoted.queue = probation;
+        probation.add(demoted);
+      }
+    } else {
+      node.queue.moveToTail(node);
+    }
+  }
+
+  /**
+   * move the entries overflowing the window into the main space, and evict the less frequent ones
+   * of the candidates and the victims until the total weight is within the bound.
+   */
+  private void evict() {
+    while (window.weight > maxWindowWeight && window.size() > 0) {
+      Node<K, V> candidate = window.poll();
+      candidate.queue = probation;
+      probation.add(candidate);
+      admit(candidate);
+    }
+    // the window itself may be heavier than the cache if the entries are large
+    while (weightedSize() > maxWeight) {
+      Node<K, V> victim = probation.size() > 0 ? probation.peek() : protectedQueue.size() > 0
+          ? protectedQueue.peek() : window.peek();
+      evictNode(victim);
+    }
+  }
+
+  private void admit(Node<K, V> candidate) {
+    while (weightedSize() > maxWeight) {
+      Node<K, V> victim = probation.peek();
+      if (victim == candidate) {
+        victim = protectedQueue.size() > 0 ? protectedQueue.peek() : null;
+      }
+      if (victim == null || sketch.frequency(candidate.key.hashCode()) <= sketch
+          .frequency(victim.key.hashCode())) {
+        evictNode(candidate);
+        return;
+      }
+      evictNode(victim);
+    }
+  }
+
+  private void evictNode(Node<K, V> node) {
+    unlink(node);
+    data.remove(node.key, node);
+    evictionCount.increment();
+  }
+
+  private void unlink(Node<K, V> node) {
+    if (node.queue != null) {
+      node.queue.remove(node);
+      node.queue = null;
+    }
+  }
+
+  public long weightedSize() {
+    return window.weight + probation.weight + protectedQueue.weight;
+  }
+
+  public long getMaxWeight() {
+    return maxWeight;
+  }
+
+  public int size() {
+    return data.size();
+  }
+
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.sum();
+  }
+
+  /**
+   * loads a missed value.
+   */
+  @FunctionalInterface
+  public interface Loader<V> {
+
+    V load() throws IOException;
+  }
+
+  private static class Node<K, V> {
+
+    private final K key;
+    private final V value;
+    private final long weight;
+    private AccessOrderQueue<K, V> queue;
+    private Node<K, V> prev;
+    private Node<K, V> next;
+
+    private Node(K key, V value, long weight) {
+      this.key = key;
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+
+  /**
+   * a doubly linked list of the nodes, from the least recently accessed to the most recently
+   * accessed.
+   */
+  private static class AccessOrderQueue<K, V> {
+
+    private Node<K, V> head;
+    private Node<K, V> tail;
+    private int size;
+    private long weight;
+
+    private void add(Node<K, V> node) {
+      node.prev = tail;
+      node.next = null;
+      if (tail == null) {
+        head = node;
+      } else {
+        tail.next = node;
+      }
+      tail = node;
+      size++;
+      weight += node.weight;
+    }
+
+    private void remove(Node<K, V> node) {
+      if (node.prev == null) {
+        head = node.next;
+      } else {
+        node.prev.next = node.next;
+      }
+      if (node.next == null) {
+        tail = node.prev;
+      } else {
+        node.next.prev = node.prev;
+      }
+      node.prev = null;
+      node.next = null;
+      size--;
+      weight -= node.weight;
+    }
+
+    private void moveToTail(Node<K, V> node) {
+      if (node != tail) {
+        remove(node);
+        add(node);
+      }
+    }
+
+    private Node<K, V> peek() {
+      return head;
+    }
+
+    private Node<K, V> poll() {
+      Node<K, V> node = head;
+      if (node != null) {
+        remove(node);
+      }
+      return node;
+    }
+
+    private int size() {
+      return size;
+    }
+
+    private void clear() {
+      Node<K, V> node = head;
+      while (node != null) {
+        Node<K, V> next = node.next;
+        node.queue = null;
+        node.prev = null;
+        node.next = null;
+        node = next;
+      }
+      head = null;
+      tail = null;
+      size = 0;
+      weight = 0;
+    }
+  }
+}
@@ -19,27 +19,16 @@
 package org.apache.iotdb.db.engine.cache;
 
 import java.io.IOException;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import org.apache.iotdb.db.engine.cache.MetaDataCacheManager.Key;
 import org.apache.iotdb.tsfile.file.metadata.TsFileMetaData;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
- * This class is used to cache <code>TsFileMetaData</code> of tsfile in IoTDB.
+ * This class is used to cache <code>TsFileMetaData</code> of tsfile in IoTDB. The metadata is kept
+ * in {@link MetaDataCacheManager}, which bounds the memory of the cached metadata.
  */
 public class TsFileMetaDataCache {
 
-  private static final Logger LOGGER = LoggerFactory.getLogger(TsFileMetaDataCache.class);
-  /**
-   * key: The file seriesPath of tsfile.
-   */
-  private ConcurrentHashMap<String, TsFileMetaData> cache;
-  private AtomicLong cacheHintNum = new AtomicLong();
-  private AtomicLong cacheRequestNum = new AtomicLong();
-
   private TsFileMetaDataCache() {
-    cache = new ConcurrentHashMap<>();
   }
 
   public static TsFileMetaDataCache getInstance() {
@@ -47,43 +36,21 @@ public class TsFileMetaDataCache {
   }
 
   /**
-   * get the TsFileMetaData for the given path.
+   * get the TsFileMetaData for the given path. THREAD SAFE.
    *
    * @param path -given path
    */
   public TsFileMetaData get(String path) throws IOException {
-
-    Object internPath = path.intern();
-    synchronized (internPath) {
-      cacheRequestNum.incrementAndGet();
-      if (!cache.containsKey(path)) {
-        // read value from tsfile
-        TsFileMetaData fileMetaData = TsFileMetadataUtils.getTsFileMetaData(path);
-        cache.put(path, fileMetaData);
-        if (LOGGER.isDebugEnabled()) {
-          LOGGER.debug("Cache didn't hint: the number of requests for cache is {}",
-              cacheRequestNum.get());
-        }
-        return cache.get(path);
-      } else {
-        cacheHintNum.incrementAndGet();
-        if (LOGGER.isDebugEnabled()) {
-          LOGGER.debug(
-              "Cache hint: the number of requests for cache is {}, the number of hints for cache "
-                  + "is {}",
-              cacheRequestNum.get(), cacheHintNum.get());
-        }
-        return cache.get(path);
-      }
-    }
+    return MetaDataCacheManager.getInstance()
+        .get(new Key(path, null), () -> TsFileMetadataUtils.getTsFileMetaData(path));
   }
 
   public void remove(String path) {
-    cache.remove(path);
+    MetaDataCacheManager.getInstance().remove(new Key(path, null));
   }
 
   public void clear() {
-    cache.clear();
+    MetaDataCacheManager.getInstance().clear();
   }
 
   /*
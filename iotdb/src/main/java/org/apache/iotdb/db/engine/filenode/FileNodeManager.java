@@ -37,6 +37,8 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.conf.directories.Directories;
 import org.apache.iotdb.db.engine.Processor;
 import org.apache.iotdb.db.engine.bufferwrite.BufferWriteProcessor;
+import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.db.engine.cache.LastValueCache;
 import org.apache.iotdb.db.engine.memcontrol.BasicMemController;
 import org.apache.iotdb.db.engine.overflow.io.OverflowProcessor;
 import org.apache.iotdb.db.engine.pool.FlushManager;
@@ -66,6 +68,7 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
+import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.record.TSRecord;
 import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
 import org.slf4j.Logger;
@@ -186,6 +189,7 @@ public class FileNodeManager implements IStatistic, IService {
       statParamsHashMap.put(key, new AtomicLong());
     }
     processorMap.clear();
+    LastValueCache.getInstance().clear();
   }
 
   /**
@@ -278,15 +282,141 @@ public class FileNodeManager implements IStatistic, IService {
    * @return an int value represents the insert type
    */
   public int insert(TSRecord tsRecord, boolean isMonitor) throws FileNodeManagerException {
-    long timestamp = tsRecord.time;
-
-    String deviceId = tsRecord.deviceId;
     checkTimestamp(tsRecord);
     updateStat(isMonitor, tsRecord);
 
-    FileNodeProcessor fileNodeProcessor = getProcessor(deviceId, true);
-    int insertType;
+    // most records are appended to the working bufferwrite processor, which only needs the read
+    // lock of the processor, so that different devices of a storage group are written concurrently
+    FileNodeProcessor fileNodeProcessor = getProcessor(tsRecord.deviceId, false);
+    ConcurrentInsertResult result;
+    try {
+      result = insertConcurrently(fileNodeProcessor, tsRecord, isMonitor);
+    } finally {
+      fileNodeProcessor.readUnlock();
+    }
+
+    int insertType = 2;
+    if (result != ConcurrentInsertResult.INSERTED) {
+      // the write lock is reserved for the insertions changing the state of the processor
+      fileNodeProcessor = getProcessor(tsRecord.deviceId, true);
+      try {
+        if (result == ConcurrentInsertResult.NOT_INSERTED) {
+          insertType = insertInLock(fileNodeProcessor, tsRecord, isMonitor);
+        } else {
+          checkBufferWriteThresholds(fileNodeProcessor);
+        }
+      } finally {
+        fileNodeProcessor.writeUnlock();
+      }
+    }
+    updateSuccessStat(fileNodeProcessor, tsRecord, isMonitor);
+    return insertType;
+  }
+
+  /**
+   * append a record to the working bufferwrite processor under the read lock of the processor and
+   * the lock of the device. The record is not inserted if the insertion is an overflow one, or it
+   * needs to open a bufferwrite processor or to add the device into the index of files.
+   */
+  private ConcurrentInsertResult insertConcurrently(FileNodeProcessor fileNodeProcessor,
+      TSRecord tsRecord, boolean isMonitor) throws FileNodeManagerException {
+    String deviceId = tsRecord.deviceId;
+    fileNodeProcessor.lockDevice(deviceId);
+    try {
+      BufferWriteProcessor bufferWriteProcessor = fileNodeProcessor
+          .getWorkingBufferWriteProcessor();
+      if (bufferWriteProcessor == null || bufferWriteProcessor.isNewProcessor()
+          || tsRecord.time < fileNodeProcessor.getFlushLastUpdateTime(deviceId)
+          || !fileNodeProcessor.hasIntervalFileNodeStartTime(deviceId)) {
+        return ConcurrentInsertResult.NOT_INSERTED;
+      }
+      writeLog(tsRecord, isMonitor, bufferWriteProcessor.getLogNode());
+      fileNodeProcessor.setLastUpdateTime(deviceId, tsRecord.time);
+      boolean needFlush = bufferWriteProcessor.writeWithoutFlush(tsRecord);
+      updateLastValueCache(tsRecord);
+      if (needFlush || bufferWriteProcessor.getFileSize() > IoTDBDescriptor.getInstance()
+          .getConfig().getBufferwriteFileSizeThreshold()) {
+        return ConcurrentInsertResult.INSERTED_NEED_CHECK;
+      }
+      return ConcurrentInsertResult.INSERTED;
+    } finally {
+      fileNodeProcessor.unlockDevice(deviceId);
+    }
+  }
+
+  /**
+   * flush or close the bufferwrite processor if it reaches the thresholds after concurrent
+   * insertions.
+   */
+  private void checkBufferWriteThresholds(FileNodeProcessor fileNodeProcessor)
+      throws FileNodeManagerException {
+    BufferWriteProcessor bufferWriteProcessor = fileNodeProcessor
+        .getWorkingBufferWriteProcessor();
+    if (bufferWriteProcessor == null) {
+      // closed by another thread
+      return;
+    }
+    try {
+      bufferWriteProcessor.flushIfNecessary();
+      closeBufferWriteIfNecessary(fileNodeProcessor, bufferWriteProcessor);
+    } catch (BufferWriteProcessorException | FileNodeProcessorException e) {
+      throw new FileNodeManagerException(e);
+    }
+  }
+
+  private void updateLastValueCache(TSRecord tsRecord) {
+    for (DataPoint dataPoint : tsRecord.dataPointList) {
+      LastValueCache.getInstance().update(tsRecord.deviceId + "." + dataPoint.getMeasurementId(),
+          tsRecord.time, dataPoint.getType(), dataPoint.getValue());
+    }
+  }
+
+  /**
+   * insert a batch of TsRecords into one storage group, the lock of which is acquired only once.
+   * The records are inserted in order, and a record which fails does not stop the ones after it,
+   * just like inserting them one by one.
+   *
+   * @param tsRecords records whose devices all belong to the same storage group
+   * @param isMonitor same as {@link #insert(TSRecord, boolean)}
+   * @return the records which failed to be inserted and their errors, empty if all are inserted
+   */
+  public List<Pair<TSRecord, FileNodeManagerException>> insertBatch(List<TSRecord> tsRecords,
+      boolean isMonitor) throws FileNodeManagerException {
+    List<Pair<TSRecord, FileNodeManagerException>> failures = new ArrayList<>();
+    if (tsRecords.isEmpty()) {
+      return failures;
+    }
 
+    FileNodeProcessor fileNodeProcessor = getProcessor(tsRecords.get(0).deviceId, true);
+    String filenodeName = fileNodeProcessor.getProcessorName();
+    try {
+      for (TSRecord tsRecord : tsRecords) {
+        try {
+          checkTimestamp(tsRecord);
+          updateStat(isMonitor, tsRecord);
+          if (!tsRecord.deviceId.equals(filenodeName)
+              && !tsRecord.deviceId.startsWith(filenodeName + IoTDBConstant.PATH_SEPARATOR)) {
+            throw new FileNodeManagerException(String.format(
+                "Device %s does not belong to the storage group %s", tsRecord.deviceId,
+                filenodeName));
+          }
+          insertInLock(fileNodeProcessor, tsRecord, isMonitor);
+          updateSuccessStat(fileNodeProcessor, tsRecord, isMonitor);
+        } catch (FileNodeManagerException e) {
+          failures.add(new Pair<>(tsRecord, e));
+        }
+      }
+    } finally {
+      fileNodeProcessor.writeUnlock();
+    }
+    return failures;
+  }
+
+  private int insertInLock(FileNodeProcessor fileNodeProcessor, TSRecord tsRecord,
+      boolean isMonitor) throws FileNodeManagerException {
+    long timestamp = tsRecord.time;
+    String deviceId = tsRecord.deviceId;
+    int insertType;
     try {
       long lastUpdateTime = fileNodeProcessor.getFlushLastUpdateTime(deviceId);
       if (timestamp < lastUpdateTime) {
@@ -296,14 +426,18 @@ public class FileNodeManager implements IStatistic, IService {
         insertBufferWrite(fileNodeProcessor, timestamp, isMonitor, tsRecord, deviceId);
         insertType = 2;
       }
+      // update the cache in the lock, so that the points of the same time are applied in order
+      updateLastValueCache(tsRecord);
     } catch (FileNodeProcessorException e) {
       LOGGER.error(String.format("Encounter an error when closing the buffer write processor %s.",
           fileNodeProcessor.getProcessorName()), e);
       throw new FileNodeManagerException(e);
-    } finally {
-      fileNodeProcessor.writeUnlock();
     }
-    // Modify the insert
+    return insertType;
+  }
+
+  private void updateSuccessStat(FileNodeProcessor fileNodeProcessor, TSRecord tsRecord,
+      boolean isMonitor) {
     if (!isMonitor) {
       fileNodeProcessor.getStatParamsHashMap()
           .get(MonitorConstants.FileNodeProcessorStatConstants.TOTAL_POINTS_SUCCESS.name())
@@ -317,7 +451,6 @@ public class FileNodeManager implements IStatistic, IService {
           .get(MonitorConstants.FileNodeManagerStatConstants.TOTAL_POINTS_SUCCESS.name())
           .addAndGet(tsRecord.dataPointList.size());
     }
-    return insertType;
   }
 
   private void writeLog(TSRecord tsRecord, boolean isMonitor, WriteLogNode logNode)
@@ -325,13 +458,13 @@ public class FileNodeManager implements IStatistic, IService {
     try {
       if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
         List<String> measurementList = new ArrayList<>();
-        List<String> insertValues = new ArrayList<>();
         for (DataPoint dp : tsRecord.dataPointList) {
           measurementList.add(dp.getMeasurementId());
-          insertValues.add(dp.getValue().toString());
         }
-        logNode.write(new InsertPlan(2, tsRecord.deviceId, tsRecord.time, measurementList,
-            insertValues));
+        InsertPlan insertPlan = new InsertPlan(2, tsRecord.deviceId, tsRecord.time,
+            measurementList, null);
+        insertPlan.setDataPoints(tsRecord.dataPointList);
+        logNode.write(insertPlan);
       }
     } catch (IOException e) {
       if (!isMonitor) {
@@ -431,6 +564,11 @@ public class FileNodeManager implements IStatistic, IService {
       throw new FileNodeManagerException(e);
     }
 
+    closeBufferWriteIfNecessary(fileNodeProcessor, bufferWriteProcessor);
+  }
+
+  private void closeBufferWriteIfNecessary(FileNodeProcessor fileNodeProcessor,
+      BufferWriteProcessor bufferWriteProcessor) throws FileNodeProcessorException {
     if (bufferWriteProcessor
         .getFileSize() > IoTDBDescriptor.getInstance()
         .getConfig().getBufferwriteFileSizeThreshold()) {
@@ -438,12 +576,14 @@ public class FileNodeManager implements IStatistic, IService {
         LOGGER.info(
             "The filenode processor {} will close the bufferwrite processor, "
                 + "because the size[{}] of tsfile {} reaches the threshold {}",
-            filenodeName, MemUtils.bytesCntToStr(bufferWriteProcessor.getFileSize()),
+            fileNodeProcessor.getProcessorName(),
+            MemUtils.bytesCntToStr(bufferWriteProcessor.getFileSize()),
             bufferWriteProcessor.getFileName(), MemUtils.bytesCntToStr(
                 IoTDBDescriptor.getInstance().getConfig().getBufferwriteFileSizeThreshold()));
       }
 
       fileNodeProcessor.closeBufferWrite();
+      fileNodeProcessor.submitToCompact();
     }
   }
 
@@ -479,6 +619,7 @@ public class FileNodeManager implements IStatistic, IService {
         throw new FileNodeManagerException(e);
       }
       overflowProcessor.update(deviceId, measurementId, startTime, finalEndTime, type, v);
+      LastValueCache.getInstance().remove(deviceId + "." + measurementId);
       // change the type of tsfile to overflowed
       fileNodeProcessor.changeTypeToChanged(deviceId, startTime, finalEndTime);
       fileNodeProcessor.setOverflowed(true);
@@ -546,6 +687,7 @@ public class FileNodeManager implements IStatistic, IService {
         } catch (IOException e) {
           throw new FileNodeManagerException(e);
         }
+        LastValueCache.getInstance().delete(deviceId + "." + measurementId, timestamp);
         // change the type of tsfile to overflowed
         fileNodeProcessor.changeTypeToChangedForDelete(deviceId, timestamp);
         fileNodeProcessor.setOverflowed(true);
@@ -597,6 +739,7 @@ public class FileNodeManager implements IStatistic, IService {
     FileNodeProcessor fileNodeProcessor = getProcessor(deviceId, true);
     try {
       fileNodeProcessor.deleteBufferWrite(deviceId, measurementId, timestamp);
+      LastValueCache.getInstance().delete(deviceId + "." + measurementId, timestamp);
     } catch (IOException e) {
       throw new FileNodeManagerException(e);
     } finally {
@@ -615,6 +758,7 @@ public class FileNodeManager implements IStatistic, IService {
     FileNodeProcessor fileNodeProcessor = getProcessor(deviceId, true);
     try {
       fileNodeProcessor.deleteOverflow(deviceId, measurementId, timestamp);
+      LastValueCache.getInstance().delete(deviceId + "." + measurementId, timestamp);
     } catch (IOException e) {
       throw new FileNodeManagerException(e);
     } finally {
@@ -804,6 +948,13 @@ public class FileNodeManager implements IStatistic, IService {
     return time < 32 ? time * 2 : 60;
   }
 
+  /**
+   * used for test. We can submit a compaction of the filenode processor and wait for it.
+   */
+  FileNodeProcessor getProcessorByName(String processorName) {
+    return processorMap.get(processorName);
+  }
+
   /**
    * try to close the filenode processor. The name of filenode processor is processorName
    */
@@ -845,6 +996,10 @@ public class FileNodeManager implements IStatistic, IService {
       if (processorMap.containsKey(processorName)) {
         deleteFileNodeBlocked(processorName);
       }
+      // the storage group is seldom deleted, so all the cached series and chunks are removed for
+      // simplicity
+      LastValueCache.getInstance().clear();
+      ChunkCache.getInstance().clear();
       String fileNodePath = TsFileDBConf.getFileNodeDir();
       fileNodePath = standardizeDir(fileNodePath) + processorName;
       FileUtils.deleteDirectory(new File(fileNodePath));
@@ -1019,6 +1174,8 @@ public class FileNodeManager implements IStatistic, IService {
         Map.Entry<String, FileNodeProcessor> processorEntry = processorIterator.next();
         delete(processorEntry.getKey(), processorIterator);
       }
+      LastValueCache.getInstance().clear();
+      ChunkCache.getInstance().clear();
       return processorMap.isEmpty();
     } finally {
       LOGGER.info("Deleting all FileNodeProcessors ends");
@@ -1046,6 +1203,26 @@ public class FileNodeManager implements IStatistic, IService {
     }
   }
 
+  /**
+   * submit the compaction tasks of the filenode processors which are not locked by others, invoked
+   * by {@code CloseMergeService} after closing them regularly.
+   */
+  public void compactAll() {
+    if (fileNodeManagerStatus != FileNodeManagerStatus.NONE) {
+      return;
+    }
+    for (FileNodeProcessor processor : processorMap.values()) {
+      if (!processor.tryWriteLock()) {
+        continue;
+      }
+      try {
+        processor.submitToCompact();
+      } finally {
+        processor.writeUnlock();
+      }
+    }
+  }
+
   /**
    * force flush to control memory usage.
    */
@@ -1190,4 +1367,19 @@ public class FileNodeManager implements IStatistic, IService {
         TsFileDBConf.getFileNodeDir());
   }
 
-}
\ No newline at end of file
+
+  /**
+   * result of {@link #insertConcurrently(FileNodeProcessor, TSRecord, boolean)}.
+   */
+  private enum ConcurrentInsertResult {
+    INSERTED,
+    /**
+     * inserted, but the bufferwrite processor may need to be flushed or closed.
+     */
+    INSERTED_NEED_CHECK,
+    /**
+     * the insertion needs the write lock of the processor.
+     */
+    NOT_INSERTED
+  }
+}
@@ -30,6 +30,7 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -38,12 +39,19 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.apache.iotdb.db.concurrent.HashLock;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
@@ -53,6 +61,7 @@ import org.apache.iotdb.db.engine.bufferwrite.Action;
 import org.apache.iotdb.db.engine.bufferwrite.ActionException;
 import org.apache.iotdb.db.engine.bufferwrite.BufferWriteProcessor;
 import org.apache.iotdb.db.engine.bufferwrite.FileNodeConstants;
+import org.apache.iotdb.db.engine.cache.ChunkCache;
 import org.apache.iotdb.db.engine.modification.Deletion;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
@@ -91,7 +100,10 @@ import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
 import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
 import org.apache.iotdb.tsfile.read.filter.TimeFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
@@ -103,7 +115,9 @@ import org.apache.iotdb.tsfile.write.record.TSRecord;
 import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
 import org.apache.iotdb.tsfile.write.schema.FileSchema;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.apache.iotdb.tsfile.write.writer.DefaultTsFileOutput;
 import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
+import org.apache.iotdb.tsfile.write.writer.TsFileOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -112,6 +126,10 @@ public class FileNodeProcessor extends Processor implements IStatistic {
   private static final String WARN_NO_SUCH_OVERFLOWED_FILE = "Can not find any tsfile which"
       + " will be overflowed in the filenode processor {}, ";
   private static final String RESTORE_FILE_SUFFIX = ".restore";
+  /**
+   * the upper bound of the size of the TsFiles in the smallest tier of compaction.
+   */
+  private static final long COMPACTION_TIER_BASE_SIZE = 1024 * 1024L;
   private static final Logger LOGGER = LoggerFactory.getLogger(FileNodeProcessor.class);
   private static final IoTDBConfig TsFileDBConf = IoTDBDescriptor.getInstance().getConfig();
   private static final MManager mManager = MManager.getInstance();
@@ -138,6 +156,11 @@ public class FileNodeProcessor extends Processor implements IStatistic {
   // last merge time
   private long lastMergeTime = -1;
   private BufferWriteProcessor bufferWriteProcessor = null;
+  /**
+   * serializes the concurrent sequence insertions of the same device, see
+   * {@link FileNodeManager#insert(TSRecord, boolean)}.
+   */
+  private final HashLock deviceLock = new HashLock();
   private OverflowProcessor overflowProcessor = null;
   private Set<Integer> oldMultiPassTokenSet = null;
   private Set<Integer> newMultiPassTokenSet = new HashSet<>();
@@ -207,19 +230,27 @@ public class FileNodeProcessor extends Processor implements IStatistic {
   // Token for query which used to
   private int multiPassLockToken = 0;
   private VersionController versionController;
-  private ReentrantLock mergeDeleteLock = new ReentrantLock();
+  /**
+   * deletions take the write lock, and each merging TsFile holds the read lock until the
+   * modification file of its result is created, so that no deletion is lost by the merged TsFile.
+   */
+  private ReentrantReadWriteLock mergeDeleteLock = new ReentrantReadWriteLock();
 
   /**
-   * This is the modification file of the result of the current merge.
+   * These are the modification files of the results of the TsFiles being merged.
    */
-  private ModificationFile mergingModification;
+  private final Set<ModificationFile> mergingModifications = ConcurrentHashMap.newKeySet();
 
-  private TsFileIOWriter mergeFileWriter = null;
-  private String mergeOutputPath = null;
-  private String mergeBaseDir = null;
-  private String mergeFileName = null;
-  private boolean mergeIsChunkGroupHasData = false;
-  private long mergeStartPos;
+  /**
+   * compactions and merges both replace the TsFiles of the storage group, so they never run at the
+   * same time.
+   */
+  private final ReentrantLock compactionLock = new ReentrantLock();
+
+  /**
+   * whether a compaction task is submitted and not finished yet.
+   */
+  private volatile boolean isCompacting = false;
 
   /**
    * constructor of FileNodeProcessor.
@@ -261,15 +292,16 @@ public class FileNodeProcessor extends Processor implements IStatistic {
           processorName, e);
       throw new FileNodeProcessorException(e);
     }
-    // TODO deep clone the lastupdate time
-    lastUpdateTimeMap = fileNodeProcessorStore.getLastUpdateTimeMap();
+    // the last update times are updated concurrently by the writers of different devices
+    lastUpdateTimeMap = new ConcurrentHashMap<>(fileNodeProcessorStore.getLastUpdateTimeMap());
+    fileNodeProcessorStore.setLastUpdateTimeMap(lastUpdateTimeMap);
     emptyTsFileResource = fileNodeProcessorStore.getEmptyTsFileResource();
     newFileNodes = fileNodeProcessorStore.getNewFileNodes();
     isMerging = fileNodeProcessorStore.getFileNodeProcessorStatus();
     numOfMergeFile = fileNodeProcessorStore.getNumOfMergeFile();
     invertedIndexOfFiles = new HashMap<>();
     // deep clone
-    flushLastUpdateTimeMap = new HashMap<>();
+    flushLastUpdateTimeMap = new ConcurrentHashMap<>();
     for (Entry<String, Long> entry : lastUpdateTimeMap.entrySet()) {
       flushLastUpdateTimeMap.put(entry.getKey(), entry.getValue() + 1);
     }
@@ -372,6 +404,31 @@ public class FileNodeProcessor extends Processor implements IStatistic {
     }
   }
 
+  /**
+   * whether the current TsFile has data of the device, i.e. a sequence insertion of the device
+   * does not change the index of the files.
+   */
+  boolean hasIntervalFileNodeStartTime(String deviceId) {
+    return currentTsFileResource != null && currentTsFileResource.getStartTime(deviceId) != -1;
+  }
+
+  /**
+   * get the bufferwrite processor without creating it.
+   *
+   * @return null if there is no working bufferwrite processor
+   */
+  BufferWriteProcessor getWorkingBufferWriteProcessor() {
+    return bufferWriteProcessor;
+  }
+
+  void lockDevice(String deviceId) {
+    deviceLock.writeLock(deviceId);
+  }
+
+  void unlockDevice(String deviceId) {
+    deviceLock.writeUnlock(deviceId);
+  }
+
   /**
    * clear filenode.
    */
@@ -427,6 +484,20 @@ public class FileNodeProcessor extends Processor implements IStatistic {
     return isMerging;
   }
 
+  /**
+   * used for test. We can check the TsFiles after compaction.
+   */
+  List<TsFileResource> getNewFileNodes() {
+    return newFileNodes;
+  }
+
+  /**
+   * used for test. We can check the inverted index after compaction.
+   */
+  List<TsFileResource> getFilesOfDevice(String deviceId) {
+    return invertedIndexOfFiles.getOrDefault(deviceId, Collections.emptyList());
+  }
+
   /**
    * execute filenode recovery.
    */
@@ -585,9 +656,7 @@ public class FileNodeProcessor extends Processor implements IStatistic {
    * set last update time.
    */
   public void setLastUpdateTime(String deviceId, long timestamp) {
-    if (!lastUpdateTimeMap.containsKey(deviceId) || lastUpdateTimeMap.get(deviceId) < timestamp) {
-      lastUpdateTimeMap.put(deviceId, timestamp);
-    }
+    lastUpdateTimeMap.merge(deviceId, timestamp, Math::max);
   }
 
   /**
@@ -606,10 +675,7 @@ public class FileNodeProcessor extends Processor implements IStatistic {
    * get flush last update time.
    */
   public long getFlushLastUpdateTime(String deviceId) {
-    if (!flushLastUpdateTimeMap.containsKey(deviceId)) {
-      flushLastUpdateTimeMap.put(deviceId, 0L);
-    }
-    return flushLastUpdateTimeMap.get(deviceId);
+    return flushLastUpdateTimeMap.computeIfAbsent(deviceId, k -> 0L);
   }
 
   public Map<String, Long> getLastUpdateTimeMap() {
@@ -1016,6 +1082,33 @@ public class FileNodeProcessor extends Processor implements IStatistic {
     }
   }
 
+  /**
+   * flush the bufferwrite and overflow memtables and wait for them without holding the write lock,
+   * so that <code>prepareForMerge</code> only flushes the data inserted meanwhile and the writes
+   * are not blocked by the whole flush.
+   */
+  private void flushBeforeMerge() {
+    FileNodeFlushFuture flushFuture;
+    writeLock();
+    try {
+      flushFuture = flush();
+    } catch (IOException e) {
+      LOGGER.warn("The filenode processor {} failed to flush before merge.", getProcessorName(),
+          e);
+      return;
+    } finally {
+      writeUnlock();
+    }
+    try {
+      flushFuture.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      LOGGER.warn("The filenode processor {} failed to flush before merge.", getProcessorName(),
+          e);
+    }
+  }
+
   /**
    * Merge this storage group, merge the tsfile data with overflow data.
    */
@@ -1078,45 +1171,25 @@ public class FileNodeProcessor extends Processor implements IStatistic {
         FileNodeProcessorStatus.NONE, FileNodeProcessorStatus.MERGING_WRITE);
     writeUnlock();
 
-    // query tsfile data and overflow data, and merge them
-    int numOfMergeFiles = 0;
-    int allNeedMergeFiles = backupIntervalFiles.size();
     for (TsFileResource backupIntervalFile : backupIntervalFiles) {
-      numOfMergeFiles++;
-      if (backupIntervalFile.getOverflowChangeType() == OverflowChangeType.CHANGED) {
-        // query data and merge
-        String filePathBeforeMerge = backupIntervalFile.getRelativePath();
-        try {
-          LOGGER.info(
-              "The filenode processor {} begins merging the {}/{} tsfile[{}] with "
-                  + "overflow file, the process is {}%",
-              getProcessorName(), numOfMergeFiles, allNeedMergeFiles, filePathBeforeMerge,
-              (int) (((numOfMergeFiles - 1) / (float) allNeedMergeFiles) * 100));
-          long startTime = System.currentTimeMillis();
-          String newFile = queryAndWriteDataForMerge(backupIntervalFile);
-          long endTime = System.currentTimeMillis();
-          long timeConsume = endTime - startTime;
-          ZoneId zoneId = IoTDBDescriptor.getInstance().getConfig().getZoneID();
-          LOGGER.info(
-              "The fileNode processor {} has merged the {}/{} tsfile[{}->{}] over, "
-                  + "start time of merge is {}, end time of merge is {}, "
-                  + "time consumption is {}ms,"
-                  + " the process is {}%",
-              getProcessorName(), numOfMergeFiles, allNeedMergeFiles, filePathBeforeMerge,
-              newFile, ofInstant(Instant.ofEpochMilli(startTime),
-                  zoneId), ofInstant(Instant.ofEpochMilli(endTime), zoneId), timeConsume,
-              numOfMergeFiles / (float) allNeedMergeFiles * 100);
-        } catch (IOException | PathErrorException e) {
-          LOGGER.error("Merge: query and write data error.", e);
-          throw new FileNodeProcessorException(e);
-        }
-      } else if (backupIntervalFile.getOverflowChangeType() == OverflowChangeType.MERGING_CHANGE) {
+      if (backupIntervalFile.getOverflowChangeType() == OverflowChangeType.MERGING_CHANGE) {
         LOGGER.error("The overflowChangeType of backupIntervalFile must not be {}",
             OverflowChangeType.MERGING_CHANGE);
         // handle this error, throw one runtime exception
         throw new FileNodeProcessorException(
             "The overflowChangeType of backupIntervalFile must not be "
                 + OverflowChangeType.MERGING_CHANGE);
+      }
+    }
+    // query tsfile data and overflow data, and merge them. The tsfiles are merged concurrently.
+    int allNeedMergeFiles = backupIntervalFiles.size();
+    AtomicInteger numOfMergedFiles = new AtomicInteger();
+    List<Future<String>> mergeFutures = new ArrayList<>();
+    for (int i = 0; i < allNeedMergeFiles; i++) {
+      TsFileResource backupIntervalFile = backupIntervalFiles.get(i);
+      if (backupIntervalFile.getOverflowChangeType() == OverflowChangeType.CHANGED) {
+        mergeFutures.add(MergeManager.getInstance().submitFileMergeTask(
+            new FileMergeTask(backupIntervalFile, i + 1, allNeedMergeFiles, numOfMergedFiles)));
       } else {
         LOGGER.debug(
             "The filenode processor {} is merging, the interval file {} doesn't "
@@ -1124,6 +1197,7 @@ public class FileNodeProcessor extends Processor implements IStatistic {
             getProcessorName(), backupIntervalFile.getRelativePath());
       }
     }
+    waitForFileMerges(mergeFutures);
 
     // change status from merge to wait
     switchMergeToWaiting(backupIntervalFiles, needEmtpy);
@@ -1132,6 +1206,43 @@ public class FileNodeProcessor extends Processor implements IStatistic {
     switchWaitingToWorking();
   }
 
+  /**
+   * wait for all the merging tsfiles even if one fails, so that no tsfile is being merged after
+   * returning. The tsfiles not started are not merged after a failure.
+   */
+  private void waitForFileMerges(List<Future<String>> mergeFutures)
+      throws FileNodeProcessorException {
+    FileNodeProcessorException failure = null;
+    for (Future<String> mergeFuture : mergeFutures) {
+      try {
+        mergeFuture.get();
+      } catch (CancellationException e) {
+        // cancelled after another tsfile failed
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        cancelFileMerges(mergeFutures);
+        throw new FileNodeProcessorException(e);
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          LOGGER.error("Merge: query and write data error.", e.getCause());
+          failure = e.getCause() instanceof FileNodeProcessorException
+              ? (FileNodeProcessorException) e.getCause()
+              : new FileNodeProcessorException(e.getCause());
+          cancelFileMerges(mergeFutures);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private void cancelFileMerges(List<Future<String>> mergeFutures) {
+    for (Future<String> mergeFuture : mergeFutures) {
+      mergeFuture.cancel(false);
+    }
+  }
+
   private void mergeCheckEmptyFile(Map<String, Long> startTimeMap) {
     if (emptyTsFileResource.getOverflowChangeType() == OverflowChangeType.NO_CHANGE) {
       return;
@@ -1328,27 +1439,11 @@ public class FileNodeProcessor extends Processor implements IStatistic {
       oldMultiPassLock.writeLock().lock();
     }
     try {
+      // the files replaced by the merge are deleted without holding the write lock, no query uses
+      // them while the old multi pass lock is held and no new file is in the list
+      deleteBufferWriteFiles(collectObsoleteBufferWriteFiles());
       writeLock();
       try {
-        // delete the all files which are in the newFileNodes
-        // notice: the last restore file of the interval file
-
-        List<String> bufferwriteDirPathList = directories.getAllTsFileFolders();
-        List<File> bufferwriteDirList = new ArrayList<>();
-        collectBufferWriteDirs(bufferwriteDirPathList, bufferwriteDirList);
-
-        Set<String> bufferFiles = new HashSet<>();
-        collectBufferWriteFiles(bufferFiles);
-
-        // add the restore file, if the last file is not closed
-        if (!newFileNodes.isEmpty() && !newFileNodes.get(newFileNodes.size() - 1).isClosed()) {
-          String bufferFileRestorePath =
-              newFileNodes.get(newFileNodes.size() - 1).getFilePath() + RESTORE_FILE_SUFFIX;
-          bufferFiles.add(bufferFileRestorePath);
-        }
-
-        deleteBufferWriteFiles(bufferwriteDirList, bufferFiles);
-
         // merge switch
         changeFileNodes();
 
@@ -1363,16 +1458,16 @@ public class FileNodeProcessor extends Processor implements IStatistic {
           fileNodeProcessorStore.setEmptyTsFileResource(emptyTsFileResource);
           writeStoreToDisk(fileNodeProcessorStore);
         }
-      } catch (IOException e) {
-        LOGGER.info(
-            "The filenode processor {} encountered an error when its "
-                + "status switched from {} to {}.",
-            getProcessorName(), FileNodeProcessorStatus.NONE,
-            FileNodeProcessorStatus.MERGING_WRITE);
-        throw new FileNodeProcessorException(e);
       } finally {
         writeUnlock();
       }
+    } catch (IOException e) {
+      LOGGER.info(
+          "The filenode processor {} encountered an error when its "
+              + "status switched from {} to {}.",
+          getProcessorName(), FileNodeProcessorStatus.NONE,
+          FileNodeProcessorStatus.MERGING_WRITE);
+      throw new FileNodeProcessorException(e);
     } finally {
       oldMultiPassTokenSet = null;
       if (oldMultiPassLock != null) {
@@ -1409,21 +1504,55 @@ public class FileNodeProcessor extends Processor implements IStatistic {
     }
   }
 
-  private void deleteBufferWriteFiles(List<File> bufferwriteDirList, Set<String> bufferFiles)
-      throws IOException {
-    for (File bufferwriteDir : bufferwriteDirList) {
-      File[] files = bufferwriteDir.listFiles();
-      if (files == null) {
-        continue;
+  /**
+   * list the files in the bufferwrite directories which are not in the newFileNodes, the files
+   * created later are not listed.
+   */
+  private List<File> collectObsoleteBufferWriteFiles() {
+    List<File> obsoleteFiles = new ArrayList<>();
+    readLock();
+    try {
+      // delete the all files which are not in the newFileNodes
+      // notice: the last restore file of the interval file
+
+      List<String> bufferwriteDirPathList = directories.getAllTsFileFolders();
+      List<File> bufferwriteDirList = new ArrayList<>();
+      collectBufferWriteDirs(bufferwriteDirPathList, bufferwriteDirList);
+
+      Set<String> bufferFiles = new HashSet<>();
+      collectBufferWriteFiles(bufferFiles);
+
+      // add the restore file, if the last file is not closed
+      if (!newFileNodes.isEmpty() && !newFileNodes.get(newFileNodes.size() - 1).isClosed()) {
+        String bufferFileRestorePath =
+            newFileNodes.get(newFileNodes.size() - 1).getFilePath() + RESTORE_FILE_SUFFIX;
+        bufferFiles.add(bufferFileRestorePath);
       }
-      for (File file : files) {
-        if (!bufferFiles.contains(file.getPath())) {
-          FileReaderManager.getInstance().closeFileAndRemoveReader(file.getPath());
-          if (!file.delete()) {
-            LOGGER.warn("Cannot delete BufferWrite file {}", file.getPath());
+
+      for (File bufferwriteDir : bufferwriteDirList) {
+        File[] files = bufferwriteDir.listFiles();
+        if (files == null) {
+          continue;
+        }
+        for (File file : files) {
+          if (!bufferFiles.contains(file.getPath())) {
+            obsoleteFiles.add(file);
           }
         }
       }
+    } finally {
+      readUnlock();
+    }
+    return obsoleteFiles;
+  }
+
+  private void deleteBufferWriteFiles(List<File> obsoleteFiles) throws IOException {
+    for (File file : obsoleteFiles) {
+      FileReaderManager.getInstance().closeFileAndRemoveReader(file.getPath());
+      ChunkCache.getInstance().remove(file.getPath());
+      if (!file.delete()) {
+        LOGGER.warn("Cannot delete BufferWrite file {}", file.getPath());
+      }
     }
   }
 
@@ -1435,149 +1564,386 @@ public class FileNodeProcessor extends Processor implements IStatistic {
     }
   }
 
-  private String queryAndWriteDataForMerge(TsFileResource backupIntervalFile)
-      throws IOException, FileNodeProcessorException, PathErrorException {
-    Map<String, Long> startTimeMap = new HashMap<>();
-    Map<String, Long> endTimeMap = new HashMap<>();
+  /**
+   * merges a tsfile with the overflow data into a new tsfile. The tsfiles of a storage group are
+   * merged concurrently, so each task keeps the state of its own merged tsfile.
+   */
+  private class FileMergeTask implements Callable<String> {
+
+    private TsFileResource backupIntervalFile;
+    private int fileIndex;
+    private int fileNum;
+    private AtomicInteger numOfMergedFiles;
+
+    private Map<String, Long> startTimeMap = new HashMap<>();
+    private Map<String, Long> endTimeMap = new HashMap<>();
+    private TsFileIOWriter mergeFileWriter = null;
+    private String mergeOutputPath = null;
+    private String mergeBaseDir = null;
+    private String mergeFileName = null;
+    private boolean mergeIsChunkGroupHasData = false;
+    private long mergeStartPos;
+    private long mergeWrittenPos = 0;
+    private boolean holdMergeDeleteLock = false;
+
+    /**
+     * This is the modification file of the result of this merge.
+     */
+    private ModificationFile mergingModification;
+
+    private FileMergeTask(TsFileResource backupIntervalFile, int fileIndex, int fileNum,
+        AtomicInteger numOfMergedFiles) {
+      this.backupIntervalFile = backupIntervalFile;
+      this.fileIndex = fileIndex;
+      this.fileNum = fileNum;
+      this.numOfMergedFiles = numOfMergedFiles;
+    }
 
-    mergeFileWriter = null;
-    mergeOutputPath = null;
-    mergeBaseDir = null;
-    mergeFileName = null;
-    // modifications are blocked before mergeModification is created to avoid
-    // losing some modification.
-    mergeDeleteLock.lock();
-    QueryContext context = new QueryContext();
-    try {
-      FileReaderManager.getInstance().increaseFileReaderReference(backupIntervalFile.getFilePath(),
-          true);
-      for (String deviceId : backupIntervalFile.getStartTimeMap().keySet()) {
-        // query one deviceId
-        List<Path> pathList = new ArrayList<>();
-        mergeIsChunkGroupHasData = false;
-        mergeStartPos = -1;
-        ChunkGroupFooter footer;
-        int numOfChunk = 0;
-        try {
-          List<String> pathStrings = mManager.getLeafNodePathInNextLevel(deviceId);
-          for (String string : pathStrings) {
-            pathList.add(new Path(string));
-          }
-        } catch (PathErrorException e) {
-          LOGGER.error("Can't get all the paths from MManager, the deviceId is {}", deviceId);
-          throw new FileNodeProcessorException(e);
-        }
-        if (pathList.isEmpty()) {
-          continue;
+    @Override
+    public String call() throws IOException, FileNodeProcessorException, PathErrorException {
+      String filePathBeforeMerge = backupIntervalFile.getRelativePath();
+      LOGGER.info(
+          "The filenode processor {} begins merging the {}/{} tsfile[{}] with "
+              + "overflow file, the process is {}%",
+          getProcessorName(), fileIndex, fileNum, filePathBeforeMerge,
+          (int) ((numOfMergedFiles.get() / (float) fileNum) * 100));
+      long startTime = System.currentTimeMillis();
+      String newFile;
+      try {
+        newFile = queryAndWriteDataForMerge();
+      } finally {
+        if (mergingModification != null) {
+          mergingModifications.remove(mergingModification);
         }
-        for (Path path : pathList) {
-          // query one measurement in the special deviceId
-          String measurementId = path.getMeasurement();
-          TSDataType dataType = mManager.getSeriesType(path.getFullPath());
-          OverflowSeriesDataSource overflowSeriesDataSource = overflowProcessor.queryMerge(deviceId,
-              measurementId, dataType, true, context);
-          Filter timeFilter = FilterFactory
-              .and(TimeFilter.gtEq(backupIntervalFile.getStartTime(deviceId)),
-                  TimeFilter.ltEq(backupIntervalFile.getEndTime(deviceId)));
-          SingleSeriesExpression seriesFilter = new SingleSeriesExpression(path, timeFilter);
-
-          for (OverflowInsertFile overflowInsertFile : overflowSeriesDataSource.getOverflowInsertFileList()) {
-            FileReaderManager.getInstance().increaseFileReaderReference(overflowInsertFile.getFilePath(),
-                false);
+      }
+      long endTime = System.currentTimeMillis();
+      long timeConsume = endTime - startTime;
+      ZoneId zoneId = IoTDBDescriptor.getInstance().getConfig().getZoneID();
+      LOGGER.info(
+          "The fileNode processor {} has merged the {}/{} tsfile[{}->{}] over, "
+              + "start time of merge is {}, end time of merge is {}, "
+              + "time consumption is {}ms,"
+              + " the process is {}%",
+          getProcessorName(), fileIndex, fileNum, filePathBeforeMerge,
+          newFile, ofInstant(Instant.ofEpochMilli(startTime),
+              zoneId), ofInstant(Instant.ofEpochMilli(endTime), zoneId), timeConsume,
+          numOfMergedFiles.incrementAndGet() / (float) fileNum * 100);
+      return newFile;
+    }
+
+    private String queryAndWriteDataForMerge()
+        throws IOException, FileNodeProcessorException, PathErrorException {
+      // modifications are blocked before mergeModification is created to avoid
+      // losing some modification.
+      mergeDeleteLock.readLock().lock();
+      holdMergeDeleteLock = true;
+      QueryContext context = new QueryContext();
+      try {
+        FileReaderManager.getInstance()
+            .increaseFileReaderReference(backupIntervalFile.getFilePath(), true);
+        for (String deviceId : backupIntervalFile.getStartTimeMap().keySet()) {
+          // query one deviceId
+          List<Path> pathList = new ArrayList<>();
+          mergeIsChunkGroupHasData = false;
+          mergeStartPos = -1;
+          ChunkGroupFooter footer;
+          int numOfChunk = 0;
+          try {
+            List<String> pathStrings = mManager.getLeafNodePathInNextLevel(deviceId);
+            for (String string : pathStrings) {
+              pathList.add(new Path(string));
+            }
+          } catch (PathErrorException e) {
+            LOGGER.error("Can't get all the paths from MManager, the deviceId is {}", deviceId);
+            throw new FileNodeProcessorException(e);
+          }
+          if (pathList.isEmpty()) {
+            continue;
+          }
+          for (Path path : pathList) {
+            // query one measurement in the special deviceId
+            String measurementId = path.getMeasurement();
+            TSDataType dataType = mManager.getSeriesType(path.getFullPath());
+            OverflowSeriesDataSource overflowSeriesDataSource = overflowProcessor
+                .queryMerge(deviceId, measurementId, dataType, true, context);
+            Filter timeFilter = FilterFactory
+                .and(TimeFilter.gtEq(backupIntervalFile.getStartTime(deviceId)),
+                    TimeFilter.ltEq(backupIntervalFile.getEndTime(deviceId)));
+            SingleSeriesExpression seriesFilter = new SingleSeriesExpression(path, timeFilter);
+
+            for (OverflowInsertFile overflowInsertFile : overflowSeriesDataSource
+                .getOverflowInsertFileList()) {
+              FileReaderManager.getInstance()
+                  .increaseFileReaderReference(overflowInsertFile.getFilePath(), false);
+            }
+
+            if (IoTDBDescriptor.getInstance().getConfig().isEnableMergeChunkCopy()) {
+              numOfChunk += copyAndMergeSeries(path, seriesFilter, dataType,
+                  overflowSeriesDataSource, context);
+            } else {
+              IReader seriesReader = SeriesReaderFactory.getInstance()
+                  .createSeriesReaderForMerge(backupIntervalFile,
+                      overflowSeriesDataSource, seriesFilter, context);
+              numOfChunk += queryAndWriteSeries(seriesReader, path, seriesFilter, dataType,
+                  overflowSeriesDataSource);
+            }
+          }
+          if (mergeIsChunkGroupHasData) {
+            // end the new rowGroupMetadata
+            long size = mergeFileWriter.getPos() - mergeStartPos;
+            footer = new ChunkGroupFooter(deviceId, size, numOfChunk);
+            mergeFileWriter.endChunkGroup(footer, 0);
+            acquireWrittenBytes();
           }
-
-          IReader seriesReader = SeriesReaderFactory.getInstance()
-              .createSeriesReaderForMerge(backupIntervalFile,
-                  overflowSeriesDataSource, seriesFilter, context);
-          numOfChunk += queryAndWriteSeries(seriesReader, path, seriesFilter, dataType,
-              startTimeMap, endTimeMap, overflowSeriesDataSource);
         }
-        if (mergeIsChunkGroupHasData) {
-          // end the new rowGroupMetadata
-          long size = mergeFileWriter.getPos() - mergeStartPos;
-          footer = new ChunkGroupFooter(deviceId, size, numOfChunk);
-          mergeFileWriter.endChunkGroup(footer, 0);
+      } finally {
+        FileReaderManager.getInstance()
+            .decreaseFileReaderReference(backupIntervalFile.getFilePath(), true);
+
+        if (holdMergeDeleteLock) {
+          holdMergeDeleteLock = false;
+          mergeDeleteLock.readLock().unlock();
         }
       }
-    } finally {
-      FileReaderManager.getInstance().decreaseFileReaderReference(backupIntervalFile.getFilePath(),
-          true);
 
-      if (mergeDeleteLock.isLocked()) {
-        mergeDeleteLock.unlock();
+      if (mergeFileWriter != null) {
+        mergeFileWriter.endFile(fileSchema);
       }
+      backupIntervalFile.setBaseDirIndex(directories.getTsFileFolderIndex(mergeBaseDir));
+      backupIntervalFile.setRelativePath(mergeFileName);
+      backupIntervalFile.setOverflowChangeType(OverflowChangeType.NO_CHANGE);
+      backupIntervalFile.setStartTimeMap(startTimeMap);
+      backupIntervalFile.setEndTimeMap(endTimeMap);
+      backupIntervalFile.setModFile(mergingModification);
+      return mergeFileName;
     }
 
-    if (mergeFileWriter != null) {
-      mergeFileWriter.endFile(fileSchema);
+    private int queryAndWriteSeries(IReader seriesReader, Path path,
+        SingleSeriesExpression seriesFilter, TSDataType dataType,
+        OverflowSeriesDataSource overflowSeriesDataSource)
+        throws IOException {
+      int numOfChunk = 0;
+      try {
+        if (!seriesReader.hasNext()) {
+          LOGGER.debug(
+              "The time-series {} has no data with the filter {} in the filenode processor {}",
+              path, seriesFilter, getProcessorName());
+        } else {
+          numOfChunk++;
+          TimeValuePair timeValuePair = seriesReader.next();
+          startMergeChunkGroup(path.getDevice(), timeValuePair.getTimestamp());
+          ChunkWriterImpl seriesWriterImpl = createMergeChunkWriter(path);
+          // write the series data
+          writeOneSeries(path.getDevice(), seriesWriterImpl, dataType,
+              seriesReader,
+              startTimeMap, endTimeMap, timeValuePair);
+          // flush the series data
+          seriesWriterImpl.writeToFileWriter(mergeFileWriter);
+          acquireWrittenBytes();
+        }
+      } finally {
+        for (OverflowInsertFile overflowInsertFile : overflowSeriesDataSource
+            .getOverflowInsertFileList()) {
+          FileReaderManager.getInstance()
+              .decreaseFileReaderReference(overflowInsertFile.getFilePath(), false);
+        }
+      }
+      return numOfChunk;
+    }
+
+    /**
+     * merge a series of the TsFile with the overflow data chunk by chunk. The chunks of the TsFile
+     * that no overflow data overlaps and no deletion touches are copied into the merged TsFile
+     * without being decoded. The other chunks and the overflow data are merged into new chunks,
+     * which are written between the copied chunks in time order.
+     *
+     * @return the number of chunks written into the merged TsFile
+     */
+    private int copyAndMergeSeries(Path path, SingleSeriesExpression seriesFilter,
+        TSDataType dataType, OverflowSeriesDataSource overflowSeriesDataSource,
+        QueryContext context)
+        throws IOException {
+      String deviceId = path.getDevice();
+      int numOfChunk = 0;
+      try {
+        TsFileSequenceReader tsFileReader = FileReaderManager.getInstance()
+            .get(backupIntervalFile.getFilePath(), true);
+        List<ChunkMetaData> chunkMetaDataList = new MetadataQuerierByFileImpl(tsFileReader)
+            .getChunkMetaDataList(path);
+        QueryUtils.modifyChunkMetaData(chunkMetaDataList, context
+            .getPathModifications(backupIntervalFile.getModFile(), path.getFullPath()));
+
+        List<ChunkMetaData> copiedChunks = new ArrayList<>();
+        List<ChunkMetaData> mergedChunks = new ArrayList<>();
+        for (ChunkMetaData chunkMetaData : chunkMetaDataList) {
+          if (canCopyChunk(chunkMetaData, backupIntervalFile.getStartTime(deviceId),
+              backupIntervalFile.getEndTime(deviceId), overflowSeriesDataSource)) {
+            copiedChunks.add(chunkMetaData);
+          } else {
+            mergedChunks.add(chunkMetaData);
+          }
+        }
+        LOGGER.debug("Merge {}: {} chunks are copied and {} chunks are merged.", path,
+            copiedChunks.size(), mergedChunks.size());
+
+        IReader seriesReader = SeriesReaderFactory.getInstance()
+            .createSeriesReaderForMerge(backupIntervalFile, mergedChunks,
+                overflowSeriesDataSource, seriesFilter, context);
+        ChunkWriterImpl seriesWriterImpl = null;
+        long chunkStartTime = 0;
+        long chunkEndTime = 0;
+        int copiedIndex = 0;
+        while (seriesReader.hasNext()) {
+          TimeValuePair timeValuePair = seriesReader.next();
+          long time = timeValuePair.getTimestamp();
+          // the merged data never overlaps the copied chunks
+          while (copiedIndex < copiedChunks.size()
+              && copiedChunks.get(copiedIndex).getStartTime() < time) {
+            if (seriesWriterImpl != null) {
+              seriesWriterImpl.writeToFileWriter(mergeFileWriter);
+              acquireWrittenBytes();
+              seriesWriterImpl = null;
+              numOfChunk++;
+              updateMergeTimeRange(deviceId, chunkStartTime, chunkEndTime, startTimeMap,
+                  endTimeMap);
+            }
+            copyChunk(tsFileReader, deviceId, copiedChunks.get(copiedIndex++));
+            numOfChunk++;
+          }
+          if (seriesWriterImpl == null) {
+            startMergeChunkGroup(deviceId, time);
+            seriesWriterImpl = createMergeChunkWriter(path);
+            chunkStartTime = time;
+          }
+          writeTVPair(seriesWriterImpl, dataType, timeValuePair);
+          chunkEndTime = time;
+        }
+        if (seriesWriterImpl != null) {
+          seriesWriterImpl.writeToFileWriter(mergeFileWriter);
+          acquireWrittenBytes();
+          numOfChunk++;
+          updateMergeTimeRange(deviceId, chunkStartTime, chunkEndTime, startTimeMap, endTimeMap);
+        }
+        while (copiedIndex < copiedChunks.size()) {
+          copyChunk(tsFileReader, deviceId, copiedChunks.get(copiedIndex++));
+          numOfChunk++;
+        }
+        if (numOfChunk == 0) {
+          LOGGER.debug(
+              "The time-series {} has no data with the filter {} in the filenode processor {}",
+              path, seriesFilter, getProcessorName());
+        }
+      } finally {
+        for (OverflowInsertFile overflowInsertFile : overflowSeriesDataSource
+            .getOverflowInsertFileList()) {
+          FileReaderManager.getInstance()
+              .decreaseFileReaderReference(overflowInsertFile.getFilePath(), false);
+        }
+      }
+      return numOfChunk;
+    }
+
+    private void copyChunk(TsFileSequenceReader tsFileReader, String deviceId,
+        ChunkMetaData chunkMetaData) throws IOException {
+      startMergeChunkGroup(deviceId, chunkMetaData.getStartTime());
+      // read the chunk without the chunk cache, as it is not queried
+      Chunk chunk = tsFileReader.readMemChunk(chunkMetaData);
+      MergeManager.getInstance().acquireReadBytes(
+          (long) chunk.getHeader().getSerializedSize() + chunk.getHeader().getDataSize());
+      mergeFileWriter.writeChunk(chunk, chunkMetaData);
+      acquireWrittenBytes();
+      updateMergeTimeRange(deviceId, chunkMetaData.getStartTime(), chunkMetaData.getEndTime(),
+          startTimeMap, endTimeMap);
+    }
+
+    /**
+     * create the merged TsFile if it has not been created, and start the chunk group of the device
+     * if it has not been started.
+     *
+     * @param firstTime the time of the first point written into the merged TsFile, which names the
+     * file
+     */
+    private void startMergeChunkGroup(String deviceId, long firstTime) throws IOException {
+      if (mergeFileWriter == null) {
+        mergeBaseDir = directories.getNextFolderForTsfile();
+        mergeFileName = firstTime
+            + FileNodeConstants.BUFFERWRITE_FILE_SEPARATOR + System.currentTimeMillis();
+        mergeOutputPath = constructOutputFilePath(mergeBaseDir, getProcessorName(),
+            mergeFileName);
+        mergeFileName = getProcessorName() + File.separatorChar + mergeFileName;
+        mergeFileWriter = new TsFileIOWriter(new File(mergeOutputPath));
+        mergingModification = new ModificationFile(mergeOutputPath
+            + ModificationFile.FILE_SUFFIX);
+        mergingModifications.add(mergingModification);
+        holdMergeDeleteLock = false;
+        mergeDeleteLock.readLock().unlock();
+      }
+      if (!mergeIsChunkGroupHasData) {
+        // start a new rowGroupMetadata
+        mergeIsChunkGroupHasData = true;
+        // the datasize and numOfChunk is fake
+        // the accurate datasize and numOfChunk will get after write all this device data.
+        mergeFileWriter.startFlushChunkGroup(deviceId);// TODO please check me.
+        mergeStartPos = mergeFileWriter.getPos();
+      }
+    }
+
+    /**
+     * count the bytes written into the merged TsFile since the last call into the throughput of
+     * merge.
+     */
+    private void acquireWrittenBytes() throws IOException {
+      long pos = mergeFileWriter.getPos();
+      MergeManager.getInstance().acquireWriteBytes(pos - mergeWrittenPos);
+      mergeWrittenPos = pos;
     }
-    backupIntervalFile.setBaseDirIndex(directories.getTsFileFolderIndex(mergeBaseDir));
-    backupIntervalFile.setRelativePath(mergeFileName);
-    backupIntervalFile.setOverflowChangeType(OverflowChangeType.NO_CHANGE);
-    backupIntervalFile.setStartTimeMap(startTimeMap);
-    backupIntervalFile.setEndTimeMap(endTimeMap);
-    backupIntervalFile.setModFile(mergingModification);
-    mergingModification = null;
-    return mergeFileName;
   }
 
-  private int queryAndWriteSeries(IReader seriesReader, Path path,
-      SingleSeriesExpression seriesFilter, TSDataType dataType,
-      Map<String, Long> startTimeMap, Map<String, Long> endTimeMap,
-      OverflowSeriesDataSource overflowSeriesDataSource)
-      throws IOException {
-    int numOfChunk = 0;
-    try {
-      if (!seriesReader.hasNext()) {
-        LOGGER.debug(
-            "The time-series {} has no data with the filter {} in the filenode processor {}",
-            path, seriesFilter, getProcessorName());
-      } else {
-        numOfChunk++;
-        TimeValuePair timeValuePair = seriesReader.next();
-        if (mergeFileWriter == null) {
-          mergeBaseDir = directories.getNextFolderForTsfile();
-          mergeFileName = timeValuePair.getTimestamp()
-              + FileNodeConstants.BUFFERWRITE_FILE_SEPARATOR + System.currentTimeMillis();
-          mergeOutputPath = constructOutputFilePath(mergeBaseDir, getProcessorName(),
-              mergeFileName);
-          mergeFileName = getProcessorName() + File.separatorChar + mergeFileName;
-          mergeFileWriter = new TsFileIOWriter(new File(mergeOutputPath));
-          mergingModification = new ModificationFile(mergeOutputPath
-              + ModificationFile.FILE_SUFFIX);
-          mergeDeleteLock.unlock();
-        }
-        if (!mergeIsChunkGroupHasData) {
-          // start a new rowGroupMetadata
-          mergeIsChunkGroupHasData = true;
-          // the datasize and numOfChunk is fake
-          // the accurate datasize and numOfChunk will get after write all this device data.
-          mergeFileWriter.startFlushChunkGroup(path.getDevice());// TODO please check me.
-          mergeStartPos = mergeFileWriter.getPos();
-        }
-        // init the serieswWriteImpl
-        MeasurementSchema measurementSchema = fileSchema
-            .getMeasurementSchema(path.getMeasurement());
-        ChunkBuffer pageWriter = new ChunkBuffer(measurementSchema);
-        int pageSizeThreshold = TSFileConfig.pageSizeInByte;
-        ChunkWriterImpl seriesWriterImpl = new ChunkWriterImpl(measurementSchema, pageWriter,
-            pageSizeThreshold);
-        // write the series data
-        writeOneSeries(path.getDevice(), seriesWriterImpl, dataType,
-            seriesReader,
-            startTimeMap, endTimeMap, timeValuePair);
-        // flush the series data
-        seriesWriterImpl.writeToFileWriter(mergeFileWriter);
+  /**
+   * whether a chunk of the TsFile can be copied into the merged TsFile as it is, which requires
+   * the chunk to be in the time range of the TsFile, not touched by any deletion and not overlapped
+   * by any overflow data.
+   */
+  static boolean canCopyChunk(ChunkMetaData chunkMetaData, long startTime, long endTime,
+      OverflowSeriesDataSource overflowSeriesDataSource) {
+    if (chunkMetaData.getStartTime() < startTime || chunkMetaData.getEndTime() > endTime
+        || chunkMetaData.getDeletedAt() >= chunkMetaData.getStartTime()
+        || overflowSeriesDataSource.hasRawChunk()) {
+      return false;
+    }
+    for (OverflowInsertFile overflowInsertFile : overflowSeriesDataSource
+        .getOverflowInsertFileList()) {
+      if (overflowInsertFile.getChunkMetaDataList() == null) {
+        continue;
       }
-    } finally {
-      for (OverflowInsertFile overflowInsertFile : overflowSeriesDataSource.getOverflowInsertFileList()) {
-        FileReaderManager.getInstance().decreaseFileReaderReference(overflowInsertFile.getFilePath(),
-                false);
+      for (ChunkMetaData overflowChunk : overflowInsertFile.getChunkMetaDataList()) {
+        if (overflowChunk.getStartTime() <= chunkMetaData.getEndTime()
+            && overflowChunk.getEndTime() >= chunkMetaData.getStartTime()) {
+          return false;
+        }
       }
     }
-    return numOfChunk;
+    return true;
+  }
+
+  private ChunkWriterImpl createMergeChunkWriter(Path path) {
+    MeasurementSchema measurementSchema = fileSchema
+        .getMeasurementSchema(path.getMeasurement());
+    ChunkBuffer pageWriter = new ChunkBuffer(measurementSchema);
+    int pageSizeThreshold = TSFileConfig.pageSizeInByte;
+    // the data has been filtered when it is flushed
+    return new ChunkWriterImpl(measurementSchema, pageWriter, pageSizeThreshold, false);
   }
 
+  private void updateMergeTimeRange(String deviceId, long startTime, long endTime,
+      Map<String, Long> startTimeMap, Map<String, Long> endTimeMap) {
+    if (!startTimeMap.containsKey(deviceId) || startTimeMap.get(deviceId) > startTime) {
+      startTimeMap.put(deviceId, startTime);
+    }
+    if (!endTimeMap.containsKey(deviceId) || endTimeMap.get(deviceId) < endTime) {
+      endTimeMap.put(deviceId, endTime);
+    }
+  }
 
   private void writeOneSeries(String deviceId, ChunkWriterImpl seriesWriterImpl,
       TSDataType dataType, IReader seriesReader, Map<String, Long> startTimeMap,
@@ -1660,8 +2026,367 @@ public class FileNodeProcessor extends Processor implements IStatistic {
 
   }
 
+  /**
+   * submit a compaction task of the small sealed TsFiles to the <code>MergePool</code> if enough
+   * of them are adjacent and no compaction is running.
+   *
+   * @return null if no compaction task is submitted
+   */
+  public Future submitToCompact() {
+    if (!TsFileDBConf.isEnableCompaction() || isCompacting
+        || selectCompactionFiles().isEmpty()) {
+      return null;
+    }
+    isCompacting = true;
+    try {
+      LOGGER.info("Submit the compaction task, the filenode is {}", getProcessorName());
+      return MergeManager.getInstance().submit(new CompactionTask());
+    } catch (RejectedExecutionException e) {
+      isCompacting = false;
+      LOGGER.warn("The compaction task of the filenode processor {} is rejected.",
+          getProcessorName(), e);
+      return null;
+    }
+  }
+
+  /**
+   * select the first run of adjacent sealed TsFiles of the same size tier whose length reaches
+   * the compaction file number. The TsFiles of tier k are smaller than COMPACTION_TIER_BASE_SIZE *
+   * compactionFileNum^k bytes and not smaller than the bound of tier k-1, so a compacted TsFile
+   * usually moves up one tier. The working TsFile, the TsFiles changed by overflow data and the
+   * TsFiles reaching the size threshold of bufferwrite break the run, and so do two TsFiles whose
+   * time ranges of a device overlap.
+   *
+   * @return an empty list if no TsFiles should be compacted
+   */
+  private List<TsFileResource> selectCompactionFiles() {
+    if (isMerging != FileNodeProcessorStatus.NONE) {
+      return Collections.emptyList();
+    }
+    int compactionFileNum = TsFileDBConf.getCompactionFileNum();
+    long maxFileSize = TsFileDBConf.getBufferwriteFileSizeThreshold();
+    List<TsFileResource> selectedFiles = new ArrayList<>();
+    long selectedSize = 0;
+    int selectedTier = -1;
+    for (TsFileResource tsFileResource : newFileNodes) {
+      long fileSize = canBeCompacted(tsFileResource)
+          ? new File(tsFileResource.getFilePath()).length() : maxFileSize;
+      if (fileSize >= maxFileSize) {
+        selectedFiles.clear();
+        selectedSize = 0;
+        continue;
+      }
+      int tier = getCompactionTier(fileSize, compactionFileNum);
+      if (tier != selectedTier || selectedSize + fileSize >= maxFileSize
+          || (!selectedFiles.isEmpty()
+          && isOverlapped(selectedFiles.get(selectedFiles.size() - 1), tsFileResource))) {
+        selectedFiles.clear();
+        selectedSize = 0;
+      }
+      selectedFiles.add(tsFileResource);
+      selectedSize += fileSize;
+      selectedTier = tier;
+      if (selectedFiles.size() >= compactionFileNum) {
+        return selectedFiles;
+      }
+    }
+    return Collections.emptyList();
+  }
+
+  private boolean canBeCompacted(TsFileResource tsFileResource) {
+    return tsFileResource != currentTsFileResource && tsFileResource.isClosed()
+        && tsFileResource.getOverflowChangeType() == OverflowChangeType.NO_CHANGE
+        && !tsFileResource.getStartTimeMap().isEmpty() && tsFileResource.getFilePath() != null;
+  }
+
+  static int getCompactionTier(long fileSize, int compactionFileNum) {
+    int tier = 0;
+    long bound = COMPACTION_TIER_BASE_SIZE;
+    while (fileSize >= bound && bound <= Long.MAX_VALUE / compactionFileNum) {
+      bound *= compactionFileNum;
+      tier++;
+    }
+    return tier;
+  }
+
+  /**
+   * whether the time range of a device in the former TsFile reaches the one in the latter TsFile.
+   */
+  private static boolean isOverlapped(TsFileResource former, TsFileResource latter) {
+    for (Entry<String, Long> startTimeEntry : latter.getStartTimeMap().entrySet()) {
+      String deviceId = startTimeEntry.getKey();
+      if (former.getEndTimeMap().containsKey(deviceId)
+          && former.getEndTime(deviceId) >= startTimeEntry.getValue()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * compacts the groups of small sealed TsFiles one after another until no group is left. The
+   * chunks of a series in a group are rewritten into one chunk, so the compacted TsFile has one
+   * chunk group per device.
+   */
+  private class CompactionTask implements Runnable {
+
+    @Override
+    public void run() {
+      compactionLock.lock();
+      try {
+        List<TsFileResource> compactionFiles = selectFilesToCompact();
+        while (!compactionFiles.isEmpty() && compact(compactionFiles)) {
+          compactionFiles = selectFilesToCompact();
+        }
+      } catch (IOException | PathErrorException | FileNodeProcessorException e) {
+        LOGGER.error("The filenode processor {} encountered an error when compacting.",
+            getProcessorName(), e);
+      } finally {
+        isCompacting = false;
+        compactionLock.unlock();
+      }
+    }
+
+    private List<TsFileResource> selectFilesToCompact() {
+      writeLock();
+      try {
+        return new ArrayList<>(selectCompactionFiles());
+      } finally {
+        writeUnlock();
+      }
+    }
+
+    /**
+     * @return false if the TsFiles are no longer adjacent after being compacted, then the
+     * compacted TsFile is discarded.
+     */
+    private boolean compact(List<TsFileResource> compactionFiles)
+        throws IOException, PathErrorException, FileNodeProcessorException {
+      long startTime = System.currentTimeMillis();
+      Map<String, Long> startTimeMap = new HashMap<>();
+      Map<String, Long> endTimeMap = new HashMap<>();
+      for (TsFileResource compactionFile : compactionFiles) {
+        for (Entry<String, Long> startTimeEntry : compactionFile.getStartTimeMap().entrySet()) {
+          String deviceId = startTimeEntry.getKey();
+          updateMergeTimeRange(deviceId, startTimeEntry.getValue(),
+              compactionFile.getEndTime(deviceId), startTimeMap, endTimeMap);
+        }
+      }
+      String baseDir = directories.getNextFolderForTsfile();
+      String fileName = Collections.min(startTimeMap.values())
+          + FileNodeConstants.BUFFERWRITE_FILE_SEPARATOR + System.currentTimeMillis();
+      String outputPath = constructOutputFilePath(baseDir, getProcessorName(), fileName);
+      fileName = getProcessorName() + File.separatorChar + fileName;
+      ModificationFile compactionModification = new ModificationFile(outputPath
+          + ModificationFile.FILE_SUFFIX);
+      // the deletions after this are also written into the compacted TsFile
+      mergeDeleteLock.readLock().lock();
+      try {
+        mergingModifications.add(compactionModification);
+      } finally {
+        mergeDeleteLock.readLock().unlock();
+      }
+      boolean switched = false;
+      try {
+        writeCompactedFile(compactionFiles, outputPath);
+        TsFileResource compactedFile = new TsFileResource(startTimeMap, endTimeMap,
+            OverflowChangeType.NO_CHANGE, directories.getTsFileFolderIndex(baseDir), fileName);
+        compactedFile.setModFile(compactionModification);
+        switched = switchCompactedFiles(compactionFiles, compactedFile);
+      } finally {
+        mergingModifications.remove(compactionModification);
+        if (!switched) {
+          deleteModificationFile(compactionModification);
+          if (!new File(outputPath).delete()) {
+            LOGGER.warn("Cannot delete the compacted file {}", outputPath);
+          }
+        }
+      }
+      if (switched) {
+        LOGGER.info("The filenode processor {} has compacted {} tsfiles into {}, "
+                + "time consumption is {}ms.", getProcessorName(), compactionFiles.size(),
+            fileName, System.currentTimeMillis() - startTime);
+      } else {
+        LOGGER.warn("The tsfiles of the filenode processor {} changed while being compacted, "
+            + "the compacted file {} is discarded.", getProcessorName(), fileName);
+      }
+      return switched;
+    }
+
+    private void writeCompactedFile(List<TsFileResource> compactionFiles, String outputPath)
+        throws IOException, PathErrorException {
+      QueryContext context = new QueryContext();
+      List<MetadataQuerierByFileImpl> metadataQueriers = new ArrayList<>();
+      Set<String> deviceIds = new HashSet<>();
+      for (TsFileResource compactionFile : compactionFiles) {
+        FileReaderManager.getInstance()
+            .increaseFileReaderReference(compactionFile.getFilePath(), true);
+      }
+      try {
+        for (TsFileResource compactionFile : compactionFiles) {
+          metadataQueriers.add(new MetadataQuerierByFileImpl(
+              FileReaderManager.getInstance().get(compactionFile.getFilePath(), true)));
+          deviceIds.addAll(compactionFile.getStartTimeMap().keySet());
+        }
+        TsFileOutput output = new DefaultTsFileOutput(new File(outputPath));
+        try {
+          TsFileIOWriter compactionWriter = new TsFileIOWriter(output, new ArrayList<>());
+          for (String deviceId : deviceIds) {
+            compactDevice(deviceId, compactionFiles, metadataQueriers, compactionWriter, context);
+          }
+          compactionWriter.endFile(fileSchema);
+        } finally {
+          // endFile has closed it unless the compaction failed
+          output.close();
+        }
+      } finally {
+        for (TsFileResource compactionFile : compactionFiles) {
+          FileReaderManager.getInstance()
+              .decreaseFileReaderReference(compactionFile.getFilePath(), true);
+        }
+      }
+    }
+
+    private void compactDevice(String deviceId, List<TsFileResource> compactionFiles,
+        List<MetadataQuerierByFileImpl> metadataQueriers, TsFileIOWriter compactionWriter,
+        QueryContext context) throws IOException, PathErrorException {
+      long startPos = -1;
+      int numOfChunk = 0;
+      for (String pathString : mManager.getLeafNodePathInNextLevel(deviceId)) {
+        Path path = new Path(pathString);
+        TSDataType dataType = mManager.getSeriesType(pathString);
+        ChunkWriterImpl seriesWriter = null;
+        for (int i = 0; i < compactionFiles.size(); i++) {
+          TsFileResource compactionFile = compactionFiles.get(i);
+          if (!compactionFile.containsDevice(deviceId)) {
+            continue;
+          }
+          List<ChunkMetaData> metaDataList = metadataQueriers.get(i).getChunkMetaDataList(path);
+          List<Modification> pathModifications = context
+              .getPathModifications(compactionFile.getModFile(), pathString);
+          if (!pathModifications.isEmpty()) {
+            QueryUtils.modifyChunkMetaData(metaDataList, pathModifications);
+          }
+          IReader seriesReader = SeriesReaderFactory.getInstance()
+              .createSeriesReaderForCompaction(compactionFile, metaDataList, context);
+          // the reader is shared through FileReaderManager, so it is not closed here
+          while (seriesReader.hasNext()) {
+            if (seriesWriter == null) {
+              if (startPos < 0) {
+                compactionWriter.startFlushChunkGroup(deviceId);
+                startPos = compactionWriter.getPos();
+              }
+              seriesWriter = createMergeChunkWriter(path);
+            }
+            writeTVPair(seriesWriter, dataType, seriesReader.next());
+            // bound the memory of a series like the memtable does
+            if (seriesWriter.getCurrentChunkSize() >= TSFileConfig.groupSizeInByte) {
+              flushCompactedChunk(seriesWriter, compactionWriter);
+              numOfChunk++;
+              seriesWriter = null;
+            }
+          }
+        }
+        if (seriesWriter != null) {
+          flushCompactedChunk(seriesWriter, compactionWriter);
+          numOfChunk++;
+        }
+      }
+      if (startPos >= 0) {
+        long size = compactionWriter.getPos() - startPos;
+        compactionWriter.endChunkGroup(new ChunkGroupFooter(deviceId, size, numOfChunk), 0);
+      }
+    }
+
+    private void flushCompactedChunk(ChunkWriterImpl seriesWriter,
+        TsFileIOWriter compactionWriter) throws IOException {
+      long pos = compactionWriter.getPos();
+      seriesWriter.writeToFileWriter(compactionWriter);
+      MergeManager.getInstance().acquireWriteBytes(compactionWriter.getPos() - pos);
+    }
+  }
+
+  /**
+   * replace the compacted TsFiles with the compacted TsFile, and delete them after the queries
+   * started before are finished.
+   *
+   * @return false if the compacted TsFiles are no longer adjacent
+   */
+  private boolean switchCompactedFiles(List<TsFileResource> compactionFiles,
+      TsFileResource compactedFile) throws FileNodeProcessorException {
+    writeLock();
+    try {
+      int beginIndex = newFileNodes.indexOf(compactionFiles.get(0));
+      if (beginIndex < 0 || beginIndex + compactionFiles.size() > newFileNodes.size()) {
+        return false;
+      }
+      for (int i = 0; i < compactionFiles.size(); i++) {
+        TsFileResource compactionFile = compactionFiles.get(i);
+        if (newFileNodes.get(beginIndex + i) != compactionFile) {
+          return false;
+        }
+        // the overflow data inserted while compacting
+        if (compactionFile.getOverflowChangeType() != OverflowChangeType.NO_CHANGE) {
+          compactedFile.setOverflowChangeType(OverflowChangeType.CHANGED);
+        }
+      }
+      List<TsFileResource> result = new ArrayList<>(newFileNodes.subList(0, beginIndex));
+      result.add(compactedFile);
+      result.addAll(newFileNodes.subList(beginIndex + compactionFiles.size(),
+          newFileNodes.size()));
+      oldMultiPassTokenSet = newMultiPassTokenSet;
+      oldMultiPassLock = newMultiPassLock;
+      newMultiPassTokenSet = new HashSet<>();
+      newMultiPassLock = new ReentrantReadWriteLock(false);
+      newFileNodes = result;
+      addAllFileIntoIndex(newFileNodes);
+      synchronized (fileNodeProcessorStore) {
+        fileNodeProcessorStore.setNewFileNodes(newFileNodes);
+        writeStoreToDisk(fileNodeProcessorStore);
+      }
+    } finally {
+      writeUnlock();
+    }
+    deleteCompactedFiles(compactionFiles);
+    return true;
+  }
+
+  private void deleteCompactedFiles(List<TsFileResource> compactionFiles)
+      throws FileNodeProcessorException {
+    oldMultiPassLock.writeLock().lock();
+    try {
+      for (TsFileResource compactionFile : compactionFiles) {
+        String filePath = compactionFile.getFilePath();
+        FileReaderManager.getInstance().closeFileAndRemoveReader(filePath);
+        ChunkCache.getInstance().remove(filePath);
+        deleteModificationFile(compactionFile.getModFile());
+        if (!new File(filePath).delete()) {
+          LOGGER.warn("Cannot delete the compacted file {}", filePath);
+        }
+      }
+    } catch (IOException e) {
+      throw new FileNodeProcessorException(e);
+    } finally {
+      oldMultiPassTokenSet = null;
+      oldMultiPassLock.writeLock().unlock();
+      oldMultiPassLock = null;
+    }
+  }
+
+  private void deleteModificationFile(ModificationFile modificationFile) throws IOException {
+    modificationFile.close();
+    File file = new File(modificationFile.getFilePath());
+    if (file.exists() && !file.delete()) {
+      LOGGER.warn("Cannot delete the modification file {}", file.getPath());
+    }
+  }
+
   @Override
   public boolean canBeClosed() {
+    if (isCompacting) {
+      LOGGER.info("The filenode {} can't be closed, because it is compacting", getProcessorName());
+      return false;
+    }
     if (isMerging != FileNodeProcessorStatus.NONE) {
       LOGGER.info("The filenode {} can't be closed, because the filenode status is {}",
           getProcessorName(),
@@ -1864,7 +2589,7 @@ public class FileNodeProcessor extends Processor implements IStatistic {
    */
   public void delete(String deviceId, String measurementId, long timestamp) throws IOException {
     // TODO: how to avoid partial deletion?
-    mergeDeleteLock.lock();
+    mergeDeleteLock.writeLock().lock();
     long version = versionController.nextVersion();
 
     // record what files are updated so we can roll back them in case of exception
@@ -1874,7 +2599,7 @@ public class FileNodeProcessor extends Processor implements IStatistic {
       String fullPath = deviceId +
           IoTDBConstant.PATH_SEPARATOR + measurementId;
       Deletion deletion = new Deletion(fullPath, version, timestamp);
-      if (mergingModification != null) {
+      for (ModificationFile mergingModification : mergingModifications) {
         mergingModification.write(deletion);
         updatedModFiles.add(mergingModification);
       }
@@ -1892,7 +2617,7 @@ public class FileNodeProcessor extends Processor implements IStatistic {
       }
       throw new IOException(e);
     } finally {
-      mergeDeleteLock.unlock();
+      mergeDeleteLock.writeLock().unlock();
     }
   }
 
@@ -2016,8 +2741,15 @@ public class FileNodeProcessor extends Processor implements IStatistic {
       try {
         ZoneId zoneId = IoTDBDescriptor.getInstance().getConfig().getZoneID();
         long mergeStartTime = System.currentTimeMillis();
-        writeLock();
-        merge();
+        // wait for the running compaction
+        compactionLock.lock();
+        try {
+          flushBeforeMerge();
+          writeLock();
+          merge();
+        } finally {
+          compactionLock.unlock();
+        }
         long mergeEndTime = System.currentTimeMillis();
         long intervalTime = mergeEndTime - mergeStartTime;
         LOGGER.info(
@@ -18,6 +18,8 @@
  */
 package org.apache.iotdb.db.engine.memcontrol;
 
+import java.util.Collections;
+import java.util.Map;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.StartupException;
@@ -154,6 +156,15 @@ public abstract class BasicMemController implements IService {
 
   public abstract void reportFree(Object user, long freeSize);
 
+  /**
+   * get the memory usage of each user in byte.
+   *
+   * @return an empty map if the usages of users are not recorded
+   */
+  public Map<Object, Long> getUsageOfUsers() {
+    return Collections.emptyMap();
+  }
+
   public enum ControllerType {
     RECORD, JVM
   }
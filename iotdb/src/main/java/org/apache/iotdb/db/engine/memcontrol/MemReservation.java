@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.memcontrol;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.iotdb.db.engine.memcontrol.BasicMemController.UsageLevel;
+
+/**
+ * The memory reserved by a memory user from the {@link BasicMemController}. The memory is reserved
+ * in chunks, so that most of the usages only update the counter of the reservation rather than the
+ * state shared by all the users. The memory of a chunk is reported as used as soon as the chunk is
+ * reserved, so the usage of the controller is ahead of the real usage by at most one chunk per
+ * user.
+ */
+public class MemReservation {
+
+  static final long DEFAULT_CHUNK_SIZE = 1024 * 1024L;
+
+  private final Object user;
+  private final long chunkSize;
+  /**
+   * the reserved memory which has not been used.
+   */
+  private final AtomicLong available = new AtomicLong();
+  /**
+   * all the memory reserved from the controller since the last release.
+   */
+  private final AtomicLong reserved = new AtomicLong();
+  /**
+   * the usage level when the last chunk was reserved.
+   */
+  private volatile UsageLevel level = UsageLevel.SAFE;
+
+  public MemReservation(Object user) {
+    this(user, DEFAULT_CHUNK_SIZE);
+  }
+
+  public MemReservation(Object user, long chunkSize) {
+    this.user = user;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * use the reserved memory, a new chunk is reserved if the remaining memory is not enough. Can be
+   * called concurrently.
+   *
+   * @param size memory to use in byte
+   * @return the usage level of the controller when the last chunk was reserved, or DANGEROUS if the
+   * memory is not enough and no chunk can be reserved, in which case nothing is used.
+   */
+  public UsageLevel use(long size) {
+    if (tryUse(size)) {
+      return level;
+    }
+    synchronized (this) {
+      // the chunk may have been reserved by another thread
+      if (tryUse(size)) {
+        return level;
+      }
+      long chunk = Math.max(size, chunkSize);
+      UsageLevel newLevel = BasicMemController.getInstance().reportUse(user, chunk);
+      if (newLevel == UsageLevel.DANGEROUS) {
+        return newLevel;
+      }
+      reserved.addAndGet(chunk);
+      available.addAndGet(chunk - size);
+      level = newLevel;
+      return newLevel;
+    }
+  }
+
+  private boolean tryUse(long size) {
+    long remaining = available.get();
+    while (remaining >= size) {
+      if (available.compareAndSet(remaining, remaining - size)) {
+        return true;
+      }
+      remaining = available.get();
+    }
+    return false;
+  }
+
+  /**
+   * return all the reserved memory to the controller, e.g. after the data in memory is flushed.
+   * This should not be called concurrently with {@link #use(long)}.
+   */
+  public synchronized void release() {
+    long size = reserved.getAndSet(0);
+    available.set(0);
+    level = UsageLevel.SAFE;
+    if (size > 0) {
+      BasicMemController.getInstance().reportFree(user, size);
+    }
+  }
+
+  /**
+   * get the memory reserved from the controller in byte.
+   */
+  public long getReserved() {
+    return reserved.get();
+  }
+}
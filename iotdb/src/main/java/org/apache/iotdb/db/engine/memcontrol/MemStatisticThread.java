@@ -18,7 +18,12 @@
  */
 package org.apache.iotdb.db.engine.memcontrol;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import org.apache.iotdb.db.concurrent.ThreadName;
+import org.apache.iotdb.db.engine.Processor;
 import org.apache.iotdb.db.utils.MemUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -96,7 +101,30 @@ public class MemStatisticThread extends Thread {
               MemUtils.bytesCntToStr((long) meanMemUsage),
               MemUtils.bytesCntToStr(minJvmUsage), MemUtils.bytesCntToStr(maxJvmUsage),
               MemUtils.bytesCntToStr((long) meanJvmUsage));
+      logger.debug("Memory usage of users: {}",
+          usageOfUsers(BasicMemController.getInstance().getUsageOfUsers()));
     }
   }
 
+  /**
+   * describe the memory usage of each user, in the descending order of the usage.
+   */
+  static String usageOfUsers(Map<Object, Long> usages) {
+    List<Entry<Object, Long>> entries = new ArrayList<>(usages.entrySet());
+    entries.sort((o1, o2) -> Long.compare(o2.getValue(), o1.getValue()));
+    StringBuilder builder = new StringBuilder("[");
+    for (Entry<Object, Long> entry : entries) {
+      if (builder.length() > 1) {
+        builder.append(", ");
+      }
+      Object user = entry.getKey();
+      builder.append(user.getClass().getSimpleName());
+      if (user instanceof Processor) {
+        builder.append(' ').append(((Processor) user).getProcessorName());
+      }
+      builder.append(": ").append(MemUtils.bytesCntToStr(entry.getValue()));
+    }
+    return builder.append(']').toString();
+  }
+
 }
@@ -20,7 +20,9 @@ package org.apache.iotdb.db.engine.memcontrol;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
@@ -35,13 +37,14 @@ public class RecordMemController extends BasicMemController {
 
   private static Logger LOGGER = LoggerFactory.getLogger(RecordMemController.class);
 
-  // the key is the reference of the memory user, while the value is its memory usage in byte
-  private Map<Object, Long> memMap;
+  // the key is the reference of the memory user, while the value is its memory usage in byte,
+  // which is a striped counter as the users are updated by concurrent writers
+  private Map<Object, LongAdder> memMap;
   private AtomicLong totalMemUsed;
 
   private RecordMemController(IoTDBConfig config) {
     super(config);
-    memMap = new HashMap<>();
+    memMap = new ConcurrentHashMap<>();
     totalMemUsed = new AtomicLong(0);
   }
 
@@ -85,38 +88,26 @@ public class RecordMemController extends BasicMemController {
    */
   @Override
   public UsageLevel reportUse(Object user, long usage) {
-    Long oldUsage = memMap.get(user);
-    if (oldUsage == null) {
-      oldUsage = 0L;
+    if (totalMemUsed.get() + usage >= dangerouseThreshold) {
+      logDangerous(totalMemUsed.get() + usage, user);
+      return UsageLevel.DANGEROUS;
     }
-    long newTotUsage = totalMemUsed.get() + usage;
-    // check if the new usage will reach dangerous threshold
-    if (newTotUsage > dangerouseThreshold) {
+    long newTotUsage = totalMemUsed.addAndGet(usage);
+    if (newTotUsage >= dangerouseThreshold) {
+      // become dangerous because competition with other threads, discard this action
+      totalMemUsed.addAndGet(-usage);
       logDangerous(newTotUsage, user);
       return UsageLevel.DANGEROUS;
     }
-
-    if (newTotUsage < dangerouseThreshold) {
-      newTotUsage = totalMemUsed.addAndGet(usage);
-      // double check if updating will reach dangerous threshold
-      if (newTotUsage < warningThreshold) {
-        // still safe, action taken
-        memMap.put(user, oldUsage + usage);
-        logSafe(newTotUsage, user, usage, oldUsage);
-        return UsageLevel.SAFE;
-      } else if (newTotUsage < dangerouseThreshold) {
-        // become warning because competition with other threads, still take the action
-        memMap.put(user, oldUsage + usage);
-        logWarn(newTotUsage, user, usage, oldUsage);
-        return UsageLevel.WARNING;
-      } else {
-        logDangerous(newTotUsage, user);
-        // become dangerous because competition with other threads, discard this action
-        totalMemUsed.addAndGet(-usage);
-        return UsageLevel.DANGEROUS;
-      }
+    LongAdder userUsage = memMap.computeIfAbsent(user, k -> new LongAdder());
+    userUsage.add(usage);
+    if (newTotUsage < warningThreshold) {
+      logSafe(newTotUsage, user, usage, userUsage);
+      return UsageLevel.SAFE;
+    } else {
+      logWarn(newTotUsage, user, usage, userUsage);
+      return UsageLevel.WARNING;
     }
-    return null;
   }
 
   private void logDangerous(long newTotUsage, Object user) {
@@ -126,51 +117,62 @@ public class RecordMemController extends BasicMemController {
     }
   }
 
-  private void logSafe(long newTotUsage, Object user, long usage, long oldUsage) {
+  private void logSafe(long newTotUsage, Object user, long usage, LongAdder userUsage) {
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Safe Threshold : {} allocated to {}, it is using {}, total usage {}",
           MemUtils.bytesCntToStr(usage), user.getClass(),
-          MemUtils.bytesCntToStr(oldUsage + usage),
+          MemUtils.bytesCntToStr(userUsage.sum()),
           MemUtils.bytesCntToStr(newTotUsage));
     }
   }
 
-  private void logWarn(long newTotUsage, Object user, long usage, long oldUsage) {
+  private void logWarn(long newTotUsage, Object user, long usage, LongAdder userUsage) {
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Warning Threshold : {} allocated to {}, it is using {}, total usage {}",
           MemUtils.bytesCntToStr(usage), user.getClass(),
-          MemUtils.bytesCntToStr(oldUsage + usage),
+          MemUtils.bytesCntToStr(userUsage.sum()),
           MemUtils.bytesCntToStr(newTotUsage));
     }
   }
 
   /**
-   * report the decreased memory usage of the object user.
+   * report the decreased memory usage of the object user. A user should not report its usage and
+   * free it at the same time, otherwise the usage reported concurrently may be lost when the user
+   * is unregistered.
    */
   @Override
   public void reportFree(Object user, long freeSize) {
-    Long usage = memMap.get(user);
-    if (usage == null) {
+    LongAdder userUsage = memMap.get(user);
+    if (userUsage == null) {
       LOGGER.error("Unregistered memory usage from {}", user.getClass());
-    } else if (freeSize > usage) {
+      return;
+    }
+    long usage = userUsage.sum();
+    if (freeSize > usage) {
       LOGGER
           .error("Request to free {} bytes while it only registered {} bytes", freeSize, usage);
-      totalMemUsed.addAndGet(-usage);
-      memMap.remove(user);
-    } else {
-      long newTotalMemUsage = totalMemUsed.addAndGet(-freeSize);
-      if (usage - freeSize > 0) {
-        memMap.put(user, usage - freeSize);
-      } else {
-        memMap.remove(user);
-      }
-      if (LOGGER.isInfoEnabled()) {
-        LOGGER.info("{} freed from {}, it is using {}, total usage {}",
-            MemUtils.bytesCntToStr(freeSize),
-            user.getClass(), MemUtils.bytesCntToStr(usage - freeSize),
-            MemUtils.bytesCntToStr(newTotalMemUsage));
-      }
+      freeSize = usage;
+    }
+    userUsage.add(-freeSize);
+    long newTotalMemUsage = totalMemUsed.addAndGet(-freeSize);
+    if (usage == freeSize) {
+      memMap.remove(user, userUsage);
+    }
+    if (LOGGER.isInfoEnabled()) {
+      LOGGER.info("{} freed from {}, it is using {}, total usage {}",
+          MemUtils.bytesCntToStr(freeSize),
+          user.getClass(), MemUtils.bytesCntToStr(usage - freeSize),
+          MemUtils.bytesCntToStr(newTotalMemUsage));
+    }
+  }
+
+  @Override
+  public Map<Object, Long> getUsageOfUsers() {
+    Map<Object, Long> usages = new HashMap<>();
+    for (Map.Entry<Object, LongAdder> entry : memMap.entrySet()) {
+      usages.put(entry.getKey(), entry.getValue().sum());
     }
+    return usages;
   }
 
   private static class InstanceHolder {
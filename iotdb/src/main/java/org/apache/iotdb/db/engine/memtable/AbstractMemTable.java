@@ -18,11 +18,10 @@
  */
 package org.apache.iotdb.db.engine.memtable;
 
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
-import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 
 public abstract class AbstractMemTable implements IMemTable {
@@ -30,7 +29,7 @@ public abstract class AbstractMemTable implements IMemTable {
   private final Map<String, Map<String, IWritableMemChunk>> memTableMap;
 
   public AbstractMemTable() {
-    this.memTableMap = new HashMap<>();
+    this.memTableMap = new ConcurrentHashMap<>();
   }
 
   public AbstractMemTable(Map<String, Map<String, IWritableMemChunk>> memTableMap) {
@@ -53,14 +52,9 @@ public abstract class AbstractMemTable implements IMemTable {
 
   private IWritableMemChunk createIfNotExistAndGet(String deviceId, String measurement,
       TSDataType dataType) {
-    if (!memTableMap.containsKey(deviceId)) {
-      memTableMap.put(deviceId, new HashMap<>());
-    }
-    Map<String, IWritableMemChunk> memSeries = memTableMap.get(deviceId);
-    if (!memSeries.containsKey(measurement)) {
-      memSeries.put(measurement, genMemSeries(dataType));
-    }
-    return memSeries.get(measurement);
+    Map<String, IWritableMemChunk> memSeries = memTableMap
+        .computeIfAbsent(deviceId, k -> new ConcurrentHashMap<>());
+    return memSeries.computeIfAbsent(measurement, k -> genMemSeries(dataType));
   }
 
   protected abstract IWritableMemChunk genMemSeries(TSDataType dataType);
@@ -72,6 +66,13 @@ public abstract class AbstractMemTable implements IMemTable {
     memSeries.write(insertTime, insertValue);
   }
 
+  @Override
+  public void write(String deviceId, String measurement, TSDataType dataType, long insertTime,
+      Object insertValue) {
+    IWritableMemChunk memSeries = createIfNotExistAndGet(deviceId, measurement, dataType);
+    memSeries.write(insertTime, insertValue);
+  }
+
   @Override
   public int size() {
     int sum = 0;
@@ -85,6 +86,11 @@ public abstract class AbstractMemTable implements IMemTable {
 
   @Override
   public void clear() {
+    for (Map<String, IWritableMemChunk> seriesMap : memTableMap.values()) {
+      for (IWritableMemChunk writableMemChunk : seriesMap.values()) {
+        writableMemChunk.reset();
+      }
+    }
     memTableMap.clear();
   }
 
@@ -99,17 +105,22 @@ public abstract class AbstractMemTable implements IMemTable {
     return new ReadOnlyMemChunk(dataType, getSeriesData(deviceId, measurement, dataType), props);
   }
 
-  private TimeValuePairSorter getSeriesData(String deviceId, String measurement, TSDataType dataType) {
+  /**
+   * the data is copied, so that the query is not affected by the later writes and the reuse of the
+   * arrays after the memtable is cleared.
+   */
+  private TimeValuePairSorter getSeriesData(String deviceId, String measurement,
+      TSDataType dataType) {
     if (!checkPath(deviceId, measurement)) {
       return new WritableMemChunk(dataType);
     }
-    return memTableMap.get(deviceId).get(measurement);
+    return memTableMap.get(deviceId).get(measurement).copy();
   }
 
   @Override
   public void delete(String deviceId, String measurementId, long timestamp) {
     Map<String, IWritableMemChunk> deviceMap = memTableMap.get(deviceId);
-    if (deviceMap != null) {
+    if (deviceMap != null && deviceMap.containsKey(measurementId)) {
       IWritableMemChunk chunk = deviceMap.get(measurementId);
       IWritableMemChunk newChunk = filterChunk(chunk, timestamp);
       if (newChunk != null) {
@@ -128,30 +139,31 @@ public abstract class AbstractMemTable implements IMemTable {
    * null.
    */
   private IWritableMemChunk filterChunk(IWritableMemChunk chunk, long timestamp) {
-    List<TimeValuePair> timeValuePairs = chunk.getSortedTimeValuePairList();
-    if (!timeValuePairs.isEmpty() && timeValuePairs.get(0).getTimestamp() <= timestamp) {
+    TVList list = chunk.getSortedTVList();
+    if (list.size() > 0 && list.getTime(0) <= timestamp) {
       TSDataType dataType = chunk.getType();
       IWritableMemChunk newChunk = genMemSeries(dataType);
-      for (TimeValuePair pair : timeValuePairs) {
-        if (pair.getTimestamp() > timestamp) {
+      for (int i = 0; i < list.size(); i++) {
+        long time = list.getTime(i);
+        if (time > timestamp) {
           switch (dataType) {
             case BOOLEAN:
-              newChunk.putBoolean(pair.getTimestamp(), pair.getValue().getBoolean());
+              newChunk.putBoolean(time, list.getBoolean(i));
               break;
             case DOUBLE:
-              newChunk.putDouble(pair.getTimestamp(), pair.getValue().getDouble());
+              newChunk.putDouble(time, list.getDouble(i));
               break;
             case INT64:
-              newChunk.putLong(pair.getTimestamp(), pair.getValue().getLong());
+              newChunk.putLong(time, list.getLong(i));
               break;
             case INT32:
-              newChunk.putInt(pair.getTimestamp(), pair.getValue().getInt());
+              newChunk.putInt(time, list.getInt(i));
               break;
             case FLOAT:
-              newChunk.putFloat(pair.getTimestamp(), pair.getValue().getFloat());
+              newChunk.putFloat(time, list.getFloat(i));
               break;
             case TEXT:
-              newChunk.putBinary(pair.getTimestamp(), pair.getValue().getBinary());
+              newChunk.putBinary(time, list.getBinary(i));
               break;
             default:
                 throw new UnsupportedOperationException("Unknown datatype: " + dataType);
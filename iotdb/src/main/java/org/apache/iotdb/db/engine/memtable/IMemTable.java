@@ -36,6 +36,12 @@ public interface IMemTable {
   void write(String deviceId, String measurement, TSDataType dataType,
       long insertTime, String insertValue);
 
+  /**
+   * write a typed value, e.g. a Long for INT64 and a Binary for TEXT, which is not parsed.
+   */
+  void write(String deviceId, String measurement, TSDataType dataType,
+      long insertTime, Object insertValue);
+
   int size();
 
   ReadOnlyMemChunk query(String deviceId, String measurement, TSDataType dataType,
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.engine.memtable;
 
+import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
 
@@ -37,6 +38,26 @@ public interface IWritableMemChunk extends TimeValuePairSorter {
 
   void write(long insertTime, String insertValue);
 
+  /**
+   * write a typed value, e.g. a Long for INT64 and a Binary for TEXT.
+   */
+  void write(long insertTime, Object insertValue);
+
+  /**
+   * sort the points in place and remove the overwritten ones.
+   *
+   * @return the sorted list, which should not be modified.
+   */
+  TVList getSortedTVList();
+
+  /**
+   * make a sorted copy of the points, which is not affected by the later writes and resets.
+   */
+  IWritableMemChunk copy();
+
+  /**
+   * remove all the points and return the memory to the pool.
+   */
   void reset();
 
   int count();
@@ -19,9 +19,15 @@
 package org.apache.iotdb.db.engine.memtable;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
-
-import org.apache.iotdb.db.utils.TimeValuePair;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import org.apache.iotdb.db.engine.pool.FlushManager;
+import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.file.footer.ChunkGroupFooter;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -43,66 +49,136 @@ public class MemTableFlushUtil {
 
   }
 
-  private static void writeOneSeries(List<TimeValuePair> tvPairs, IChunkWriter seriesWriterImpl,
+  /**
+   * write the sorted points into the chunk writer without boxing them.
+   */
+  private static void writeOneSeries(TVList tvList, IChunkWriter seriesWriterImpl,
       TSDataType dataType)
       throws IOException {
-    for (TimeValuePair timeValuePair : tvPairs) {
-      switch (dataType) {
-        case BOOLEAN:
-            seriesWriterImpl
-                    .write(timeValuePair.getTimestamp(), timeValuePair.getValue().getBoolean());
-          break;
-        case INT32:
-            seriesWriterImpl.write(timeValuePair.getTimestamp(),
-                    timeValuePair.getValue().getInt());
-          break;
-        case INT64:
-            seriesWriterImpl.write(timeValuePair.getTimestamp(),
-                    timeValuePair.getValue().getLong());
-          break;
-        case FLOAT:
-            seriesWriterImpl.write(timeValuePair.getTimestamp(),
-                    timeValuePair.getValue().getFloat());
-          break;
-        case DOUBLE:
-            seriesWriterImpl
-                    .write(timeValuePair.getTimestamp(),
-                            timeValuePair.getValue().getDouble());
-          break;
-        case TEXT:
-            seriesWriterImpl
-                    .write(timeValuePair.getTimestamp(), timeValuePair.getValue().getBinary());
-          break;
-        default:
-          LOGGER.error("don't support data type: {}", dataType);
-          break;
-      }
+    int size = tvList.size();
+    switch (dataType) {
+      case BOOLEAN:
+        for (int i = 0; i < size; i++) {
+          seriesWriterImpl.write(tvList.getTime(i), tvList.getBoolean(i));
+        }
+        break;
+      case INT32:
+        for (int i = 0; i < size; i++) {
+          seriesWriterImpl.write(tvList.getTime(i), tvList.getInt(i));
+        }
+        break;
+      case INT64:
+        for (int i = 0; i < size; i++) {
+          seriesWriterImpl.write(tvList.getTime(i), tvList.getLong(i));
+        }
+        break;
+      case FLOAT:
+        for (int i = 0; i < size; i++) {
+          seriesWriterImpl.write(tvList.getTime(i), tvList.getFloat(i));
+        }
+        break;
+      case DOUBLE:
+        for (int i = 0; i < size; i++) {
+          seriesWriterImpl.write(tvList.getTime(i), tvList.getDouble(i));
+        }
+        break;
+      case TEXT:
+        for (int i = 0; i < size; i++) {
+          seriesWriterImpl.write(tvList.getTime(i), tvList.getBinary(i));
+        }
+        break;
+      default:
+        LOGGER.error("don't support data type: {}", dataType);
+        break;
     }
   }
 
+  /**
+   * sort the points of a series and encode them into a chunk, which is not written yet.
+   */
+  private static IChunkWriter encodeSeries(IWritableMemChunk series, MeasurementSchema desc)
+      throws IOException {
+    ChunkBuffer chunkBuffer = new ChunkBuffer(desc);
+    IChunkWriter seriesWriter = new ChunkWriterImpl(desc, chunkBuffer, PAGE_SIZE_THRESHOLD);
+    writeOneSeries(series.getSortedTVList(), seriesWriter, desc.getType());
+    // compress the last page here rather than in the writing thread
+    seriesWriter.sealCurrentPage();
+    return seriesWriter;
+  }
+
   /**
    * the function for flushing memtable.
+   *
+   * <p>The flush is pipelined: the series are sorted and encoded concurrently by the encoding
+   * pool of <code>FlushManager</code>, while the calling thread writes the encoded chunks into the
+   * file one after another in the order of the series, so that the chunks of a device stay in one
+   * chunk group. At most a few encoded chunks per encoding thread wait for the writer.
    */
   public static void flushMemTable(FileSchema fileSchema, TsFileIOWriter tsFileIoWriter,
       IMemTable imemTable, long version)
       throws IOException {
-    for (String deviceId : imemTable.getMemTableMap().keySet()) {
-      long startPos = tsFileIoWriter.getPos();
-      tsFileIoWriter.startFlushChunkGroup(deviceId);
-      int seriesNumber = imemTable.getMemTableMap().get(deviceId).size();
-      for (String measurementId : imemTable.getMemTableMap().get(deviceId).keySet()) {
+    List<String> deviceIds = new ArrayList<>();
+    List<Integer> seriesNumbers = new ArrayList<>();
+    List<Callable<IChunkWriter>> encodingTasks = new ArrayList<>();
+    for (Entry<String, Map<String, IWritableMemChunk>> deviceEntry : imemTable.getMemTableMap()
+        .entrySet()) {
+      int seriesNumber = 0;
+      for (Entry<String, IWritableMemChunk> seriesEntry : deviceEntry.getValue().entrySet()) {
         // TODO if we can not use TSFileIO writer, then we have to redesign the class of TSFileIO.
-        IWritableMemChunk series = imemTable.getMemTableMap().get(deviceId).get(measurementId);
-        MeasurementSchema desc = fileSchema.getMeasurementSchema(measurementId);
-        ChunkBuffer chunkBuffer = new ChunkBuffer(desc);
-        IChunkWriter seriesWriter = new ChunkWriterImpl(desc, chunkBuffer, PAGE_SIZE_THRESHOLD);
-        writeOneSeries(series.getSortedTimeValuePairList(), seriesWriter,
-            desc.getType());
-        seriesWriter.writeToFileWriter(tsFileIoWriter);
+        MeasurementSchema desc = fileSchema.getMeasurementSchema(seriesEntry.getKey());
+        IWritableMemChunk series = seriesEntry.getValue();
+        encodingTasks.add(() -> encodeSeries(series, desc));
+        seriesNumber++;
+      }
+      deviceIds.add(deviceEntry.getKey());
+      seriesNumbers.add(seriesNumber);
+    }
+
+    FlushManager flushManager = FlushManager.getInstance();
+    int maxTasksAhead = 2 * flushManager.getEncodingThreadCnt();
+    List<Future<IChunkWriter>> encodingFutures = new ArrayList<>(encodingTasks.size());
+    int taskIdx = 0;
+    try {
+      for (int i = 0; i < deviceIds.size(); i++) {
+        String deviceId = deviceIds.get(i);
+        int seriesNumber = seriesNumbers.get(i);
+        long startPos = tsFileIoWriter.getPos();
+        tsFileIoWriter.startFlushChunkGroup(deviceId);
+        for (int j = 0; j < seriesNumber; j++) {
+          int submitEnd = Math.min(taskIdx + maxTasksAhead, encodingTasks.size());
+          while (encodingFutures.size() < submitEnd) {
+            encodingFutures.add(flushManager
+                .submitEncodingTask(encodingTasks.get(encodingFutures.size())));
+          }
+          IChunkWriter seriesWriter = getEncodedSeries(encodingFutures.get(taskIdx));
+          // release the chunk once it is written
+          encodingFutures.set(taskIdx++, null);
+          seriesWriter.writeToFileWriter(tsFileIoWriter);
+        }
+        long memSize = tsFileIoWriter.getPos() - startPos;
+        ChunkGroupFooter footer = new ChunkGroupFooter(deviceId, memSize, seriesNumber);
+        tsFileIoWriter.endChunkGroup(footer, version);
+      }
+    } finally {
+      // stop encoding the remaining series if the flush fails
+      for (int i = taskIdx; i < encodingFutures.size(); i++) {
+        encodingFutures.get(i).cancel(true);
+      }
+    }
+  }
+
+  private static IChunkWriter getEncodedSeries(Future<IChunkWriter> encodingFuture)
+      throws IOException {
+    try {
+      return encodingFuture.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for a series to be encoded", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
       }
-      long memSize = tsFileIoWriter.getPos() - startPos;
-      ChunkGroupFooter footer = new ChunkGroupFooter(deviceId, memSize, seriesNumber);
-      tsFileIoWriter.endChunkGroup(footer, version);
+      throw new IOException("Failed to encode a series", e.getCause());
     }
   }
 }
@@ -19,26 +19,36 @@
 package org.apache.iotdb.db.engine.memtable;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
-import org.apache.iotdb.db.utils.PrimitiveArrayList;
-import org.apache.iotdb.db.utils.PrimitiveArrayListFactory;
 import org.apache.iotdb.db.utils.TimeValuePair;
 import org.apache.iotdb.db.utils.TsPrimitiveType;
+import org.apache.iotdb.db.utils.TsPrimitiveType.TsBinary;
+import org.apache.iotdb.db.utils.TsPrimitiveType.TsBoolean;
+import org.apache.iotdb.db.utils.TsPrimitiveType.TsDouble;
+import org.apache.iotdb.db.utils.TsPrimitiveType.TsFloat;
+import org.apache.iotdb.db.utils.TsPrimitiveType.TsInt;
+import org.apache.iotdb.db.utils.TsPrimitiveType.TsLong;
+import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
 
+/**
+ * A chunk of one series in the memtable. Writes and snapshots of the chunk are synchronized, so
+ * that a query can copy the chunk while the same series is being written.
+ */
 public class WritableMemChunk implements IWritableMemChunk {
 
   private TSDataType dataType;
-  private PrimitiveArrayList list;
+  private TVList list;
 
   public WritableMemChunk(TSDataType dataType) {
+    this(dataType, TVList.newList(dataType));
+  }
+
+  private WritableMemChunk(TSDataType dataType, TVList list) {
     this.dataType = dataType;
-    this.list = PrimitiveArrayListFactory.getByDataType(dataType);
+    this.list = list;
   }
 
   @Override
@@ -68,54 +78,110 @@ public class WritableMemChunk implements IWritableMemChunk {
   }
 
   @Override
-  public void putLong(long t, long v) {
-    list.putTimestamp(t, v);
+  public void write(long insertTime, Object insertValue) {
+    switch (dataType) {
+      case BOOLEAN:
+        putBoolean(insertTime, (boolean) insertValue);
+        break;
+      case INT32:
+        putInt(insertTime, (int) insertValue);
+        break;
+      case INT64:
+        putLong(insertTime, (long) insertValue);
+        break;
+      case FLOAT:
+        putFloat(insertTime, (float) insertValue);
+        break;
+      case DOUBLE:
+        putDouble(insertTime, (double) insertValue);
+        break;
+      case TEXT:
+        putBinary(insertTime, (Binary) insertValue);
+        break;
+      default:
+        throw new UnSupportedDataTypeException("Unsupported data type:" + dataType);
+    }
+  }
+
+  @Override
+  public synchronized void putLong(long t, long v) {
+    list.putLong(t, v);
   }
 
   @Override
-  public void putInt(long t, int v) {
-    list.putTimestamp(t, v);
+  public synchronized void putInt(long t, int v) {
+    list.putInt(t, v);
   }
 
   @Override
-  public void putFloat(long t, float v) {
-    list.putTimestamp(t, v);
+  public synchronized void putFloat(long t, float v) {
+    list.putFloat(t, v);
   }
 
   @Override
-  public void putDouble(long t, double v) {
-    list.putTimestamp(t, v);
+  public synchronized void putDouble(long t, double v) {
+    list.putDouble(t, v);
   }
 
   @Override
-  public void putBinary(long t, Binary v) {
-    list.putTimestamp(t, v);
+  public synchronized void putBinary(long t, Binary v) {
+    list.putBinary(t, v);
   }
 
   @Override
-  public void putBoolean(long t, boolean v) {
-    list.putTimestamp(t, v);
+  public synchronized void putBoolean(long t, boolean v) {
+    list.putBoolean(t, v);
   }
 
   @Override
-  // TODO: Consider using arrays to sort and remove duplicates
-  public List<TimeValuePair> getSortedTimeValuePairList() {
-    int length = list.size();
+  public synchronized TVList getSortedTVList() {
+    list.sort();
+    return list;
+  }
 
-    Map<Long, TsPrimitiveType> map = new HashMap<>(length, 1.0f);
+  @Override
+  public synchronized List<TimeValuePair> getSortedTimeValuePairList() {
+    TVList sortedList = getSortedTVList();
+    int length = sortedList.size();
+    List<TimeValuePair> ret = new ArrayList<>(length);
     for (int i = 0; i < length; i++) {
-      map.put(list.getTimestamp(i), TsPrimitiveType.getByType(dataType, list.getValue(i)));
+      ret.add(new TimeValuePairInMemTable(sortedList.getTime(i), getValue(sortedList, i)));
     }
-    List<TimeValuePair> ret = new ArrayList<>(map.size());
-    map.forEach((k, v) -> ret.add(new TimeValuePairInMemTable(k, v)));
-    ret.sort(TimeValuePair::compareTo);
     return ret;
+  }
 
+  private TsPrimitiveType getValue(TVList sortedList, int index) {
+    switch (dataType) {
+      case BOOLEAN:
+        return new TsBoolean(sortedList.getBoolean(index));
+      case INT32:
+        return new TsInt(sortedList.getInt(index));
+      case INT64:
+        return new TsLong(sortedList.getLong(index));
+      case FLOAT:
+        return new TsFloat(sortedList.getFloat(index));
+      case DOUBLE:
+        return new TsDouble(sortedList.getDouble(index));
+      case TEXT:
+        return new TsBinary(sortedList.getBinary(index));
+      default:
+        throw new UnSupportedDataTypeException("Unsupported data type:" + dataType);
+    }
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return list.size() == 0;
+  }
+
+  @Override
+  public synchronized IWritableMemChunk copy() {
+    return new WritableMemChunk(dataType, getSortedTVList().clone());
   }
 
   @Override
-  public void reset() {
-    this.list = PrimitiveArrayListFactory.getByDataType(dataType);
+  public synchronized void reset() {
+    list.clear();
   }
 
   @Override
@@ -38,8 +38,9 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.Processor;
 import org.apache.iotdb.db.engine.bufferwrite.Action;
 import org.apache.iotdb.db.engine.bufferwrite.FileNodeConstants;
+import org.apache.iotdb.db.engine.cache.ChunkCache;
 import org.apache.iotdb.db.engine.filenode.FileNodeManager;
-import org.apache.iotdb.db.engine.memcontrol.BasicMemController;
+import org.apache.iotdb.db.engine.memcontrol.MemReservation;
 import org.apache.iotdb.db.engine.memtable.MemSeriesLazyMerger;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
 import org.apache.iotdb.db.engine.pool.FlushManager;
@@ -91,6 +92,7 @@ public class OverflowProcessor extends Processor {
 
   private long memThreshold = TSFileConfig.groupSizeInByte;
   private AtomicLong memSize = new AtomicLong();
+  private MemReservation memReservation = new MemReservation(this);
 
   private WriteLogNode logNode;
   private VersionController versionController;
@@ -174,7 +176,7 @@ public class OverflowProcessor extends Processor {
   public void insert(TSRecord tsRecord) throws IOException {
     // memory control
     long memUage = MemUtils.getRecordSize(tsRecord);
-    BasicMemController.getInstance().reportUse(this, memUage);
+    memReservation.use(memUage);
     // write data
     workSupport.insert(tsRecord);
     valueCount++;
@@ -411,6 +413,7 @@ public class OverflowProcessor extends Processor {
   public void switchMergeToWork() throws IOException {
     if (mergeResource != null) {
       FileReaderManager.getInstance().closeFileAndRemoveReader(mergeResource.getInsertFilePath());
+      ChunkCache.getInstance().remove(mergeResource.getInsertFilePath());
       mergeResource.close();
       mergeResource.deleteResource();
       mergeResource = null;
@@ -514,7 +517,7 @@ public class OverflowProcessor extends Processor {
               getProcessorName(), e);
         }
       }
-      BasicMemController.getInstance().reportFree(this, memSize.get());
+      memReservation.release();
       memSize.set(0);
       valueCount = 0;
       // switch from work to flush
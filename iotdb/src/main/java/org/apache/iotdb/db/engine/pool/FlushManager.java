@@ -37,10 +37,26 @@ public class FlushManager {
   private ExecutorService pool;
   private int threadCnt;
 
+  /**
+   * sorts and encodes the series of the memtables flushed by the tasks in <code>pool</code>. It is
+   * a separate pool, as a flush task waits for its encoding tasks and would block them if they were
+   * queued behind it.
+   */
+  private ExecutorService encodingPool;
+  private int encodingThreadCnt;
+
   private FlushManager() {
     IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
     this.threadCnt = config.getConcurrentFlushThread();
     pool = IoTDBThreadPoolFactory.newFixedThreadPool(threadCnt, ThreadName.FLUSH_SERVICE.getName());
+    initEncodingPool();
+  }
+
+  private void initEncodingPool() {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    this.encodingThreadCnt = config.getConcurrentFlushEncodingThread();
+    encodingPool = IoTDBThreadPoolFactory
+        .newFixedThreadPool(encodingThreadCnt, ThreadName.FLUSH_ENCODING_SERVICE.getName());
   }
 
   public static FlushManager getInstance() {
@@ -57,10 +73,14 @@ public class FlushManager {
     }
     IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
     pool = Executors.newFixedThreadPool(config.getConcurrentFlushThread());
+    if (encodingPool.isShutdown()) {
+      initEncodingPool();
+    }
   }
 
   public FlushManager(ExecutorService pool) {
     this.pool = pool;
+    initEncodingPool();
   }
 
   /**
@@ -75,6 +95,7 @@ public class FlushManager {
    */
   public void forceClose(boolean block, long timeOut) throws ProcessorException {
     pool.shutdownNow();
+    encodingPool.shutdownNow();
     if (block) {
       try {
         if (!pool.awaitTermination(timeOut, TimeUnit.MILLISECONDS)) {
@@ -107,6 +128,8 @@ public class FlushManager {
           throw new ProcessorException("Flush thread pool doesn't exit after "
               + EXIT_WAIT_TIME + " ms");
         }
+        // the queued flush tasks have finished their encoding tasks
+        encodingPool.shutdown();
       } catch (InterruptedException e) {
         Thread.currentThread().interrupt();
         throw new ProcessorException("Interrupted while waiting flush thread pool to exit. ", e);
@@ -122,6 +145,13 @@ public class FlushManager {
     return pool.submit(task);
   }
 
+  /**
+   * submit a task sorting and encoding a series of a flushing memtable.
+   */
+  public <T> Future<T> submitEncodingTask(Callable<T> task) {
+    return encodingPool.submit(task);
+  }
+
   public int getActiveCnt() {
     return ((ThreadPoolExecutor) pool).getActiveCount();
   }
@@ -130,6 +160,10 @@ public class FlushManager {
     return threadCnt;
   }
 
+  public int getEncodingThreadCnt() {
+    return encodingThreadCnt;
+  }
+
   private static class InstanceHolder {
     private InstanceHolder(){
       //allowed to do nothing
@@ -0,0 +1,53 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.pool;
+
+import java.io.IOException;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.controller.ChunkLoader;
+
+/**
+ * A chunk loader of merge, which counts the bytes of the loaded chunks into the throughput of merge
+ * and blocks while merge exceeds it. The chunks are read without the ChunkCache, so that the bulk
+ * reads of merge neither evict the chunks of the queries nor hit the cache for free.
+ */
+public class MergeChunkLoader implements ChunkLoader {
+
+  private TsFileSequenceReader reader;
+
+  public MergeChunkLoader(TsFileSequenceReader reader) {
+    this.reader = reader;
+  }
+
+  @Override
+  public Chunk getChunk(ChunkMetaData chunkMetaData) throws IOException {
+    Chunk chunk = reader.readMemChunk(chunkMetaData);
+    chunk.setDeletedAt(chunkMetaData.getDeletedAt());
+    MergeManager.getInstance().acquireReadBytes(
+        (long) chunk.getHeader().getSerializedSize() + chunk.getHeader().getDataSize());
+    return chunk;
+  }
+
+  @Override
+  public void close() {
+    // the reader is shared through FileReaderManager
+  }
+}
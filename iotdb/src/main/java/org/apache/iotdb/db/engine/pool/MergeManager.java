@@ -18,26 +18,81 @@
  */
 package org.apache.iotdb.db.engine.pool;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.db.concurrent.ThreadName;
 import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.db.monitor.IStatistic;
+import org.apache.iotdb.db.monitor.MonitorConstants;
+import org.apache.iotdb.db.monitor.MonitorConstants.MergeStatConstants;
+import org.apache.iotdb.db.monitor.StatMonitor;
+import org.apache.iotdb.db.service.JMXService;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
 
-public class MergeManager {
+public class MergeManager implements MergeManagerMBean, IStatistic {
+
+  private static final long BYTES_PER_MB = 1024L * 1024L;
+
+  private final String mbeanName = String
+      .format("%s:%s=%s", IoTDBConstant.IOTDB_PACKAGE, IoTDBConstant.JMX_TYPE, "MergeManager");
 
   private ExecutorService pool;
   private int threadCnt;
 
+  /**
+   * merges the TsFiles of the storage groups merged by the tasks in <code>pool</code>. It is a
+   * separate pool, as a storage group merge waits for its file merges and would block them if they
+   * were queued behind it.
+   */
+  private ExecutorService filePool;
+  private int fileThreadCnt;
+
+  /**
+   * throttles the bytes read and written by all the file merges.
+   */
+  private final MergeRateLimiter rateLimiter;
+
+  private final Map<String, AtomicLong> statParamsHashMap = new HashMap<>();
+  private long lastStatTime = System.currentTimeMillis();
+  private long lastStatReadBytes = 0;
+  private long lastStatWriteBytes = 0;
+
   private MergeManager() {
     IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
     this.threadCnt = config.getMergeConcurrentThreads();
     pool = IoTDBThreadPoolFactory.newFixedThreadPool(threadCnt, ThreadName.MERGE_SERVICE.getName());
+    initFilePool();
+    rateLimiter = new MergeRateLimiter(config.getMergeThroughputMBPerSec() * BYTES_PER_MB);
+    for (MergeStatConstants statConstant : MergeStatConstants.values()) {
+      statParamsHashMap.put(statConstant.name(), new AtomicLong(0));
+    }
+    JMXService.registerMBean(this, mbeanName);
+    if (config.isEnableStatMonitor()) {
+      registerStatMetadata();
+      StatMonitor.getInstance().registerStatistics(MonitorConstants.STAT_MERGE_DELTA_NAME, this);
+    }
+  }
+
+  private void initFilePool() {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    this.fileThreadCnt = config.getMergeFileConcurrentThreads();
+    filePool = IoTDBThreadPoolFactory
+        .newFixedThreadPool(fileThreadCnt, ThreadName.MERGE_FILE_SERVICE.getName());
   }
 
   public static MergeManager getInstance() {
@@ -55,6 +110,9 @@ public class MergeManager {
     }
     IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
     pool = Executors.newFixedThreadPool(config.getMergeConcurrentThreads());
+    if (filePool.isShutdown()) {
+      initFilePool();
+    }
   }
 
   /**
@@ -67,6 +125,7 @@ public class MergeManager {
    */
   public void forceClose(boolean block, long timeOut) throws ProcessorException {
     pool.shutdownNow();
+    filePool.shutdownNow();
     if (block) {
       try {
         if (!pool.awaitTermination(timeOut, TimeUnit.MILLISECONDS)) {
@@ -97,6 +156,8 @@ public class MergeManager {
           throw new ProcessorException(
               "Merge thread pool doesn't exit after " + timeOut + " ms");
         }
+        // the queued storage group merges have finished their file merges
+        filePool.shutdown();
       } catch (InterruptedException e) {
         Thread.currentThread().interrupt();
         throw new ProcessorException(
@@ -109,6 +170,148 @@ public class MergeManager {
     return pool.submit(task);
   }
 
+  /**
+   * submit a task merging a TsFile of a merging storage group.
+   */
+  public <T> Future<T> submitFileMergeTask(Callable<T> task) {
+    statParamsHashMap.get(MergeStatConstants.PENDING_FILES.name()).incrementAndGet();
+    try {
+      return filePool.submit(() -> {
+        try {
+          T result = task.call();
+          statParamsHashMap.get(MergeStatConstants.MERGED_FILES.name()).incrementAndGet();
+          return result;
+        } finally {
+          statParamsHashMap.get(MergeStatConstants.PENDING_FILES.name()).decrementAndGet();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      statParamsHashMap.get(MergeStatConstants.PENDING_FILES.name()).decrementAndGet();
+      throw e;
+    }
+  }
+
+  /**
+   * count the bytes read by merge, and block the merging thread while merge exceeds its
+   * throughput.
+   */
+  public void acquireReadBytes(long bytes) throws IOException {
+    statParamsHashMap.get(MergeStatConstants.READ_BYTES.name()).addAndGet(bytes);
+    throttle(bytes);
+  }
+
+  /**
+   * count the bytes written by merge, and block the merging thread while merge exceeds its
+   * throughput.
+   */
+  public void acquireWriteBytes(long bytes) throws IOException {
+    statParamsHashMap.get(MergeStatConstants.WRITE_BYTES.name()).addAndGet(bytes);
+    throttle(bytes);
+  }
+
+  private void throttle(long bytes) throws IOException {
+    try {
+      long waitTime = rateLimiter.acquire(bytes);
+      if (waitTime > 0) {
+        statParamsHashMap.get(MergeStatConstants.THROTTLED_TIME_MS.name())
+            .addAndGet(TimeUnit.NANOSECONDS.toMillis(waitTime));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while merge is throttled", e);
+    }
+  }
+
+  @Override
+  public long getMergeThroughputMBPerSec() {
+    return rateLimiter.getBytesPerSecond() / BYTES_PER_MB;
+  }
+
+  @Override
+  public void setMergeThroughputMBPerSec(long mergeThroughputMBPerSec) {
+    rateLimiter.setBytesPerSecond(mergeThroughputMBPerSec * BYTES_PER_MB);
+  }
+
+  @Override
+  public long getMergeReadBytes() {
+    return statParamsHashMap.get(MergeStatConstants.READ_BYTES.name()).get();
+  }
+
+  @Override
+  public long getMergeWriteBytes() {
+    return statParamsHashMap.get(MergeStatConstants.WRITE_BYTES.name()).get();
+  }
+
+  @Override
+  public long getMergeThrottledTimeMs() {
+    return statParamsHashMap.get(MergeStatConstants.THROTTLED_TIME_MS.name()).get();
+  }
+
+  @Override
+  public long getPendingFileNum() {
+    return statParamsHashMap.get(MergeStatConstants.PENDING_FILES.name()).get();
+  }
+
+  @Override
+  public long getMergedFileNum() {
+    return statParamsHashMap.get(MergeStatConstants.MERGED_FILES.name()).get();
+  }
+
+  @Override
+  public Map<String, AtomicLong> getStatParamsHashMap() {
+    return statParamsHashMap;
+  }
+
+  @Override
+  public List<String> getAllPathForStatistic() {
+    List<String> list = new ArrayList<>();
+    for (MergeStatConstants statConstant : MergeStatConstants.values()) {
+      list.add(MonitorConstants.STAT_MERGE_DELTA_NAME + MonitorConstants.MONITOR_PATH_SEPARATOR
+          + statConstant.name());
+    }
+    return list;
+  }
+
+  @Override
+  public Map<String, TSRecord> getAllStatisticsValue() {
+    long curTime = System.currentTimeMillis();
+    updateThroughput(curTime);
+    TSRecord tsRecord = StatMonitor
+        .convertToTSRecord(getStatParamsHashMap(), MonitorConstants.STAT_MERGE_DELTA_NAME,
+            curTime);
+    HashMap<String, TSRecord> ret = new HashMap<>();
+    ret.put(MonitorConstants.STAT_MERGE_DELTA_NAME, tsRecord);
+    return ret;
+  }
+
+  /**
+   * compute the throughput of merge since the last time the statistics are collected.
+   */
+  private synchronized void updateThroughput(long curTime) {
+    long interval = curTime - lastStatTime;
+    if (interval <= 0) {
+      return;
+    }
+    long readBytes = getMergeReadBytes();
+    long writeBytes = getMergeWriteBytes();
+    statParamsHashMap.get(MergeStatConstants.READ_BYTES_PER_SEC.name())
+        .set((readBytes - lastStatReadBytes) * 1000 / interval);
+    statParamsHashMap.get(MergeStatConstants.WRITE_BYTES_PER_SEC.name())
+        .set((writeBytes - lastStatWriteBytes) * 1000 / interval);
+    lastStatTime = curTime;
+    lastStatReadBytes = readBytes;
+    lastStatWriteBytes = writeBytes;
+  }
+
+  @Override
+  public void registerStatMetadata() {
+    Map<String, String> hashMap = new HashMap<>();
+    for (String path : getAllPathForStatistic()) {
+      hashMap.put(path, MonitorConstants.DATA_TYPE_INT64);
+    }
+    StatMonitor.getInstance().registerStatStorageGroup(hashMap);
+  }
+
   public int getActiveCnt() {
     return ((ThreadPoolExecutor) pool).getActiveCount();
   }
@@ -117,6 +320,10 @@ public class MergeManager {
     return threadCnt;
   }
 
+  public int getFileThreadCnt() {
+    return fileThreadCnt;
+  }
+
   private static class InstanceHolder {
     private InstanceHolder(){
       //allowed to do nothing
@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.pool;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket limiting the bytes per second of the threads sharing it. The bucket holds at most
+ * the bytes of one second. A request larger than the bytes in the bucket is not split: it is let
+ * through at once and overdraws the bucket, and the requesting thread sleeps until the debt is
+ * refilled, so the following requests wait for it too.
+ */
+public class MergeRateLimiter {
+
+  private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  /**
+   * no limit when it is <= 0.
+   */
+  private long bytesPerSecond;
+  /**
+   * negative when the bucket is overdrawn.
+   */
+  private double storedBytes;
+  private long lastRefillTime;
+
+  public MergeRateLimiter(long bytesPerSecond) {
+    setBytesPerSecond(bytesPerSecond);
+  }
+
+  public synchronized long getBytesPerSecond() {
+    return bytesPerSecond;
+  }
+
+  /**
+   * change the rate. The debt of the old rate is cleared so that a lower rate takes effect at
+   * once and a higher rate does not pay for the old requests.
+   */
+  public synchronized void setBytesPerSecond(long bytesPerSecond) {
+    this.bytesPerSecond = bytesPerSecond;
+    this.storedBytes = 0;
+    this.lastRefillTime = System.nanoTime();
+  }
+
+  /**
+   * take bytes from the bucket, and sleep if the bucket is overdrawn.
+   *
+   * @return the time slept in nanoseconds
+   */
+  public long acquire(long bytes) throws InterruptedException {
+    long waitTime;
+    synchronized (this) {
+      if (bytesPerSecond <= 0 || bytes <= 0) {
+        return 0;
+      }
+      long currentTime = System.nanoTime();
+      storedBytes = Math.min(bytesPerSecond, storedBytes
+          + (currentTime - lastRefillTime) * (double) bytesPerSecond / NANOS_PER_SECOND);
+      lastRefillTime = currentTime;
+      storedBytes -= bytes;
+      if (storedBytes >= 0) {
+        return 0;
+      }
+      waitTime = (long) (-storedBytes * NANOS_PER_SECOND / bytesPerSecond);
+    }
+    TimeUnit.NANOSECONDS.sleep(waitTime);
+    return waitTime;
+  }
+}
@@ -48,6 +48,10 @@ public class MonitorConstants {
    */
   public static final String STAT_STORAGE_DELTA_NAME = STAT_STORAGE_GROUP_PREFIX
       + MONITOR_PATH_SEPARATOR + FILE_NODE_MANAGER_PATH;
+  // statistic for merge module
+  private static final String MERGE_PATH = "merge";
+  public static final String STAT_MERGE_DELTA_NAME = STAT_STORAGE_GROUP_PREFIX
+      + MONITOR_PATH_SEPARATOR + MERGE_PATH;
 
   /**
    * function for initializing stats values.
@@ -87,6 +91,11 @@ public class MonitorConstants {
     TOTAL_REQ_SUCCESS, TOTAL_REQ_FAIL, TOTAL_POINTS_SUCCESS, TOTAL_POINTS_FAIL
   }
 
+  public enum MergeStatConstants {
+    READ_BYTES, WRITE_BYTES, READ_BYTES_PER_SEC, WRITE_BYTES_PER_SEC, THROTTLED_TIME_MS,
+    PENDING_FILES, MERGED_FILES
+  }
+
   public enum OsStatConstants {
     NETWORK_REC, NETWORK_SEND, CPU_USAGE, MEM_USAGE, IOTDB_MEM_SIZE, DISK_USAGE, DISK_READ_SPEED,
     DISK_WRITE_SPEED, DISK_TPS
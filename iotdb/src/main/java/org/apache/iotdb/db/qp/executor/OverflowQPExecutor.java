@@ -44,6 +44,7 @@ import org.apache.iotdb.db.qp.logical.sys.AuthorOperator;
 import org.apache.iotdb.db.qp.logical.sys.MetadataOperator;
 import org.apache.iotdb.db.qp.logical.sys.PropertyOperator;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
@@ -51,17 +52,26 @@ import org.apache.iotdb.db.qp.physical.sys.AuthorPlan;
 import org.apache.iotdb.db.qp.physical.sys.LoadDataPlan;
 import org.apache.iotdb.db.qp.physical.sys.MetadataPlan;
 import org.apache.iotdb.db.qp.physical.sys.PropertyPlan;
+import org.apache.iotdb.db.query.fill.IFill;
 import org.apache.iotdb.db.utils.AuthUtils;
 import org.apache.iotdb.db.utils.LoadDataUtils;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.expression.IExpression;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.BooleanDataPoint;
 import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.DoubleDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.FloatDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.IntDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.StringDataPoint;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -117,6 +127,13 @@ public class OverflowQPExecutor extends QueryProcessExecutor {
         int result = multiInsert(insert.getDeviceId(), insert.getTime(), insert.getMeasurements(),
             insert.getValues());
         return result > 0;
+      case BATCHINSERT:
+        for (int rowResult : insertBatch((BatchInsertPlan) plan)) {
+          if (rowResult <= 0) {
+            return false;
+          }
+        }
+        return true;
       case CREATE_ROLE:
       case DELETE_ROLE:
       case CREATE_USER:
@@ -177,21 +194,46 @@ public class OverflowQPExecutor extends QueryProcessExecutor {
 
   @Override
   public QueryDataSet aggregate(List<Pair<Path, String>> aggres, IExpression expression)
-      throws ProcessorException {
-    throw new ProcessorException("not support");
+      throws ProcessorException, IOException, PathErrorException {
+    List<Path> paths = new ArrayList<>();
+    List<String> aggregations = new ArrayList<>();
+    for (Pair<Path, String> pair : aggres) {
+      paths.add(pair.left);
+      aggregations.add(pair.right);
+    }
+    try {
+      return queryRouter.aggregate(paths, aggregations, expression);
+    } catch (FileNodeManagerException e) {
+      throw new ProcessorException(e);
+    }
   }
 
-  // @Override
-  // public QueryDataSet fill(List<Path> fillPaths, long queryTime, Map<TSDataType, IFill> fillTypes) throws
-  // ProcessorException, IOException, PathErrorException {
-  // return queryEngine.fill(fillPaths, queryTime, fillTypes);
-  // }
+  @Override
+  public QueryDataSet fill(List<Path> fillPaths, long queryTime, Map<TSDataType, IFill> fillTypes)
+      throws ProcessorException, IOException, PathErrorException {
+    try {
+      return queryRouter.fill(fillPaths, queryTime, fillTypes);
+    } catch (FileNodeManagerException e) {
+      throw new ProcessorException(e);
+    }
+  }
 
   @Override
   public QueryDataSet groupBy(List<Pair<Path, String>> aggres, IExpression expression, long unit,
       long origin,
-      List<Pair<Long, Long>> intervals, int fetchSize) throws ProcessorException {
-    throw new ProcessorException("not support");
+      List<Pair<Long, Long>> intervals, int fetchSize)
+      throws ProcessorException, IOException, PathErrorException {
+    List<Path> paths = new ArrayList<>();
+    List<String> aggregations = new ArrayList<>();
+    for (Pair<Path, String> pair : aggres) {
+      paths.add(pair.left);
+      aggregations.add(pair.right);
+    }
+    try {
+      return queryRouter.groupBy(paths, aggregations, expression, unit, origin, intervals);
+    } catch (FileNodeManagerException e) {
+      throw new ProcessorException(e);
+    }
   }
 
   @Override
@@ -290,6 +332,73 @@ public class OverflowQPExecutor extends QueryProcessExecutor {
     }
   }
 
+  @Override
+  public int[] insertBatch(BatchInsertPlan plan) throws ProcessorException {
+    String deviceId = plan.getDeviceId();
+    List<String> measurementList = plan.getMeasurements();
+    try {
+      MNode node = mManager.getNodeByDeviceIdFromCache(deviceId);
+      for (int i = 0; i < measurementList.size(); i++) {
+        if (!node.hasChild(measurementList.get(i))) {
+          throw new ProcessorException(
+              String.format("Current deviceId[%s] does not contains measurement:%s",
+                  deviceId, measurementList.get(i)));
+        }
+        MNode measurementNode = node.getChild(measurementList.get(i));
+        if (!measurementNode.isLeaf()) {
+          throw new ProcessorException(
+              String.format("Current Path is not leaf node. %s.%s", deviceId,
+                  measurementList.get(i)));
+        }
+        TSDataType dataType = measurementNode.getSchema().getType();
+        if (dataType != plan.getDataTypes().get(i)) {
+          throw new ProcessorException(
+              String.format("The data type of %s.%s is %s, but %s is given", deviceId,
+                  measurementList.get(i), dataType, plan.getDataTypes().get(i)));
+        }
+      }
+    } catch (PathErrorException e) {
+      throw new ProcessorException(e.getMessage());
+    }
+
+    long[] times = plan.getTimes();
+    int[] result = new int[times.length];
+    for (int row = 0; row < times.length; row++) {
+      TSRecord tsRecord = new TSRecord(times[row], deviceId);
+      for (int i = 0; i < measurementList.size(); i++) {
+        tsRecord.addTuple(getDataPoint(plan.getDataTypes().get(i), measurementList.get(i),
+            plan.getColumns()[i], row));
+      }
+      try {
+        result[row] = fileNodeManager.insert(tsRecord, false);
+      } catch (FileNodeManagerException e) {
+        LOG.error("Fail to insert the row of device {} at time {}", deviceId, times[row], e);
+        result[row] = 0;
+      }
+    }
+    return result;
+  }
+
+  private static DataPoint getDataPoint(TSDataType dataType, String measurementId, Object column,
+      int row) {
+    switch (dataType) {
+      case BOOLEAN:
+        return new BooleanDataPoint(measurementId, ((boolean[]) column)[row]);
+      case INT32:
+        return new IntDataPoint(measurementId, ((int[]) column)[row]);
+      case INT64:
+        return new LongDataPoint(measurementId, ((long[]) column)[row]);
+      case FLOAT:
+        return new FloatDataPoint(measurementId, ((float[]) column)[row]);
+      case DOUBLE:
+        return new DoubleDataPoint(measurementId, ((double[]) column)[row]);
+      case TEXT:
+        return new StringDataPoint(measurementId, ((Binary[]) column)[row]);
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
   @Override
   public List<String> getAllPaths(String originPath) throws PathErrorException {
     return MManager.getInstance().getPaths(originPath);
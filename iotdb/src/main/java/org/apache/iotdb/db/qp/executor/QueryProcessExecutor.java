@@ -22,14 +22,21 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.apache.iotdb.db.exception.FileNodeManagerException;
 import org.apache.iotdb.db.exception.PathErrorException;
 import org.apache.iotdb.db.exception.ProcessorException;
 import org.apache.iotdb.db.metadata.MManager;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.AggregationPlan;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
+import org.apache.iotdb.db.qp.physical.crud.FillQueryPlan;
+import org.apache.iotdb.db.qp.physical.crud.GroupByPlan;
+import org.apache.iotdb.db.qp.physical.crud.LastQueryPlan;
 import org.apache.iotdb.db.qp.physical.crud.QueryPlan;
 import org.apache.iotdb.db.query.executor.EngineQueryRouter;
+import org.apache.iotdb.db.query.fill.IFill;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.expression.IExpression;
@@ -40,20 +47,61 @@ import org.apache.iotdb.tsfile.utils.Pair;
 public abstract class QueryProcessExecutor {
 
   protected ThreadLocal<Integer> fetchSize = new ThreadLocal<>();
-  private EngineQueryRouter queryRouter = new EngineQueryRouter();
+  protected EngineQueryRouter queryRouter = new EngineQueryRouter();
 
   public QueryProcessExecutor() {
   }
 
-  public QueryDataSet processQuery(PhysicalPlan plan) throws IOException, FileNodeManagerException {
+  /**
+   * process query plan of qp layer, construct queryDataSet.
+   */
+  public QueryDataSet processQuery(PhysicalPlan plan)
+      throws IOException, FileNodeManagerException, PathErrorException, ProcessorException {
     QueryPlan queryPlan = (QueryPlan) plan;
 
+    if (queryPlan instanceof GroupByPlan) {
+      GroupByPlan groupByPlan = (GroupByPlan) queryPlan;
+      return groupBy(getAggrePair(groupByPlan), groupByPlan.getExpression(),
+          groupByPlan.getUnit(), groupByPlan.getOrigin(), groupByPlan.getIntervals(),
+          getFetchSize());
+    }
+
+    if (queryPlan instanceof FillQueryPlan) {
+      FillQueryPlan fillQueryPlan = (FillQueryPlan) queryPlan;
+      return fill(queryPlan.getPaths(), fillQueryPlan.getQueryTime(),
+          fillQueryPlan.getFillType());
+    }
+
+    if (queryPlan instanceof LastQueryPlan) {
+      return queryRouter.lastQuery(queryPlan.getPaths());
+    }
+
+    if (queryPlan instanceof AggregationPlan) {
+      return aggregate(getAggrePair((AggregationPlan) queryPlan), queryPlan.getExpression());
+    }
+
     QueryExpression queryExpression = QueryExpression.create().setSelectSeries(queryPlan.getPaths())
         .setExpression(queryPlan.getExpression());
 
     return queryRouter.query(queryExpression);
   }
 
+  /**
+   * pair each selected path with its aggregation. If only one aggregation is given, it is applied
+   * to all the paths.
+   */
+  private List<Pair<Path, String>> getAggrePair(AggregationPlan plan) {
+    List<Path> paths = plan.getPaths();
+    List<String> aggregations = plan.getAggregations();
+    List<Pair<Path, String>> aggrePairs = new ArrayList<>();
+    for (int i = 0; i < paths.size(); i++) {
+      String aggregation = aggregations.size() == paths.size() ? aggregations.get(i)
+          : aggregations.get(0);
+      aggrePairs.add(new Pair<>(paths.get(i), aggregation));
+    }
+    return aggrePairs;
+  }
+
   public abstract TSDataType getSeriesType(Path fullPath) throws PathErrorException;
 
   public abstract boolean judgePathExists(Path fullPath);
@@ -81,6 +129,10 @@ public abstract class QueryProcessExecutor {
       long origin, List<Pair<Long, Long>> intervals, int fetchSize)
       throws ProcessorException, IOException, PathErrorException;
 
+  public abstract QueryDataSet fill(List<Path> fillPaths, long queryTime,
+      Map<TSDataType, IFill> fillTypes)
+      throws ProcessorException, IOException, PathErrorException;
+
   /**
    * executeWithGlobalTimeFilter update command and return whether the operator is successful.
    *
@@ -174,6 +226,15 @@ public abstract class QueryProcessExecutor {
   public abstract int multiInsert(String deviceId, long insertTime, List<String> measurementList,
       List<String> insertValues) throws ProcessorException;
 
+  /**
+   * insert a batch of typed rows of one device.
+   *
+   * @param plan
+   *            the rows to be inserted
+   * @return - Operate Type of each row, which is not positive if the row fails.
+   */
+  public abstract int[] insertBatch(BatchInsertPlan plan) throws ProcessorException;
+
   public abstract List<String> getAllPaths(String originPath) throws PathErrorException;
 
 }
@@ -24,6 +24,7 @@ import java.util.Objects;
 import org.apache.iotdb.db.qp.logical.Operator;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
 
 public class InsertPlan extends PhysicalPlan {
 
@@ -31,6 +32,11 @@ public class InsertPlan extends PhysicalPlan {
   private List<String> measurements;
   private List<String> values;
   private long time;
+  /**
+   * the typed values, which are set when the plan is written to or read from the WAL, so that
+   * the values are neither converted to strings nor parsed.
+   */
+  private List<DataPoint> dataPoints;
 
   // insertType
   // 1 : BufferWrite Insert 2 : Overflow Insert
@@ -98,6 +104,13 @@ public class InsertPlan extends PhysicalPlan {
   }
 
   public List<String> getValues() {
+    if (values == null && dataPoints != null) {
+      List<String> valueList = new ArrayList<>(dataPoints.size());
+      for (DataPoint dataPoint : dataPoints) {
+        valueList.add(dataPoint.getValue().toString());
+      }
+      values = valueList;
+    }
     return this.values;
   }
 
@@ -105,6 +118,14 @@ public class InsertPlan extends PhysicalPlan {
     this.values = values;
   }
 
+  public List<DataPoint> getDataPoints() {
+    return dataPoints;
+  }
+
+  public void setDataPoints(List<DataPoint> dataPoints) {
+    this.dataPoints = dataPoints;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -116,7 +137,7 @@ public class InsertPlan extends PhysicalPlan {
     InsertPlan that = (InsertPlan) o;
     return time == that.time && Objects.equals(deviceId, that.deviceId)
         && Objects.equals(measurements, that.measurements)
-        && Objects.equals(values, that.values);
+        && Objects.equals(getValues(), that.getValues());
   }
 
 }
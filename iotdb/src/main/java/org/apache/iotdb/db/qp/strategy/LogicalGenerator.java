@@ -57,12 +57,15 @@ import org.apache.iotdb.db.sql.parse.Node;
 import org.apache.iotdb.db.sql.parse.TSParser;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.common.constant.SystemConstant;
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.utils.StringContainer;
+import org.apache.iotdb.tsfile.write.chunk.LossyFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -388,6 +391,11 @@ public class LogicalGenerator {
       AstNode node = paramNode.getChild(offset++);
       props.put(node.getChild(0).getText().toLowerCase(), node.getChild(1).getText());
     }
+    try {
+      LossyFilter.getFilter(TSDataType.valueOf(dataType), props);
+    } catch (IllegalArgumentException | UnSupportedDataTypeException e) {
+      throw new MetadataArgsErrorException(e.getMessage());
+    }
     MetadataOperator metadataOperator = new MetadataOperator(SQLConstant.TOK_METADATA_CREATE,
         MetadataOperator.NamespaceType.ADD_PATH);
     metadataOperator.setPath(series);
@@ -1095,7 +1103,8 @@ public class LogicalGenerator {
     }
 
     try {
-      CompressionType.valueOf(compressor);
+      // the compression types without a compressor can not be used
+      ICompressor.getCompressor(compressor);
     } catch (Exception e) {
       throw new MetadataArgsErrorException(String.format("compressor %s is not support", compressor));
     }
@@ -41,11 +41,13 @@ import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.FillQueryPlan;
 import org.apache.iotdb.db.qp.physical.crud.GroupByPlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.qp.physical.crud.LastQueryPlan;
 import org.apache.iotdb.db.qp.physical.crud.QueryPlan;
 import org.apache.iotdb.db.qp.physical.sys.AuthorPlan;
 import org.apache.iotdb.db.qp.physical.sys.LoadDataPlan;
 import org.apache.iotdb.db.qp.physical.sys.MetadataPlan;
 import org.apache.iotdb.db.qp.physical.sys.PropertyPlan;
+import org.apache.iotdb.tsfile.common.constant.StatisticConstant;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.expression.IExpression;
 import org.slf4j.Logger;
@@ -232,6 +234,21 @@ public class PhysicalGenerator {
   // }
   // }
 
+  /**
+   * whether the query selects only the last point of series without any filter.
+   */
+  private boolean isLastQuery(QueryOperator queryOperator) {
+    if (queryOperator.getFilterOperator() != null) {
+      return false;
+    }
+    for (String aggregation : queryOperator.getSelectOperator().getAggregations()) {
+      if (!StatisticConstant.LAST.equalsIgnoreCase(aggregation)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private PhysicalPlan transformQuery(QueryOperator queryOperator)
       throws QueryProcessorException, ProcessorException {
 
@@ -242,6 +259,8 @@ public class PhysicalGenerator {
       ((GroupByPlan) queryPlan).setUnit(queryOperator.getUnit());
       ((GroupByPlan) queryPlan).setOrigin(queryOperator.getOrigin());
       ((GroupByPlan) queryPlan).setIntervals(queryOperator.getIntervals());
+      ((GroupByPlan) queryPlan)
+          .setAggregations(queryOperator.getSelectOperator().getAggregations());
     } else if (queryOperator.isFill()) {
       queryPlan = new FillQueryPlan();
       FilterOperator timeFilter = queryOperator.getFilterOperator();
@@ -252,7 +271,7 @@ public class PhysicalGenerator {
       ((FillQueryPlan) queryPlan).setQueryTime(time);
       ((FillQueryPlan) queryPlan).setFillType(queryOperator.getFillTypes());
     } else if (queryOperator.hasAggregation()) { // ordinary query
-      queryPlan = new AggregationPlan();
+      queryPlan = isLastQuery(queryOperator) ? new LastQueryPlan() : new AggregationPlan();
       ((AggregationPlan) queryPlan)
           .setAggregations(queryOperator.getSelectOperator().getAggregations());
     } else {
@@ -0,0 +1,145 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.aggregation;
+
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+/**
+ * <p>
+ * Base class of aggregation functions. The result of a function is accumulated either from the
+ * statistics of a chunk or a page, or from single points when the data has to be decoded.
+ * </p>
+ * Data is fed in the order of time, and a point is fed only once even if it exists in both the
+ * sequence and the unsequence data.
+ */
+public abstract class AggregateFunction {
+
+  protected String name;
+  protected TSDataType seriesDataType;
+  protected TSDataType resultDataType;
+
+  /**
+   * construct a function.
+   *
+   * @param name name of the aggregation, e.g. count
+   * @param seriesDataType data type of the aggregated series
+   * @param resultDataType data type of the aggregation result
+   */
+  public AggregateFunction(String name, TSDataType seriesDataType, TSDataType resultDataType) {
+    this.name = name;
+    this.seriesDataType = seriesDataType;
+    this.resultDataType = resultDataType;
+  }
+
+  /**
+   * clear the accumulated result.
+   */
+  public abstract void init();
+
+  /**
+   * get the aggregation result.
+   *
+   * @return a null Field if there is no data
+   */
+  public abstract Field getResult();
+
+  /**
+   * accumulate the statistics of a chunk or a page, all the points of which are covered by the
+   * query.
+   *
+   * @param count number of points
+   * @param startTime time of the first point
+   * @param endTime time of the last point
+   * @param statistics statistics of the values
+   */
+  public abstract void calculateValueFromStatistics(long count, long startTime, long endTime,
+      Statistics statistics);
+
+  /**
+   * accumulate a single point.
+   */
+  public abstract void calculateValueFromPoint(long time, Object value);
+
+  /**
+   * accumulate all the remaining points in a batch.
+   */
+  public void calculateValueFromBatchData(BatchData batchData) {
+    while (batchData.hasNext() && !isCalculatedAggregationResult()) {
+      calculateValueFromPoint(batchData.currentTime(), batchData.currentValue());
+      batchData.next();
+    }
+  }
+
+  /**
+   * whether the result will not change with more data, which is used to stop reading early.
+   */
+  public boolean isCalculatedAggregationResult() {
+    return false;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public TSDataType getResultDataType() {
+    return resultDataType;
+  }
+
+  /**
+   * construct a Field of the result data type.
+   */
+  protected Field constructField(Object value) {
+    Field field = new Field(resultDataType);
+    switch (resultDataType) {
+      case BOOLEAN:
+        field.setBoolV((boolean) value);
+        break;
+      case INT32:
+        field.setIntV((int) value);
+        break;
+      case INT64:
+        field.setLongV((long) value);
+        break;
+      case FLOAT:
+        field.setFloatV((float) value);
+        break;
+      case DOUBLE:
+        field.setDoubleV((double) value);
+        break;
+      case TEXT:
+        field.setBinaryV((Binary) value);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(resultDataType));
+    }
+    return field;
+  }
+
+  /**
+   * construct an empty Field, which is used when there is no data.
+   */
+  protected Field constructNullField() {
+    return new Field(null);
+  }
+}
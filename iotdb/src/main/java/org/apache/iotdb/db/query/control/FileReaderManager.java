@@ -19,7 +19,9 @@
 package org.apache.iotdb.db.query.control;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -30,6 +32,7 @@ import org.apache.iotdb.db.service.IService;
 import org.apache.iotdb.db.service.ServiceType;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.UnClosedTsFileReader;
+import org.apache.iotdb.tsfile.read.reader.MappedTsFileInput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -68,6 +71,12 @@ public class FileReaderManager implements IService {
    */
   private ConcurrentHashMap<String, AtomicInteger> unclosedReferenceMap;
 
+  /**
+   * the files removed while still being read, whose readers are closed when their reference counts
+   * drop to zero.
+   */
+  private Set<String> removedFiles;
+
   private ScheduledExecutorService executorService;
 
   private FileReaderManager() {
@@ -75,6 +84,7 @@ public class FileReaderManager implements IService {
     unclosedFileReaderMap = new ConcurrentHashMap<>();
     closedReferenceMap = new ConcurrentHashMap<>();
     unclosedReferenceMap = new ConcurrentHashMap<>();
+    removedFiles = ConcurrentHashMap.newKeySet();
     executorService = IoTDBThreadPoolFactory.newScheduledThreadPool(1,
         "opended-files-manager");
 
@@ -111,6 +121,7 @@ public class FileReaderManager implements IService {
         }
         readerMap.remove(entry.getKey());
         refMap.remove(entry.getKey());
+        removedFiles.remove(entry.getKey());
       }
     }
   }
@@ -136,8 +147,15 @@ public class FileReaderManager implements IService {
         LOGGER.warn("Query has opened {} files !", readerMap.size());
       }
 
-      TsFileSequenceReader tsFileReader = !isClosed ? new UnClosedTsFileReader(filePath)
-          : new TsFileSequenceReader(filePath);
+      TsFileSequenceReader tsFileReader;
+      if (!isClosed) {
+        tsFileReader = new UnClosedTsFileReader(filePath);
+      } else if (isMmapEnabled()) {
+        tsFileReader = new TsFileSequenceReader(filePath,
+            new MappedTsFileInput(Paths.get(filePath)));
+      } else {
+        tsFileReader = new TsFileSequenceReader(filePath);
+      }
 
       readerMap.put(filePath, tsFileReader);
       return tsFileReader;
@@ -163,27 +181,58 @@ public class FileReaderManager implements IService {
    * Only when the reference count of a reader equals zero, the reader can be closed and removed.
    */
   public synchronized void decreaseFileReaderReference(String filePath, boolean isClosed) {
+    Map<String, TsFileSequenceReader> readerMap;
+    Map<String, AtomicInteger> refMap;
     if (!isClosed && unclosedReferenceMap.containsKey(filePath)) {
-      unclosedReferenceMap.get(filePath).getAndDecrement();
-    } else if (closedReferenceMap.containsKey(filePath)){
-      closedReferenceMap.get(filePath).getAndDecrement();
+      readerMap = unclosedFileReaderMap;
+      refMap = unclosedReferenceMap;
+    } else if (closedReferenceMap.containsKey(filePath)) {
+      readerMap = closedFileReaderMap;
+      refMap = closedReferenceMap;
+    } else {
+      return;
+    }
+    if (refMap.get(filePath).decrementAndGet() == 0 && removedFiles.contains(filePath)) {
+      try {
+        removeReader(filePath, readerMap, refMap);
+      } catch (IOException e) {
+        LOGGER.error("Can not close TsFileSequenceReader {} !", filePath, e);
+      }
     }
   }
 
   /**
-   * This method is used when the given file path is deleted.
+   * This method is used when the given file path is deleted. The reader is closed at once if no
+   * query is reading the file, otherwise it is closed when the last query reading the file
+   * releases it, as the data read from a memory-mapped reader become invalid once it is closed.
    */
   public synchronized void closeFileAndRemoveReader(String filePath)
       throws IOException {
     if (unclosedFileReaderMap.containsKey(filePath)) {
-      unclosedReferenceMap.remove(filePath);
-      unclosedFileReaderMap.get(filePath).close();
-      unclosedFileReaderMap.remove(filePath);
+      closeOrMarkRemoved(filePath, unclosedFileReaderMap, unclosedReferenceMap);
     }
     if (closedFileReaderMap.containsKey(filePath)) {
-      closedReferenceMap.remove(filePath);
-      closedFileReaderMap.get(filePath).close();
-      closedFileReaderMap.remove(filePath);
+      closeOrMarkRemoved(filePath, closedFileReaderMap, closedReferenceMap);
+    }
+  }
+
+  private void closeOrMarkRemoved(String filePath, Map<String, TsFileSequenceReader> readerMap,
+      Map<String, AtomicInteger> refMap) throws IOException {
+    AtomicInteger referenceNum = refMap.get(filePath);
+    if (referenceNum != null && referenceNum.get() > 0) {
+      removedFiles.add(filePath);
+    } else {
+      removeReader(filePath, readerMap, refMap);
+    }
+  }
+
+  private void removeReader(String filePath, Map<String, TsFileSequenceReader> readerMap,
+      Map<String, AtomicInteger> refMap) throws IOException {
+    refMap.remove(filePath);
+    removedFiles.remove(filePath);
+    TsFileSequenceReader reader = readerMap.remove(filePath);
+    if (reader != null) {
+      reader.close();
     }
   }
 
@@ -202,6 +251,11 @@ public class FileReaderManager implements IService {
       unclosedReferenceMap.remove(entry.getKey());
       unclosedFileReaderMap.remove(entry.getKey());
     }
+    removedFiles.clear();
+  }
+
+  private boolean isMmapEnabled() {
+    return IoTDBDescriptor.getInstance().getConfig().isEnableMmapTsFileReader();
   }
 
   /**
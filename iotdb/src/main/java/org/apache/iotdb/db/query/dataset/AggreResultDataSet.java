@@ -0,0 +1,62 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.dataset;
+
+import java.util.List;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+
+/**
+ * Dataset of an aggregation query, which has only one row. The timestamp of the row is 0.
+ */
+public class AggreResultDataSet extends QueryDataSet {
+
+  private List<Field> results;
+  private boolean hasNext = true;
+
+  /**
+   * constructor of AggreResultDataSet.
+   *
+   * @param paths paths of the aggregated series
+   * @param dataTypes data types of the aggregation results
+   * @param results aggregation results, one for each path
+   */
+  public AggreResultDataSet(List<Path> paths, List<TSDataType> dataTypes, List<Field> results) {
+    super(paths, dataTypes);
+    this.results = results;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return hasNext;
+  }
+
+  @Override
+  public RowRecord next() {
+    hasNext = false;
+    RowRecord record = new RowRecord(0);
+    for (Field result : results) {
+      record.addField(result);
+    }
+    return record;
+  }
+}
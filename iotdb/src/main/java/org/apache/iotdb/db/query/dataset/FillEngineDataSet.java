@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.dataset;
+
+import java.util.List;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.TimeValuePairUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+
+/**
+ * Dataset of a fill query, which has only one row at the query time.
+ */
+public class FillEngineDataSet extends QueryDataSet {
+
+  private long queryTime;
+  private List<TimeValuePair> results;
+  private boolean hasNext = true;
+
+  /**
+   * constructor of FillEngineDataSet.
+   *
+   * @param results filled points, one for each path, null if the value can not be filled
+   */
+  public FillEngineDataSet(List<Path> paths, List<TSDataType> dataTypes, long queryTime,
+      List<TimeValuePair> results) {
+    super(paths, dataTypes);
+    this.queryTime = queryTime;
+    this.results = results;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return hasNext;
+  }
+
+  @Override
+  public RowRecord next() {
+    hasNext = false;
+    RowRecord record = new RowRecord(queryTime);
+    for (int i = 0; i < results.size(); i++) {
+      record.addField(TimeValuePairUtils.getValueField(dataTypes.get(i), results.get(i)));
+    }
+    return record;
+  }
+}
@@ -0,0 +1,168 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.dataset;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.apache.iotdb.db.query.aggregation.AggregateFunction;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Pair;
+
+/**
+ * <p>
+ * Dataset of a group by query. The time axis is split into windows of <code>unit</code> aligned
+ * to <code>origin</code>, and each window is clipped by the intervals of the query. One row is
+ * returned for each window, the timestamp of which is the start of the clipped window.
+ * </p>
+ */
+public abstract class GroupByEngineDataSet extends QueryDataSet {
+
+  protected long jobId;
+  protected List<AggregateFunction> functions;
+
+  private long unit;
+  private long origin;
+  private List<Pair<Long, Long>> mergedIntervals;
+
+  private int usedIndex;
+  private boolean intervalStarted;
+  private long alignedStartTime;
+  private boolean hasCachedTimeInterval;
+
+  /**
+   * start time and end time of current window, both are included.
+   */
+  protected long startTime;
+  protected long endTime;
+
+  /**
+   * constructor of GroupByEngineDataSet.
+   *
+   * @param functions aggregation functions, one for each path
+   * @param intervals time intervals of the query, both start and end are included
+   */
+  public GroupByEngineDataSet(long jobId, List<Path> paths, List<AggregateFunction> functions,
+      long unit, long origin, List<Pair<Long, Long>> intervals) {
+    super(paths, getResultDataTypes(functions));
+    this.jobId = jobId;
+    this.functions = functions;
+    this.unit = unit;
+    this.origin = origin;
+    this.mergedIntervals = mergeIntervals(intervals);
+  }
+
+  private static List<TSDataType> getResultDataTypes(List<AggregateFunction> functions) {
+    List<TSDataType> dataTypes = new ArrayList<>();
+    for (AggregateFunction function : functions) {
+      dataTypes.add(function.getResultDataType());
+    }
+    return dataTypes;
+  }
+
+  /**
+   * sort the intervals by start time and merge the overlapped ones, so that the windows are in
+   * the order of time.
+   */
+  private static List<Pair<Long, Long>> mergeIntervals(List<Pair<Long, Long>> intervals) {
+    List<Pair<Long, Long>> sortedIntervals = new ArrayList<>(intervals);
+    sortedIntervals.sort(Comparator.comparingLong(interval -> interval.left));
+
+    List<Pair<Long, Long>> merged = new ArrayList<>();
+    for (Pair<Long, Long> interval : sortedIntervals) {
+      if (interval.left > interval.right) {
+        continue;
+      }
+      Pair<Long, Long> last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+      if (last != null && interval.left <= last.right) {
+        last.right = Math.max(last.right, interval.right);
+      } else {
+        merged.add(new Pair<>(interval.left, interval.right));
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * get the merged intervals of the query, which are sorted by start time.
+   */
+  protected List<Pair<Long, Long>> getMergedIntervals() {
+    return mergedIntervals;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (hasCachedTimeInterval) {
+      return true;
+    }
+
+    while (usedIndex < mergedIntervals.size()) {
+      Pair<Long, Long> interval = mergedIntervals.get(usedIndex);
+      if (!intervalStarted) {
+        alignedStartTime = origin + Math.floorDiv(interval.left - origin, unit) * unit;
+        intervalStarted = true;
+      }
+
+      startTime = Math.max(alignedStartTime, interval.left);
+      endTime = alignedStartTime > interval.right - unit ? interval.right
+          : alignedStartTime + unit - 1;
+      if (endTime == interval.right) {
+        usedIndex++;
+        intervalStarted = false;
+      } else {
+        alignedStartTime += unit;
+      }
+      hasCachedTimeInterval = true;
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public RowRecord next() throws IOException {
+    if (!hasCachedTimeInterval && !hasNext()) {
+      return null;
+    }
+    hasCachedTimeInterval = false;
+    for (AggregateFunction function : functions) {
+      function.init();
+    }
+    return nextWindow();
+  }
+
+  /**
+   * calculate the aggregation results of the window [startTime, endTime].
+   */
+  protected abstract RowRecord nextWindow() throws IOException;
+
+  /**
+   * construct the row of current window using the results of the functions.
+   */
+  protected RowRecord constructRowRecord() {
+    RowRecord record = new RowRecord(startTime);
+    for (AggregateFunction function : functions) {
+      record.addField(function.getResult());
+    }
+    return record;
+  }
+}
@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.dataset;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.query.aggregation.AggregateFunction;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.QueryDataSourceManager;
+import org.apache.iotdb.db.query.factory.SeriesReaderFactory;
+import org.apache.iotdb.db.query.reader.merge.EngineReaderByTimeStamp;
+import org.apache.iotdb.db.query.reader.merge.PriorityMergeReader;
+import org.apache.iotdb.db.query.reader.merge.PriorityMergeReaderByTimestamp;
+import org.apache.iotdb.db.query.reader.sequence.SequenceDataReader;
+import org.apache.iotdb.db.query.timegenerator.EngineTimeGenerator;
+import org.apache.iotdb.db.utils.TsPrimitiveType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.IExpression;
+import org.apache.iotdb.tsfile.read.query.timegenerator.TimeGenerator;
+import org.apache.iotdb.tsfile.utils.Pair;
+
+/**
+ * Group by dataset with value filter. The points are read by the timestamps generated by the
+ * value filter, and the timestamps are consumed window by window.
+ */
+public class GroupByWithValueFilterDataSet extends GroupByEngineDataSet {
+
+  private IExpression expression;
+  private TimeGenerator timestampGenerator;
+  private List<EngineReaderByTimeStamp> readersOfSelectedSeries = new ArrayList<>();
+
+  /**
+   * the first timestamp after current window.
+   */
+  private long cachedTimestamp;
+  private boolean hasCachedTimestamp;
+
+  /**
+   * constructor of GroupByWithValueFilterDataSet.
+   *
+   * @param expression expression with value filter, including the intervals
+   */
+  public GroupByWithValueFilterDataSet(long jobId, List<Path> paths,
+      List<AggregateFunction> functions, long unit, long origin,
+      List<Pair<Long, Long>> intervals, IExpression expression) {
+    super(jobId, paths, functions, unit, origin, intervals);
+    this.expression = expression;
+  }
+
+  /**
+   * init the timestamp generator and readers of the selected series.
+   */
+  public void initGroupBy(QueryContext context) throws FileNodeManagerException, IOException {
+    timestampGenerator = new EngineTimeGenerator(jobId, expression, context);
+    for (Path path : paths) {
+      QueryDataSource queryDataSource = QueryDataSourceManager.getQueryDataSource(jobId, path,
+          context);
+
+      PriorityMergeReaderByTimestamp mergeReaderByTimestamp = new PriorityMergeReaderByTimestamp();
+
+      // reader for sequence data
+      SequenceDataReader tsFilesReader = new SequenceDataReader(queryDataSource.getSeqDataSource(),
+          null, context);
+      mergeReaderByTimestamp.addReaderWithPriority(tsFilesReader, PriorityMergeReader.LOW_PRIORITY);
+
+      // reader for unSequence data
+      PriorityMergeReader unSeqMergeReader = SeriesReaderFactory.getInstance()
+          .createUnSeqMergeReader(queryDataSource.getOverflowSeriesDataSource(), null);
+      mergeReaderByTimestamp
+          .addReaderWithPriority(unSeqMergeReader, PriorityMergeReader.HIGH_PRIORITY);
+
+      readersOfSelectedSeries.add(mergeReaderByTimestamp);
+    }
+  }
+
+  @Override
+  protected RowRecord nextWindow() throws IOException {
+    if (hasCachedTimestamp) {
+      if (cachedTimestamp > endTime) {
+        return constructRowRecord();
+      }
+      hasCachedTimestamp = false;
+      calculateTimestamp(cachedTimestamp);
+    }
+
+    while (timestampGenerator.hasNext()) {
+      long timestamp = timestampGenerator.next();
+      if (timestamp > endTime) {
+        cachedTimestamp = timestamp;
+        hasCachedTimestamp = true;
+        break;
+      }
+      calculateTimestamp(timestamp);
+    }
+    return constructRowRecord();
+  }
+
+  private void calculateTimestamp(long timestamp) throws IOException {
+    if (timestamp < startTime) {
+      return;
+    }
+    for (int i = 0; i < functions.size(); i++) {
+      TsPrimitiveType value = readersOfSelectedSeries.get(i).getValueInTimestamp(timestamp);
+      if (value != null) {
+        functions.get(i).calculateValueFromPoint(timestamp, value.getValue());
+      }
+    }
+  }
+}
@@ -0,0 +1,216 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.dataset;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.query.aggregation.AggregateFunction;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.QueryDataSourceManager;
+import org.apache.iotdb.db.query.factory.SeriesReaderFactory;
+import org.apache.iotdb.db.query.reader.IAggregateReader;
+import org.apache.iotdb.db.query.reader.merge.PriorityMergeReader;
+import org.apache.iotdb.db.query.reader.sequence.SequenceAggregateReader;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.utils.Pair;
+
+/**
+ * <p>
+ * Group by dataset with only time filter. The data of each series is read in the order of time
+ * and shared by consecutive windows. The statistics of a chunk or a page are used when it is
+ * fully inside a window, covered by the time filter and not overlapped by unsequence data.
+ * </p>
+ */
+public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
+
+  private Filter timeFilter;
+  private List<IAggregateReader> sequenceReaderList = new ArrayList<>();
+  private List<PriorityMergeReader> unSequenceReaderList = new ArrayList<>();
+
+  /**
+   * decoded data of each series which has not been calculated, i.e. it belongs to later windows.
+   */
+  private List<BatchData> batchDataList = new ArrayList<>();
+
+  /**
+   * constructor of GroupByWithoutValueFilterDataSet.
+   *
+   * @param timeFilter time filter of the query, including the intervals
+   */
+  public GroupByWithoutValueFilterDataSet(long jobId, List<Path> paths,
+      List<AggregateFunction> functions, long unit, long origin,
+      List<Pair<Long, Long>> intervals, Filter timeFilter) {
+    super(jobId, paths, functions, unit, origin, intervals);
+    this.timeFilter = timeFilter;
+  }
+
+  /**
+   * init readers of the selected series.
+   */
+  public void initGroupBy(QueryContext context) throws FileNodeManagerException, IOException {
+    for (Path path : paths) {
+      QueryDataSource queryDataSource = QueryDataSourceManager.getQueryDataSource(jobId, path,
+          context);
+
+      // sequence reader for sealed tsfile, unsealed tsfile, memory
+      sequenceReaderList.add(new SequenceAggregateReader(queryDataSource.getSeqDataSource(),
+          timeFilter, context));
+
+      // unseq reader for all chunk groups in unSeqFile, memory
+      unSequenceReaderList.add(SeriesReaderFactory.getInstance()
+          .createUnSeqMergeReader(queryDataSource.getOverflowSeriesDataSource(), timeFilter));
+
+      batchDataList.add(null);
+    }
+  }
+
+  @Override
+  protected RowRecord nextWindow() throws IOException {
+    for (int i = 0; i < functions.size(); i++) {
+      calculateWindow(i);
+    }
+    return constructRowRecord();
+  }
+
+  private void calculateWindow(int index) throws IOException {
+    AggregateFunction function = functions.get(index);
+    IAggregateReader sequenceReader = sequenceReaderList.get(index);
+    PriorityMergeReader unSequenceReader = unSequenceReaderList.get(index);
+
+    // the decoded data left by the last window
+    BatchData batchData = batchDataList.get(index);
+    if (batchData != null && batchData.hasNext()) {
+      aggregateBatchData(function, batchData, unSequenceReader);
+      if (batchData.hasNext()) {
+        aggregateUnSequenceData(function, unSequenceReader, endTime);
+        return;
+      }
+    }
+
+    while (sequenceReader.hasNext()) {
+
+      // try to calculate from chunk statistics
+      ChunkMetaData chunkMetaData = sequenceReader.nextChunkMetaData();
+      if (chunkMetaData != null) {
+        if (chunkMetaData.getStartTime() > endTime) {
+          break;
+        }
+        if (canUseStatistics(function, unSequenceReader, chunkMetaData.getStartTime(),
+            chunkMetaData.getEndTime())) {
+          Statistics statistics = Statistics
+              .deserialize(chunkMetaData.getDigest(), chunkMetaData.getTsDataType());
+          if (statistics != null) {
+            function.calculateValueFromStatistics(chunkMetaData.getNumOfPoints(),
+                chunkMetaData.getStartTime(), chunkMetaData.getEndTime(), statistics);
+            sequenceReader.skipChunk();
+            continue;
+          }
+        }
+      }
+
+      // try to calculate from page statistics
+      PageHeader pageHeader = sequenceReader.nextPageHeader();
+      if (pageHeader != null) {
+        if (pageHeader.getMinTimestamp() > endTime) {
+          break;
+        }
+        if (canUseStatistics(function, unSequenceReader, pageHeader.getMinTimestamp(),
+            pageHeader.getMaxTimestamp())) {
+          function.calculateValueFromStatistics(pageHeader.getNumOfValues(),
+              pageHeader.getMinTimestamp(), pageHeader.getMaxTimestamp(),
+              pageHeader.getStatistics());
+          sequenceReader.skipPage();
+          continue;
+        }
+      }
+
+      // decode the page, the points after current window are kept for later windows
+      batchData = sequenceReader.nextBatch();
+      batchDataList.set(index, batchData);
+      aggregateBatchData(function, batchData, unSequenceReader);
+      if (batchData.hasNext()) {
+        break;
+      }
+    }
+
+    aggregateUnSequenceData(function, unSequenceReader, endTime);
+  }
+
+  /**
+   * the statistics of [start, end] can be used if it is inside current window, covered by the
+   * time filter and no unsequence point falls in it. Unsequence data before start is calculated
+   * first to keep the order of time.
+   */
+  private boolean canUseStatistics(AggregateFunction function,
+      PriorityMergeReader unSequenceReader, long start, long end) throws IOException {
+    if (start < startTime || end > endTime) {
+      return false;
+    }
+    if (timeFilter != null && !timeFilter.containStartEndTime(start, end)) {
+      return false;
+    }
+    aggregateUnSequenceData(function, unSequenceReader, start - 1);
+    return !unSequenceReader.hasNext() || unSequenceReader.current().getTimestamp() > end;
+  }
+
+  /**
+   * calculate the points in batchData until the end of current window, a point of the unsequence
+   * data overrides the sequence one with the same timestamp.
+   */
+  private void aggregateBatchData(AggregateFunction function, BatchData batchData,
+      PriorityMergeReader unSequenceReader) throws IOException {
+    while (batchData.hasNext() && batchData.currentTime() <= endTime) {
+      long time = batchData.currentTime();
+      aggregateUnSequenceData(function, unSequenceReader, time - 1);
+      Object value = batchData.currentValue();
+      if (unSequenceReader.hasNext() && unSequenceReader.current().getTimestamp() == time) {
+        value = unSequenceReader.next().getValue().getValue();
+      }
+      if (time >= startTime) {
+        function.calculateValueFromPoint(time, value);
+      }
+      batchData.next();
+    }
+  }
+
+  /**
+   * calculate the unsequence points whose timestamp is not greater than bound, the points before
+   * current window are skipped.
+   */
+  private void aggregateUnSequenceData(AggregateFunction function,
+      PriorityMergeReader unSequenceReader, long bound) throws IOException {
+    while (unSequenceReader.hasNext() && unSequenceReader.current().getTimestamp() <= bound) {
+      TimeValuePair timeValuePair = unSequenceReader.next();
+      if (timeValuePair.getTimestamp() >= startTime) {
+        function.calculateValueFromPoint(timeValuePair.getTimestamp(),
+            timeValuePair.getValue().getValue());
+      }
+    }
+  }
+}
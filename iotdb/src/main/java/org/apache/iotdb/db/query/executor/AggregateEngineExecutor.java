@@ -0,0 +1,264 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.executor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.db.metadata.MManager;
+import org.apache.iotdb.db.query.aggregation.AggregateFunction;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.QueryDataSourceManager;
+import org.apache.iotdb.db.query.control.QueryTokenManager;
+import org.apache.iotdb.db.query.dataset.AggreResultDataSet;
+import org.apache.iotdb.db.query.factory.AggreFuncFactory;
+import org.apache.iotdb.db.query.factory.SeriesReaderFactory;
+import org.apache.iotdb.db.query.reader.IAggregateReader;
+import org.apache.iotdb.db.query.reader.merge.EngineReaderByTimeStamp;
+import org.apache.iotdb.db.query.reader.merge.PriorityMergeReader;
+import org.apache.iotdb.db.query.reader.merge.PriorityMergeReaderByTimestamp;
+import org.apache.iotdb.db.query.reader.sequence.SequenceAggregateReader;
+import org.apache.iotdb.db.query.reader.sequence.SequenceDataReader;
+import org.apache.iotdb.db.query.timegenerator.EngineTimeGenerator;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.TsPrimitiveType;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.expression.IExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+
+/**
+ * <p>
+ * IoTDB aggregation executor. When there is no value filter, the statistics of a chunk or a page
+ * are used instead of decoding the data if all the points of it are covered by the time filter and
+ * none of them is overlapped by the unsequence data.
+ * </p>
+ */
+public class AggregateEngineExecutor {
+
+  private long jobId;
+  private List<Path> selectedSeries;
+  private List<String> aggres;
+  private IExpression expression;
+
+  /**
+   * constructor of AggregateEngineExecutor.
+   *
+   * @param aggres aggregation function names, one for each path in selectedSeries
+   * @param expression null or an expression with global time filter or value filter
+   */
+  AggregateEngineExecutor(long jobId, List<Path> selectedSeries, List<String> aggres,
+      IExpression expression) {
+    this.jobId = jobId;
+    this.selectedSeries = selectedSeries;
+    this.aggres = aggres;
+    this.expression = expression;
+  }
+
+  /**
+   * execute aggregate function with only time filter or no filter.
+   */
+  public AggreResultDataSet executeWithoutValueFilter(QueryContext context)
+      throws FileNodeManagerException, IOException, PathErrorException, ProcessorException {
+
+    Filter timeFilter = null;
+    if (expression != null) {
+      timeFilter = ((GlobalTimeExpression) expression).getFilter();
+    }
+
+    QueryTokenManager.getInstance().beginQueryOfGivenQueryPaths(jobId, selectedSeries);
+
+    List<Field> results = new ArrayList<>();
+    List<TSDataType> dataTypes = new ArrayList<>();
+    for (int i = 0; i < selectedSeries.size(); i++) {
+      Path path = selectedSeries.get(i);
+      AggregateFunction function = AggreFuncFactory.getAggrFuncByName(aggres.get(i),
+          MManager.getInstance().getSeriesType(path.getFullPath()));
+
+      QueryDataSource queryDataSource = QueryDataSourceManager.getQueryDataSource(jobId, path,
+          context);
+
+      // sequence reader for sealed tsfile, unsealed tsfile, memory
+      IAggregateReader sequenceReader = new SequenceAggregateReader(
+          queryDataSource.getSeqDataSource(), timeFilter, context);
+
+      // unseq reader for all chunk groups in unSeqFile, memory
+      PriorityMergeReader unSeqMergeReader = SeriesReaderFactory.getInstance()
+          .createUnSeqMergeReader(queryDataSource.getOverflowSeriesDataSource(), timeFilter);
+
+      aggregateWithoutValueFilter(function, sequenceReader, unSeqMergeReader, timeFilter);
+      results.add(function.getResult());
+      dataTypes.add(function.getResultDataType());
+    }
+    return new AggreResultDataSet(selectedSeries, dataTypes, results);
+  }
+
+  private void aggregateWithoutValueFilter(AggregateFunction function,
+      IAggregateReader sequenceReader, PriorityMergeReader unSequenceReader, Filter timeFilter)
+      throws IOException {
+    while (sequenceReader.hasNext() && !function.isCalculatedAggregationResult()) {
+
+      // try to calculate from chunk statistics
+      ChunkMetaData chunkMetaData = sequenceReader.nextChunkMetaData();
+      if (chunkMetaData != null && canUseStatistics(function, unSequenceReader, timeFilter,
+          chunkMetaData.getStartTime(), chunkMetaData.getEndTime())) {
+        Statistics statistics = Statistics
+            .deserialize(chunkMetaData.getDigest(), chunkMetaData.getTsDataType());
+        if (statistics != null) {
+          function.calculateValueFromStatistics(chunkMetaData.getNumOfPoints(),
+              chunkMetaData.getStartTime(), chunkMetaData.getEndTime(), statistics);
+          sequenceReader.skipChunk();
+          continue;
+        }
+      }
+
+      // try to calculate from page statistics
+      PageHeader pageHeader = sequenceReader.nextPageHeader();
+      if (pageHeader != null && canUseStatistics(function, unSequenceReader, timeFilter,
+          pageHeader.getMinTimestamp(), pageHeader.getMaxTimestamp())) {
+        function.calculateValueFromStatistics(pageHeader.getNumOfValues(),
+            pageHeader.getMinTimestamp(), pageHeader.getMaxTimestamp(),
+            pageHeader.getStatistics());
+        sequenceReader.skipPage();
+        continue;
+      }
+
+      // decode the page and merge it with the unsequence data
+      BatchData batchData = sequenceReader.nextBatch();
+      aggregateBatchData(function, batchData, unSequenceReader);
+    }
+
+    // the remaining unsequence data
+    aggregateUnSequenceData(function, unSequenceReader, Long.MAX_VALUE);
+  }
+
+  /**
+   * the statistics of [startTime, endTime] can be used if all the points are covered by the time
+   * filter and no unsequence point falls in it. Unsequence data before startTime is calculated
+   * first to keep the order of time.
+   */
+  private boolean canUseStatistics(AggregateFunction function,
+      PriorityMergeReader unSequenceReader, Filter timeFilter, long startTime, long endTime)
+      throws IOException {
+    if (timeFilter != null && !timeFilter.containStartEndTime(startTime, endTime)) {
+      return false;
+    }
+    aggregateUnSequenceData(function, unSequenceReader, startTime);
+    return !unSequenceReader.hasNext() || unSequenceReader.current().getTimestamp() > endTime;
+  }
+
+  /**
+   * calculate the points in batchData, a point of the unsequence data overrides the sequence one
+   * with the same timestamp.
+   */
+  private void aggregateBatchData(AggregateFunction function, BatchData batchData,
+      PriorityMergeReader unSequenceReader) throws IOException {
+    while (batchData.hasNext() && !function.isCalculatedAggregationResult()) {
+      long time = batchData.currentTime();
+      aggregateUnSequenceData(function, unSequenceReader, time);
+      if (unSequenceReader.hasNext() && unSequenceReader.current().getTimestamp() == time) {
+        TimeValuePair timeValuePair = unSequenceReader.next();
+        function.calculateValueFromPoint(time, timeValuePair.getValue().getValue());
+      } else {
+        function.calculateValueFromPoint(time, batchData.currentValue());
+      }
+      batchData.next();
+    }
+  }
+
+  /**
+   * calculate the unsequence points whose timestamp is less than bound.
+   */
+  private void aggregateUnSequenceData(AggregateFunction function,
+      PriorityMergeReader unSequenceReader, long bound) throws IOException {
+    while (unSequenceReader.hasNext() && unSequenceReader.current().getTimestamp() < bound
+        && !function.isCalculatedAggregationResult()) {
+      TimeValuePair timeValuePair = unSequenceReader.next();
+      function.calculateValueFromPoint(timeValuePair.getTimestamp(),
+          timeValuePair.getValue().getValue());
+    }
+  }
+
+  /**
+   * execute aggregate function with value filter, the points are read by the timestamps
+   * generated by the value filter.
+   */
+  public AggreResultDataSet executeWithValueFilter(QueryContext context)
+      throws FileNodeManagerException, IOException, PathErrorException, ProcessorException {
+
+    QueryTokenManager.getInstance().beginQueryOfGivenQueryPaths(jobId, selectedSeries);
+    QueryTokenManager.getInstance().beginQueryOfGivenExpression(jobId, expression);
+
+    EngineTimeGenerator timestampGenerator = new EngineTimeGenerator(jobId, expression, context);
+
+    List<AggregateFunction> functions = new ArrayList<>();
+    List<EngineReaderByTimeStamp> readersOfSelectedSeries = new ArrayList<>();
+    for (int i = 0; i < selectedSeries.size(); i++) {
+      Path path = selectedSeries.get(i);
+      functions.add(AggreFuncFactory.getAggrFuncByName(aggres.get(i),
+          MManager.getInstance().getSeriesType(path.getFullPath())));
+
+      QueryDataSource queryDataSource = QueryDataSourceManager.getQueryDataSource(jobId, path,
+          context);
+
+      PriorityMergeReaderByTimestamp mergeReaderByTimestamp = new PriorityMergeReaderByTimestamp();
+
+      // reader for sequence data
+      SequenceDataReader tsFilesReader = new SequenceDataReader(queryDataSource.getSeqDataSource(),
+          null, context);
+      mergeReaderByTimestamp.addReaderWithPriority(tsFilesReader, PriorityMergeReader.LOW_PRIORITY);
+
+      // reader for unSequence data
+      PriorityMergeReader unSeqMergeReader = SeriesReaderFactory.getInstance()
+          .createUnSeqMergeReader(queryDataSource.getOverflowSeriesDataSource(), null);
+      mergeReaderByTimestamp
+          .addReaderWithPriority(unSeqMergeReader, PriorityMergeReader.HIGH_PRIORITY);
+
+      readersOfSelectedSeries.add(mergeReaderByTimestamp);
+    }
+
+    while (timestampGenerator.hasNext()) {
+      long time = timestampGenerator.next();
+      for (int i = 0; i < functions.size(); i++) {
+        TsPrimitiveType value = readersOfSelectedSeries.get(i).getValueInTimestamp(time);
+        if (value != null) {
+          functions.get(i).calculateValueFromPoint(time, value.getValue());
+        }
+      }
+    }
+
+    List<Field> results = new ArrayList<>();
+    List<TSDataType> dataTypes = new ArrayList<>();
+    for (AggregateFunction function : functions) {
+      results.add(function.getResult());
+      dataTypes.add(function.getResultDataType());
+    }
+    return new AggreResultDataSet(selectedSeries, dataTypes, results);
+  }
+}
@@ -21,17 +21,29 @@ package org.apache.iotdb.db.query.executor;
 import static org.apache.iotdb.tsfile.read.expression.ExpressionType.GLOBAL_TIME;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 import org.apache.iotdb.db.exception.FileNodeManagerException;
 import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.exception.ProcessorException;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.OpenedFilePathsManager;
 import org.apache.iotdb.db.query.control.QueryTokenManager;
+import org.apache.iotdb.db.query.fill.IFill;
 import org.apache.iotdb.tsfile.exception.filter.QueryFilterOptimizationException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.expression.IExpression;
 import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.BinaryExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
 import org.apache.iotdb.tsfile.read.expression.util.ExpressionOptimizer;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Pair;
 
 /**
  * Query entrance class of IoTDB query process. All query clause will be transformed to physical
@@ -88,6 +100,134 @@ public class EngineQueryRouter {
     }
   }
 
+  /**
+   * execute aggregation query.
+   *
+   * @param selectedSeries paths of the aggregated series
+   * @param aggres aggregation function names, one for each path
+   * @param expression filter of the query, null if there is no filter
+   */
+  public QueryDataSet aggregate(List<Path> selectedSeries, List<String> aggres,
+      IExpression expression)
+      throws FileNodeManagerException, IOException, PathErrorException, ProcessorException {
+
+    long nextJobId = getNextJobId();
+    QueryTokenManager.getInstance().setJobIdForCurrentRequestThread(nextJobId);
+    OpenedFilePathsManager.getInstance().setJobIdForCurrentRequestThread(nextJobId);
+
+    QueryContext context = new QueryContext();
+
+    if (expression != null) {
+      IExpression optimizedExpression;
+      try {
+        optimizedExpression = ExpressionOptimizer.getInstance()
+            .optimize(expression, selectedSeries);
+      } catch (QueryFilterOptimizationException e) {
+        throw new FileNodeManagerException(e);
+      }
+      AggregateEngineExecutor engineExecutor = new AggregateEngineExecutor(nextJobId,
+          selectedSeries, aggres, optimizedExpression);
+      if (optimizedExpression.getType() == GLOBAL_TIME) {
+        return engineExecutor.executeWithoutValueFilter(context);
+      } else {
+        return engineExecutor.executeWithValueFilter(context);
+      }
+    } else {
+      AggregateEngineExecutor engineExecutor = new AggregateEngineExecutor(nextJobId,
+          selectedSeries, aggres, null);
+      return engineExecutor.executeWithoutValueFilter(context);
+    }
+  }
+
+  /**
+   * execute group by query.
+   *
+   * @param selectedSeries paths of the aggregated series
+   * @param aggres aggregation function names, one for each path
+   * @param expression filter of the query, null if there is no filter
+   * @param unit length of a window
+   * @param origin the start of a window is aligned to origin
+   * @param intervals time intervals of the query, both start and end are included
+   */
+  public QueryDataSet groupBy(List<Path> selectedSeries, List<String> aggres,
+      IExpression expression, long unit, long origin, List<Pair<Long, Long>> intervals)
+      throws FileNodeManagerException, IOException, PathErrorException, ProcessorException {
+
+    if (intervals.isEmpty()) {
+      throw new ProcessorException("group by requires at least one time interval");
+    }
+
+    long nextJobId = getNextJobId();
+    QueryTokenManager.getInstance().setJobIdForCurrentRequestThread(nextJobId);
+    OpenedFilePathsManager.getInstance().setJobIdForCurrentRequestThread(nextJobId);
+
+    QueryContext context = new QueryContext();
+
+    // merge the intervals into the expression, so that data outside them is filtered by readers
+    Filter intervalFilter = null;
+    for (Pair<Long, Long> interval : intervals) {
+      Filter filter = FilterFactory
+          .and(TimeFilter.gtEq(interval.left), TimeFilter.ltEq(interval.right));
+      intervalFilter = intervalFilter == null ? filter : FilterFactory.or(intervalFilter, filter);
+    }
+    IExpression intervalExpression = new GlobalTimeExpression(intervalFilter);
+    if (expression == null) {
+      expression = intervalExpression;
+    } else {
+      expression = BinaryExpression.and(expression, intervalExpression);
+    }
+
+    IExpression optimizedExpression;
+    try {
+      optimizedExpression = ExpressionOptimizer.getInstance().optimize(expression, selectedSeries);
+    } catch (QueryFilterOptimizationException e) {
+      throw new FileNodeManagerException(e);
+    }
+
+    GroupByEngineExecutor engineExecutor = new GroupByEngineExecutor(nextJobId, selectedSeries,
+        aggres, optimizedExpression, unit, origin, intervals);
+    if (optimizedExpression.getType() == GLOBAL_TIME) {
+      return engineExecutor.executeWithoutValueFilter(context);
+    } else {
+      return engineExecutor.executeWithValueFilter(context);
+    }
+  }
+
+  /**
+   * execute fill query.
+   *
+   * @param fillPaths paths of the filled series
+   * @param queryTime the time point of the query
+   * @param fillType fill type of each data type
+   */
+  public QueryDataSet fill(List<Path> fillPaths, long queryTime, Map<TSDataType, IFill> fillType)
+      throws FileNodeManagerException, PathErrorException, IOException {
+    long nextJobId = getNextJobId();
+    QueryTokenManager.getInstance().setJobIdForCurrentRequestThread(nextJobId);
+    OpenedFilePathsManager.getInstance().setJobIdForCurrentRequestThread(nextJobId);
+
+    QueryContext context = new QueryContext();
+    FillEngineExecutor fillEngineExecutor = new FillEngineExecutor(nextJobId, fillPaths, queryTime,
+        fillType);
+    return fillEngineExecutor.execute(context);
+  }
+
+  /**
+   * execute last point query, which selects the last point of each series without any filter.
+   *
+   * @param selectedSeries paths of the selected series
+   */
+  public QueryDataSet lastQuery(List<Path> selectedSeries)
+      throws FileNodeManagerException, PathErrorException, IOException {
+    long nextJobId = getNextJobId();
+    QueryTokenManager.getInstance().setJobIdForCurrentRequestThread(nextJobId);
+    OpenedFilePathsManager.getInstance().setJobIdForCurrentRequestThread(nextJobId);
+
+    QueryContext context = new QueryContext();
+    LastQueryExecutor lastQueryExecutor = new LastQueryExecutor(nextJobId, selectedSeries);
+    return lastQueryExecutor.execute(context);
+  }
+
   private synchronized long getNextJobId() {
     return jobIdGenerator.incrementAndGet();
   }
@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.executor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.metadata.MManager;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.QueryDataSourceManager;
+import org.apache.iotdb.db.query.control.QueryTokenManager;
+import org.apache.iotdb.db.query.dataset.FillEngineDataSet;
+import org.apache.iotdb.db.query.fill.IFill;
+import org.apache.iotdb.db.query.fill.PreviousFill;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+
+/**
+ * IoTDB fill executor, which gets the value of each selected series at a single time point. If
+ * there is no point at the time, the value is filled by the fill type of the data type, or left
+ * null if no fill type is given.
+ */
+public class FillEngineExecutor {
+
+  private long jobId;
+  private List<Path> selectedSeries;
+  private long queryTime;
+  private Map<TSDataType, IFill> fillType;
+
+  FillEngineExecutor(long jobId, List<Path> selectedSeries, long queryTime,
+      Map<TSDataType, IFill> fillType) {
+    this.jobId = jobId;
+    this.selectedSeries = selectedSeries;
+    this.queryTime = queryTime;
+    this.fillType = fillType;
+  }
+
+  /**
+   * execute fill.
+   */
+  public QueryDataSet execute(QueryContext context)
+      throws FileNodeManagerException, PathErrorException, IOException {
+    QueryTokenManager.getInstance().beginQueryOfGivenQueryPaths(jobId, selectedSeries);
+
+    List<TSDataType> dataTypes = new ArrayList<>();
+    List<TimeValuePair> results = new ArrayList<>();
+    for (Path path : selectedSeries) {
+      TSDataType dataType = MManager.getInstance().getSeriesType(path.getFullPath());
+      IFill fill;
+      if (fillType.containsKey(dataType)) {
+        fill = fillType.get(dataType).copy(path);
+      } else {
+        // only the point exactly at the query time is returned
+        fill = new PreviousFill(dataType, queryTime, 0);
+      }
+      fill.setDataType(dataType);
+      fill.setQueryTime(queryTime);
+
+      QueryDataSource queryDataSource = QueryDataSourceManager.getQueryDataSource(jobId, path,
+          context);
+      fill.constructReaders(queryDataSource, context);
+      dataTypes.add(dataType);
+      results.add(fill.getFillResult());
+    }
+    return new FillEngineDataSet(selectedSeries, dataTypes, queryTime, results);
+  }
+}
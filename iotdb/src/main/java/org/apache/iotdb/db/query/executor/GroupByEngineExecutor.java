@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.executor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.db.metadata.MManager;
+import org.apache.iotdb.db.query.aggregation.AggregateFunction;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.QueryTokenManager;
+import org.apache.iotdb.db.query.dataset.GroupByWithValueFilterDataSet;
+import org.apache.iotdb.db.query.dataset.GroupByWithoutValueFilterDataSet;
+import org.apache.iotdb.db.query.factory.AggreFuncFactory;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.expression.IExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Pair;
+
+/**
+ * IoTDB group by executor. The windows are calculated one by one when the dataset is iterated.
+ */
+public class GroupByEngineExecutor {
+
+  private long jobId;
+  private List<Path> selectedSeries;
+  private List<String> aggres;
+  private IExpression expression;
+  private long unit;
+  private long origin;
+  private List<Pair<Long, Long>> intervals;
+
+  /**
+   * constructor of GroupByEngineExecutor.
+   *
+   * @param aggres aggregation function names, one for each path in selectedSeries
+   * @param expression optimized expression, which has included the intervals
+   */
+  GroupByEngineExecutor(long jobId, List<Path> selectedSeries, List<String> aggres,
+      IExpression expression, long unit, long origin, List<Pair<Long, Long>> intervals) {
+    this.jobId = jobId;
+    this.selectedSeries = selectedSeries;
+    this.aggres = aggres;
+    this.expression = expression;
+    this.unit = unit;
+    this.origin = origin;
+    this.intervals = intervals;
+  }
+
+  /**
+   * execute group by with only time filter.
+   */
+  public QueryDataSet executeWithoutValueFilter(QueryContext context)
+      throws FileNodeManagerException, IOException, PathErrorException, ProcessorException {
+    QueryTokenManager.getInstance().beginQueryOfGivenQueryPaths(jobId, selectedSeries);
+
+    GroupByWithoutValueFilterDataSet dataSet = new GroupByWithoutValueFilterDataSet(jobId,
+        selectedSeries, getAggregateFunctions(), unit, origin, intervals,
+        ((GlobalTimeExpression) expression).getFilter());
+    dataSet.initGroupBy(context);
+    return dataSet;
+  }
+
+  /**
+   * execute group by with value filter.
+   */
+  public QueryDataSet executeWithValueFilter(QueryContext context)
+      throws FileNodeManagerException, IOException, PathErrorException, ProcessorException {
+    QueryTokenManager.getInstance().beginQueryOfGivenQueryPaths(jobId, selectedSeries);
+    QueryTokenManager.getInstance().beginQueryOfGivenExpression(jobId, expression);
+
+    GroupByWithValueFilterDataSet dataSet = new GroupByWithValueFilterDataSet(jobId,
+        selectedSeries, getAggregateFunctions(), unit, origin, intervals, expression);
+    dataSet.initGroupBy(context);
+    return dataSet;
+  }
+
+  private List<AggregateFunction> getAggregateFunctions()
+      throws PathErrorException, ProcessorException {
+    List<AggregateFunction> functions = new ArrayList<>();
+    for (int i = 0; i < selectedSeries.size(); i++) {
+      functions.add(AggreFuncFactory.getAggrFuncByName(aggres.get(i),
+          MManager.getInstance().getSeriesType(selectedSeries.get(i).getFullPath())));
+    }
+    return functions;
+  }
+}
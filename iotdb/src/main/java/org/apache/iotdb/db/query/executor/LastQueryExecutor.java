@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.executor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.db.engine.cache.LastValueCache;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.metadata.MManager;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.QueryDataSourceManager;
+import org.apache.iotdb.db.query.control.QueryTokenManager;
+import org.apache.iotdb.db.query.dataset.AggreResultDataSet;
+import org.apache.iotdb.db.query.fill.IFill;
+import org.apache.iotdb.db.query.fill.PreviousFill;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.TimeValuePairUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.Path;
+
+/**
+ * IoTDB executor of the last point query. The last points are read from {@link LastValueCache},
+ * and only the series missing in the cache are read from the data, newest-first.
+ */
+public class LastQueryExecutor {
+
+  private long jobId;
+  private List<Path> selectedSeries;
+
+  LastQueryExecutor(long jobId, List<Path> selectedSeries) {
+    this.jobId = jobId;
+    this.selectedSeries = selectedSeries;
+  }
+
+  /**
+   * execute last point query.
+   */
+  public AggreResultDataSet execute(QueryContext context)
+      throws FileNodeManagerException, PathErrorException, IOException {
+    LastValueCache cache = LastValueCache.getInstance();
+
+    List<TSDataType> dataTypes = new ArrayList<>();
+    TimeValuePair[] lastPoints = new TimeValuePair[selectedSeries.size()];
+    List<Path> missedSeries = new ArrayList<>();
+    List<Integer> missedIndexes = new ArrayList<>();
+    for (int i = 0; i < selectedSeries.size(); i++) {
+      Path path = selectedSeries.get(i);
+      dataTypes.add(MManager.getInstance().getSeriesType(path.getFullPath()));
+      lastPoints[i] = cache.get(path.getFullPath());
+      if (lastPoints[i] == null) {
+        missedSeries.add(path);
+        missedIndexes.add(i);
+      }
+    }
+
+    if (!missedSeries.isEmpty()) {
+      QueryTokenManager.getInstance().beginQueryOfGivenQueryPaths(jobId, missedSeries);
+      for (int i = 0; i < missedSeries.size(); i++) {
+        Path path = missedSeries.get(i);
+        int index = missedIndexes.get(i);
+        // mark the series as loading before the data is read, to merge concurrent insertions
+        Object token = cache.beginLoad(path.getFullPath());
+        lastPoints[index] = loadLastPoint(path, dataTypes.get(index), context);
+        cache.endLoad(path.getFullPath(), token, lastPoints[index]);
+      }
+    }
+
+    List<Field> results = new ArrayList<>();
+    for (int i = 0; i < lastPoints.length; i++) {
+      results.add(TimeValuePairUtils.getValueField(dataTypes.get(i), lastPoints[i]));
+    }
+    return new AggreResultDataSet(selectedSeries, dataTypes, results);
+  }
+
+  private TimeValuePair loadLastPoint(Path path, TSDataType dataType, QueryContext context)
+      throws FileNodeManagerException, IOException {
+    QueryDataSource queryDataSource = QueryDataSourceManager.getQueryDataSource(jobId, path,
+        context);
+    IFill fill = new PreviousFill(dataType, Long.MAX_VALUE, -1);
+    fill.constructReaders(queryDataSource, context);
+    return fill.getFillResult();
+  }
+}
@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.factory;
+
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.db.query.aggregation.AggregateFunction;
+import org.apache.iotdb.db.query.aggregation.impl.CountAggrFunc;
+import org.apache.iotdb.db.query.aggregation.impl.FirstAggrFunc;
+import org.apache.iotdb.db.query.aggregation.impl.LastAggrFunc;
+import org.apache.iotdb.db.query.aggregation.impl.MaxTimeAggrFunc;
+import org.apache.iotdb.db.query.aggregation.impl.MaxValueAggrFunc;
+import org.apache.iotdb.db.query.aggregation.impl.MeanAggrFunc;
+import org.apache.iotdb.db.query.aggregation.impl.MinTimeAggrFunc;
+import org.apache.iotdb.db.query.aggregation.impl.MinValueAggrFunc;
+import org.apache.iotdb.db.query.aggregation.impl.SumAggrFunc;
+import org.apache.iotdb.tsfile.common.constant.StatisticConstant;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+/**
+ * Easy factory pattern to build AggregateFunction.
+ */
+public class AggreFuncFactory {
+
+  private AggreFuncFactory() {
+  }
+
+  /**
+   * construct AggregateFunction using aggregation name.
+   *
+   * @param aggrFuncName aggregation function name, case insensitive.
+   * @param dataType data type of the aggregated series
+   */
+  public static AggregateFunction getAggrFuncByName(String aggrFuncName, TSDataType dataType)
+      throws ProcessorException {
+    if (aggrFuncName == null) {
+      throw new ProcessorException("AggregateFunction Name must not be null");
+    }
+
+    AggregateFunction function;
+    switch (aggrFuncName.toLowerCase()) {
+      case StatisticConstant.COUNT:
+        function = new CountAggrFunc(dataType);
+        break;
+      case StatisticConstant.SUM:
+        checkNumeric(aggrFuncName, dataType);
+        function = new SumAggrFunc(dataType);
+        break;
+      case StatisticConstant.MEAN:
+        checkNumeric(aggrFuncName, dataType);
+        function = new MeanAggrFunc(dataType);
+        break;
+      case StatisticConstant.MAX_VALUE:
+        function = new MaxValueAggrFunc(dataType);
+        break;
+      case StatisticConstant.MIN_VALUE:
+        function = new MinValueAggrFunc(dataType);
+        break;
+      case StatisticConstant.FIRST:
+        function = new FirstAggrFunc(dataType);
+        break;
+      case StatisticConstant.LAST:
+        function = new LastAggrFunc(dataType);
+        break;
+      case StatisticConstant.MAX_TIME:
+        function = new MaxTimeAggrFunc(dataType);
+        break;
+      case StatisticConstant.MIN_TIME:
+        function = new MinTimeAggrFunc(dataType);
+        break;
+      default:
+        throw new ProcessorException("aggregate does not support " + aggrFuncName + " function.");
+    }
+    function.init();
+    return function;
+  }
+
+  private static void checkNumeric(String aggrFuncName, TSDataType dataType)
+      throws ProcessorException {
+    if (dataType == TSDataType.BOOLEAN || dataType == TSDataType.TEXT) {
+      throw new ProcessorException(
+          String.format("%s is not supported for data type %s", aggrFuncName, dataType));
+    }
+  }
+}
@@ -21,8 +21,10 @@ package org.apache.iotdb.db.query.factory;
 
 import java.io.IOException;
 import java.util.List;
+import org.apache.iotdb.db.engine.cache.CachedChunkLoader;
 import org.apache.iotdb.db.engine.filenode.TsFileResource;
 import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.db.engine.pool.MergeChunkLoader;
 import org.apache.iotdb.db.engine.querycontext.OverflowInsertFile;
 import org.apache.iotdb.db.engine.querycontext.OverflowSeriesDataSource;
 import org.apache.iotdb.db.query.context.QueryContext;
@@ -38,7 +40,7 @@ import org.apache.iotdb.tsfile.common.constant.StatisticConstant;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.Chunk;
-import org.apache.iotdb.tsfile.read.controller.ChunkLoaderImpl;
+import org.apache.iotdb.tsfile.read.controller.ChunkLoader;
 import org.apache.iotdb.tsfile.read.controller.MetadataQuerier;
 import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
 import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
@@ -49,6 +51,7 @@ import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReaderWithFilter;
 import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReaderWithoutFilter;
 import org.apache.iotdb.tsfile.read.reader.series.FileSeriesReader;
 import org.apache.iotdb.tsfile.read.reader.series.FileSeriesReaderWithFilter;
+import org.apache.iotdb.tsfile.read.reader.series.FileSeriesReaderWithoutFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -71,6 +74,15 @@ public class SeriesReaderFactory {
   public PriorityMergeReader createUnSeqMergeReader(
       OverflowSeriesDataSource overflowSeriesDataSource, Filter filter)
       throws IOException {
+    return createUnSeqMergeReader(overflowSeriesDataSource, filter, false);
+  }
+
+  /**
+   * @param isMerge if true, the chunks are read at the throughput of merge.
+   */
+  private PriorityMergeReader createUnSeqMergeReader(
+      OverflowSeriesDataSource overflowSeriesDataSource, Filter filter, boolean isMerge)
+      throws IOException {
 
     PriorityMergeReader unSeqMergeReader = new PriorityMergeReader();
 
@@ -83,7 +95,8 @@ public class SeriesReaderFactory {
       TsFileSequenceReader unClosedTsFileReader = FileReaderManager.getInstance()
           .get(overflowInsertFile.getFilePath(), false);
 
-      ChunkLoaderImpl chunkLoader = new ChunkLoaderImpl(unClosedTsFileReader);
+      ChunkLoader chunkLoader = isMerge ? new MergeChunkLoader(unClosedTsFileReader)
+          : new CachedChunkLoader(unClosedTsFileReader);
 
       for (ChunkMetaData chunkMetaData : overflowInsertFile.getChunkMetaDataList()) {
 
@@ -141,36 +154,52 @@ public class SeriesReaderFactory {
         singleSeriesExpression,
         tsFileResource.getFilePath());
 
+    TsFileSequenceReader tsFileSequenceReader = FileReaderManager.getInstance()
+        .get(tsFileResource.getFilePath(), true);
+    MetadataQuerier metadataQuerier = new MetadataQuerierByFileImpl(tsFileSequenceReader);
+    List<ChunkMetaData> metaDataList = metadataQuerier
+        .getChunkMetaDataList(singleSeriesExpression.getSeriesPath());
+
+    List<Modification> modifications = context.getPathModifications(tsFileResource.getModFile(),
+        singleSeriesExpression.getSeriesPath().getFullPath());
+    QueryUtils.modifyChunkMetaData(metaDataList, modifications);
+
+    return createSeriesReaderForMerge(tsFileResource, metaDataList, overflowSeriesDataSource,
+        singleSeriesExpression, context);
+  }
+
+  /**
+   * This method is used to construct reader for merge process in IoTDB. To merge the given chunks
+   * of one TsFile, whose deletions have been applied, and one UnSeqFile data.
+   */
+  public IReader createSeriesReaderForMerge(TsFileResource tsFileResource,
+      List<ChunkMetaData> metaDataList, OverflowSeriesDataSource overflowSeriesDataSource,
+      SingleSeriesExpression singleSeriesExpression, QueryContext context)
+      throws IOException {
+
     PriorityMergeReader priorityMergeReader = new PriorityMergeReader();
 
     // Sequence reader
-    IReader seriesInTsFileReader = createSealedTsFileReaderForMerge(tsFileResource,
+    IReader seriesInTsFileReader = createSealedTsFileReaderForMerge(tsFileResource, metaDataList,
         singleSeriesExpression, context);
     priorityMergeReader.addReaderWithPriority(seriesInTsFileReader, 1);
 
     // UnSequence merge reader
     IReader unSeqMergeReader = createUnSeqMergeReader(overflowSeriesDataSource,
-        singleSeriesExpression.getFilter());
+        singleSeriesExpression.getFilter(), true);
     priorityMergeReader.addReaderWithPriority(unSeqMergeReader, 2);
 
     return priorityMergeReader;
   }
 
   private IReader createSealedTsFileReaderForMerge(TsFileResource fileNode,
-      SingleSeriesExpression singleSeriesExpression,
+      List<ChunkMetaData> metaDataList, SingleSeriesExpression singleSeriesExpression,
       QueryContext context)
       throws IOException {
 
     TsFileSequenceReader tsFileSequenceReader = FileReaderManager.getInstance()
         .get(fileNode.getFilePath(), true);
-    ChunkLoaderImpl chunkLoader = new ChunkLoaderImpl(tsFileSequenceReader);
-    MetadataQuerier metadataQuerier = new MetadataQuerierByFileImpl(tsFileSequenceReader);
-    List<ChunkMetaData> metaDataList = metadataQuerier
-        .getChunkMetaDataList(singleSeriesExpression.getSeriesPath());
-
-    List<Modification> modifications = context.getPathModifications(fileNode.getModFile(),
-        singleSeriesExpression.getSeriesPath().getFullPath());
-    QueryUtils.modifyChunkMetaData(metaDataList, modifications);
+    ChunkLoader chunkLoader = new MergeChunkLoader(tsFileSequenceReader);
 
     FileSeriesReader seriesInTsFileReader = new FileSeriesReaderWithFilter(chunkLoader,
         metaDataList,
@@ -178,6 +207,23 @@ public class SeriesReaderFactory {
     return new SealedTsFilesReader(seriesInTsFileReader, context);
   }
 
+  /**
+   * This method is used to construct reader for compaction process in IoTDB. To read the given
+   * chunks of one sealed TsFile, whose deletions have been applied, under the throughput limit of
+   * merge.
+   */
+  public IReader createSeriesReaderForCompaction(TsFileResource tsFileResource,
+      List<ChunkMetaData> metaDataList, QueryContext context) throws IOException {
+
+    TsFileSequenceReader tsFileSequenceReader = FileReaderManager.getInstance()
+        .get(tsFileResource.getFilePath(), true);
+    ChunkLoader chunkLoader = new MergeChunkLoader(tsFileSequenceReader);
+
+    FileSeriesReader seriesInTsFileReader = new FileSeriesReaderWithoutFilter(chunkLoader,
+        metaDataList);
+    return new SealedTsFilesReader(seriesInTsFileReader, context);
+  }
+
   private static class SeriesReaderFactoryHelper {
 
     private static final SeriesReaderFactory INSTANCE = new SeriesReaderFactory();
@@ -18,16 +18,28 @@
  */
 package org.apache.iotdb.db.query.fill;
 
-import org.apache.iotdb.db.exception.ProcessorException;
+import java.io.IOException;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.factory.SeriesReaderFactory;
+import org.apache.iotdb.db.query.reader.IReader;
+import org.apache.iotdb.db.query.reader.sequence.SequenceBackwardReader;
+import org.apache.iotdb.db.query.reader.sequence.SequenceDataReader;
+import org.apache.iotdb.db.utils.TimeValuePair;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
-import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 
 public abstract class IFill {
 
   long queryTime;
   TSDataType dataType;
 
+  private QueryDataSource queryDataSource;
+  private QueryContext context;
+
   public IFill(TSDataType dataType, long queryTime) {
     this.dataType = dataType;
     this.queryTime = queryTime;
@@ -38,7 +50,64 @@ public abstract class IFill {
 
   public abstract IFill copy(Path path);
 
-  public abstract BatchData getFillResult() throws ProcessorException;
+  /**
+   * prepare the data sources of the filled series, must be invoked before
+   * <code>getFillResult()</code>.
+   */
+  public void constructReaders(QueryDataSource queryDataSource, QueryContext context) {
+    this.queryDataSource = queryDataSource;
+    this.context = context;
+  }
+
+  /**
+   * get the filled point at the query time.
+   *
+   * @return null if the value can not be filled
+   */
+  public abstract TimeValuePair getFillResult() throws IOException;
+
+  /**
+   * get the latest point whose time is in [lowerBound, queryTime]. The sequence data is sought
+   * backward, and only the unsequence data after the found point is read.
+   */
+  TimeValuePair getPreviousPoint(long lowerBound) throws IOException {
+    TimeValuePair result = new SequenceBackwardReader(queryDataSource.getSeqDataSource(), context)
+        .getPreviousPoint(queryTime, lowerBound);
+
+    // an unsequence point overrides the sequence point with the same time
+    long unSeqLowerBound = result == null ? lowerBound : result.getTimestamp();
+    Filter filter = FilterFactory
+        .and(TimeFilter.gtEq(unSeqLowerBound), TimeFilter.ltEq(queryTime));
+    IReader unSeqReader = SeriesReaderFactory.getInstance()
+        .createUnSeqMergeReader(queryDataSource.getOverflowSeriesDataSource(), filter);
+    while (unSeqReader.hasNext()) {
+      result = unSeqReader.next();
+    }
+    return result;
+  }
+
+  /**
+   * get the earliest point whose time is in (queryTime, upperBound].
+   */
+  TimeValuePair getNextPoint(long upperBound) throws IOException {
+    Filter filter = FilterFactory.and(TimeFilter.gt(queryTime), TimeFilter.ltEq(upperBound));
+
+    IReader seqReader = new SequenceDataReader(queryDataSource.getSeqDataSource(), filter,
+        context);
+    TimeValuePair seqPoint = seqReader.hasNext() ? seqReader.next() : null;
+
+    IReader unSeqReader = SeriesReaderFactory.getInstance()
+        .createUnSeqMergeReader(queryDataSource.getOverflowSeriesDataSource(), filter);
+    TimeValuePair unSeqPoint = unSeqReader.hasNext() ? unSeqReader.next() : null;
+
+    if (seqPoint == null) {
+      return unSeqPoint;
+    }
+    if (unSeqPoint == null) {
+      return seqPoint;
+    }
+    return unSeqPoint.getTimestamp() <= seqPoint.getTimestamp() ? unSeqPoint : seqPoint;
+  }
 
   public TSDataType getDataType() {
     return this.dataType;
@@ -55,4 +124,4 @@ public abstract class IFill {
   public void setQueryTime(long queryTime) {
     this.queryTime = queryTime;
   }
-}
\ No newline at end of file
+}
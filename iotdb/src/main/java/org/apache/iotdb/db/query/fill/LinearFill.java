@@ -18,16 +18,21 @@
  */
 package org.apache.iotdb.db.query.fill;
 
-import org.apache.iotdb.db.exception.ProcessorException;
+import java.io.IOException;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.TsPrimitiveType;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
-import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Path;
 
+/**
+ * Fill the value by the linear interpolation of the latest point before the query time and the
+ * earliest point after it. A negative range means there is no limit on the distance of the point.
+ */
 public class LinearFill extends IFill {
 
   private long beforeRange;
   private long afterRange;
-  private BatchData result;
 
   public LinearFill(long beforeRange, long afterRange) {
     this.beforeRange = beforeRange;
@@ -42,7 +47,6 @@ public class LinearFill extends IFill {
     super(dataType, queryTime);
     this.beforeRange = beforeRange;
     this.afterRange = afterRange;
-    result = new BatchData(dataType, true, true);
   }
 
   public long getBeforeRange() {
@@ -67,7 +71,43 @@ public class LinearFill extends IFill {
   }
 
   @Override
-  public BatchData getFillResult() throws ProcessorException {
-    return result;
+  public TimeValuePair getFillResult() throws IOException {
+    long lowerBound = beforeRange < 0 ? Long.MIN_VALUE : queryTime - beforeRange;
+    TimeValuePair beforePair = getPreviousPoint(lowerBound);
+    if (beforePair == null || beforePair.getTimestamp() == queryTime) {
+      return beforePair;
+    }
+
+    long upperBound = afterRange < 0 ? Long.MAX_VALUE : queryTime + afterRange;
+    TimeValuePair afterPair = getNextPoint(upperBound);
+    if (afterPair == null) {
+      return null;
+    }
+    return new TimeValuePair(queryTime, interpolate(beforePair, afterPair));
+  }
+
+  private TsPrimitiveType interpolate(TimeValuePair beforePair, TimeValuePair afterPair) {
+    double ratio = (double) (queryTime - beforePair.getTimestamp())
+        / (afterPair.getTimestamp() - beforePair.getTimestamp());
+    switch (dataType) {
+      case INT32:
+        int beforeInt = beforePair.getValue().getInt();
+        return new TsPrimitiveType.TsInt(
+            (int) (beforeInt + ((long) afterPair.getValue().getInt() - beforeInt) * ratio));
+      case INT64:
+        long beforeLong = beforePair.getValue().getLong();
+        return new TsPrimitiveType.TsLong(
+            (long) (beforeLong + (afterPair.getValue().getLong() - beforeLong) * ratio));
+      case FLOAT:
+        float beforeFloat = beforePair.getValue().getFloat();
+        return new TsPrimitiveType.TsFloat(
+            (float) (beforeFloat + (afterPair.getValue().getFloat() - beforeFloat) * ratio));
+      case DOUBLE:
+        double beforeDouble = beforePair.getValue().getDouble();
+        return new TsPrimitiveType.TsDouble(
+            beforeDouble + (afterPair.getValue().getDouble() - beforeDouble) * ratio);
+      default:
+        throw new UnSupportedDataTypeException("Linear fill does not support " + dataType);
+    }
   }
-}
\ No newline at end of file
+}
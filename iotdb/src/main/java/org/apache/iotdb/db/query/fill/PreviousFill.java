@@ -18,21 +18,22 @@
  */
 package org.apache.iotdb.db.query.fill;
 
-import org.apache.iotdb.db.exception.ProcessorException;
+import java.io.IOException;
+import org.apache.iotdb.db.utils.TimeValuePair;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
-import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Path;
 
+/**
+ * Fill the value with the latest point not after the query time. A negative beforeRange means
+ * there is no limit on how old the point is.
+ */
 public class PreviousFill extends IFill {
 
   private long beforeRange;
 
-  private BatchData result;
-
   public PreviousFill(TSDataType dataType, long queryTime, long beforeRange) {
     super(dataType, queryTime);
     this.beforeRange = beforeRange;
-    result = new BatchData(dataType, true, true);
   }
 
   public PreviousFill(long beforeRange) {
@@ -49,7 +50,8 @@ public class PreviousFill extends IFill {
   }
 
   @Override
-  public BatchData getFillResult() throws ProcessorException {
-    return result;
+  public TimeValuePair getFillResult() throws IOException {
+    long lowerBound = beforeRange < 0 ? Long.MIN_VALUE : queryTime - beforeRange;
+    return getPreviousPoint(lowerBound);
   }
 }
@@ -0,0 +1,75 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader;
+
+import java.io.IOException;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+
+/**
+ * <p>
+ * Read interface for aggregation. Data is exposed chunk by chunk and page by page, so that the
+ * caller can use the statistics in <code>ChunkMetaData</code> or <code>PageHeader</code> and skip
+ * the data instead of decoding it.
+ * </p>
+ * Usage: after <code>hasNext()</code> returns true, try <code>nextChunkMetaData()</code> and
+ * <code>skipChunk()</code> first, then <code>nextPageHeader()</code> and <code>skipPage()</code>,
+ * and call <code>nextBatch()</code> when neither of the statistics can be used.
+ */
+public interface IAggregateReader {
+
+  /**
+   * whether there is remaining data.
+   */
+  boolean hasNext() throws IOException;
+
+  /**
+   * get the metadata of the next chunk, which has not been opened yet.
+   *
+   * @return null if the statistics of the chunk can not be used, i.e. the chunk has been opened,
+   * part of the chunk has been deleted, or the next data is in memory.
+   */
+  ChunkMetaData nextChunkMetaData() throws IOException;
+
+  /**
+   * skip the chunk returned by <code>nextChunkMetaData()</code>.
+   */
+  void skipChunk();
+
+  /**
+   * get the header of the next page, the chunk will be opened if necessary.
+   *
+   * @return null if the statistics of the page can not be used, i.e. part of the page has been
+   * deleted or the next data is in memory.
+   */
+  PageHeader nextPageHeader() throws IOException;
+
+  /**
+   * skip the page returned by <code>nextPageHeader()</code>.
+   */
+  void skipPage();
+
+  /**
+   * decode the next page, or all the data in memory.
+   */
+  BatchData nextBatch() throws IOException;
+
+  void close() throws IOException;
+}
@@ -65,6 +65,14 @@ public class PriorityMergeReader implements IReader {
     return top.timeValuePair;
   }
 
+  /**
+   * get the current TimeValuePair without moving to the next one. Invoke <code>hasNext()</code>
+   * first.
+   */
+  public TimeValuePair current() {
+    return heap.peek().timeValuePair;
+  }
+
   private void updateHeap(Element top) throws IOException {
     while (!heap.isEmpty() && heap.peek().timeValuePair.getTimestamp() == top.timeValuePair
         .getTimestamp()) {
@@ -22,6 +22,7 @@ package org.apache.iotdb.db.query.reader.sequence;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import org.apache.iotdb.db.engine.cache.CachedChunkLoader;
 import org.apache.iotdb.db.engine.filenode.TsFileResource;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.query.context.QueryContext;
@@ -35,7 +36,6 @@ import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.controller.ChunkLoader;
-import org.apache.iotdb.tsfile.read.controller.ChunkLoaderImpl;
 import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.reader.series.FileSeriesReader;
@@ -85,53 +85,34 @@ public class SealedTsFilesReader implements IReader {
       return true;
     }
 
-    while (!hasCachedData) {
-      boolean flag = false;
-
+    while (true) {
       // try to get next time value pair from current batch data
       if (data != null && data.hasNext()) {
         hasCachedData = true;
         return true;
       }
 
-      // try to get next batch data from current reader
+      // try to get next batch data from current reader, notice that data maybe an empty batch
       if (seriesReader != null && seriesReader.hasNextBatch()) {
         data = seriesReader.nextBatch();
-        if (data.hasNext()) {
-          hasCachedData = true;
-          return true;
-        } else {
-          flag = true;
-        }
+        continue;
       }
 
-      // try to get next batch data from next reader
-      while (!flag && usedIntervalFileIndex < sealedTsFiles.size()) {
-        // init until reach a satisfied reader
-        if (seriesReader == null || !seriesReader.hasNextBatch()) {
-          TsFileResource fileNode = sealedTsFiles.get(usedIntervalFileIndex++);
-          if (singleTsFileSatisfied(fileNode)) {
-            initSingleTsFileReader(fileNode, context);
-          } else {
-            flag = true;
-          }
-        }
-        if (!flag && seriesReader.hasNextBatch()) {
-          data = seriesReader.nextBatch();
-
-          // notice that, data maybe an empty batch data, so an examination must exist
-          if (data.hasNext()) {
-            hasCachedData = true;
-            return true;
-          }
-        }
+      // init until reach a satisfied reader
+      if (!initNextSatisfiedTsFileReader()) {
+        return false;
       }
+    }
+  }
 
-      if (!flag || data == null || !data.hasNext()) {
-        break;
+  private boolean initNextSatisfiedTsFileReader() throws IOException {
+    while (usedIntervalFileIndex < sealedTsFiles.size()) {
+      TsFileResource fileNode = sealedTsFiles.get(usedIntervalFileIndex++);
+      if (singleTsFileSatisfied(fileNode)) {
+        initSingleTsFileReader(fileNode, context);
+        return true;
       }
     }
-
     return false;
   }
 
@@ -182,7 +163,7 @@ public class SealedTsFilesReader implements IReader {
       QueryUtils.modifyChunkMetaData(metaDataList, pathModifications);
     }
 
-    ChunkLoader chunkLoader = new ChunkLoaderImpl(tsFileReader);
+    ChunkLoader chunkLoader = new CachedChunkLoader(tsFileReader);
 
     if (filter == null) {
       seriesReader = new FileSeriesReaderWithoutFilter(chunkLoader, metaDataList);
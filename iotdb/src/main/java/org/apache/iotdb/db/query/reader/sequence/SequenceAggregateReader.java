@@ -0,0 +1,274 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.sequence;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import org.apache.iotdb.db.engine.cache.CachedChunkLoader;
+import org.apache.iotdb.db.engine.filenode.TsFileResource;
+import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.db.engine.querycontext.GlobalSortedSeriesDataSource;
+import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.query.reader.IAggregateReader;
+import org.apache.iotdb.db.query.reader.IReader;
+import org.apache.iotdb.db.query.reader.mem.MemChunkReaderWithFilter;
+import org.apache.iotdb.db.query.reader.mem.MemChunkReaderWithoutFilter;
+import org.apache.iotdb.db.utils.QueryUtils;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.tsfile.common.constant.StatisticConstant;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.controller.ChunkLoader;
+import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
+import org.apache.iotdb.tsfile.read.filter.DigestForFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReaderWithFilter;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReaderWithoutFilter;
+
+/**
+ * <p>
+ * An aggregate reader for sequentially inserts data, including a list of sealedTsFile,
+ * unSealedTsFile and data in MemTable. The chunks are returned in the order of time.
+ * </p>
+ */
+public class SequenceAggregateReader implements IAggregateReader {
+
+  private Path seriesPath;
+  private Filter filter;
+  private QueryContext context;
+
+  private List<TsFileResource> sealedTsFiles;
+  private int nextSealedTsFileIndex;
+  private boolean unsealedTsFileUsed;
+  private GlobalSortedSeriesDataSource sources;
+
+  /**
+   * chunks of the current file that have not been read.
+   */
+  private List<ChunkMetaData> chunkMetaDataList = Collections.emptyList();
+  private int nextChunkIndex;
+  private ChunkLoader chunkLoader;
+
+  /**
+   * the chunk which has been found but not opened.
+   */
+  private ChunkMetaData pendingChunkMetaData;
+
+  /**
+   * the opened chunk.
+   */
+  private ChunkReader chunkReader;
+  private long chunkDeletedAt;
+
+  private IReader memChunkReader;
+
+  /**
+   * init with globalSortedSeriesDataSource and filter.
+   */
+  public SequenceAggregateReader(GlobalSortedSeriesDataSource sources, Filter filter,
+      QueryContext context) {
+    this.sources = sources;
+    this.seriesPath = sources.getSeriesPath();
+    this.filter = filter;
+    this.context = context;
+    this.sealedTsFiles = sources.hasSealedTsFiles() ? sources.getSealedTsFiles()
+        : Collections.emptyList();
+    this.unsealedTsFileUsed = !sources.hasUnsealedTsFile();
+
+    if (sources.hasRawSeriesChunk()) {
+      if (filter == null) {
+        memChunkReader = new MemChunkReaderWithoutFilter(sources.getReadableChunk());
+      } else {
+        memChunkReader = new MemChunkReaderWithFilter(sources.getReadableChunk(), filter);
+      }
+    }
+  }
+
+  @Override
+  public boolean hasNext() throws IOException {
+    if (chunkReader != null) {
+      if (chunkReader.nextPageHeader() != null) {
+        return true;
+      }
+      chunkReader = null;
+    }
+    if (pendingChunkMetaData != null) {
+      return true;
+    }
+    pendingChunkMetaData = nextSatisfiedChunk();
+    if (pendingChunkMetaData != null) {
+      return true;
+    }
+    return memChunkReader != null && memChunkReader.hasNext();
+  }
+
+  @Override
+  public ChunkMetaData nextChunkMetaData() {
+    if (pendingChunkMetaData == null
+        || pendingChunkMetaData.getDeletedAt() >= pendingChunkMetaData.getStartTime()) {
+      return null;
+    }
+    return pendingChunkMetaData;
+  }
+
+  @Override
+  public void skipChunk() {
+    pendingChunkMetaData = null;
+  }
+
+  @Override
+  public PageHeader nextPageHeader() throws IOException {
+    openPendingChunk();
+    if (chunkReader == null) {
+      return null;
+    }
+    PageHeader pageHeader = chunkReader.nextPageHeader();
+    if (pageHeader == null || chunkDeletedAt >= pageHeader.getMinTimestamp()) {
+      return null;
+    }
+    return pageHeader;
+  }
+
+  @Override
+  public void skipPage() {
+    chunkReader.skipPageData();
+  }
+
+  @Override
+  public BatchData nextBatch() throws IOException {
+    openPendingChunk();
+    if (chunkReader != null) {
+      return chunkReader.nextBatch();
+    }
+
+    // all the data in memory are returned as one batch
+    ReadOnlyMemChunk memChunk = sources.getReadableChunk();
+    BatchData batchData = new BatchData(memChunk.getDataType(), true);
+    while (memChunkReader.hasNext()) {
+      TimeValuePair timeValuePair = memChunkReader.next();
+      batchData.putTime(timeValuePair.getTimestamp());
+      batchData.putAnObject(timeValuePair.getValue().getValue());
+    }
+    return batchData;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (memChunkReader != null) {
+      memChunkReader.close();
+    }
+  }
+
+  private void openPendingChunk() throws IOException {
+    if (pendingChunkMetaData == null) {
+      return;
+    }
+    Chunk chunk = chunkLoader.getChunk(pendingChunkMetaData);
+    if (filter == null) {
+      chunkReader = new ChunkReaderWithoutFilter(chunk);
+    } else {
+      chunkReader = new ChunkReaderWithFilter(chunk, filter);
+    }
+    chunkDeletedAt = pendingChunkMetaData.getDeletedAt();
+    pendingChunkMetaData = null;
+  }
+
+  /**
+   * find the next chunk satisfying the filter, from the sealed TsFiles to the unsealed TsFile.
+   *
+   * @return null if there is no more chunk
+   */
+  private ChunkMetaData nextSatisfiedChunk() throws IOException {
+    while (true) {
+      while (nextChunkIndex < chunkMetaDataList.size()) {
+        ChunkMetaData chunkMetaData = chunkMetaDataList.get(nextChunkIndex++);
+        if (chunkSatisfied(chunkMetaData)) {
+          return chunkMetaData;
+        }
+      }
+
+      if (nextSealedTsFileIndex < sealedTsFiles.size()) {
+        TsFileResource fileNode = sealedTsFiles.get(nextSealedTsFileIndex++);
+        if (singleTsFileSatisfied(fileNode)) {
+          initSealedTsFile(fileNode);
+        }
+      } else if (!unsealedTsFileUsed) {
+        unsealedTsFileUsed = true;
+        TsFileSequenceReader unClosedTsFileReader = FileReaderManager.getInstance()
+            .get(sources.getUnsealedTsFile().getFilePath(), false);
+        chunkLoader = new CachedChunkLoader(unClosedTsFileReader);
+        chunkMetaDataList = sources.getUnsealedTsFile().getChunkMetaDataList();
+        nextChunkIndex = 0;
+      } else {
+        return null;
+      }
+    }
+  }
+
+  private void initSealedTsFile(TsFileResource fileNode) throws IOException {
+    // to avoid too many opened files
+    TsFileSequenceReader tsFileReader = FileReaderManager.getInstance()
+        .get(fileNode.getFilePath(), true);
+
+    MetadataQuerierByFileImpl metadataQuerier = new MetadataQuerierByFileImpl(tsFileReader);
+    List<ChunkMetaData> metaDataList = metadataQuerier.getChunkMetaDataList(seriesPath);
+
+    List<Modification> pathModifications = context.getPathModifications(fileNode.getModFile(),
+        seriesPath.getFullPath());
+    if (!pathModifications.isEmpty()) {
+      QueryUtils.modifyChunkMetaData(metaDataList, pathModifications);
+    }
+
+    chunkLoader = new CachedChunkLoader(tsFileReader);
+    chunkMetaDataList = metaDataList;
+    nextChunkIndex = 0;
+  }
+
+  private boolean singleTsFileSatisfied(TsFileResource fileNode) {
+    if (filter == null) {
+      return true;
+    }
+    long startTime = fileNode.getStartTime(seriesPath.getDevice());
+    long endTime = fileNode.getEndTime(seriesPath.getDevice());
+    return filter.satisfyStartEndTime(startTime, endTime);
+  }
+
+  private boolean chunkSatisfied(ChunkMetaData chunkMetaData) {
+    if (chunkMetaData.getEndTime() <= chunkMetaData.getDeletedAt()) {
+      return false;
+    }
+    if (filter == null) {
+      return true;
+    }
+    DigestForFilter digest = new DigestForFilter(chunkMetaData.getStartTime(),
+        chunkMetaData.getEndTime(),
+        chunkMetaData.getDigest().getStatistics().get(StatisticConstant.MIN_VALUE),
+        chunkMetaData.getDigest().getStatistics().get(StatisticConstant.MAX_VALUE),
+        chunkMetaData.getTsDataType());
+    return filter.satisfy(digest);
+  }
+}
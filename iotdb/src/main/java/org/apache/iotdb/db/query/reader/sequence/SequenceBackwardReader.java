@@ -0,0 +1,176 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.sequence;
+
+import java.io.IOException;
+import java.util.List;
+import org.apache.iotdb.db.engine.cache.CachedChunkLoader;
+import org.apache.iotdb.db.engine.filenode.TsFileResource;
+import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.db.engine.querycontext.GlobalSortedSeriesDataSource;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.utils.QueryUtils;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.TsPrimitiveType;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.controller.ChunkLoader;
+import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReaderWithFilter;
+
+/**
+ * <p>
+ * A reader which seeks the latest point at or before a given time in the sequence data. Since the
+ * sequence data is ordered by time from the sealed TsFiles to the unsealed TsFile and then the
+ * MemTable, they are searched newest-first, and only the newest file whose start time is not after
+ * the given time is opened in most cases.
+ * </p>
+ * Within a file, the chunks are searched in reverse with their metadata, and only the pages of the
+ * found chunk which are not after the given time are decoded.
+ */
+public class SequenceBackwardReader {
+
+  private GlobalSortedSeriesDataSource sources;
+  private Path seriesPath;
+  private QueryContext context;
+
+  public SequenceBackwardReader(GlobalSortedSeriesDataSource sources, QueryContext context) {
+    this.sources = sources;
+    this.seriesPath = sources.getSeriesPath();
+    this.context = context;
+  }
+
+  /**
+   * get the latest point whose time is in [lowerBound, time].
+   *
+   * @return null if there is no such point
+   */
+  public TimeValuePair getPreviousPoint(long time, long lowerBound) throws IOException {
+    if (sources.hasRawSeriesChunk()) {
+      TimeValuePair memPoint = getPreviousPointInMemory(time);
+      if (memPoint != null) {
+        return memPoint.getTimestamp() >= lowerBound ? memPoint : null;
+      }
+    }
+
+    Filter filter = FilterFactory.and(TimeFilter.gtEq(lowerBound), TimeFilter.ltEq(time));
+    if (sources.hasUnsealedTsFile()) {
+      TsFileSequenceReader unClosedTsFileReader = FileReaderManager.getInstance()
+          .get(sources.getUnsealedTsFile().getFilePath(), false);
+      TimeValuePair point = getPreviousPointInChunks(new CachedChunkLoader(unClosedTsFileReader),
+          sources.getUnsealedTsFile().getChunkMetaDataList(), time, lowerBound, filter);
+      if (point != null) {
+        return point;
+      }
+    }
+
+    if (!sources.hasSealedTsFiles()) {
+      return null;
+    }
+    List<TsFileResource> sealedTsFiles = sources.getSealedTsFiles();
+    String device = seriesPath.getDevice();
+    for (int i = sealedTsFiles.size() - 1; i >= 0; i--) {
+      TsFileResource fileNode = sealedTsFiles.get(i);
+      long startTime = fileNode.getStartTime(device);
+      if (startTime == -1 || startTime > time) {
+        continue;
+      }
+      if (fileNode.getEndTime(device) < lowerBound) {
+        // the older files are all before the lower bound
+        return null;
+      }
+      TimeValuePair point = getPreviousPointInSealedTsFile(fileNode, time, lowerBound, filter);
+      if (point != null) {
+        return point;
+      }
+    }
+    return null;
+  }
+
+  private TimeValuePair getPreviousPointInMemory(long time) {
+    // binary search the last point not after the given time
+    List<TimeValuePair> points = sources.getReadableChunk().getSortedTimeValuePairList();
+    int low = 0;
+    int high = points.size() - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (points.get(mid).getTimestamp() <= time) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return high >= 0 ? points.get(high) : null;
+  }
+
+  private TimeValuePair getPreviousPointInSealedTsFile(TsFileResource fileNode, long time,
+      long lowerBound, Filter filter) throws IOException {
+    TsFileSequenceReader tsFileReader = FileReaderManager.getInstance()
+        .get(fileNode.getFilePath(), true);
+    MetadataQuerierByFileImpl metadataQuerier = new MetadataQuerierByFileImpl(tsFileReader);
+    List<ChunkMetaData> metaDataList = metadataQuerier.getChunkMetaDataList(seriesPath);
+
+    List<Modification> pathModifications = context.getPathModifications(fileNode.getModFile(),
+        seriesPath.getFullPath());
+    if (!pathModifications.isEmpty()) {
+      QueryUtils.modifyChunkMetaData(metaDataList, pathModifications);
+    }
+    return getPreviousPointInChunks(new CachedChunkLoader(tsFileReader), metaDataList, time,
+        lowerBound, filter);
+  }
+
+  private TimeValuePair getPreviousPointInChunks(ChunkLoader chunkLoader,
+      List<ChunkMetaData> metaDataList, long time, long lowerBound, Filter filter)
+      throws IOException {
+    for (int i = metaDataList.size() - 1; i >= 0; i--) {
+      ChunkMetaData chunkMetaData = metaDataList.get(i);
+      if (chunkMetaData.getStartTime() > time
+          || chunkMetaData.getEndTime() <= chunkMetaData.getDeletedAt()) {
+        continue;
+      }
+      if (chunkMetaData.getEndTime() < lowerBound) {
+        return null;
+      }
+
+      // pages after the given time are skipped by the filter without decoding
+      ChunkReader chunkReader = new ChunkReaderWithFilter(chunkLoader.getChunk(chunkMetaData),
+          filter);
+      TimeValuePair point = null;
+      while (chunkReader.hasNextBatch()) {
+        BatchData batchData = chunkReader.nextBatch();
+        while (batchData.hasNext()) {
+          point = new TimeValuePair(batchData.currentTime(),
+              TsPrimitiveType.getByType(batchData.getDataType(), batchData.currentValue()));
+          batchData.next();
+        }
+      }
+      if (point != null) {
+        return point;
+      }
+    }
+    return null;
+  }
+}
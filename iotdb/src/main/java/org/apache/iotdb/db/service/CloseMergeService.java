@@ -205,6 +205,7 @@ public class CloseMergeService implements IService {
       closeAllLastTime = System.currentTimeMillis();
       try {
         FileNodeManager.getInstance().closeAll();
+        FileNodeManager.getInstance().compactAll();
       } catch (Exception e) {
         LOGGER.error("close all error.", e);
       }
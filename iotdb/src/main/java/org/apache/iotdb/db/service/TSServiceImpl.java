@@ -47,17 +47,20 @@ import org.apache.iotdb.db.qp.QueryProcessor;
 import org.apache.iotdb.db.qp.executor.OverflowQPExecutor;
 import org.apache.iotdb.db.qp.logical.Operator;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.QueryPlan;
 import org.apache.iotdb.db.qp.physical.sys.AuthorPlan;
 import org.apache.iotdb.db.query.control.OpenedFilePathsManager;
 import org.apache.iotdb.db.query.control.QueryTokenManager;
 import org.apache.iotdb.service.rpc.thrift.ServerProperties;
+import org.apache.iotdb.service.rpc.thrift.TSBatchInsertionReq;
 import org.apache.iotdb.service.rpc.thrift.TSCancelOperationReq;
 import org.apache.iotdb.service.rpc.thrift.TSCancelOperationResp;
 import org.apache.iotdb.service.rpc.thrift.TSCloseOperationReq;
 import org.apache.iotdb.service.rpc.thrift.TSCloseOperationResp;
 import org.apache.iotdb.service.rpc.thrift.TSCloseSessionReq;
 import org.apache.iotdb.service.rpc.thrift.TSCloseSessionResp;
+import org.apache.iotdb.service.rpc.thrift.TSColumnarDataSet;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementResp;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementReq;
@@ -95,6 +98,8 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
   private static final Logger LOGGER = LoggerFactory.getLogger(TSServiceImpl.class);
   private static final String INFO_NOT_LOGIN = "{}: Not login.";
   private static final String ERROR_NOT_LOGIN = "Not login";
+  private static final TSProtocolVersion SERVER_PROTOCOL_VERSION =
+      TSProtocolVersion.TSFILE_SERVICE_PROTOCOL_V2;
 
   private QueryProcessor processor = new QueryProcessor(new OverflowQPExecutor());
   // Record the username for every rpc connection. Username.get() is null if
@@ -103,6 +108,7 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
   private ThreadLocal<HashMap<String, PhysicalPlan>> queryStatus = new ThreadLocal<>();
   private ThreadLocal<HashMap<String, QueryDataSet>> queryRet = new ThreadLocal<>();
   private ThreadLocal<ZoneId> zoneIds = new ThreadLocal<>();
+  private ThreadLocal<TSProtocolVersion> protocolVersions = new ThreadLocal<>();
   private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
 
   public TSServiceImpl() throws IOException {
@@ -127,19 +133,26 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
       LOGGER.error("meet error while logging in.", e);
       status = false;
     }
+    // use the newest protocol supported by both the client and the server
+    TSProtocolVersion protocolVersion = SERVER_PROTOCOL_VERSION;
+    if (req.getClient_protocol() == null) {
+      protocolVersion = TSProtocolVersion.TSFILE_SERVICE_PROTOCOL_V1;
+    } else if (req.getClient_protocol().getValue() < protocolVersion.getValue()) {
+      protocolVersion = req.getClient_protocol();
+    }
     TS_Status tsStatus;
     if (status) {
       tsStatus = new TS_Status(TS_StatusCode.SUCCESS_STATUS);
       tsStatus.setErrorMessage("login successfully.");
       username.set(req.getUsername());
       zoneIds.set(config.getZoneID());
+      protocolVersions.set(protocolVersion);
       initForOneSession();
     } else {
       tsStatus = new TS_Status(TS_StatusCode.ERROR_STATUS);
       tsStatus.setErrorMessage("login failed. Username or password is wrong.");
     }
-    TSOpenSessionResp resp = new TSOpenSessionResp(tsStatus,
-        TSProtocolVersion.TSFILE_SERVICE_PROTOCOL_V1);
+    TSOpenSessionResp resp = new TSOpenSessionResp(tsStatus, protocolVersion);
     resp.setSessionHandle(
         new TS_SessionHandle(new TSHandleIdentifier(ByteBuffer.wrap(req.getUsername().getBytes()),
             ByteBuffer.wrap(req.getPassword().getBytes()))));
@@ -172,6 +185,7 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
         zoneIds.remove();
       }
     }
+    protocolVersions.remove();
     return new TSCloseSessionResp(tsStatus);
   }
 
@@ -427,6 +441,46 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
     }
   }
 
+  @Override
+  public TSExecuteBatchStatementResp executeInsertBatch(TSBatchInsertionReq req)
+      throws TException {
+    try {
+      if (!checkLogin()) {
+        LOGGER.info(INFO_NOT_LOGIN, IoTDBConstant.GLOBAL_DB_NAME);
+        return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS, ERROR_NOT_LOGIN, null);
+      }
+      BatchInsertPlan plan = Utils.convertToBatchInsertPlan(req);
+      plan.setProposer(username.get());
+      if (!checkAuthorization(plan.getPaths(), plan)) {
+        return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS,
+            "No permissions for this operation " + plan.getOperatorType(), null);
+      }
+
+      int[] rowResults = processor.getExecutor().insertBatch(plan);
+      List<Integer> result = new ArrayList<>(rowResults.length);
+      boolean isAllSuccessful = true;
+      for (int rowResult : rowResults) {
+        if (rowResult > 0) {
+          result.add(Statement.SUCCESS_NO_INFO);
+        } else {
+          result.add(Statement.EXECUTE_FAILED);
+          isAllSuccessful = false;
+        }
+      }
+      if (isAllSuccessful) {
+        return getTSBathExecuteStatementResp(TS_StatusCode.SUCCESS_STATUS,
+            "Execute batch insertion successfully", result);
+      } else {
+        return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS,
+            "Fail to insert some rows of device " + req.getDeviceId(), result);
+      }
+    } catch (Exception e) {
+      LOGGER.error("{}: error occurs when executing batch insertion", IoTDBConstant.GLOBAL_DB_NAME,
+          e);
+      return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS, e.getMessage(), null);
+    }
+  }
+
   @Override
   public TSExecuteStatementResp executeStatement(TSExecuteStatementReq req) throws TException {
     try {
@@ -594,15 +648,27 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
       } else {
         queryDataSet = queryRet.get().get(statement);
       }
-      TSQueryDataSet result = Utils.convertQueryDataSetByFetchSize(queryDataSet, fetchSize);
-      boolean hasResultSet = !result.getRecords().isEmpty();
+      TSQueryDataSet result = null;
+      TSColumnarDataSet columnarResult = null;
+      boolean hasResultSet;
+      if (protocolVersions.get() == TSProtocolVersion.TSFILE_SERVICE_PROTOCOL_V2) {
+        columnarResult = Utils.convertQueryDataSetToColumnar(queryDataSet, fetchSize);
+        hasResultSet = columnarResult.getRowCount() > 0;
+      } else {
+        result = Utils.convertQueryDataSetByFetchSize(queryDataSet, fetchSize);
+        hasResultSet = !result.getRecords().isEmpty();
+      }
       if (!hasResultSet && queryRet.get() != null) {
         queryRet.get().remove(statement);
       }
       TSFetchResultsResp resp = getTSFetchResultsResp(TS_StatusCode.SUCCESS_STATUS,
           "FetchResult successfully. Has more result: " + hasResultSet);
       resp.setHasResultSet(hasResultSet);
-      resp.setQueryDataSet(result);
+      if (columnarResult != null) {
+        resp.setColumnarDataSet(columnarResult);
+      } else {
+        resp.setQueryDataSet(result);
+      }
       return resp;
     } catch (Exception e) {
       LOGGER.error("{}: Internal server error: ", IoTDBConstant.GLOBAL_DB_NAME, e);
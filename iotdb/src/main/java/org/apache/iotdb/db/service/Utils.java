@@ -14,17 +14,25 @@
  */
 package org.apache.iotdb.db.service;
 
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
+import org.apache.iotdb.service.rpc.thrift.TSBatchInsertionReq;
+import org.apache.iotdb.service.rpc.thrift.TSColumnarDataSet;
 import org.apache.iotdb.service.rpc.thrift.TSDataValue;
 import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
 import org.apache.iotdb.service.rpc.thrift.TSRowRecord;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Field;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
 
 /**
  * TimeValuePairUtils to convert between thrift format and TsFile format.
@@ -56,6 +64,166 @@ public class Utils {
     return tsQueryDataSet;
   }
 
+  /**
+   * convert query data set by fetch size into the column oriented format, which is used since
+   * TSFILE_SERVICE_PROTOCOL_V2.
+   *
+   * @param queryDataSet -query dataset
+   * @param fetchsize -fetch size
+   * @return -convert query dataset
+   */
+  public static TSColumnarDataSet convertQueryDataSetToColumnar(QueryDataSet queryDataSet,
+      int fetchsize) throws IOException {
+    PublicBAOS timeBuffer = new PublicBAOS();
+    DataOutputStream timeStream = new DataOutputStream(timeBuffer);
+    List<PublicBAOS> valueBuffers = new ArrayList<>();
+    List<DataOutputStream> valueStreams = new ArrayList<>();
+    List<byte[]> bitmaps = new ArrayList<>();
+    List<TSDataType> dataTypes = new ArrayList<>();
+    int bitmapSize = Math.min(fetchsize, 1024) / 8 + 1;
+
+    int rowCount = 0;
+    while (rowCount < fetchsize && queryDataSet.hasNext()) {
+      RowRecord rowRecord = queryDataSet.next();
+      timeStream.writeLong(rowRecord.getTimestamp());
+      if (rowCount / 8 == bitmapSize) {
+        bitmapSize *= 2;
+        for (int i = 0; i < bitmaps.size(); i++) {
+          bitmaps.set(i, Arrays.copyOf(bitmaps.get(i), bitmapSize));
+        }
+      }
+      List<Field> fields = rowRecord.getFields();
+      for (int i = 0; i < fields.size(); i++) {
+        if (i == valueBuffers.size()) {
+          PublicBAOS valueBuffer = new PublicBAOS();
+          valueBuffers.add(valueBuffer);
+          valueStreams.add(new DataOutputStream(valueBuffer));
+          bitmaps.add(new byte[bitmapSize]);
+          dataTypes.add(null);
+        }
+        Field field = fields.get(i);
+        if (field.getDataType() == null) {
+          continue;
+        }
+        if (dataTypes.get(i) == null) {
+          dataTypes.set(i, field.getDataType());
+        }
+        bitmaps.get(i)[rowCount / 8] |= (byte) (1 << (7 - rowCount % 8));
+        writeFieldValue(valueStreams.get(i), field);
+      }
+      rowCount++;
+    }
+
+    TSColumnarDataSet tsColumnarDataSet = new TSColumnarDataSet();
+    tsColumnarDataSet.setRowCount(rowCount);
+    tsColumnarDataSet.setTime(ByteBuffer.wrap(timeBuffer.getBuf(), 0, timeBuffer.size()));
+    tsColumnarDataSet.setValueList(new ArrayList<>());
+    tsColumnarDataSet.setBitmapList(new ArrayList<>());
+    tsColumnarDataSet.setDataTypeList(new ArrayList<>());
+    for (int i = 0; i < valueBuffers.size(); i++) {
+      PublicBAOS valueBuffer = valueBuffers.get(i);
+      tsColumnarDataSet.getValueList()
+          .add(ByteBuffer.wrap(valueBuffer.getBuf(), 0, valueBuffer.size()));
+      tsColumnarDataSet.getBitmapList().add(ByteBuffer.wrap(bitmaps.get(i), 0, rowCount / 8 + 1));
+      // the type of a column without any value does not matter
+      TSDataType dataType = dataTypes.get(i) == null ? TSDataType.TEXT : dataTypes.get(i);
+      tsColumnarDataSet.getDataTypeList().add(dataType.toString());
+    }
+    return tsColumnarDataSet;
+  }
+
+  private static void writeFieldValue(DataOutputStream stream, Field field) throws IOException {
+    switch (field.getDataType()) {
+      case BOOLEAN:
+        stream.writeBoolean(field.getBoolV());
+        break;
+      case INT32:
+        stream.writeInt(field.getIntV());
+        break;
+      case INT64:
+        stream.writeLong(field.getLongV());
+        break;
+      case FLOAT:
+        stream.writeFloat(field.getFloatV());
+        break;
+      case DOUBLE:
+        stream.writeDouble(field.getDoubleV());
+        break;
+      case TEXT:
+        byte[] bytes = field.getBinaryV().getValues();
+        stream.writeInt(bytes.length);
+        stream.write(bytes);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.format(
+            "data type %s is not supported when convert data at server",
+            field.getDataType().toString()));
+    }
+  }
+
+  /**
+   * convert a batch insertion request into a plan, the values of which are decoded into primitive
+   * arrays.
+   *
+   * @param req -batch insertion request
+   */
+  public static BatchInsertPlan convertToBatchInsertPlan(TSBatchInsertionReq req) {
+    int rowCount = req.getRowCount();
+    ByteBuffer timeBuffer = req.bufferForTimestamps().slice();
+    long[] times = new long[rowCount];
+    for (int i = 0; i < rowCount; i++) {
+      times[i] = timeBuffer.getLong();
+    }
+
+    List<TSDataType> dataTypes = new ArrayList<>();
+    Object[] columns = new Object[req.getMeasurementsSize()];
+    for (int i = 0; i < columns.length; i++) {
+      TSDataType dataType = TSDataType.valueOf(req.getDataTypes().get(i));
+      dataTypes.add(dataType);
+      columns[i] = readColumn(req.getValues().get(i).slice(), dataType, rowCount);
+    }
+    return new BatchInsertPlan(req.getDeviceId(), req.getMeasurements(), dataTypes, times,
+        columns);
+  }
+
+  private static Object readColumn(ByteBuffer buffer, TSDataType dataType, int rowCount) {
+    switch (dataType) {
+      case BOOLEAN:
+        boolean[] booleans = new boolean[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+          booleans[i] = buffer.get() != 0;
+        }
+        return booleans;
+      case INT32:
+        int[] ints = new int[rowCount];
+        buffer.asIntBuffer().get(ints);
+        return ints;
+      case INT64:
+        long[] longs = new long[rowCount];
+        buffer.asLongBuffer().get(longs);
+        return longs;
+      case FLOAT:
+        float[] floats = new float[rowCount];
+        buffer.asFloatBuffer().get(floats);
+        return floats;
+      case DOUBLE:
+        double[] doubles = new double[rowCount];
+        buffer.asDoubleBuffer().get(doubles);
+        return doubles;
+      case TEXT:
+        Binary[] binaries = new Binary[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+          byte[] bytes = new byte[buffer.getInt()];
+          buffer.get(bytes);
+          binaries[i] = new Binary(bytes);
+        }
+        return binaries;
+      default:
+        throw new UnSupportedDataTypeException(String.format(
+            "data type %s is not supported when convert data at server", dataType));
+    }
+  }
+
   /**
    * convert to tsRecord.
    *
@@ -19,7 +19,9 @@
 package org.apache.iotdb.db.utils;
 
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Field;
 
 public class TimeValuePairUtils {
 
@@ -51,4 +53,41 @@ public class TimeValuePairUtils {
         throw new UnSupportedDataTypeException(String.valueOf(data.getDataType()));
     }
   }
+
+  /**
+   * convert the value of given (time,value) pair to a Field.
+   *
+   * @param dataType data type of the value
+   * @param timeValuePair null if there is no value
+   * @return a null Field if the pair is null
+   */
+  public static Field getValueField(TSDataType dataType, TimeValuePair timeValuePair) {
+    if (timeValuePair == null) {
+      return new Field(null);
+    }
+    Field field = new Field(dataType);
+    switch (dataType) {
+      case BOOLEAN:
+        field.setBoolV(timeValuePair.getValue().getBoolean());
+        break;
+      case INT32:
+        field.setIntV(timeValuePair.getValue().getInt());
+        break;
+      case INT64:
+        field.setLongV(timeValuePair.getValue().getLong());
+        break;
+      case FLOAT:
+        field.setFloatV(timeValuePair.getValue().getFloat());
+        break;
+      case DOUBLE:
+        field.setDoubleV(timeValuePair.getValue().getDouble());
+        break;
+      case TEXT:
+        field.setBinaryV(timeValuePair.getValue().getBinary());
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+    return field;
+  }
 }
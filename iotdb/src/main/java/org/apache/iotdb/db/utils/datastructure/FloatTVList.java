@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import static org.apache.iotdb.db.utils.datastructure.PrimitiveArrayPool.ARRAY_SIZE;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+public class FloatTVList extends TVList {
+
+  private List<float[]> values;
+
+  public FloatTVList() {
+    super();
+    values = new ArrayList<>();
+  }
+
+  @Override
+  public TSDataType getDataType() {
+    return TSDataType.FLOAT;
+  }
+
+  @Override
+  public void putFloat(long time, float value) {
+    checkExpansion();
+    values.get(size / ARRAY_SIZE)[size % ARRAY_SIZE] = value;
+    putTime(time);
+  }
+
+  @Override
+  public float getFloat(int index) {
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return values.get(index / ARRAY_SIZE)[index % ARRAY_SIZE];
+  }
+
+  @Override
+  public FloatTVList clone() {
+    FloatTVList cloneList = new FloatTVList();
+    cloneTo(cloneList);
+    for (float[] array : values) {
+      cloneList.values.add(array.clone());
+    }
+    return cloneList;
+  }
+
+  @Override
+  protected void expandValues() {
+    values.add(getPrimitiveArray());
+  }
+
+  @Override
+  protected void copyValue(int src, int dest) {
+    values.get(dest / ARRAY_SIZE)[dest % ARRAY_SIZE] =
+        values.get(src / ARRAY_SIZE)[src % ARRAY_SIZE];
+  }
+
+  @Override
+  protected void releaseValues() {
+    for (float[] array : values) {
+      PrimitiveArrayPool.getInstance().release(TSDataType.FLOAT, array);
+    }
+    values.clear();
+  }
+
+  @Override
+  protected void releaseLastValues() {
+    PrimitiveArrayPool.getInstance().release(TSDataType.FLOAT, values.remove(values.size() - 1));
+  }
+
+  private float[] getPrimitiveArray() {
+    return (float[]) PrimitiveArrayPool.getInstance().getPrimitiveArray(TSDataType.FLOAT);
+  }
+}
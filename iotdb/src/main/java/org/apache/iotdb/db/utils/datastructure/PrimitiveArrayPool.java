@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+/**
+ * A pool of the fixed-size primitive arrays used by {@link TVList}, so that the arrays of a flushed
+ * memtable are reused by the following memtables instead of being collected. THREAD SAFE.
+ */
+public class PrimitiveArrayPool {
+
+  public static final int ARRAY_SIZE = 512;
+
+  /**
+   * at most so many arrays of each data type are kept, the others are left to the GC.
+   */
+  private static final int MAX_POOLED_ARRAY_NUM = 1024;
+
+  private final Map<TSDataType, ArrayDeque<Object>> pools = new EnumMap<>(TSDataType.class);
+
+  private PrimitiveArrayPool() {
+    for (TSDataType dataType : TSDataType.values()) {
+      pools.put(dataType, new ArrayDeque<>());
+    }
+  }
+
+  public static PrimitiveArrayPool getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  /**
+   * get an array of ARRAY_SIZE, the content of which is undefined.
+   */
+  public Object getPrimitiveArray(TSDataType dataType) {
+    ArrayDeque<Object> pool = pools.get(dataType);
+    synchronized (pool) {
+      Object array = pool.poll();
+      if (array != null) {
+        return array;
+      }
+    }
+    return createArray(dataType);
+  }
+
+  /**
+   * return an array got by <code>getPrimitiveArray()</code>, which must not be used any more.
+   */
+  public void release(TSDataType dataType, Object array) {
+    if (array instanceof Binary[]) {
+      // do not hold the values
+      Arrays.fill((Binary[]) array, null);
+    }
+    ArrayDeque<Object> pool = pools.get(dataType);
+    synchronized (pool) {
+      if (pool.size() < MAX_POOLED_ARRAY_NUM) {
+        pool.push(array);
+      }
+    }
+  }
+
+  /**
+   * the number of arrays in the pool, only for test.
+   */
+  public int size(TSDataType dataType) {
+    ArrayDeque<Object> pool = pools.get(dataType);
+    synchronized (pool) {
+      return pool.size();
+    }
+  }
+
+  private static Object createArray(TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+        return new boolean[ARRAY_SIZE];
+      case INT32:
+        return new int[ARRAY_SIZE];
+      case INT64:
+        return new long[ARRAY_SIZE];
+      case FLOAT:
+        return new float[ARRAY_SIZE];
+      case DOUBLE:
+        return new double[ARRAY_SIZE];
+      case TEXT:
+        return new Binary[ARRAY_SIZE];
+      default:
+        throw new UnSupportedDataTypeException("DataType: " + dataType);
+    }
+  }
+
+  private static class InstanceHolder {
+
+    private static final PrimitiveArrayPool INSTANCE = new PrimitiveArrayPool();
+
+    private InstanceHolder() {
+    }
+  }
+}
@@ -0,0 +1,311 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import static org.apache.iotdb.db.utils.datastructure.PrimitiveArrayPool.ARRAY_SIZE;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+/**
+ * <p>
+ * An append-only list of time-value pairs of one data type, the times and values of which are kept
+ * in pooled primitive arrays of {@link PrimitiveArrayPool#ARRAY_SIZE}, so no point is boxed.
+ * </p>
+ * After <code>sort()</code>, the points are in ascending order of time and only the last written
+ * point of each time is kept. NOT THREAD SAFE.
+ */
+public abstract class TVList {
+
+  private static final String ERR_DATATYPE_NOT_CONSISTENT = "DataType not consistent";
+  private static final int INSERTION_SORT_THRESHOLD = 32;
+
+  protected List<long[]> timestamps;
+  protected int size;
+
+  private boolean sorted = true;
+  private long lastTime = Long.MIN_VALUE;
+
+  public TVList() {
+    timestamps = new ArrayList<>();
+  }
+
+  public static TVList newList(TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+        return new BooleanTVList();
+      case INT32:
+        return new IntTVList();
+      case INT64:
+        return new LongTVList();
+      case FLOAT:
+        return new FloatTVList();
+      case DOUBLE:
+        return new DoubleTVList();
+      case TEXT:
+        return new BinaryTVList();
+      default:
+        throw new UnSupportedDataTypeException("DataType: " + dataType);
+    }
+  }
+
+  public abstract TSDataType getDataType();
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * whether the points are sorted by time and the times are distinct.
+   */
+  public boolean isSorted() {
+    return sorted;
+  }
+
+  public long getTime(int index) {
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return timestamps.get(index / ARRAY_SIZE)[index % ARRAY_SIZE];
+  }
+
+  public void putLong(long time, long value) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public void putInt(long time, int value) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public void putFloat(long time, float value) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public void putDouble(long time, double value) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public void putBinary(long time, Binary value) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public void putBoolean(long time, boolean value) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public long getLong(int index) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public int getInt(int index) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public float getFloat(int index) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public double getDouble(int index) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public Binary getBinary(int index) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public boolean getBoolean(int index) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  /**
+   * sort the points by time with a stable merge sort and remove the points overwritten by a later
+   * point of the same time. Nothing is done if the points are appended in order.
+   * <p>
+   * The points are sorted in place in the pooled arrays. The scratch space of the merges, which
+   * holds half of the points, is made of arrays borrowed from the pool and appended after the
+   * arrays of the list, so that a scratch point is addressed like a point of the list.
+   * </p>
+   */
+  public void sort() {
+    if (sorted) {
+      return;
+    }
+    int arrayNum = timestamps.size();
+    int scratchStart = arrayNum * ARRAY_SIZE;
+    int scratchSize = Math.max(size / 2, 1);
+    for (int i = 0; i < (scratchSize + ARRAY_SIZE - 1) / ARRAY_SIZE; i++) {
+      timestamps
+          .add((long[]) PrimitiveArrayPool.getInstance().getPrimitiveArray(TSDataType.INT64));
+      expandValues();
+    }
+    mergeSort(0, size, scratchStart);
+
+    // keep the last written one of the points with the same time
+    int newSize = 0;
+    for (int i = 0; i < size; i++) {
+      if (i + 1 < size && time(i) == time(i + 1)) {
+        continue;
+      }
+      if (newSize != i) {
+        move(i, newSize);
+      }
+      newSize++;
+    }
+
+    // return the scratch arrays and the arrays emptied by the removed points
+    arrayNum = (newSize + ARRAY_SIZE - 1) / ARRAY_SIZE;
+    while (timestamps.size() > arrayNum) {
+      PrimitiveArrayPool.getInstance()
+          .release(TSDataType.INT64, timestamps.remove(timestamps.size() - 1));
+      releaseLastValues();
+    }
+    size = newSize;
+    sorted = true;
+    lastTime = time(newSize - 1);
+  }
+
+  /**
+   * return all the arrays to the pool, the list is empty afterwards.
+   */
+  public void clear() {
+    for (long[] array : timestamps) {
+      PrimitiveArrayPool.getInstance().release(TSDataType.INT64, array);
+    }
+    timestamps.clear();
+    releaseValues();
+    size = 0;
+    sorted = true;
+    lastTime = Long.MIN_VALUE;
+  }
+
+  /**
+   * copy the points into a new list, which does not use the pooled arrays and is not affected by
+   * the later modifications of this list.
+   */
+  @Override
+  public abstract TVList clone();
+
+  /**
+   * allocate the arrays for the next point if the current arrays are full, invoked before a value
+   * is put at index <code>size</code>.
+   */
+  protected void checkExpansion() {
+    if (size % ARRAY_SIZE == 0) {
+      timestamps
+          .add((long[]) PrimitiveArrayPool.getInstance().getPrimitiveArray(TSDataType.INT64));
+      expandValues();
+    }
+  }
+
+  /**
+   * put the time of the point whose value has been put at index <code>size</code>.
+   */
+  protected void putTime(long time) {
+    timestamps.get(size / ARRAY_SIZE)[size % ARRAY_SIZE] = time;
+    size++;
+    if (time <= lastTime) {
+      sorted = false;
+    } else {
+      lastTime = time;
+    }
+  }
+
+  protected void cloneTo(TVList cloneList) {
+    for (long[] array : timestamps) {
+      cloneList.timestamps.add(array.clone());
+    }
+    cloneList.size = size;
+    cloneList.sorted = sorted;
+    cloneList.lastTime = lastTime;
+  }
+
+  protected abstract void expandValues();
+
+  /**
+   * copy the value at index <code>src</code> to index <code>dest</code>, either of which may be in
+   * the scratch arrays of <code>sort()</code>.
+   */
+  protected abstract void copyValue(int src, int dest);
+
+  protected abstract void releaseValues();
+
+  /**
+   * return the last array of the values to the pool.
+   */
+  protected abstract void releaseLastValues();
+
+  private long time(int index) {
+    return timestamps.get(index / ARRAY_SIZE)[index % ARRAY_SIZE];
+  }
+
+  private void move(int src, int dest) {
+    timestamps.get(dest / ARRAY_SIZE)[dest % ARRAY_SIZE] = time(src);
+    copyValue(src, dest);
+  }
+
+  private void mergeSort(int lo, int hi, int scratchStart) {
+    if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+      insertionSort(lo, hi, scratchStart);
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    mergeSort(lo, mid, scratchStart);
+    mergeSort(mid, hi, scratchStart);
+    if (time(mid - 1) <= time(mid)) {
+      return;
+    }
+    // move the left run into the scratch, then merge it with the right run from the left end
+    int scratchEnd = scratchStart + mid - lo;
+    for (int i = lo; i < mid; i++) {
+      move(i, scratchStart + i - lo);
+    }
+    int i = scratchStart;
+    int j = mid;
+    int k = lo;
+    while (i < scratchEnd && j < hi) {
+      if (time(i) <= time(j)) {
+        move(i++, k++);
+      } else {
+        move(j++, k++);
+      }
+    }
+    while (i < scratchEnd) {
+      move(i++, k++);
+    }
+  }
+
+  private void insertionSort(int lo, int hi, int scratchStart) {
+    for (int i = lo + 1; i < hi; i++) {
+      long time = time(i);
+      if (time(i - 1) <= time) {
+        continue;
+      }
+      move(i, scratchStart);
+      int j = i - 1;
+      while (j >= lo && time(j) > time) {
+        move(j, j + 1);
+        j--;
+      }
+      move(scratchStart, j + 1);
+    }
+  }
+}
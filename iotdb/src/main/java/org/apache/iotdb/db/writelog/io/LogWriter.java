@@ -24,16 +24,28 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.List;
-import java.util.zip.CRC32;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 
+/**
+ * Each call of <code>write()</code> appends the logs as one batch, which is checked by a single
+ * CRC32C: BATCH_MARKER, BATCH_VERSION, log count, payload size, checksum of the payload, then the
+ * payload which consists of the size and the bytes of each log. Files written before batches were
+ * introduced consist of entries of size, CRC32 and bytes, which can still be read by RAFLogReader.
+ */
 public class LogWriter implements ILogWriter {
 
+  /**
+   * the size of an entry of the old format is never negative.
+   */
+  public static final int BATCH_MARKER = -1;
+  public static final byte BATCH_VERSION = 1;
+  public static final int BATCH_HEADER_SIZE = 4 + 1 + 4 + 4 + 4;
+
   private File logFile;
   private FileOutputStream fileOutputStream;
   private FileChannel outputStream;
-  private CRC32 checkSummer = new CRC32();
+  private CRC32C checkSummer = new CRC32C();
   private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
 
   public LogWriter(String logFilePath) {
@@ -46,19 +58,28 @@ public class LogWriter implements ILogWriter {
       fileOutputStream = new FileOutputStream(logFile, true);
       outputStream = fileOutputStream.getChannel();
     }
-    int totalSize = 0;
+    if (logCache.isEmpty()) {
+      return;
+    }
+    int payloadSize = 0;
     for (byte[] bytes : logCache) {
-      totalSize += 4 + 8 + bytes.length;
+      payloadSize += 4 + bytes.length;
     }
-    ByteBuffer buffer = ByteBuffer.allocate(totalSize);
+    ByteBuffer buffer = ByteBuffer.allocate(BATCH_HEADER_SIZE + payloadSize);
+    buffer.position(BATCH_HEADER_SIZE);
     for (byte[] bytes : logCache) {
       buffer.putInt(bytes.length);
-      checkSummer.reset();
-      checkSummer.update(bytes);
-      buffer.putLong(checkSummer.getValue());
       buffer.put(bytes);
     }
-    buffer.flip();
+    checkSummer.reset();
+    checkSummer.update(buffer.array(), BATCH_HEADER_SIZE, payloadSize);
+    buffer.position(0);
+    buffer.putInt(BATCH_MARKER);
+    buffer.put(BATCH_VERSION);
+    buffer.putInt(logCache.size());
+    buffer.putInt(payloadSize);
+    buffer.putInt((int) checkSummer.getValue());
+    buffer.position(0);
     outputStream.write(buffer);
     if (config.getForceWalPeriodInMs() == 0) {
       outputStream.force(true);
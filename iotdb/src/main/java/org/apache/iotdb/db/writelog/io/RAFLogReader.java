@@ -22,7 +22,11 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.NoSuchElementException;
+import java.util.Queue;
 import java.util.zip.CRC32;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
 import org.apache.iotdb.db.writelog.transfer.PhysicalPlanLogTransfer;
@@ -37,7 +41,12 @@ public class RAFLogReader implements ILogReader {
   private int bufferSize = 4 * 1024 * 1024;
   private byte[] buffer = new byte[bufferSize];
   private CRC32 checkSummer = new CRC32();
+  private CRC32C batchCheckSummer = new CRC32C();
   private PhysicalPlan planBuffer = null;
+  /**
+   * the remaining logs of the current batch.
+   */
+  private Queue<byte[]> batchLogs = new ArrayDeque<>();
 
   public RAFLogReader() {
     // allowed to construct RAFLogReader without input.
@@ -52,12 +61,22 @@ public class RAFLogReader implements ILogReader {
     if (planBuffer != null) {
       return true;
     }
+    if (!batchLogs.isEmpty()) {
+      planBuffer = PhysicalPlanLogTransfer.logToOperator(batchLogs.poll());
+      return true;
+    }
 
-    if (logRaf.getFilePointer() + 12 > logRaf.length()) {
+    if (logRaf.getFilePointer() + 4 > logRaf.length()) {
       return false;
     }
-
     int logSize = logRaf.readInt();
+    if (logSize == LogWriter.BATCH_MARKER) {
+      return readBatch();
+    }
+
+    if (logRaf.getFilePointer() + 8 > logRaf.length()) {
+      return false;
+    }
     if (logSize > bufferSize) {
       bufferSize = logSize;
       buffer = new byte[bufferSize];
@@ -73,6 +92,36 @@ public class RAFLogReader implements ILogReader {
     return true;
   }
 
+  private boolean readBatch() throws IOException {
+    if (logRaf.getFilePointer() + LogWriter.BATCH_HEADER_SIZE - 4 > logRaf.length()) {
+      return false;
+    }
+    byte version = logRaf.readByte();
+    if (version != LogWriter.BATCH_VERSION) {
+      throw new IOException("Unsupported version of log batch: " + version);
+    }
+    int logCount = logRaf.readInt();
+    int payloadSize = logRaf.readInt();
+    int checkSum = logRaf.readInt();
+    if (payloadSize > bufferSize) {
+      bufferSize = payloadSize;
+      buffer = new byte[bufferSize];
+    }
+    logRaf.readFully(buffer, 0, payloadSize);
+    batchCheckSummer.reset();
+    batchCheckSummer.update(buffer, 0, payloadSize);
+    if ((int) batchCheckSummer.getValue() != checkSum) {
+      throw new IOException("The check sum is incorrect!");
+    }
+    ByteBuffer payload = ByteBuffer.wrap(buffer, 0, payloadSize);
+    for (int i = 0; i < logCount; i++) {
+      int logSize = payload.getInt();
+      batchLogs.add(Arrays.copyOfRange(buffer, payload.position(), payload.position() + logSize));
+      payload.position(payload.position() + logSize);
+    }
+    return hasNext();
+  }
+
   @Override
   public PhysicalPlan next() throws IOException {
     if (!hasNext()){
@@ -99,5 +148,7 @@ public class RAFLogReader implements ILogReader {
   public void open(File logFile) throws FileNotFoundException {
     logRaf = new RandomAccessFile(logFile, "r");
     this.filepath = logFile.getPath();
+    planBuffer = null;
+    batchLogs.clear();
   }
 }
@@ -21,9 +21,16 @@ package org.apache.iotdb.db.writelog.manager;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.db.concurrent.ThreadName;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBConstant;
@@ -33,6 +40,7 @@ import org.apache.iotdb.db.exception.StartupException;
 import org.apache.iotdb.db.service.IService;
 import org.apache.iotdb.db.service.ServiceType;
 import org.apache.iotdb.db.writelog.node.ExclusiveWriteLogNode;
+import org.apache.iotdb.db.writelog.node.GroupCommitFlusher;
 import org.apache.iotdb.db.writelog.node.WriteLogNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -135,14 +143,59 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
     List<WriteLogNode> nodeList = new ArrayList<>(nodeMap.size());
     nodeList.addAll(nodeMap.values());
     nodeList.sort(null);
+    // the log nodes of a storage group share one processor, so they are recovered one after
+    // another, while different storage groups are recovered concurrently
+    Map<String, List<WriteLogNode>> storageGroupNodes = new LinkedHashMap<>();
     for (WriteLogNode node : nodeList) {
+      String storageGroup = node.getIdentifier().split("-")[0];
+      storageGroupNodes.computeIfAbsent(storageGroup, k -> new ArrayList<>()).add(node);
+    }
+    if (storageGroupNodes.isEmpty()) {
+      return;
+    }
+
+    int threadNum = Math.min(config.getWalRecoveryThreadNum(), storageGroupNodes.size());
+    ExecutorService recoverPool = IoTDBThreadPoolFactory
+        .newFixedThreadPool(threadNum, ThreadName.WAL_RECOVERY.getName());
+    int total = storageGroupNodes.size();
+    AtomicInteger finished = new AtomicInteger();
+    List<Future<Void>> futures = new ArrayList<>(total);
+    for (Entry<String, List<WriteLogNode>> entry : storageGroupNodes.entrySet()) {
+      futures.add(recoverPool.submit(() -> {
+        for (WriteLogNode node : entry.getValue()) {
+          try {
+            node.recover();
+          } catch (RecoverException e) {
+            logger.error("{} failed to recover because {}", node.toString(), e.getMessage());
+            throw e;
+          }
+        }
+        logger.info("Write ahead logs of {} recovered, {}/{} storage groups finished",
+            entry.getKey(), finished.incrementAndGet(), total);
+        return null;
+      }));
+    }
+    recoverPool.shutdown();
+
+    // wait for all the tasks even if one fails, so that no replay is running after returning
+    RecoverException failure = null;
+    for (Future<Void> future : futures) {
       try {
-        node.recover();
-      } catch (RecoverException e) {
-        logger.error("{} failed to recover because {}", node.toString(), e.getMessage());
-        throw e;
+        future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        recoverPool.shutdownNow();
+        throw new RecoverException(e);
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure = e.getCause() instanceof RecoverException ? (RecoverException) e.getCause()
+              : new RecoverException(e.getCause());
+        }
       }
     }
+    if (failure != null) {
+      throw failure;
+    }
   }
 
   @Override
@@ -166,6 +219,7 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
         // wait for forceThread
       }
     }
+    GroupCommitFlusher.getInstance().stop();
     logger.info("{} nodes to be closed", nodeMap.size());
     for (WriteLogNode node : nodeMap.values()) {
       try {
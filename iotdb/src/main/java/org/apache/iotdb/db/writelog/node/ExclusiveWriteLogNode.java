@@ -22,6 +22,9 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -67,6 +70,21 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
 
   private ReadWriteLock forceLock = new ReentrantReadWriteLock();
 
+  /**
+   * logs appended in group commit mode, which are written by GroupCommitFlusher.
+   */
+  private Queue<PendingLog> pendingLogs = new ConcurrentLinkedQueue<>();
+
+  /**
+   * whether this node is waiting in the queue of GroupCommitFlusher.
+   */
+  private AtomicBoolean submitted = new AtomicBoolean(false);
+
+  /**
+   * notified when some pending logs are committed.
+   */
+  private final Object commitCondition = new Object();
+
   /**
    * constructor of ExclusiveWriteLogNode.
    *
@@ -94,6 +112,10 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
    */
   @Override
   public LogPosition write(PhysicalPlan plan) throws IOException {
+    if (config.isEnableWalGroupCommit()) {
+      groupCommitWrite(plan);
+      return null;
+    }
     lockForWrite();
     try {
       byte[] logBytes = PhysicalPlanLogTransfer.operatorToLog(plan);
@@ -108,6 +130,84 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
     return null;
   }
 
+  private void groupCommitWrite(PhysicalPlan plan) throws IOException {
+    PendingLog log = new PendingLog(PhysicalPlanLogTransfer.operatorToLog(plan));
+    pendingLogs.add(log);
+    GroupCommitFlusher.getInstance().submit(this);
+    if (!config.isWaitWalGroupCommit()) {
+      return;
+    }
+    synchronized (commitCondition) {
+      while (!log.committed) {
+        try {
+          commitCondition.wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException("Interrupted while waiting for the log to be committed", e);
+        }
+      }
+    }
+    if (log.failure != null) {
+      throw new IOException("Cannot commit the log in " + identifier, log.failure);
+    }
+  }
+
+  /**
+   * mark this node as submitted to GroupCommitFlusher.
+   *
+   * @return false if it has already been submitted
+   */
+  boolean markSubmitted() {
+    return submitted.compareAndSet(false, true);
+  }
+
+  /**
+   * write and force all the pending logs together, then wake up the writers waiting for them.
+   */
+  void groupCommit() {
+    submitted.set(false);
+    lockForOther();
+    try {
+      List<PendingLog> logs = new ArrayList<>();
+      PendingLog log;
+      while ((log = pendingLogs.poll()) != null) {
+        logs.add(log);
+      }
+      if (logs.isEmpty()) {
+        return;
+      }
+      List<byte[]> logBytes = new ArrayList<>(logs.size());
+      for (PendingLog pendingLog : logs) {
+        logBytes.add(pendingLog.bytes);
+      }
+      IOException failure = null;
+      try {
+        currentFileWriter.write(logBytes);
+        if (config.getForceWalPeriodInMs() != 0) {
+          // the writer has forced the logs if the period is 0
+          currentFileWriter.force();
+        }
+      } catch (IOException e) {
+        logger.error("Log node {} group commit failed", identifier, e);
+        failure = e;
+      }
+      finishPendingLogs(logs, failure);
+      logger.debug("Log node {} committed {} logs", identifier, logs.size());
+    } finally {
+      unlockForOther();
+    }
+  }
+
+  private void finishPendingLogs(List<PendingLog> logs, IOException failure) {
+    for (PendingLog log : logs) {
+      log.failure = failure;
+      log.committed = true;
+    }
+    synchronized (commitCondition) {
+      commitCondition.notifyAll();
+    }
+  }
+
   @Override
   public void recover() throws RecoverException {
     close();
@@ -182,6 +282,9 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
     lockForOther();
     try {
       logCache.clear();
+      List<PendingLog> logs = new ArrayList<>(pendingLogs);
+      pendingLogs.clear();
+      finishPendingLogs(logs, new IOException("Log node " + identifier + " is deleted"));
       if (currentFileWriter != null) {
         currentFileWriter.close();
       }
@@ -217,6 +320,10 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
   }
 
   private void sync() {
+    if (config.isEnableWalGroupCommit()) {
+      groupCommit();
+      return;
+    }
     lockForOther();
     try {
       logger.debug("Log node {} starts sync, {} logs to be synced", identifier, logCache.size());
@@ -268,6 +375,17 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
     return "Log node " + identifier;
   }
 
+  private static class PendingLog {
+
+    private byte[] bytes;
+    private volatile boolean committed;
+    private IOException failure;
+
+    private PendingLog(byte[] bytes) {
+      this.bytes = bytes;
+    }
+  }
+
   public String getFileNodeName() {
     return identifier.split("-")[0];
   }
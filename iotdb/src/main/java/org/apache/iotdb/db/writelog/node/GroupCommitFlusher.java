@@ -0,0 +1,116 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.node;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.iotdb.db.concurrent.ThreadName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The single thread which writes and forces the pending logs of ExclusiveWriteLogNodes in group
+ * commit mode. A node is submitted when a log is appended to it, and all the logs appended before
+ * the node is processed are committed together. The thread is started on the first submission.
+ */
+public class GroupCommitFlusher {
+
+  private static final Logger logger = LoggerFactory.getLogger(GroupCommitFlusher.class);
+
+  private Queue<ExclusiveWriteLogNode> submittedNodes = new ConcurrentLinkedQueue<>();
+  private volatile Thread flushThread;
+  /**
+   * the flush thread is stopped by this flag rather than an interruption, which would close the
+   * channel of the log file being written.
+   */
+  private volatile boolean running;
+
+  private GroupCommitFlusher() {
+  }
+
+  public static GroupCommitFlusher getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  /**
+   * submit a node which has pending logs.
+   */
+  void submit(ExclusiveWriteLogNode node) {
+    if (node.markSubmitted()) {
+      submittedNodes.add(node);
+    }
+    Thread thread = flushThread;
+    if (thread == null || !thread.isAlive()) {
+      thread = startThread();
+    }
+    LockSupport.unpark(thread);
+  }
+
+  private synchronized Thread startThread() {
+    if (flushThread == null || !flushThread.isAlive()) {
+      running = true;
+      flushThread = new Thread(this::flushLoop, ThreadName.WAL_GROUP_COMMIT_DAEMON.getName());
+      flushThread.setDaemon(true);
+      flushThread.start();
+    }
+    return flushThread;
+  }
+
+  /**
+   * stop the flush thread after it commits the submitted nodes, the logs submitted later are left
+   * to the nodes to be synced when they close.
+   */
+  public synchronized void stop() {
+    Thread thread = flushThread;
+    flushThread = null;
+    if (thread == null) {
+      return;
+    }
+    running = false;
+    LockSupport.unpark(thread);
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void flushLoop() {
+    while (true) {
+      ExclusiveWriteLogNode node = submittedNodes.poll();
+      if (node != null) {
+        node.groupCommit();
+      } else if (running) {
+        LockSupport.park(this);
+      } else {
+        break;
+      }
+    }
+    logger.info("WAL group commit thread exits.");
+  }
+
+  private static class InstanceHolder {
+
+    private InstanceHolder() {
+    }
+
+    private static final GroupCommitFlusher INSTANCE = new GroupCommitFlusher();
+  }
+}
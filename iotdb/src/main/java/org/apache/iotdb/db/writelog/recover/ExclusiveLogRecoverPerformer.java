@@ -50,8 +50,8 @@ public class ExclusiveLogRecoverPerformer implements RecoverPerformer {
   public static final String RECOVER_SUFFIX = "-recover";
   public static final String FLAG_SEPERATOR = "-";
   private static final Logger logger = LoggerFactory.getLogger(ExclusiveLogRecoverPerformer.class);
-  // The two fields can be made static only because the recovery is a serial process.
-  private static RAFLogReader rafLogReader = new RAFLogReader();
+  // log nodes may be recovered concurrently, so each performer has its own reader
+  private RAFLogReader rafLogReader = new RAFLogReader();
   private ExclusiveWriteLogNode writeLogNode;
   private String recoveryFlagPath;
   private String restoreFilePath;
@@ -270,6 +270,7 @@ public class ExclusiveLogRecoverPerformer implements RecoverPerformer {
                 e);
         throw new RecoverException("Cannot read old log file, recovery aborted.");
       }
+      int logCnt = 0;
       while (rafLogReader.hasNext()) {
         try {
           PhysicalPlan physicalPlan = rafLogReader.next();
@@ -277,13 +278,18 @@ public class ExclusiveLogRecoverPerformer implements RecoverPerformer {
             logger.error("Log node {} read a bad log", writeLogNode.getIdentifier());
             throw new RecoverException("Cannot read old log file, recovery aborted.");
           }
+          logCnt++;
           replayer.replay(physicalPlan, isOverflow);
         } catch (ProcessorException e) {
           failedCnt++;
           logger.error("Log node {}", writeLogNode.getLogDirectory(), e);
         }
       }
+      // the inserts buffered by the replayer fail one by one
+      failedCnt += replayer.flush();
       rafLogReader.close();
+      logger.info("Log node {} replayed {} of {} logs of {}", writeLogNode.getIdentifier(),
+          logCnt - failedCnt, logCnt, logFile.getName());
     }
     return failedCnt;
   }
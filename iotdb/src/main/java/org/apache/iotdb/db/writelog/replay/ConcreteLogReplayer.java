@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.writelog.replay;
 
+import java.util.ArrayList;
 import java.util.List;
 import org.apache.iotdb.db.engine.filenode.FileNodeManager;
 import org.apache.iotdb.db.exception.FileNodeManagerException;
@@ -33,9 +34,22 @@ import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.record.TSRecord;
 import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Replays the logs of one log node. Consecutive inserts are buffered and applied to
+ * FileNodeManager in batches, so that the lock of the storage group is acquired once per batch.
+ * A failed insert is logged and counted on its own, the other inserts of its batch are applied.
+ */
 public class ConcreteLogReplayer implements LogReplayer {
 
+  public static final int INSERT_BATCH_SIZE = 1024;
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConcreteLogReplayer.class);
+
+  private List<TSRecord> pendingRecords = new ArrayList<>();
+  private int failedInsertCnt = 0;
+
   /**
    * replay operation log (PhysicalPlan).
    *
@@ -46,9 +60,15 @@ public class ConcreteLogReplayer implements LogReplayer {
   public void replay(PhysicalPlan plan, boolean isOverflow) throws ProcessorException {
     try {
       if (plan instanceof InsertPlan) {
-        InsertPlan insertPlan = (InsertPlan) plan;
-        multiInsert(insertPlan);
-      } else if (plan instanceof UpdatePlan) {
+        pendingRecords.add(toTSRecord((InsertPlan) plan));
+        if (pendingRecords.size() >= INSERT_BATCH_SIZE) {
+          applyPendingRecords();
+        }
+        return;
+      }
+      // the buffered inserts must be applied before the plans after them
+      applyPendingRecords();
+      if (plan instanceof UpdatePlan) {
         UpdatePlan updatePlan = (UpdatePlan) plan;
         update(updatePlan);
       } else if (plan instanceof DeletePlan) {
@@ -61,14 +81,47 @@ public class ConcreteLogReplayer implements LogReplayer {
     }
   }
 
-  private void multiInsert(InsertPlan insertPlan)
-      throws PathErrorException, FileNodeManagerException {
+  @Override
+  public int flush() {
+    applyPendingRecords();
+    int failedCnt = failedInsertCnt;
+    failedInsertCnt = 0;
+    return failedCnt;
+  }
+
+  private void applyPendingRecords() {
+    if (pendingRecords.isEmpty()) {
+      return;
+    }
+    List<TSRecord> records = pendingRecords;
+    pendingRecords = new ArrayList<>();
+    try {
+      for (Pair<TSRecord, FileNodeManagerException> failure : FileNodeManager.getInstance()
+          .insertBatch(records, true)) {
+        failedInsertCnt++;
+        LOGGER.error("Cannot replay the insert {}", failure.left, failure.right);
+      }
+    } catch (FileNodeManagerException e) {
+      failedInsertCnt += records.size();
+      LOGGER.error("Cannot replay {} inserts", records.size(), e);
+    }
+  }
+
+  private TSRecord toTSRecord(InsertPlan insertPlan) throws PathErrorException {
     String deviceId = insertPlan.getDeviceId();
     long insertTime = insertPlan.getTime();
-    List<String> measurementList = insertPlan.getMeasurements();
-    List<String> insertValues = insertPlan.getValues();
 
     TSRecord tsRecord = new TSRecord(insertTime, deviceId);
+    if (insertPlan.getDataPoints() != null) {
+      // the values are typed, no need to parse them
+      for (DataPoint dataPoint : insertPlan.getDataPoints()) {
+        tsRecord.addTuple(dataPoint);
+      }
+      return tsRecord;
+    }
+
+    List<String> measurementList = insertPlan.getMeasurements();
+    List<String> insertValues = insertPlan.getValues();
     for (int i = 0; i < measurementList.size(); i++) {
       String pathKey = deviceId + "." + measurementList.get(i);
       TSDataType dataType = MManager.getInstance().getSeriesType(pathKey);
@@ -76,7 +129,7 @@ public class ConcreteLogReplayer implements LogReplayer {
       DataPoint dataPoint = DataPoint.getDataPoint(dataType, measurementList.get(i), value);
       tsRecord.addTuple(dataPoint);
     }
-    FileNodeManager.getInstance().insert(tsRecord, true);
+    return tsRecord;
   }
 
   private void update(UpdatePlan updatePlan) throws FileNodeManagerException, PathErrorException {
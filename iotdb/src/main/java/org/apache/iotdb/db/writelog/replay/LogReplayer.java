@@ -24,4 +24,15 @@ import org.apache.iotdb.db.qp.physical.PhysicalPlan;
 public interface LogReplayer {
 
   void replay(PhysicalPlan plan, boolean isOverflow) throws ProcessorException;
+
+  /**
+   * apply the plans buffered by <code>replay()</code>, called after the last plan is replayed.
+   *
+   * @return the number of the buffered plans which failed to be applied since the last call,
+   * including the ones applied by <code>replay()</code> when the buffer was full
+   */
+  default int flush() {
+    // nothing is buffered by default
+    return 0;
+  }
 }
@@ -41,12 +41,21 @@ import org.apache.iotdb.db.qp.physical.sys.AuthorPlan;
 import org.apache.iotdb.db.qp.physical.sys.LoadDataPlan;
 import org.apache.iotdb.db.qp.physical.sys.MetadataPlan;
 import org.apache.iotdb.db.qp.physical.sys.PropertyPlan;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+import org.apache.iotdb.tsfile.write.record.datapoint.BooleanDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.DoubleDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.FloatDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.IntDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.StringDataPoint;
 
 public class CodecInstances {
 
@@ -226,6 +235,106 @@ public class CodecInstances {
     }
   };
 
+  static final Codec<InsertPlan> typedInsertPlanCodec = new Codec<InsertPlan>() {
+    ThreadLocal<ByteBuffer> localBuffer = new ThreadLocal<>();
+
+    @Override
+    public byte[] encode(InsertPlan plan) {
+      int type = SystemLogOperator.TYPED_INSERT;
+      checkBufferAndPutType(localBuffer, type);
+      ByteBuffer buffer = localBuffer.get();
+      buffer.put((byte) plan.getInsertType());
+      buffer.putLong(plan.getTime());
+
+      putString(buffer, plan.getDeviceId());
+
+      List<DataPoint> dataPoints = plan.getDataPoints();
+      buffer.putInt(dataPoints.size());
+      for (DataPoint dataPoint : dataPoints) {
+        putString(buffer, dataPoint.getMeasurementId());
+        buffer.put((byte) dataPoint.getType().serialize());
+        putValue(buffer, dataPoint);
+      }
+
+      return Arrays.copyOfRange(buffer.array(), 0, buffer.position());
+    }
+
+    @Override
+    public InsertPlan decode(byte[] bytes) throws IOException {
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+      buffer.get(); // read and skip an int representing "type"
+      int insertType = buffer.get();
+      long time = buffer.getLong();
+
+      String device = readString(buffer);
+
+      int dataPointNum = buffer.getInt();
+      List<String> measurementsList = new ArrayList<>(dataPointNum);
+      List<DataPoint> dataPoints = new ArrayList<>(dataPointNum);
+      for (int i = 0; i < dataPointNum; i++) {
+        String measurement = readString(buffer);
+        TSDataType dataType = TSDataType.deserialize(buffer.get());
+        measurementsList.add(measurement);
+        dataPoints.add(readDataPoint(buffer, dataType, measurement));
+      }
+
+      InsertPlan ans = new InsertPlan(device, time, measurementsList, null);
+      ans.setDataPoints(dataPoints);
+      ans.setInsertType(insertType);
+      return ans;
+    }
+  };
+
+  private static void putValue(ByteBuffer buffer, DataPoint dataPoint) {
+    switch (dataPoint.getType()) {
+      case BOOLEAN:
+        buffer.put((byte) ((boolean) dataPoint.getValue() ? 1 : 0));
+        break;
+      case INT32:
+        buffer.putInt((int) dataPoint.getValue());
+        break;
+      case INT64:
+        buffer.putLong((long) dataPoint.getValue());
+        break;
+      case FLOAT:
+        buffer.putFloat((float) dataPoint.getValue());
+        break;
+      case DOUBLE:
+        buffer.putDouble((double) dataPoint.getValue());
+        break;
+      case TEXT:
+        byte[] bytes = ((Binary) dataPoint.getValue()).getValues();
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataPoint.getType()));
+    }
+  }
+
+  private static DataPoint readDataPoint(ByteBuffer buffer, TSDataType dataType,
+      String measurement) {
+    switch (dataType) {
+      case BOOLEAN:
+        return new BooleanDataPoint(measurement, buffer.get() != 0);
+      case INT32:
+        return new IntDataPoint(measurement, buffer.getInt());
+      case INT64:
+        return new LongDataPoint(measurement, buffer.getLong());
+      case FLOAT:
+        return new FloatDataPoint(measurement, buffer.getFloat());
+      case DOUBLE:
+        return new DoubleDataPoint(measurement, buffer.getDouble());
+      case TEXT:
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new StringDataPoint(measurement, new Binary(bytes));
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
   static final Codec<MetadataPlan> metadataPlanCodec = new Codec<MetadataPlan>() {
     ThreadLocal<ByteBuffer> localBuffer = new ThreadLocal<>();
 
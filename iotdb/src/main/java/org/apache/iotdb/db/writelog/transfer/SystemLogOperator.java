@@ -32,4 +32,8 @@ public class SystemLogOperator {
   public static final int AUTHOR = 4;
   public static final int LOADDATA = 5;
   public static final int PROPERTY = 6;
+  /**
+   * an InsertPlan whose values are encoded as typed primitives.
+   */
+  public static final int TYPED_INSERT = 7;
 }
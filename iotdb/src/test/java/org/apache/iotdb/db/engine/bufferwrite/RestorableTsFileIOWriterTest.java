@@ -240,6 +240,54 @@ public class RestorableTsFileIOWriterTest {
     deleteInsertFile();
   }
 
+  @Test
+  public void testFlushManySeries() throws IOException {
+    int deviceNum = 20;
+    int measurementNum = 50;
+    writer = new RestorableTsFileIOWriter(processorName, insertPath);
+    FileSchema schema = new FileSchema();
+    for (int j = 0; j < measurementNum; j++) {
+      schema.registerMeasurement(new MeasurementSchema("s" + j, TSDataType.INT64, TSEncoding.RLE));
+    }
+
+    // the points are written in descending order, so that every series has to be sorted
+    PrimitiveMemTable memTable = new PrimitiveMemTable();
+    for (int i = 0; i < deviceNum; i++) {
+      for (int j = 0; j < measurementNum; j++) {
+        for (long t = 100 + j; t >= i; t--) {
+          memTable.write("d" + i, "s" + j, TSDataType.INT64, t, String.valueOf(t));
+        }
+      }
+    }
+    MemTableFlushUtil.flushMemTable(schema, writer, memTable, 0);
+    writer.flush();
+    writer.appendMetadata();
+    writer.getOutput().close();
+
+    writer = new RestorableTsFileIOWriter(processorName, insertPath);
+    writer.endFile(schema);
+
+    TsFileSequenceReader reader = new TsFileSequenceReader(insertPath);
+    TsFileMetaData metaData = reader.readFileMetadata();
+    assertEquals(deviceNum, metaData.getDeviceMap().size());
+    for (int i = 0; i < deviceNum; i++) {
+      List<ChunkGroupMetaData> chunkGroups = reader
+          .readTsDeviceMetaData(metaData.getDeviceMap().get("d" + i))
+          .getChunkGroupMetaDataList();
+      assertEquals(1, chunkGroups.size());
+      List<ChunkMetaData> chunks = chunkGroups.get(0).getChunkMetaDataList();
+      assertEquals(measurementNum, chunks.size());
+      for (ChunkMetaData chunk : chunks) {
+        int j = Integer.parseInt(chunk.getMeasurementUid().substring(1));
+        assertEquals(i, chunk.getStartTime());
+        assertEquals(100 + j, chunk.getEndTime());
+        assertEquals(100 + j - i + 1, chunk.getNumOfPoints());
+      }
+    }
+    reader.close();
+    deleteInsertFile();
+  }
+
   private void writeRestoreFile(OutputStream out, int metadataNum) throws IOException {
     TsDeviceMetadata tsDeviceMetadata = new TsDeviceMetadata();
     List<ChunkGroupMetaData> appendRowGroupMetaDatas = new ArrayList<>();
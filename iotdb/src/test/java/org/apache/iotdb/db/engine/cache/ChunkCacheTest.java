@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ChunkCacheTest {
+
+  private String filePath = "chunkCacheTest.tsfile";
+  private TsFileSequenceReader reader;
+  private ChunkMetaData chunkMetaData;
+
+  @Before
+  public void setUp() throws IOException, WriteProcessException {
+    ChunkCache.getInstance().clear();
+    TsFileWriter writer = new TsFileWriter(new File(filePath));
+    writer.addMeasurement(new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.RLE));
+    for (long time = 1; time <= 100; time++) {
+      TSRecord record = new TSRecord(time, "d1");
+      record.addTuple(new LongDataPoint("s1", time));
+      writer.write(record);
+    }
+    writer.close();
+
+    reader = new TsFileSequenceReader(filePath);
+    List<ChunkMetaData> chunkMetaDataList = new MetadataQuerierByFileImpl(reader)
+        .getChunkMetaDataList(new Path("d1.s1"));
+    chunkMetaData = chunkMetaDataList.get(0);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    reader.close();
+    ChunkCache.getInstance().clear();
+    new File(filePath).delete();
+  }
+
+  @Test
+  public void testShareChunk() throws IOException {
+    ChunkCache cache = ChunkCache.getInstance();
+    long hitCount = cache.getHitCount();
+    long missCount = cache.getMissCount();
+
+    Chunk chunk1 = new CachedChunkLoader(reader).getChunk(chunkMetaData);
+    Chunk chunk2 = new CachedChunkLoader(reader).getChunk(chunkMetaData);
+    assertEquals(missCount + 1, cache.getMissCount());
+    assertEquals(hitCount + 1, cache.getHitCount());
+
+    // the chunks share the cached data but are read independently
+    assertNotSame(chunk1.getData(), chunk2.getData());
+    assertEquals(chunk1.getData(), chunk2.getData());
+    chunk1.getData().position(chunk1.getData().limit());
+    assertEquals(chunk2.getHeader().getDataSize(), chunk2.getData().remaining());
+  }
+
+  @Test
+  public void testRemoveFile() throws IOException {
+    ChunkCache cache = ChunkCache.getInstance();
+    cache.get(chunkMetaData, reader);
+    long usedMemory = cache.getUsedMemoryInByte();
+    cache.remove("otherFile.tsfile");
+    assertEquals(usedMemory, cache.getUsedMemoryInByte());
+
+    cache.remove(filePath);
+    assertEquals(0, cache.getUsedMemoryInByte());
+    long missCount = cache.getMissCount();
+    cache.get(chunkMetaData, reader);
+    assertEquals(missCount + 1, cache.getMissCount());
+  }
+}
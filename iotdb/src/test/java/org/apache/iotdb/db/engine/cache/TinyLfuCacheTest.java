@@ -0,0 +1,196 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class TinyLfuCacheTest {
+
+  private TinyLfuCache<Integer, String> newCache(long maxWeight) {
+    return new TinyLfuCache<>(maxWeight, 10, String::length);
+  }
+
+  @Test
+  public void testBoundedByWeight() throws IOException {
+    TinyLfuCache<Integer, String> cache = newCache(1000);
+    for (int i = 0; i < 1000; i++) {
+      int key = i;
+      assertEquals("value" + key, cache.get(key, () -> "value" + key));
+      assertTrue(cache.weightedSize() <= 1000);
+    }
+    assertEquals(1000, cache.getMissCount());
+    assertEquals(1000 - cache.size(), cache.getEvictionCount());
+
+    // a value heavier than the cache is returned but not cached
+    TinyLfuCache<Integer, String> smallCache = newCache(4);
+    assertEquals("value", smallCache.get(0, () -> "value"));
+    assertEquals(0, smallCache.size());
+  }
+
+  @Test
+  public void testScanResistance() throws IOException {
+    // 100 entries of weight 10 can be cached
+    TinyLfuCache<Integer, String> cache = newCache(1000);
+    int hotNum = 10;
+    for (int round = 0; round < 5; round++) {
+      accessHotEntries(cache, hotNum);
+    }
+    // the hot entries are accessed less recently than the last 100 scanned entries, which an LRU
+    // cache would evict, but they are accessed more frequently
+    for (int i = 0; i < 10000; i++) {
+      int key = hotNum + i;
+      cache.get(key, () -> String.format("cold%06d", key));
+      if (i % 100 == 99) {
+        accessHotEntries(cache, hotNum);
+      }
+    }
+    for (int i = 0; i < hotNum; i++) {
+      assertNotNull(cache.getIfPresent(i));
+    }
+    assertTrue(cache.weightedSize() <= 1000);
+  }
+
+  @Test
+  public void testAdmission() throws IOException {
+    TinyLfuCache<Integer, String> cache = newCache(1000);
+    // fill the cache with entries accessed several times, part of which stay in the probation space
+    // as the protected space is full
+    for (int round = 0; round < 3; round++) {
+      accessHotEntries(cache, 98);
+    }
+    // the entries accessed only once are not admitted to evict them
+    for (int i = 0; i < 500; i++) {
+      int key = 1000 + i;
+      cache.get(key, () -> String.format("cold%06d", key));
+    }
+    int hotNum = 0;
+    for (int i = 0; i < 98; i++) {
+      if (cache.getIfPresent(i) != null) {
+        hotNum++;
+      }
+    }
+    // a few may be evicted by the collisions in the sketch, while about 20 are evicted if every
+    // entry is admitted
+    assertTrue(hotNum >= 95);
+  }
+
+  private void accessHotEntries(TinyLfuCache<Integer, String> cache, int hotNum)
+      throws IOException {
+    for (int i = 0; i < hotNum; i++) {
+      int key = i;
+      cache.get(key, () -> String.format("hot%07d", key));
+    }
+  }
+
+  @Test
+  public void testRemoveAndClear() throws IOException {
+    TinyLfuCache<Integer, String> cache = newCache(1000);
+    cache.get(1, () -> "one");
+    cache.get(2, () -> "two");
+    cache.remove(1);
+    assertNull(cache.getIfPresent(1));
+    assertEquals(3, cache.weightedSize());
+    cache.clear();
+    assertNull(cache.getIfPresent(2));
+    assertEquals(0, cache.weightedSize());
+    assertEquals("two", cache.get(2, () -> "two"));
+  }
+
+  @Test
+  public void testLookupAndConditionalRemove() throws IOException {
+    TinyLfuCache<Integer, String> cache = newCache(1000);
+    assertNull(cache.lookup(1));
+    assertEquals(1, cache.getMissCount());
+    String one = cache.get(1, () -> "one");
+    assertEquals("one", cache.lookup(1));
+    assertEquals(1, cache.getHitCount());
+    // the key has been mapped to another value
+    cache.remove(1, "another");
+    assertEquals("one", cache.getIfPresent(1));
+    cache.remove(1, one);
+    assertNull(cache.getIfPresent(1));
+    assertEquals(0, cache.weightedSize());
+  }
+
+  @Test
+  public void testLoadOnce() throws Exception {
+    TinyLfuCache<Integer, String> cache = newCache(1000);
+    int threadNum = 4;
+    AtomicInteger loadNum = new AtomicInteger();
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch loaded = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(threadNum);
+    try {
+      List<Future<String>> futures = new ArrayList<>();
+      futures.add(pool.submit(() -> cache.get(0, () -> {
+        loadNum.incrementAndGet();
+        loading.countDown();
+        try {
+          loaded.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException(e);
+        }
+        return "zero";
+      })));
+      loading.await();
+      for (int i = 1; i < threadNum; i++) {
+        futures.add(pool.submit(() -> cache.get(0, () -> {
+          loadNum.incrementAndGet();
+          return "zero";
+        })));
+      }
+      // other keys are loaded while the first key is being loaded
+      assertEquals("one", cache.get(1, () -> "one"));
+      loaded.countDown();
+      for (Future<String> future : futures) {
+        assertEquals("zero", future.get());
+      }
+    } finally {
+      pool.shutdown();
+    }
+    // the threads requesting the key being loaded wait for the loading
+    assertEquals(1, loadNum.get());
+  }
+
+  @Test(expected = IOException.class)
+  public void testLoadFailure() throws IOException {
+    TinyLfuCache<Integer, String> cache = newCache(1000);
+    try {
+      cache.get(0, () -> {
+        throw new IOException("failed");
+      });
+    } finally {
+      assertEquals(0, cache.size());
+    }
+  }
+}
@@ -0,0 +1,54 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.filenode;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class CompactionTierTest {
+
+  private static final long MB = 1024L * 1024L;
+
+  @Test
+  public void testTier() {
+    assertEquals(0, FileNodeProcessor.getCompactionTier(0, 10));
+    assertEquals(0, FileNodeProcessor.getCompactionTier(MB - 1, 10));
+    assertEquals(1, FileNodeProcessor.getCompactionTier(MB, 10));
+    assertEquals(1, FileNodeProcessor.getCompactionTier(10 * MB - 1, 10));
+    assertEquals(2, FileNodeProcessor.getCompactionTier(10 * MB, 10));
+    assertEquals(4, FileNodeProcessor.getCompactionTier(8 * MB, 2));
+  }
+
+  @Test
+  public void testCompactedFileMovesUp() {
+    // the compacted file of ten smallest files of a tier belongs to the next tier
+    for (int tier = 1; tier < 5; tier++) {
+      long lowerBound = MB * (long) Math.pow(10, tier - 1);
+      assertEquals(tier, FileNodeProcessor.getCompactionTier(lowerBound, 10));
+      assertEquals(tier + 1, FileNodeProcessor.getCompactionTier(lowerBound * 10, 10));
+    }
+  }
+
+  @Test
+  public void testHugeFile() {
+    assertEquals(FileNodeProcessor.getCompactionTier(Long.MAX_VALUE, 10),
+        FileNodeProcessor.getCompactionTier(Long.MAX_VALUE - 1, 10));
+  }
+}
@@ -0,0 +1,228 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.filenode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.pool.MergeManager;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.MetadataArgsErrorException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FileNodeCompactionTest {
+
+  private String processorName = "root.compaction";
+  private String d0 = processorName + ".d0";
+  private String d1 = processorName + ".d1";
+  private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private FileNodeTestHelper helper = new FileNodeTestHelper(processorName,
+      Arrays.asList(d0, d1), "s0", "s1");
+
+  @Before
+  public void setup() throws MetadataArgsErrorException,
+      PathErrorException, IOException, FileNodeManagerException {
+    helper.setUp();
+    config.setCompactionFileNum(3);
+  }
+
+  @After
+  public void teardown() throws IOException, FileNodeManagerException {
+    helper.tearDown();
+  }
+
+  @Test
+  public void testCompactAdjacentFiles() throws Exception {
+    // the devices of the files partly overlap
+    helper.insert(d0, 1, 100, 1);
+    helper.insert(d1, 1, 100, 1);
+    helper.seal();
+    helper.insert(d0, 101, 200, 1);
+    helper.seal();
+    helper.insert(d1, 101, 200, 1);
+    helper.insert(d0, 201, 300, 1);
+    helper.seal();
+    // the last sealed file is still the current file of bufferwrite
+    helper.insert(d0, 301, 400, 1);
+    helper.seal();
+    FileNodeProcessor processor = helper.getProcessor();
+    List<TsFileResource> files = new ArrayList<>(processor.getNewFileNodes());
+    assertEquals(4, files.size());
+
+    // roll over the chunks of a series while compacting
+    int pointsInPage = TSFileConfig.maxNumberOfPointsInPage;
+    int groupSize = TSFileConfig.groupSizeInByte;
+    TSFileConfig.maxNumberOfPointsInPage = 16;
+    TSFileConfig.groupSizeInByte = 1024;
+    try {
+      compact(processor);
+    } finally {
+      TSFileConfig.maxNumberOfPointsInPage = pointsInPage;
+      TSFileConfig.groupSizeInByte = groupSize;
+    }
+
+    List<TsFileResource> newFiles = processor.getNewFileNodes();
+    assertEquals(2, newFiles.size());
+    TsFileResource compactedFile = newFiles.get(0);
+    assertSame(files.get(3), newFiles.get(1));
+    assertTrue(compactedFile.isClosed());
+    assertEquals(OverflowChangeType.NO_CHANGE, compactedFile.getOverflowChangeType());
+    assertEquals(files.get(0).getStartTime(d0), compactedFile.getStartTime(d0));
+    assertEquals(300, compactedFile.getEndTime(d0));
+    assertEquals(files.get(0).getStartTime(d1), compactedFile.getStartTime(d1));
+    assertEquals(200, compactedFile.getEndTime(d1));
+    assertTrue(new File(compactedFile.getFilePath()).exists());
+    for (TsFileResource file : files.subList(0, 3)) {
+      assertFalse(new File(file.getFilePath()).exists());
+    }
+    assertEquals(Arrays.asList(compactedFile, files.get(3)), processor.getFilesOfDevice(d0));
+    assertEquals(Collections.singletonList(compactedFile), processor.getFilesOfDevice(d1));
+
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(
+        compactedFile.getFilePath())) {
+      MetadataQuerierByFileImpl metadataQuerier = new MetadataQuerierByFileImpl(reader);
+      assertTrue(metadataQuerier.getChunkMetaDataList(new Path(d0, "s0")).size() > 1);
+    }
+    helper.checkQuery(d0);
+    helper.checkQuery(d1);
+    // the compacted file and the current file are not enough to compact
+    config.setEnableCompaction(true);
+    assertNull(processor.submitToCompact());
+  }
+
+  @Test
+  public void testChangedAndUnsealedFilesBreakRun() throws Exception {
+    for (long i = 0; i < 5; i++) {
+      helper.insert(d0, i * 100 + 1, i * 100 + 100, 1);
+      helper.seal();
+    }
+    // the second file is changed by overflow data
+    helper.insert(d0, 150, 150, -1);
+    FileNodeProcessor processor = helper.getProcessor();
+    List<TsFileResource> files = new ArrayList<>(processor.getNewFileNodes());
+    assertEquals(OverflowChangeType.CHANGED, files.get(1).getOverflowChangeType());
+
+    // the first file is alone, and the last one is the current file of bufferwrite
+    config.setEnableCompaction(true);
+    assertNull(processor.submitToCompact());
+    config.setEnableCompaction(false);
+
+    helper.insert(d0, 501, 600, 1);
+    helper.seal();
+    compact(processor);
+
+    List<TsFileResource> newFiles = processor.getNewFileNodes();
+    assertEquals(4, newFiles.size());
+    assertSame(files.get(0), newFiles.get(0));
+    assertSame(files.get(1), newFiles.get(1));
+    assertEquals(files.get(2).getStartTime(d0), newFiles.get(2).getStartTime(d0));
+    assertEquals(500, newFiles.get(2).getEndTime(d0));
+    for (TsFileResource file : files.subList(2, 5)) {
+      assertFalse(new File(file.getFilePath()).exists());
+    }
+    assertEquals(newFiles, processor.getFilesOfDevice(d0));
+    helper.checkQuery(d0);
+  }
+
+  @Test
+  public void testDeleteAndOverflowWhileCompacting() throws Exception {
+    for (long i = 0; i < 4; i++) {
+      helper.insert(d0, i * 10000 + 1, i * 10000 + 10000, 1);
+      helper.seal();
+    }
+    FileNodeProcessor processor = helper.getProcessor();
+    List<TsFileResource> files = new ArrayList<>(processor.getNewFileNodes());
+
+    // slow down the compaction so that the operations below happen while it is running
+    MergeManager.getInstance().setMergeThroughputMBPerSec(1);
+    config.setEnableCompaction(true);
+    Future future = processor.submitToCompact();
+    config.setEnableCompaction(false);
+    assertNotNull(future);
+    waitForCompactedFile(new File(files.get(0).getFilePath()).getParentFile(), files);
+    assertFalse(future.isDone());
+    helper.delete(d0, "s0", 5000);
+    helper.delete(d0, "s1", 15000);
+    helper.insert(d0, 25000, 25000, -1);
+    future.get();
+
+    List<TsFileResource> newFiles = processor.getNewFileNodes();
+    TsFileResource compactedFile = newFiles.get(0);
+    assertSame(files.get(3), newFiles.get(1));
+    assertEquals(files.get(0).getStartTime(d0), compactedFile.getStartTime(d0));
+    assertEquals(30000, compactedFile.getEndTime(d0));
+    assertEquals(OverflowChangeType.CHANGED, compactedFile.getOverflowChangeType());
+    for (TsFileResource file : files.subList(0, 3)) {
+      assertFalse(new File(file.getFilePath()).exists());
+    }
+    helper.checkQuery(d0);
+  }
+
+  /**
+   * wait until the compaction has selected its files and begun to write the compacted file.
+   */
+  private void waitForCompactedFile(File dir, List<TsFileResource> files)
+      throws InterruptedException {
+    Set<String> fileNames = new HashSet<>();
+    for (TsFileResource file : files) {
+      fileNames.add(new File(file.getFilePath()).getName());
+    }
+    while (true) {
+      for (File file : dir.listFiles()) {
+        if (!fileNames.contains(file.getName()) && !file.getName().contains(".")) {
+          return;
+        }
+      }
+      Thread.sleep(10);
+    }
+  }
+
+  private void compact(FileNodeProcessor processor) throws Exception {
+    config.setEnableCompaction(true);
+    try {
+      Future future = processor.submitToCompact();
+      assertNotNull(future);
+      future.get();
+    } finally {
+      config.setEnableCompaction(false);
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.filenode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.pool.MergeManager;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.MetadataArgsErrorException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FileNodeConcurrentMergeTest {
+
+  private static final int FILE_NUM = 3;
+  private static final int POINT_NUM_IN_FILE = 20000;
+
+  private String processorName = "root.merge";
+  private String device = processorName + ".d0";
+  private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private FileNodeTestHelper helper = new FileNodeTestHelper(processorName,
+      Collections.singletonList(device), "s0");
+
+  @Before
+  public void setup() throws MetadataArgsErrorException,
+      PathErrorException, IOException, FileNodeManagerException {
+    helper.setUp();
+    config.setOverflowFileSizeThreshold(0);
+  }
+
+  @After
+  public void teardown() throws IOException, FileNodeManagerException {
+    helper.tearDown();
+  }
+
+  @Test
+  public void testInsertAndQueryWhileMerging() throws Exception {
+    for (int i = 0; i < FILE_NUM; i++) {
+      helper.insert(device, i * POINT_NUM_IN_FILE + 1, (i + 1) * POINT_NUM_IN_FILE, 1);
+      helper.seal();
+    }
+    // every sealed file is changed by overflow data
+    for (int i = 0; i < FILE_NUM; i++) {
+      helper.insert(device, i * POINT_NUM_IN_FILE + 10, i * POINT_NUM_IN_FILE + 10, -1);
+    }
+    FileNodeProcessor processor = helper.getProcessor();
+    List<File> mergedFiles = new ArrayList<>();
+    for (TsFileResource file : processor.getNewFileNodes()) {
+      assertEquals(OverflowChangeType.CHANGED, file.getOverflowChangeType());
+      mergedFiles.add(new File(file.getFilePath()));
+    }
+
+    // slow down the merge so that the operations below happen while it is running
+    MergeManager.getInstance().setMergeThroughputMBPerSec(1);
+    Future future;
+    processor.writeLock();
+    try {
+      future = processor.submitToMerge();
+    } finally {
+      processor.writeUnlock();
+    }
+    assertNotNull(future);
+    while (processor.getFileNodeProcessorStatus() != FileNodeProcessorStatus.MERGING_WRITE) {
+      assertFalse(future.isDone());
+      Thread.sleep(10);
+    }
+
+    // the sequence data opens a new bufferwrite file, the overflow data goes to the new work
+    // file of overflow
+    long lastTime = FILE_NUM * POINT_NUM_IN_FILE;
+    helper.insert(device, lastTime + 1, lastTime + 100, 1);
+    helper.insert(device, 20, 20, -1);
+    helper.checkQuery(device);
+    // neither the inserts nor the query waited for the merge
+    assertEquals(FileNodeProcessorStatus.MERGING_WRITE, processor.getFileNodeProcessorStatus());
+    future.get();
+
+    assertEquals(FileNodeProcessorStatus.NONE, processor.getFileNodeProcessorStatus());
+    for (File mergedFile : mergedFiles) {
+      assertFalse(mergedFile.exists());
+    }
+    List<TsFileResource> newFiles = processor.getNewFileNodes();
+    for (TsFileResource file : newFiles) {
+      assertTrue(new File(file.getFilePath()).exists());
+    }
+    TsFileResource workingFile = newFiles.get(newFiles.size() - 1);
+    assertFalse(workingFile.isClosed());
+    assertEquals(lastTime + 1, workingFile.getStartTime(device));
+    assertTrue(new File(workingFile.getFilePath() + ".restore").exists());
+    helper.checkQuery(device);
+
+    helper.insert(device, lastTime + 101, lastTime + 200, 1);
+    helper.checkQuery(device);
+  }
+}
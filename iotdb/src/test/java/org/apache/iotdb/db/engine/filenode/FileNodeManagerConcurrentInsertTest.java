@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.filenode;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.MetadataArgsErrorException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.db.metadata.MManager;
+import org.apache.iotdb.db.query.control.QueryTokenManager;
+import org.apache.iotdb.db.query.executor.EngineQueryRouter;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FileNodeManagerConcurrentInsertTest {
+
+  private static final int DEVICE_NUM = 4;
+  private static final int POINT_NUM = 2000;
+
+  private String processorName = "root.test";
+  private String measurement = "s0";
+  private EngineQueryRouter router = new EngineQueryRouter();
+  private TSFileConfig tsFileConfig = TSFileDescriptor.getInstance().getConfig();
+  private int groupSize;
+
+  @Before
+  public void setup() throws MetadataArgsErrorException,
+      PathErrorException, IOException, FileNodeManagerException {
+    // flush the memtables frequently during the insertions
+    groupSize = tsFileConfig.groupSizeInByte;
+    tsFileConfig.groupSizeInByte = 4 * 1024;
+    MManager.getInstance().setStorageLevelToMTree(processorName);
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      String device = device(i);
+      MManager.getInstance().addPathToMTree(device + "." + measurement,
+          TSDataType.INT64.toString(), TSEncoding.PLAIN.toString());
+      FileNodeManager.getInstance()
+          .addTimeSeries(new Path(device, measurement), TSDataType.INT64,
+              TSEncoding.PLAIN, CompressionType.valueOf(TSFileConfig.compressor),
+              Collections.emptyMap());
+    }
+  }
+
+  @After
+  public void teardown() throws IOException, FileNodeManagerException {
+    tsFileConfig.groupSizeInByte = groupSize;
+    EnvironmentUtils.cleanEnv();
+  }
+
+  @Test
+  public void testInsertDevicesConcurrently() throws Exception {
+    List<Runnable> tasks = new ArrayList<>();
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      String device = device(i);
+      tasks.add(() -> insert(device, 1, POINT_NUM, 1));
+    }
+    runConcurrently(tasks);
+
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      assertEquals(Arrays.asList(String.valueOf(POINT_NUM), String.valueOf(POINT_NUM)),
+          countAndMaxTime(device(i)));
+    }
+  }
+
+  @Test
+  public void testInsertOneDeviceConcurrently() throws Exception {
+    // the odd and the even points are interleaved, some of which become overflow data
+    String device = device(0);
+    runConcurrently(Arrays.asList(() -> insert(device, 1, POINT_NUM, 2),
+        () -> insert(device, 2, POINT_NUM, 2)));
+
+    assertEquals(Arrays.asList(String.valueOf(POINT_NUM), String.valueOf(POINT_NUM)),
+        countAndMaxTime(device));
+  }
+
+  private String device(int index) {
+    return processorName + ".d" + index;
+  }
+
+  private void insert(String device, long startTime, long endTime, long step) {
+    try {
+      for (long time = startTime; time <= endTime; time += step) {
+        TSRecord record = new TSRecord(time, device);
+        record.addTuple(new LongDataPoint(measurement, time));
+        FileNodeManager.getInstance().insert(record, false);
+      }
+    } catch (FileNodeManagerException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private void runConcurrently(List<Runnable> tasks) throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (Runnable task : tasks) {
+        futures.add(pool.submit(task));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private List<String> countAndMaxTime(String device)
+      throws FileNodeManagerException, IOException, PathErrorException, ProcessorException {
+    Path path = new Path(device, measurement);
+    RowRecord record = router.aggregate(Arrays.asList(path, path),
+        Arrays.asList("count", "max_time"), null).next();
+    QueryTokenManager.getInstance().endQueryForCurrentRequestThread();
+    return Arrays.asList(record.getFields().get(0).getStringValue(),
+        record.getFields().get(1).getStringValue());
+  }
+}
@@ -0,0 +1,199 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.filenode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.querycontext.OverflowInsertFile;
+import org.apache.iotdb.db.engine.querycontext.OverflowSeriesDataSource;
+import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.MetadataArgsErrorException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.TsPrimitiveType.TsLong;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FileNodeMergeChunkCopyTest {
+
+  private static final int CHUNK_NUM = 5;
+  private static final int POINT_NUM_IN_CHUNK = 100;
+
+  private String processorName = "root.copy";
+  private String d0 = processorName + ".d0";
+  private String d1 = processorName + ".d1";
+  private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private FileNodeTestHelper helper = new FileNodeTestHelper(processorName,
+      Arrays.asList(d0, d1), "s0", "s1");
+
+  @Before
+  public void setup() throws MetadataArgsErrorException,
+      PathErrorException, IOException, FileNodeManagerException {
+    helper.setUp();
+    config.setOverflowFileSizeThreshold(0);
+  }
+
+  @After
+  public void teardown() throws IOException, FileNodeManagerException {
+    helper.tearDown();
+  }
+
+  @Test
+  public void testMergeWithAndWithoutChunkCopy() throws Exception {
+    config.setEnableMergeChunkCopy(true);
+    List<String> copiedResult = mergeAndQuery();
+    // the chunks overlapped by overflow data or touched by the deletion are merged, and the others
+    // are copied between them
+    assertEquals(CHUNK_NUM, countChunks(d0, "s0"));
+    assertEquals(CHUNK_NUM - 1, countChunks(d0, "s1"));
+    assertEquals(CHUNK_NUM, countChunks(d1, "s0"));
+
+    EnvironmentUtils.cleanEnv();
+    helper.registerSeries();
+    config.setEnableMergeChunkCopy(false);
+    List<String> rewrittenResult = mergeAndQuery();
+    assertEquals(1, countChunks(d0, "s0"));
+    assertEquals(1, countChunks(d0, "s1"));
+    assertEquals(1, countChunks(d1, "s0"));
+
+    assertEquals(rewrittenResult, copiedResult);
+  }
+
+  @Test
+  public void testCanCopyChunk() {
+    OverflowSeriesDataSource noOverflow = overflowDataSource(null);
+    ChunkMetaData chunk = chunk(101, 200);
+    assertTrue(FileNodeProcessor.canCopyChunk(chunk, 1, 500, noOverflow));
+
+    // out of the time range of the device in the TsFile
+    assertFalse(FileNodeProcessor.canCopyChunk(chunk, 150, 500, noOverflow));
+    assertFalse(FileNodeProcessor.canCopyChunk(chunk, 1, 150, noOverflow));
+
+    // touched by a deletion
+    chunk.setDeletedAt(100);
+    assertTrue(FileNodeProcessor.canCopyChunk(chunk, 1, 500, noOverflow));
+    chunk.setDeletedAt(101);
+    assertFalse(FileNodeProcessor.canCopyChunk(chunk, 1, 500, noOverflow));
+    chunk.setDeletedAt(-1);
+
+    // overlapped by an overflow chunk
+    assertTrue(FileNodeProcessor.canCopyChunk(chunk, 1, 500,
+        overflowDataSource(Arrays.asList(chunk(1, 100), chunk(201, 300)))));
+    assertFalse(FileNodeProcessor.canCopyChunk(chunk, 1, 500,
+        overflowDataSource(Arrays.asList(chunk(1, 100), chunk(200, 300)))));
+    assertFalse(FileNodeProcessor.canCopyChunk(chunk, 1, 500,
+        overflowDataSource(Collections.singletonList(chunk(150, 150)))));
+
+    // the overflow data in memory is not indexed by chunks
+    OverflowSeriesDataSource rawOverflow = overflowDataSource(null);
+    rawOverflow.setReadableMemChunk(new ReadOnlyMemChunk(TSDataType.INT64,
+        () -> Collections.singletonList(new TimeValuePair(300, new TsLong(300))),
+        Collections.emptyMap()));
+    assertTrue(rawOverflow.hasRawChunk());
+    assertFalse(FileNodeProcessor.canCopyChunk(chunk, 1, 500, rawOverflow));
+  }
+
+  /**
+   * build a CHANGED TsFile whose series have one chunk per flush, merge it and query the result.
+   */
+  private List<String> mergeAndQuery() throws Exception {
+    FileNodeProcessor processor = null;
+    for (int i = 0; i < CHUNK_NUM; i++) {
+      long startTime = i * POINT_NUM_IN_CHUNK + 1;
+      helper.insert(d0, startTime, startTime + POINT_NUM_IN_CHUNK - 1, 1);
+      helper.insert(d1, startTime, startTime + POINT_NUM_IN_CHUNK - 1, 1);
+      processor = helper.getProcessor();
+      flush(processor);
+    }
+    helper.seal();
+
+    // each overflow chunk of d0 overlaps one chunk of the TsFile
+    helper.insert(d0, 150, 150, -1);
+    flush(processor);
+    helper.insert(d0, 350, 360, -1);
+    flush(processor);
+    // the deletion reaches the first chunk of d0.s1 partly
+    helper.delete(d0, "s1", 50);
+
+    Future future;
+    processor.writeLock();
+    try {
+      future = processor.submitToMerge();
+    } finally {
+      processor.writeUnlock();
+    }
+    assertNotNull(future);
+    future.get();
+    assertEquals(1, processor.getNewFileNodes().size());
+    assertEquals(OverflowChangeType.NO_CHANGE,
+        processor.getNewFileNodes().get(0).getOverflowChangeType());
+
+    List<String> result = helper.checkQuery(d0);
+    result.addAll(helper.checkQuery(d1));
+    return result;
+  }
+
+  private void flush(FileNodeProcessor processor) throws Exception {
+    Future<Boolean> future;
+    processor.writeLock();
+    try {
+      future = processor.flush();
+    } finally {
+      processor.writeUnlock();
+    }
+    future.get();
+  }
+
+  private int countChunks(String device, String measurement) throws IOException {
+    String filePath = helper.getProcessor().getNewFileNodes().get(0).getFilePath();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(filePath)) {
+      return new MetadataQuerierByFileImpl(reader)
+          .getChunkMetaDataList(new Path(device, measurement)).size();
+    }
+  }
+
+  private ChunkMetaData chunk(long startTime, long endTime) {
+    return new ChunkMetaData("s0", TSDataType.INT64, 0, startTime, endTime);
+  }
+
+  private OverflowSeriesDataSource overflowDataSource(List<ChunkMetaData> overflowChunks) {
+    OverflowSeriesDataSource dataSource = new OverflowSeriesDataSource(new Path(d0, "s0"));
+    dataSource.setOverflowInsertFileList(
+        Collections.singletonList(new OverflowInsertFile(null, overflowChunks)));
+    return dataSource;
+  }
+}
@@ -0,0 +1,190 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.filenode;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.pool.MergeManager;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.MetadataArgsErrorException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.metadata.MManager;
+import org.apache.iotdb.db.query.control.QueryTokenManager;
+import org.apache.iotdb.db.query.executor.EngineQueryRouter;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+
+/**
+ * The fixture of the tests writing one storage group through {@link FileNodeManager}. It registers
+ * the INT64 series of the given devices and measurements, keeps the points inserted and deleted
+ * through it, and checks the query results against them. <code>setUp()</code> saves the configs
+ * modified by the tests and disables compaction, and <code>tearDown()</code> cleans the
+ * environment and restores the configs.
+ */
+class FileNodeTestHelper {
+
+  private final String processorName;
+  private final List<String> devices;
+  private final String[] measurements;
+  private final EngineQueryRouter router = new EngineQueryRouter();
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  /**
+   * the expected points of each series, the key is the full path.
+   */
+  private final Map<String, TreeMap<Long, Long>> expectedPoints = new HashMap<>();
+
+  private boolean enableCompaction;
+  private int compactionFileNum;
+  private boolean enableMergeChunkCopy;
+  private long overflowFileSizeThreshold;
+  private long mergeThroughput;
+
+  FileNodeTestHelper(String processorName, List<String> devices, String... measurements) {
+    this.processorName = processorName;
+    this.devices = devices;
+    this.measurements = measurements;
+  }
+
+  void setUp() throws MetadataArgsErrorException, PathErrorException, IOException,
+      FileNodeManagerException {
+    enableCompaction = config.isEnableCompaction();
+    compactionFileNum = config.getCompactionFileNum();
+    enableMergeChunkCopy = config.isEnableMergeChunkCopy();
+    overflowFileSizeThreshold = config.getOverflowFileSizeThreshold();
+    mergeThroughput = MergeManager.getInstance().getMergeThroughputMBPerSec();
+    // the files are only compacted when the tests ask for it
+    config.setEnableCompaction(false);
+    registerSeries();
+  }
+
+  void tearDown() throws IOException, FileNodeManagerException {
+    EnvironmentUtils.cleanEnv();
+    config.setEnableCompaction(enableCompaction);
+    config.setCompactionFileNum(compactionFileNum);
+    config.setEnableMergeChunkCopy(enableMergeChunkCopy);
+    config.setOverflowFileSizeThreshold(overflowFileSizeThreshold);
+    MergeManager.getInstance().setMergeThroughputMBPerSec(mergeThroughput);
+  }
+
+  /**
+   * register the series, which is needed again after the environment is cleaned. The expected
+   * points are cleared.
+   */
+  void registerSeries() throws MetadataArgsErrorException, PathErrorException, IOException,
+      FileNodeManagerException {
+    MManager.getInstance().setStorageLevelToMTree(processorName);
+    for (String device : devices) {
+      for (String measurement : measurements) {
+        MManager.getInstance().addPathToMTree(device + "." + measurement,
+            TSDataType.INT64.toString(), TSEncoding.PLAIN.toString());
+        FileNodeManager.getInstance()
+            .addTimeSeries(new Path(device, measurement), TSDataType.INT64,
+                TSEncoding.PLAIN, CompressionType.valueOf(TSFileConfig.compressor),
+                Collections.emptyMap());
+        expectedPoints.put(device + "." + measurement, new TreeMap<>());
+      }
+    }
+  }
+
+  FileNodeProcessor getProcessor() {
+    return FileNodeManager.getInstance().getProcessorByName(processorName);
+  }
+
+  /**
+   * insert a point of each time in [startTime, endTime] into all the measurements of the device,
+   * the value of the i-th measurement is time * (i + 1) * factor.
+   */
+  void insert(String device, long startTime, long endTime, long factor)
+      throws FileNodeManagerException {
+    for (long time = startTime; time <= endTime; time++) {
+      TSRecord record = new TSRecord(time, device);
+      for (int i = 0; i < measurements.length; i++) {
+        long value = time * (i + 1) * factor;
+        record.addTuple(new LongDataPoint(measurements[i], value));
+        expectedPoints.get(device + "." + measurements[i]).put(time, value);
+      }
+      FileNodeManager.getInstance().insert(record, false);
+    }
+  }
+
+  void delete(String device, String measurement, long timestamp)
+      throws FileNodeManagerException {
+    FileNodeManager.getInstance().delete(device, measurement, timestamp);
+    expectedPoints.get(device + "." + measurement).headMap(timestamp, true).clear();
+  }
+
+  /**
+   * seal the working TsFile of the storage group.
+   */
+  void seal() throws FileNodeManagerException {
+    FileNodeManager.getInstance().closeOneFileNode(processorName);
+  }
+
+  /**
+   * query all the measurements of the device and check the result against the expected points.
+   *
+   * @return the rows of the result
+   */
+  List<String> checkQuery(String device) throws Exception {
+    List<Path> paths = new ArrayList<>();
+    TreeSet<Long> times = new TreeSet<>();
+    for (String measurement : measurements) {
+      paths.add(new Path(device, measurement));
+      times.addAll(expectedPoints.get(device + "." + measurement).keySet());
+    }
+    List<String> expected = new ArrayList<>();
+    for (long time : times) {
+      StringBuilder builder = new StringBuilder().append(time);
+      for (String measurement : measurements) {
+        builder.append("\t").append(expectedPoints.get(device + "." + measurement).get(time));
+      }
+      expected.add(builder.toString());
+    }
+
+    List<String> actual = new ArrayList<>();
+    try {
+      QueryDataSet dataSet = router.query(QueryExpression.create(paths, null));
+      while (dataSet.hasNext()) {
+        actual.add(dataSet.next().toString());
+      }
+    } finally {
+      QueryTokenManager.getInstance().endQueryForCurrentRequestThread();
+    }
+    assertEquals(expected, actual);
+    return actual;
+  }
+}
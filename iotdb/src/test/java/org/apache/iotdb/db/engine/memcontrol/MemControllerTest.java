@@ -19,6 +19,7 @@
 package org.apache.iotdb.db.engine.memcontrol;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
@@ -64,6 +65,8 @@ public class MemControllerTest {
       assertEquals(BasicMemController.UsageLevel.DANGEROUS, level);
     }
     assertEquals(15 * GB, memController.getTotalUsage());
+    assertEquals(15, memController.getUsageOfUsers().size());
+    assertEquals(1 * GB, (long) memController.getUsageOfUsers().get(dummyUser[0]));
     // every one free its mem
     for (int i = 0; i < 7; i++) {
       memController.reportFree(dummyUser[i], 1 * GB);
@@ -73,6 +76,7 @@ public class MemControllerTest {
       memController.reportFree(dummyUser[i], 2 * GB);
       assertEquals((14 - i) * GB, memController.getTotalUsage());
     }
+    assertTrue(memController.getUsageOfUsers().isEmpty());
     // ask for a too big mem
     BasicMemController.UsageLevel level = memController.reportUse(dummyUser[0], 100 * GB);
     assertEquals(BasicMemController.UsageLevel.DANGEROUS, level);
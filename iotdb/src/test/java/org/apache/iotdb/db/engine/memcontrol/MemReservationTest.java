@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.memcontrol;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.memcontrol.BasicMemController.ControllerType;
+import org.apache.iotdb.db.engine.memcontrol.BasicMemController.UsageLevel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MemReservationTest {
+
+  private static final long KB = 1024L;
+  private static final long MB = 1024 * 1024L;
+  private static final long GB = 1024 * 1024 * 1024L;
+
+  private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private int controllerType;
+  private BasicMemController memController;
+  private Object user = new Object();
+
+  @Before
+  public void setUp() {
+    controllerType = config.getMemControllerType();
+    config.setMemControllerType(ControllerType.RECORD.ordinal());
+    memController = BasicMemController.getInstance();
+    memController.clear();
+    memController.setWarningThreshold(8 * GB);
+    memController.setDangerousThreshold(16 * GB);
+  }
+
+  @After
+  public void tearDown() {
+    memController.clear();
+    memController.setWarningThreshold(config.getMemThresholdWarning());
+    memController.setDangerousThreshold(config.getMemThresholdDangerous());
+    config.setMemControllerType(controllerType);
+  }
+
+  @Test
+  public void testReserveInChunks() {
+    MemReservation reservation = new MemReservation(user, MB);
+    assertEquals(UsageLevel.SAFE, reservation.use(100));
+    assertEquals(MB, reservation.getReserved());
+    assertEquals(MB, memController.getTotalUsage());
+    assertEquals(MB, (long) memController.getUsageOfUsers().get(user));
+
+    // the remaining memory of the chunk is used first
+    for (int i = 0; i < 1023; i++) {
+      reservation.use(KB);
+    }
+    assertEquals(MB, reservation.getReserved());
+    reservation.use(KB);
+    assertEquals(2 * MB, reservation.getReserved());
+
+    // a large usage reserves a chunk of its size
+    reservation.use(3 * MB);
+    assertEquals(5 * MB, reservation.getReserved());
+    assertEquals(5 * MB, memController.getTotalUsage());
+
+    reservation.release();
+    assertEquals(0, reservation.getReserved());
+    assertEquals(0, memController.getTotalUsage());
+    assertNull(memController.getUsageOfUsers().get(user));
+  }
+
+  @Test
+  public void testLevels() {
+    MemReservation reservation = new MemReservation(user, GB);
+    for (int i = 0; i < 7; i++) {
+      assertEquals(UsageLevel.SAFE, reservation.use(GB));
+    }
+    assertEquals(UsageLevel.WARNING, reservation.use(GB));
+    assertEquals(UsageLevel.WARNING, reservation.use(MB));
+    assertEquals(9 * GB, reservation.getReserved());
+    // nothing is reserved if the controller is dangerous
+    assertEquals(UsageLevel.DANGEROUS, reservation.use(8 * GB));
+    assertEquals(9 * GB, reservation.getReserved());
+    assertEquals(9 * GB, memController.getTotalUsage());
+    // the level of the last reserved chunk is returned if the chunk is not used up
+    assertEquals(UsageLevel.WARNING, reservation.use(MB));
+  }
+
+  @Test
+  public void testConcurrentUse() throws Exception {
+    MemReservation reservation = new MemReservation(user, MB);
+    int threadNum = 4;
+    int useNum = 10000;
+    ExecutorService pool = Executors.newFixedThreadPool(threadNum);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threadNum; i++) {
+        futures.add(pool.submit(() -> {
+          for (int j = 0; j < useNum; j++) {
+            reservation.use(100);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      pool.shutdown();
+    }
+    // all the usages are covered by the reserved chunks, and at most one chunk is not used
+    long used = threadNum * useNum * 100L;
+    long reserved = reservation.getReserved();
+    assertTrue(reserved >= used);
+    assertTrue(reserved - used < MB);
+    assertEquals(reserved, memController.getTotalUsage());
+    assertEquals(reserved, (long) memController.getUsageOfUsers().get(user));
+  }
+}
@@ -0,0 +1,65 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.pool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class MergeRateLimiterTest {
+
+  @Test
+  public void testNoLimit() throws InterruptedException {
+    MergeRateLimiter rateLimiter = new MergeRateLimiter(0);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(0, rateLimiter.acquire(1024L * 1024L * 1024L));
+    }
+  }
+
+  @Test
+  public void testLimit() throws InterruptedException {
+    MergeRateLimiter rateLimiter = new MergeRateLimiter(1000);
+    long startTime = System.nanoTime();
+    long waitTime = 0;
+    for (int i = 0; i < 4; i++) {
+      waitTime += rateLimiter.acquire(100);
+    }
+    long elapsedTime = System.nanoTime() - startTime;
+    // 400 bytes at 1000 bytes per second
+    assertTrue(elapsedTime >= TimeUnit.MILLISECONDS.toNanos(350));
+    assertTrue(waitTime > 0);
+  }
+
+  @Test
+  public void testChangeLimit() throws InterruptedException {
+    MergeRateLimiter rateLimiter = new MergeRateLimiter(1);
+    rateLimiter.setBytesPerSecond(0);
+    // the request would wait for hours at the old rate
+    assertEquals(0, rateLimiter.acquire(10000));
+    rateLimiter.setBytesPerSecond(1000L * 1000L);
+    long startTime = System.nanoTime();
+    rateLimiter.acquire(100L * 1000L);
+    long elapsedTime = System.nanoTime() - startTime;
+    assertTrue(elapsedTime >= TimeUnit.MILLISECONDS.toNanos(80));
+    assertTrue(elapsedTime < TimeUnit.SECONDS.toNanos(5));
+    assertEquals(1000L * 1000L, rateLimiter.getBytesPerSecond());
+  }
+}
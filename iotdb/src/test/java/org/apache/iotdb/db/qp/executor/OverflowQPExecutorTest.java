@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.qp.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.iotdb.db.engine.filenode.FileNodeManager;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.MetadataArgsErrorException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.db.metadata.MManager;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
+import org.apache.iotdb.db.query.control.QueryTokenManager;
+import org.apache.iotdb.db.query.executor.EngineQueryRouter;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OverflowQPExecutorTest {
+
+  private String processorName = "root.test";
+  private List<String> measurements = Arrays.asList("s0", "s1", "s2");
+  private List<TSDataType> dataTypes = Arrays.asList(TSDataType.INT64, TSDataType.DOUBLE,
+      TSDataType.TEXT);
+  private OverflowQPExecutor executor = new OverflowQPExecutor();
+
+  @Before
+  public void setup() throws MetadataArgsErrorException,
+      PathErrorException, IOException, FileNodeManagerException {
+    MManager.getInstance().setStorageLevelToMTree(processorName);
+    for (int i = 0; i < measurements.size(); i++) {
+      MManager.getInstance().addPathToMTree(processorName + "." + measurements.get(i),
+          dataTypes.get(i).toString(), TSEncoding.PLAIN.toString());
+      FileNodeManager.getInstance()
+          .addTimeSeries(new Path(processorName, measurements.get(i)), dataTypes.get(i),
+              TSEncoding.PLAIN, CompressionType.valueOf(TSFileConfig.compressor),
+              Collections.emptyMap());
+    }
+  }
+
+  @After
+  public void teardown() throws IOException, FileNodeManagerException {
+    EnvironmentUtils.cleanEnv();
+  }
+
+  @Test
+  public void testInsertBatch() throws ProcessorException, FileNodeManagerException,
+      IOException {
+    int rowCount = 100;
+    long[] times = new long[rowCount];
+    long[] longs = new long[rowCount];
+    double[] doubles = new double[rowCount];
+    Binary[] texts = new Binary[rowCount];
+    for (int i = 0; i < rowCount; i++) {
+      times[i] = i + 1L;
+      longs[i] = i * 10L;
+      doubles[i] = i / 2.0;
+      texts[i] = new Binary("v" + i);
+    }
+    int[] result = executor.insertBatch(new BatchInsertPlan(processorName, measurements,
+        dataTypes, times, new Object[]{longs, doubles, texts}));
+    assertEquals(rowCount, result.length);
+    for (int rowResult : result) {
+      assertEquals(2, rowResult);
+    }
+
+    QueryDataSet dataSet = new EngineQueryRouter().query(QueryExpression.create(Arrays.asList(
+        new Path(processorName, "s0"), new Path(processorName, "s1"),
+        new Path(processorName, "s2")), null));
+    int count = 0;
+    while (dataSet.hasNext()) {
+      assertEquals(String.format("%d\t%d\t%s\tv%d", count + 1, count * 10, count / 2.0, count),
+          dataSet.next().toString());
+      count++;
+    }
+    assertEquals(rowCount, count);
+    QueryTokenManager.getInstance().endQueryForCurrentRequestThread();
+  }
+
+  @Test
+  public void testInsertBatchWithWrongType() {
+    try {
+      executor.insertBatch(new BatchInsertPlan(processorName, Collections.singletonList("s0"),
+          Collections.singletonList(TSDataType.INT32), new long[]{1}, new Object[]{new int[]{1}}));
+      fail();
+    } catch (ProcessorException e) {
+      assertFalse(e.getMessage().isEmpty());
+    }
+  }
+}
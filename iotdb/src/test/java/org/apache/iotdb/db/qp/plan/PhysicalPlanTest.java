@@ -19,6 +19,7 @@
 package org.apache.iotdb.db.qp.plan;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -28,6 +29,7 @@ import org.apache.iotdb.db.exception.qp.QueryProcessorException;
 import org.apache.iotdb.db.qp.QueryProcessor;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
 import org.apache.iotdb.db.qp.physical.crud.AggregationPlan;
+import org.apache.iotdb.db.qp.physical.crud.LastQueryPlan;
 import org.apache.iotdb.db.qp.physical.crud.FillQueryPlan;
 import org.apache.iotdb.db.qp.physical.crud.GroupByPlan;
 import org.apache.iotdb.db.qp.physical.crud.QueryPlan;
@@ -38,6 +40,7 @@ import org.apache.iotdb.db.qp.utils.MemIntQpExecutor;
 import org.apache.iotdb.db.query.fill.LinearFill;
 import org.apache.iotdb.db.query.fill.PreviousFill;
 import org.apache.iotdb.tsfile.common.constant.SystemConstant;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.expression.IExpression;
@@ -85,6 +88,44 @@ public class PhysicalPlanTest {
         + "namespace type: ADD_PATH\n" + "args: ", plan.toString());
   }
 
+  @Test
+  public void testMetadataCompressor()
+      throws QueryProcessorException, ArgsErrorException, ProcessorException {
+    QueryProcessor processor = new QueryProcessor(new MemIntQpExecutor());
+    for (CompressionType compressor : new CompressionType[]{CompressionType.LZ4,
+        CompressionType.GZIP}) {
+      String metadata = "create timeseries root.vehicle.d1.s1 with datatype=INT32,encoding=RLE,"
+          + "compressor=" + compressor;
+      MetadataPlan plan = (MetadataPlan) processor.parseSQLToPhysicalPlan(metadata);
+      assertEquals(compressor, plan.getCompressor());
+    }
+    try {
+      processor.parseSQLToPhysicalPlan(
+          "create timeseries root.vehicle.d1.s1 with datatype=INT32,encoding=RLE,compressor=LZO");
+      fail();
+    } catch (ArgsErrorException e) {
+      assertEquals("compressor LZO is not support", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testMetadataLoss()
+      throws QueryProcessorException, ArgsErrorException, ProcessorException {
+    QueryProcessor processor = new QueryProcessor(new MemIntQpExecutor());
+    MetadataPlan plan = (MetadataPlan) processor.parseSQLToPhysicalPlan(
+        "create timeseries root.vehicle.d1.s1 with datatype=FLOAT,encoding=GORILLA,loss=SDT,"
+            + "compdev=0.5");
+    assertEquals("SDT", plan.getProps().get("loss"));
+    assertEquals("0.5", plan.getProps().get("compdev"));
+    try {
+      processor.parseSQLToPhysicalPlan(
+          "create timeseries root.vehicle.d1.s1 with datatype=TEXT,encoding=PLAIN,loss=PLA");
+      fail();
+    } catch (ArgsErrorException e) {
+      assertTrue(e.getMessage().endsWith("PLA doesn't support data type: TEXT"));
+    }
+  }
+
   @Test
   public void testAuthor() throws QueryProcessorException, ArgsErrorException, ProcessorException {
     String sql = "grant role xm privileges 'SET_STORAGE_GROUP','DELETE_TIMESERIES' on root.vehicle.d1.s1";
@@ -123,6 +164,23 @@ public class PhysicalPlanTest {
     assertEquals("sum", mergePlan.getAggregations().get(0));
   }
 
+  @Test
+  public void testLastQuery()
+      throws QueryProcessorException, ArgsErrorException, ProcessorException {
+    String sqlStr = "select last(d1.s1), last(d2.s1) from root.vehicle";
+    PhysicalPlan plan = processor.parseSQLToPhysicalPlan(sqlStr);
+    assertTrue(plan instanceof LastQueryPlan);
+    assertEquals(2, plan.getPaths().size());
+
+    // with a filter or other aggregations, the last point is aggregated from the data
+    sqlStr = "select last(s1) from root.vehicle.d1 where time < 100";
+    plan = processor.parseSQLToPhysicalPlan(sqlStr);
+    assertFalse(plan instanceof LastQueryPlan);
+    sqlStr = "select last(d1.s1), count(d2.s1) from root.vehicle";
+    plan = processor.parseSQLToPhysicalPlan(sqlStr);
+    assertFalse(plan instanceof LastQueryPlan);
+  }
+
   @Test
   public void testGroupBy1()
       throws QueryProcessorException, ArgsErrorException, ProcessorException {
@@ -29,9 +29,11 @@ import org.apache.iotdb.db.exception.ProcessorException;
 import org.apache.iotdb.db.qp.constant.SQLConstant;
 import org.apache.iotdb.db.qp.executor.QueryProcessExecutor;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
+import org.apache.iotdb.db.query.fill.IFill;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.expression.IExpression;
@@ -106,6 +108,11 @@ public class MemIntQpExecutor extends QueryProcessExecutor {
     return null;
   }
 
+  @Override
+  public QueryDataSet fill(List<Path> fillPaths, long queryTime, Map<TSDataType, IFill> fillTypes) {
+    return null;
+  }
+
   @Override
   public QueryDataSet groupBy(List<Pair<Path, String>> aggres, IExpression expression, long unit,
       long origin,
@@ -186,6 +193,11 @@ public class MemIntQpExecutor extends QueryProcessExecutor {
     return 0;
   }
 
+  @Override
+  public int[] insertBatch(BatchInsertPlan plan) {
+    return new int[plan.getRowCount()];
+  }
+
   private class TestSeries {
 
     public TreeMap<Long, Integer> data = new TreeMap<>();
@@ -25,6 +25,19 @@ import java.io.IOException;
 import java.nio.file.Files;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -130,4 +143,48 @@ public class FileReaderManagerTest {
       }
     }
   }
+
+  @Test
+  public void testMmapReader() throws IOException, WriteProcessException {
+    String filePath = "target/mmapTest.tsfile";
+    TsFileWriter writer = new TsFileWriter(new File(filePath));
+    writer.addMeasurement(new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.RLE));
+    for (long time = 1; time <= 100; time++) {
+      TSRecord record = new TSRecord(time, "d1");
+      record.addTuple(new LongDataPoint("s1", time));
+      writer.write(record);
+    }
+    writer.close();
+
+    boolean enableMmap = dbConfig.isEnableMmapTsFileReader();
+    dbConfig.setEnableMmapTsFileReader(true);
+    try {
+      TsFileSequenceReader reader = FileReaderManager.getInstance().get(filePath, true);
+      ChunkMetaData chunkMetaData = new MetadataQuerierByFileImpl(reader)
+          .getChunkMetaDataList(new Path("d1.s1")).get(0);
+      Assert.assertTrue(reader.readMemChunk(chunkMetaData).getData().isDirect());
+      // the cached chunk is copied from the mapped file, so it outlives the reader
+      Chunk chunk = ChunkCache.getInstance().get(chunkMetaData, reader);
+      Assert.assertFalse(chunk.getData().isDirect());
+
+      // the reader of a file removed while being read is closed after the last query releases it
+      FileReaderManager.getInstance().increaseFileReaderReference(filePath, true);
+      FileReaderManager.getInstance().closeFileAndRemoveReader(filePath);
+      Assert.assertTrue(FileReaderManager.getInstance().contains(filePath, true));
+      Assert.assertTrue(reader.readMemChunk(chunkMetaData).getData().isDirect());
+      FileReaderManager.getInstance().decreaseFileReaderReference(filePath, true);
+      Assert.assertFalse(FileReaderManager.getInstance().contains(filePath, true));
+      Assert.assertEquals(chunk.getData(),
+          ChunkCache.getInstance().get(chunkMetaData, reader).getData());
+
+      // the reader of a file not being read is closed at once
+      reader = FileReaderManager.getInstance().get(filePath, true);
+      FileReaderManager.getInstance().closeFileAndRemoveReader(filePath);
+      Assert.assertFalse(FileReaderManager.getInstance().contains(filePath, true));
+    } finally {
+      dbConfig.setEnableMmapTsFileReader(enableMmap);
+      ChunkCache.getInstance().clear();
+      Files.deleteIfExists(new File(filePath).toPath());
+    }
+  }
 }
@@ -0,0 +1,168 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.iotdb.db.engine.filenode.FileNodeManager;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.MetadataArgsErrorException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.db.query.control.QueryTokenManager;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.IExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AggregateEngineExecutorTest {
+
+  private static final String[] AGGREGATIONS = {"count", "sum", "mean", "max_value", "min_value",
+      "first", "last", "max_time", "min_time"};
+
+  private String processorName = "root.test";
+  private String[] measurements = {"m0", "m1", "m2"};
+  private EngineQueryRouter router = new EngineQueryRouter();
+  private EngineQueryTestHelper helper = new EngineQueryTestHelper(processorName,
+      TSDataType.DOUBLE, measurements);
+
+  @Before
+  public void setup() throws MetadataArgsErrorException,
+      PathErrorException, IOException, FileNodeManagerException {
+    helper.setUp();
+    helper.setMaxNumberOfPointsInPage(100);
+    insertData();
+  }
+
+  @After
+  public void teardown() throws IOException, FileNodeManagerException {
+    helper.tearDown();
+  }
+
+  /**
+   * sealed file: [1, 1000], memory: [1001, 1500], overflow of m0: [10, 19] with value 10000, data
+   * of m1 before 100 (included) is deleted, m2 is neither overflowed nor deleted.
+   */
+  private void insertData() throws FileNodeManagerException {
+    for (int i = 1; i <= 1500; i++) {
+      helper.insert(i, i);
+      if (i == 1000) {
+        FileNodeManager.getInstance().closeAll();
+      }
+    }
+    FileNodeManager.getInstance().delete(processorName, measurements[1], 100);
+    for (int i = 10; i < 20; i++) {
+      helper.insert(i, 10000, measurements[0]);
+    }
+  }
+
+  @Test
+  public void testWithoutFilter()
+      throws FileNodeManagerException, IOException, PathErrorException, ProcessorException {
+    double sum = sum(1, 1500) - sum(10, 19) + 10 * 10000;
+    assertResult(new String[]{"1500", String.valueOf(sum), String.valueOf(sum / 1500), "10000.0",
+        "1.0", "1.0", "1500.0", "1500", "1"}, aggregate(measurements[0], null));
+
+    sum = sum(101, 1500);
+    assertResult(new String[]{"1400", String.valueOf(sum), String.valueOf(sum / 1400), "1500.0",
+        "101.0", "101.0", "1500.0", "1500", "101"}, aggregate(measurements[1], null));
+
+    // the statistics of the whole sealed chunk are used
+    sum = sum(1, 1500);
+    assertResult(new String[]{"1500", String.valueOf(sum), String.valueOf(sum / 1500), "1500.0",
+        "1.0", "1.0", "1500.0", "1500", "1"}, aggregate(measurements[2], null));
+  }
+
+  @Test
+  public void testWithTimeFilter()
+      throws FileNodeManagerException, IOException, PathErrorException, ProcessorException {
+    IExpression expression = new GlobalTimeExpression(
+        FilterFactory.and(TimeFilter.gtEq(15L), TimeFilter.lt(1200L)));
+    double sum = sum(15, 1199) - sum(15, 19) + 5 * 10000;
+    assertResult(new String[]{"1185", String.valueOf(sum), String.valueOf(sum / 1185), "10000.0",
+        "20.0", "10000.0", "1199.0", "1199", "15"}, aggregate(measurements[0], expression));
+
+    expression = new GlobalTimeExpression(TimeFilter.gt(2000L));
+    assertResult(new String[]{"0", "null", "null", "null", "null", "null", "null", "null", "null"},
+        aggregate(measurements[1], expression));
+  }
+
+  @Test
+  public void testWithValueFilter()
+      throws FileNodeManagerException, IOException, PathErrorException, ProcessorException {
+    IExpression expression = new SingleSeriesExpression(new Path(processorName, measurements[0]),
+        ValueFilter.gt(1400.0));
+    double sum = sum(1401, 1500) + 10 * 10000;
+    assertResult(new String[]{"110", String.valueOf(sum), String.valueOf(sum / 110), "10000.0",
+        "1401.0", "10000.0", "1500.0", "1500", "10"}, aggregate(measurements[0], expression));
+  }
+
+  @Test(expected = ProcessorException.class)
+  public void testUnsupportedAggregation()
+      throws FileNodeManagerException, IOException, PathErrorException, ProcessorException {
+    router.aggregate(Collections.singletonList(new Path(processorName, measurements[0])),
+        Collections.singletonList("median"), null);
+  }
+
+  private RowRecord aggregate(String measurement, IExpression expression)
+      throws FileNodeManagerException, IOException, PathErrorException, ProcessorException {
+    List<Path> paths = new ArrayList<>();
+    for (int i = 0; i < AGGREGATIONS.length; i++) {
+      paths.add(new Path(processorName, measurement));
+    }
+    QueryDataSet dataSet = router.aggregate(paths, Arrays.asList(AGGREGATIONS), expression);
+    assertTrue(dataSet.hasNext());
+    RowRecord record = dataSet.next();
+    assertFalse(dataSet.hasNext());
+    // release the query tokens, as a jdbc request does when it is closed
+    QueryTokenManager.getInstance().endQueryForCurrentRequestThread();
+    return record;
+  }
+
+  private void assertResult(String[] expected, RowRecord record) {
+    assertEquals(expected.length, record.getFields().size());
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(AGGREGATIONS[i], expected[i], record.getFields().get(i).getStringValue());
+    }
+  }
+
+  private double sum(long start, long end) {
+    double sum = 0;
+    for (long i = start; i <= end; i++) {
+      sum += i;
+    }
+    return sum;
+  }
+}
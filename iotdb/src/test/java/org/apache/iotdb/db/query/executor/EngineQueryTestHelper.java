@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.executor;
+
+import java.io.IOException;
+import java.util.Collections;
+import org.apache.iotdb.db.engine.filenode.FileNodeManager;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.MetadataArgsErrorException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.metadata.MManager;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.DoubleDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+
+/**
+ * The fixture of the tests querying the series of one device through {@link EngineQueryRouter},
+ * the device of which is also the storage group. <code>setUp()</code> registers the series, and
+ * <code>tearDown()</code> cleans the environment and restores the page size of TsFile.
+ */
+class EngineQueryTestHelper {
+
+  private final String processorName;
+  private final TSDataType dataType;
+  private final String[] measurements;
+  private TSFileConfig tsFileConfig = TSFileDescriptor.getInstance().getConfig();
+  private int maxNumberOfPointsInPage;
+
+  EngineQueryTestHelper(String processorName, TSDataType dataType, String... measurements) {
+    this.processorName = processorName;
+    this.dataType = dataType;
+    this.measurements = measurements;
+  }
+
+  void setUp() throws MetadataArgsErrorException, PathErrorException, IOException,
+      FileNodeManagerException {
+    maxNumberOfPointsInPage = tsFileConfig.maxNumberOfPointsInPage;
+    MManager.getInstance().setStorageLevelToMTree(processorName);
+    for (String measurement : measurements) {
+      MManager.getInstance().addPathToMTree(processorName + "." + measurement,
+          dataType.toString(), TSEncoding.PLAIN.toString());
+      FileNodeManager.getInstance()
+          .addTimeSeries(new Path(processorName, measurement), dataType,
+              TSEncoding.PLAIN, CompressionType.valueOf(TSFileConfig.compressor),
+              Collections.emptyMap());
+    }
+  }
+
+  void tearDown() throws IOException, FileNodeManagerException {
+    EnvironmentUtils.cleanEnv();
+    tsFileConfig.maxNumberOfPointsInPage = maxNumberOfPointsInPage;
+  }
+
+  /**
+   * use small pages so that a chunk has several pages, which is restored by
+   * <code>tearDown()</code>.
+   */
+  void setMaxNumberOfPointsInPage(int maxNumberOfPointsInPage) {
+    tsFileConfig.maxNumberOfPointsInPage = maxNumberOfPointsInPage;
+  }
+
+  /**
+   * insert a point into the given measurements, or into all the measurements if none is given.
+   */
+  void insert(long time, double value, String... insertedMeasurements)
+      throws FileNodeManagerException {
+    TSRecord record = new TSRecord(time, processorName);
+    for (String measurement : insertedMeasurements.length > 0 ? insertedMeasurements
+        : measurements) {
+      switch (dataType) {
+        case INT64:
+          record.addTuple(new LongDataPoint(measurement, (long) value));
+          break;
+        case DOUBLE:
+          record.addTuple(new DoubleDataPoint(measurement, value));
+          break;
+        default:
+          throw new UnsupportedOperationException("DataType: " + dataType);
+      }
+    }
+    FileNodeManager.getInstance().insert(record, false);
+  }
+}
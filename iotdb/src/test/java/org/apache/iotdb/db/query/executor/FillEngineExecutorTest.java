@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.iotdb.db.engine.filenode.FileNodeManager;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.MetadataArgsErrorException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.query.control.QueryTokenManager;
+import org.apache.iotdb.db.query.fill.IFill;
+import org.apache.iotdb.db.query.fill.LinearFill;
+import org.apache.iotdb.db.query.fill.PreviousFill;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FillEngineExecutorTest {
+
+  private String processorName = "root.test";
+  private String measurement = "m0";
+  private EngineQueryRouter router = new EngineQueryRouter();
+  private EngineQueryTestHelper helper = new EngineQueryTestHelper(processorName,
+      TSDataType.DOUBLE, measurement);
+
+  @Before
+  public void setup() throws MetadataArgsErrorException,
+      PathErrorException, IOException, FileNodeManagerException {
+    helper.setUp();
+    helper.setMaxNumberOfPointsInPage(10);
+    insertData();
+  }
+
+  @After
+  public void teardown() throws IOException, FileNodeManagerException {
+    helper.tearDown();
+  }
+
+  /**
+   * sealed files: 10, 20, ..., 1000 with data before 140 deleted, memory: 1010, 1020, ..., 1500,
+   * overflow: 505.
+   */
+  private void insertData() throws FileNodeManagerException {
+    for (int i = 10; i <= 1500; i += 10) {
+      helper.insert(i, i);
+      if (i % 500 == 0) {
+        FileNodeManager.getInstance().closeAll();
+      }
+    }
+    FileNodeManager.getInstance().delete(processorName, measurement, 140);
+    helper.insert(505, 10000);
+  }
+
+  @Test
+  public void testPreviousFill() throws FileNodeManagerException, PathErrorException, IOException {
+    IFill fill = new PreviousFill(-1);
+    assertEquals("1000.0", fill(1000, fill));
+    assertEquals("550.0", fill(555, fill));
+    assertEquals("500.0", fill(503, fill));
+    assertEquals("10000.0", fill(507, fill));
+    assertEquals("1250.0", fill(1255, fill));
+    assertEquals("1500.0", fill(2000, fill));
+    assertEquals("150.0", fill(155, fill));
+    assertEquals("null", fill(145, fill));
+    assertEquals("null", fill(5, fill));
+
+    fill = new PreviousFill(3);
+    assertEquals("null", fill(555, fill));
+    assertEquals("1000.0", fill(1003, fill));
+    assertEquals("null", fill(1005, fill));
+  }
+
+  @Test
+  public void testLinearFill() throws FileNodeManagerException, PathErrorException, IOException {
+    IFill fill = new LinearFill(-1, -1);
+    assertEquals("1000.0", fill(1000, fill));
+    assertEquals("555.0", fill(555, fill));
+    assertEquals("1005.0", fill(1005, fill));
+    assertEquals("4300.0", fill(502, fill));
+    assertEquals("null", fill(1505, fill));
+    assertEquals("null", fill(145, fill));
+
+    fill = new LinearFill(3, 10);
+    assertEquals("null", fill(555, fill));
+    assertEquals("1002.0", fill(1002, fill));
+  }
+
+  @Test
+  public void testWithoutFillType()
+      throws FileNodeManagerException, PathErrorException, IOException {
+    QueryDataSet dataSet = router.fill(Collections.singletonList(new Path(processorName,
+        measurement)), 555, new HashMap<>());
+    assertEquals("null", dataSet.next().getFields().get(0).getStringValue());
+    QueryTokenManager.getInstance().endQueryForCurrentRequestThread();
+
+    dataSet = router.fill(Collections.singletonList(new Path(processorName,
+        measurement)), 505, new HashMap<>());
+    assertEquals("10000.0", dataSet.next().getFields().get(0).getStringValue());
+    QueryTokenManager.getInstance().endQueryForCurrentRequestThread();
+  }
+
+  private String fill(long queryTime, IFill fill)
+      throws FileNodeManagerException, PathErrorException, IOException {
+    Map<TSDataType, IFill> fillType = new HashMap<>();
+    fillType.put(TSDataType.DOUBLE, fill);
+    QueryDataSet dataSet = router.fill(Collections.singletonList(new Path(processorName,
+        measurement)), queryTime, fillType);
+    assertTrue(dataSet.hasNext());
+    RowRecord record = dataSet.next();
+    assertEquals(queryTime, record.getTimestamp());
+    assertFalse(dataSet.hasNext());
+    QueryTokenManager.getInstance().endQueryForCurrentRequestThread();
+    return record.getFields().get(0).getStringValue();
+  }
+}
@@ -0,0 +1,196 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.iotdb.db.engine.filenode.FileNodeManager;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.MetadataArgsErrorException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.db.query.control.QueryTokenManager;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.IExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Pair;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GroupByEngineExecutorTest {
+
+  private static final String[] AGGREGATIONS = {"count", "sum", "first", "last", "max_time"};
+
+  private String processorName = "root.test";
+  private String measurement = "m0";
+  private EngineQueryRouter router = new EngineQueryRouter();
+  private EngineQueryTestHelper helper = new EngineQueryTestHelper(processorName,
+      TSDataType.DOUBLE, measurement);
+
+  @Before
+  public void setup() throws MetadataArgsErrorException,
+      PathErrorException, IOException, FileNodeManagerException {
+    helper.setUp();
+    helper.setMaxNumberOfPointsInPage(100);
+    insertData();
+  }
+
+  @After
+  public void teardown() throws IOException, FileNodeManagerException {
+    helper.tearDown();
+  }
+
+  /**
+   * sealed file: [1, 1000], memory: [1001, 1500], overflow: [10, 19] and [1050, 1059].
+   */
+  private void insertData() throws FileNodeManagerException {
+    for (int i = 1; i <= 1500; i++) {
+      helper.insert(i, i);
+      if (i == 1000) {
+        FileNodeManager.getInstance().closeAll();
+      }
+    }
+    for (int i = 10; i < 20; i++) {
+      helper.insert(i, value(i));
+    }
+    for (int i = 1050; i < 1060; i++) {
+      helper.insert(i, value(i));
+    }
+  }
+
+  /**
+   * the value of each timestamp after all the data is inserted.
+   */
+  private double value(long time) {
+    if ((time >= 10 && time < 20) || (time >= 1050 && time < 1060)) {
+      return 10000;
+    }
+    return time;
+  }
+
+  @Test
+  public void testWithoutFilter()
+      throws FileNodeManagerException, IOException, PathErrorException, ProcessorException {
+    List<Pair<Long, Long>> intervals = Arrays.asList(new Pair<>(1180L, 1320L),
+        new Pair<>(1L, 450L), new Pair<>(400L, 999L));
+    long[][] windows = {{1, 99}, {100, 199}, {200, 299}, {300, 399}, {400, 499}, {500, 599},
+        {600, 699}, {700, 799}, {800, 899}, {900, 999}, {1180, 1199}, {1200, 1299},
+        {1300, 1320}};
+    checkGroupBy(windows, groupBy(null, 100, 0, intervals), 0);
+  }
+
+  @Test
+  public void testWithTimeFilter()
+      throws FileNodeManagerException, IOException, PathErrorException, ProcessorException {
+    // windows are aligned to origin 25
+    List<Pair<Long, Long>> intervals = Collections.singletonList(new Pair<>(0L, 1500L));
+    IExpression expression = new GlobalTimeExpression(TimeFilter.gtEq(990L));
+    long[][] windows = {{0, 24}, {25, 524}, {525, 1024}, {1025, 1500}};
+    checkGroupBy(windows, groupBy(expression, 500, 25, intervals), 990);
+  }
+
+  @Test
+  public void testWithValueFilter()
+      throws FileNodeManagerException, IOException, PathErrorException, ProcessorException {
+    List<Pair<Long, Long>> intervals = Arrays.asList(new Pair<>(1L, 450L),
+        new Pair<>(1000L, 1100L));
+    IExpression expression = new SingleSeriesExpression(new Path(processorName, measurement),
+        ValueFilter.gt(1050.0));
+    long[][] windows = {{1, 99}, {100, 199}, {200, 299}, {300, 399}, {400, 450}, {1000, 1099},
+        {1100, 1100}};
+    QueryDataSet dataSet = groupBy(expression, 100, 0, intervals);
+    for (long[] window : windows) {
+      assertTrue(dataSet.hasNext());
+      RowRecord record = dataSet.next();
+      assertEquals(window[0], record.getTimestamp());
+      long count = 0;
+      for (long time = window[0]; time <= window[1]; time++) {
+        if (value(time) > 1050) {
+          count++;
+        }
+      }
+      assertEquals(String.valueOf(count), record.getFields().get(0).getStringValue());
+    }
+    assertFalse(dataSet.hasNext());
+    QueryTokenManager.getInstance().endQueryForCurrentRequestThread();
+  }
+
+  private QueryDataSet groupBy(IExpression expression, long unit, long origin,
+      List<Pair<Long, Long>> intervals)
+      throws FileNodeManagerException, IOException, PathErrorException, ProcessorException {
+    List<Path> paths = new ArrayList<>();
+    for (int i = 0; i < AGGREGATIONS.length; i++) {
+      paths.add(new Path(processorName, measurement));
+    }
+    return router.groupBy(paths, Arrays.asList(AGGREGATIONS), expression, unit, origin,
+        intervals);
+  }
+
+  /**
+   * check the results of each window by calculating the points one by one.
+   *
+   * @param minTime points before minTime are filtered
+   */
+  private void checkGroupBy(long[][] windows, QueryDataSet dataSet, long minTime)
+      throws IOException, FileNodeManagerException {
+    for (long[] window : windows) {
+      assertTrue(dataSet.hasNext());
+      RowRecord record = dataSet.next();
+      assertEquals(window[0], record.getTimestamp());
+
+      long count = 0;
+      double sum = 0;
+      String first = "null";
+      String last = "null";
+      String maxTime = "null";
+      for (long time = Math.max(window[0], Math.max(minTime, 1));
+          time <= Math.min(window[1], 1500); time++) {
+        count++;
+        sum += value(time);
+        if (count == 1) {
+          first = String.valueOf(value(time));
+        }
+        last = String.valueOf(value(time));
+        maxTime = String.valueOf(time);
+      }
+      String[] expected = {String.valueOf(count), count == 0 ? "null" : String.valueOf(sum),
+          first, last, maxTime};
+      for (int i = 0; i < expected.length; i++) {
+        assertEquals(AGGREGATIONS[i] + " of " + window[0], expected[i],
+            record.getFields().get(i).getStringValue());
+      }
+    }
+    assertFalse(dataSet.hasNext());
+    QueryTokenManager.getInstance().endQueryForCurrentRequestThread();
+  }
+}
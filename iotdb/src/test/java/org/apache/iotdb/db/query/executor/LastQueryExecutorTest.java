@@ -0,0 +1,131 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.iotdb.db.engine.cache.LastValueCache;
+import org.apache.iotdb.db.engine.filenode.FileNodeManager;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.MetadataArgsErrorException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.query.control.QueryTokenManager;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.TsPrimitiveType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LastQueryExecutorTest {
+
+  private String processorName = "root.test";
+  private String[] measurements = {"s0", "s1", "s2"};
+  private EngineQueryRouter router = new EngineQueryRouter();
+  private LastValueCache cache = LastValueCache.getInstance();
+  private EngineQueryTestHelper helper = new EngineQueryTestHelper(processorName,
+      TSDataType.INT64, measurements);
+
+  @Before
+  public void setup() throws MetadataArgsErrorException,
+      PathErrorException, IOException, FileNodeManagerException {
+    helper.setUp();
+  }
+
+  @After
+  public void teardown() throws IOException, FileNodeManagerException {
+    helper.tearDown();
+  }
+
+  private List<String> lastQuery() throws FileNodeManagerException, PathErrorException,
+      IOException {
+    RowRecord record = router.lastQuery(Arrays.asList(new Path(processorName, measurements[0]),
+        new Path(processorName, measurements[1]), new Path(processorName, measurements[2])))
+        .next();
+    QueryTokenManager.getInstance().endQueryForCurrentRequestThread();
+    return Arrays.asList(record.getFields().get(0).getStringValue(),
+        record.getFields().get(1).getStringValue(), record.getFields().get(2).getStringValue());
+  }
+
+  private String cached(String measurement) {
+    TimeValuePair pair = cache.get(processorName + "." + measurement);
+    return pair == null ? null : pair.getTimestamp() + "," + pair.getValue().getStringValue();
+  }
+
+  @Test
+  public void testLastQuery() throws FileNodeManagerException, PathErrorException, IOException {
+    for (int i = 1; i <= 100; i++) {
+      helper.insert(i, i, "s0");
+      helper.insert(i * 2, i, "s1");
+      if (i == 50) {
+        FileNodeManager.getInstance().closeAll();
+      }
+    }
+    assertNull(cached("s0"));
+
+    // the series are loaded from the data
+    assertEquals(Arrays.asList("100", "100", "null"), lastQuery());
+    assertEquals("100,100", cached("s0"));
+    assertEquals("200,100", cached("s1"));
+    assertNull(cached("s2"));
+
+    // the insertions update the cached series
+    helper.insert(300, 1000, "s0");
+    helper.insert(150, 1500, "s0");
+    helper.insert(10, 10, "s2");
+    assertEquals("300,1000", cached("s0"));
+    assertNull(cached("s2"));
+    assertEquals(Arrays.asList("1000", "100", "10"), lastQuery());
+    assertEquals("10,10", cached("s2"));
+
+    // an overflow point of the same time overrides the cached point
+    FileNodeManager.getInstance().closeAll();
+    helper.insert(200, 2000, "s1");
+    assertEquals("200,2000", cached("s1"));
+
+    // the cached series are removed by deletion of the last point
+    FileNodeManager.getInstance().delete(processorName, "s0", 299);
+    assertEquals("300,1000", cached("s0"));
+    FileNodeManager.getInstance().delete(processorName, "s0", 300);
+    assertNull(cached("s0"));
+    assertEquals(Arrays.asList("null", "2000", "10"), lastQuery());
+  }
+
+  @Test
+  public void testInsertWhileLoading() {
+    String path = processorName + ".s0";
+    Object token = cache.beginLoad(path);
+    cache.update(path, 20, TSDataType.INT64, 2L);
+    assertNull(cache.get(path));
+    cache.endLoad(path, token, new TimeValuePair(10, new TsPrimitiveType.TsLong(1)));
+    assertEquals("20,2", cached("s0"));
+
+    // the loading is invalidated by the deletion
+    token = cache.beginLoad(path);
+    cache.delete(path, 5);
+    cache.endLoad(path, token, new TimeValuePair(10, new TsPrimitiveType.TsLong(1)));
+    assertNull(cache.get(path));
+  }
+}
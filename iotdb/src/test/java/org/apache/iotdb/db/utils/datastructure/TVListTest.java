@@ -0,0 +1,133 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.TreeMap;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.junit.Test;
+
+public class TVListTest {
+
+  @Test
+  public void testAppendInOrder() {
+    TVList list = TVList.newList(TSDataType.INT64);
+    int count = PrimitiveArrayPool.ARRAY_SIZE * 3 + 7;
+    for (int i = 0; i < count; i++) {
+      list.putLong(i, i * 10L);
+    }
+    assertTrue(list.isSorted());
+    list.sort();
+    assertEquals(count, list.size());
+    for (int i = 0; i < count; i++) {
+      assertEquals(i, list.getTime(i));
+      assertEquals(i * 10L, list.getLong(i));
+    }
+  }
+
+  @Test
+  public void testSortOutOfOrder() {
+    TVList list = TVList.newList(TSDataType.DOUBLE);
+    int count = PrimitiveArrayPool.ARRAY_SIZE * 2 + 100;
+    for (int i = count - 1; i >= 0; i--) {
+      list.putDouble(i, i);
+    }
+    // overwrite the even times, the last written value should be kept
+    for (int i = 0; i < count; i += 2) {
+      list.putDouble(i, -i);
+    }
+    assertFalse(list.isSorted());
+    list.sort();
+    assertTrue(list.isSorted());
+    assertEquals(count, list.size());
+    for (int i = 0; i < count; i++) {
+      assertEquals(i, list.getTime(i));
+      assertEquals(i % 2 == 0 ? -i : i, list.getDouble(i), 0);
+    }
+
+    // appending after sorting keeps the order
+    list.putDouble(count, count);
+    assertTrue(list.isSorted());
+    assertEquals(count, list.getTime(count));
+  }
+
+  @Test
+  public void testSortRandomOrder() {
+    TVList list = TVList.newList(TSDataType.INT32);
+    TreeMap<Long, Integer> expected = new TreeMap<>();
+    Random random = new Random(1);
+    int count = PrimitiveArrayPool.ARRAY_SIZE * 5 + 3;
+    for (int i = 0; i < count; i++) {
+      long time = random.nextInt(count);
+      list.putInt(time, i);
+      expected.put(time, i);
+    }
+    int pooledArrays = PrimitiveArrayPool.getInstance().size(TSDataType.INT32);
+    list.sort();
+    assertEquals(expected.size(), list.size());
+    int index = 0;
+    for (Entry<Long, Integer> point : expected.entrySet()) {
+      assertEquals((long) point.getKey(), list.getTime(index));
+      assertEquals((int) point.getValue(), list.getInt(index));
+      index++;
+    }
+    // the scratch arrays and the emptied arrays are returned to the pool
+    int arrayNum =
+        (list.size() + PrimitiveArrayPool.ARRAY_SIZE - 1) / PrimitiveArrayPool.ARRAY_SIZE;
+    assertEquals(arrayNum, list.timestamps.size());
+    assertTrue(PrimitiveArrayPool.getInstance().size(TSDataType.INT32)
+        >= pooledArrays + 6 - arrayNum);
+  }
+
+  @Test
+  public void testCloneAndClear() {
+    TVList list = TVList.newList(TSDataType.TEXT);
+    for (int i = 0; i < 100; i++) {
+      list.putBinary(i, new Binary("v" + i));
+    }
+    TVList cloneList = list.clone();
+    list.putBinary(100, new Binary("v100"));
+    assertEquals(100, cloneList.size());
+
+    int pooledArrays = PrimitiveArrayPool.getInstance().size(TSDataType.TEXT);
+    list.clear();
+    assertEquals(0, list.size());
+    assertEquals(pooledArrays + 1, PrimitiveArrayPool.getInstance().size(TSDataType.TEXT));
+    for (int i = 0; i < 100; i++) {
+      assertEquals("v" + i, cloneList.getBinary(i).getStringValue());
+    }
+
+    // the array got from the pool holds no value
+    Binary[] array = (Binary[]) PrimitiveArrayPool.getInstance()
+        .getPrimitiveArray(TSDataType.TEXT);
+    assertNull(array[0]);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testWrongType() {
+    TVList.newList(TSDataType.INT32).putLong(1, 1);
+  }
+}
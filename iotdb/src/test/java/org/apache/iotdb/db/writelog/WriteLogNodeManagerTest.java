@@ -18,13 +18,17 @@
  */
 package org.apache.iotdb.db.writelog;
 
+import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
 import org.apache.iotdb.db.exception.MetadataArgsErrorException;
 import org.apache.iotdb.db.exception.PathErrorException;
 import org.apache.iotdb.db.exception.RecoverException;
@@ -32,13 +36,20 @@ import org.apache.iotdb.db.metadata.MManager;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
+import org.apache.iotdb.db.query.control.QueryTokenManager;
+import org.apache.iotdb.db.query.executor.EngineQueryRouter;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
 import org.apache.iotdb.db.writelog.manager.MultiFileLogNodeManager;
 import org.apache.iotdb.db.writelog.manager.WriteLogNodeManager;
 import org.apache.iotdb.db.writelog.node.WriteLogNode;
+import org.apache.iotdb.db.writelog.replay.ConcreteLogReplayer;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -136,4 +147,114 @@ public class WriteLogNodeManagerTest {
     }
     manager.recover();
   }
+
+  @Test
+  public void testRecoverConcurrently() throws IOException, RecoverException,
+      FileNodeManagerException {
+    // this test recovers 4 storage groups with 2 threads, each log node has several batches
+    int recoveryThreadNum = config.getWalRecoveryThreadNum();
+    config.setWalRecoveryThreadNum(2);
+    File tempRestore = File.createTempFile("managerTest", "restore");
+    File tempProcessorStore = File.createTempFile("managerTest", "processorStore");
+    int storageGroupNum = 4;
+    int insertNum = ConcreteLogReplayer.INSERT_BATCH_SIZE * 2 + 10;
+
+    try {
+      WriteLogNodeManager manager = MultiFileLogNodeManager.getInstance();
+      for (int i = 0; i < storageGroupNum; i++) {
+        String deviceName = "root.recoverTest" + i;
+        try {
+          MManager.getInstance().setStorageLevelToMTree(deviceName);
+          MManager.getInstance().addPathToMTree(deviceName + ".s1", TSDataType.INT64.name(),
+              TSEncoding.PLAIN.name());
+        } catch (PathErrorException | MetadataArgsErrorException ignored) {
+        }
+        WriteLogNode logNode = manager
+            .getNode(deviceName, tempRestore.getPath(), tempProcessorStore.getPath());
+        for (int j = 1; j <= insertNum; j++) {
+          InsertPlan insertPlan = new InsertPlan(2, deviceName, j,
+              Collections.singletonList("s1"), null);
+          insertPlan.setDataPoints(Collections.singletonList(new LongDataPoint("s1", j)));
+          logNode.write(insertPlan);
+        }
+        // the inserts before the deletion must be applied first
+        logNode.write(new DeletePlan(10, new Path(deviceName + ".s1")));
+        logNode.forceSync();
+        logNode.close();
+      }
+      manager.recover();
+
+      for (int i = 0; i < storageGroupNum; i++) {
+        QueryDataSet dataSet = new EngineQueryRouter().query(QueryExpression.create(
+            Collections.singletonList(new Path("root.recoverTest" + i, "s1")), null));
+        int count = 0;
+        while (dataSet.hasNext()) {
+          RowRecord record = dataSet.next();
+          assertEquals(count + 11, record.getTimestamp());
+          assertEquals(count + 11, record.getFields().get(0).getLongV());
+          count++;
+        }
+        assertEquals(insertNum - 10, count);
+        QueryTokenManager.getInstance().endQueryForCurrentRequestThread();
+      }
+    } finally {
+      config.setWalRecoveryThreadNum(recoveryThreadNum);
+      tempRestore.delete();
+      tempProcessorStore.delete();
+    }
+  }
+
+  @Test
+  public void testRecoverBadInsertInBatch() throws IOException, FileNodeManagerException {
+    // the insert in the middle of a batch fails, while the others of the batch are applied
+    File tempRestore = File.createTempFile("managerTest", "restore");
+    File tempProcessorStore = File.createTempFile("managerTest", "processorStore");
+    String deviceName = "root.recoverBadInsert";
+    int insertNum = ConcreteLogReplayer.INSERT_BATCH_SIZE;
+    long badTime = insertNum / 2;
+
+    try {
+      WriteLogNodeManager manager = MultiFileLogNodeManager.getInstance();
+      try {
+        MManager.getInstance().setStorageLevelToMTree(deviceName);
+        MManager.getInstance().addPathToMTree(deviceName + ".s1", TSDataType.INT64.name(),
+            TSEncoding.PLAIN.name());
+      } catch (PathErrorException | MetadataArgsErrorException ignored) {
+      }
+      WriteLogNode logNode = manager
+          .getNode(deviceName, tempRestore.getPath(), tempProcessorStore.getPath());
+      for (int j = 1; j <= insertNum; j++) {
+        // a negative time is rejected by FileNodeManager
+        long time = j == badTime ? -1 : j;
+        InsertPlan insertPlan = new InsertPlan(2, deviceName, time,
+            Collections.singletonList("s1"), null);
+        insertPlan.setDataPoints(Collections.singletonList(new LongDataPoint("s1", j)));
+        logNode.write(insertPlan);
+      }
+      logNode.forceSync();
+      logNode.close();
+
+      try {
+        manager.recover();
+        fail("The bad insert should fail the recovery");
+      } catch (RecoverException e) {
+        assertTrue(e.getMessage().contains("There are 1 logs failed"));
+      }
+
+      QueryDataSet dataSet = new EngineQueryRouter().query(QueryExpression.create(
+          Collections.singletonList(new Path(deviceName, "s1")), null));
+      int count = 0;
+      while (dataSet.hasNext()) {
+        RowRecord record = dataSet.next();
+        assertTrue(record.getTimestamp() != badTime);
+        assertEquals(record.getTimestamp(), record.getFields().get(0).getLongV());
+        count++;
+      }
+      assertEquals(insertNum - 1, count);
+      QueryTokenManager.getInstance().endQueryForCurrentRequestThread();
+    } finally {
+      tempRestore.delete();
+      tempProcessorStore.delete();
+    }
+  }
 }
@@ -24,14 +24,18 @@ import static junit.framework.TestCase.assertTrue;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
-import java.util.zip.CRC32;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.writelog.io.CRC32C;
+import org.apache.iotdb.db.writelog.io.LogWriter;
+import org.apache.iotdb.db.writelog.io.RAFLogReader;
 import org.apache.iotdb.db.writelog.node.ExclusiveWriteLogNode;
 import org.apache.iotdb.db.writelog.node.WriteLogNode;
 import org.apache.iotdb.db.writelog.transfer.PhysicalPlanLogTransfer;
@@ -68,7 +72,7 @@ public class WriteLogNodeTest {
     tempRestore.getParentFile().mkdirs();
     tempRestore.createNewFile();
     tempProcessorStore.createNewFile();
-    CRC32 crc32 = new CRC32();
+    CRC32C crc32c = new CRC32C();
 
     WriteLogNode logNode = new ExclusiveWriteLogNode("root.logTestDevice", tempRestore.getPath(),
         tempProcessorStore.getPath());
@@ -89,15 +93,22 @@ public class WriteLogNodeTest {
         config.getWalFolder() + File.separator + "root.logTestDevice" + File.separator + "wal");
     assertTrue(walFile.exists());
 
+    // the three logs are flushed as one batch checked by a single CRC32C
     RandomAccessFile raf = new RandomAccessFile(walFile, "r");
-    byte[] buffer = new byte[10 * 1024 * 1024];
-    int logSize = 0;
-    logSize = raf.readInt();
-    long checksum = raf.readLong();
-    raf.read(buffer, 0, logSize);
-    crc32.reset();
-    crc32.update(buffer, 0, logSize);
-    assertEquals(checksum, crc32.getValue());
+    assertEquals(LogWriter.BATCH_MARKER, raf.readInt());
+    assertEquals(LogWriter.BATCH_VERSION, raf.readByte());
+    assertEquals(3, raf.readInt());
+    int payloadSize = raf.readInt();
+    long checksum = raf.readInt() & 0xFFFFFFFFL;
+    byte[] payload = new byte[payloadSize];
+    raf.readFully(payload);
+    crc32c.update(payload, 0, payloadSize);
+    assertEquals(checksum, crc32c.getValue());
+    assertEquals(raf.length(), raf.getFilePointer());
+
+    ByteBuffer payloadBuffer = ByteBuffer.wrap(payload);
+    byte[] buffer = new byte[payloadBuffer.getInt()];
+    payloadBuffer.get(buffer);
     InsertPlan bwInsertPlan2 = (InsertPlan) PhysicalPlanLogTransfer.logToOperator(buffer);
     assertEquals(bwInsertPlan.getMeasurements(), bwInsertPlan2.getMeasurements());
     assertEquals(bwInsertPlan.getTime(), bwInsertPlan2.getTime());
@@ -105,24 +116,16 @@ public class WriteLogNodeTest {
     assertEquals(bwInsertPlan.getPaths(), bwInsertPlan2.getPaths());
     assertEquals(bwInsertPlan.getDeviceId(), bwInsertPlan2.getDeviceId());
 
-    logSize = raf.readInt();
-    checksum = raf.readLong();
-    raf.read(buffer, 0, logSize);
-    crc32.reset();
-    crc32.update(buffer, 0, logSize);
-    assertEquals(checksum, crc32.getValue());
+    buffer = new byte[payloadBuffer.getInt()];
+    payloadBuffer.get(buffer);
     UpdatePlan updatePlan2 = (UpdatePlan) PhysicalPlanLogTransfer.logToOperator(buffer);
     assertEquals(updatePlan.getPath(), updatePlan2.getPath());
     assertEquals(updatePlan.getIntervals(), updatePlan2.getIntervals());
     assertEquals(updatePlan.getValue(), updatePlan2.getValue());
     assertEquals(updatePlan.getPaths(), updatePlan2.getPaths());
 
-    logSize = raf.readInt();
-    checksum = raf.readLong();
-    raf.read(buffer, 0, logSize);
-    crc32.reset();
-    crc32.update(buffer, 0, logSize);
-    assertEquals(checksum, crc32.getValue());
+    buffer = new byte[payloadBuffer.getInt()];
+    payloadBuffer.get(buffer);
     DeletePlan deletePlan2 = (DeletePlan) PhysicalPlanLogTransfer.logToOperator(buffer);
     assertEquals(deletePlan.getDeleteTime(), deletePlan2.getDeleteTime());
     assertEquals(deletePlan.getPaths(), deletePlan2.getPaths());
@@ -284,4 +287,59 @@ public class WriteLogNodeTest {
     tempProcessorStore.delete();
     tempRestore.getParentFile().delete();
   }
+
+  @Test
+  public void testGroupCommit() throws IOException, InterruptedException {
+    // this test writes logs from several threads in group commit mode, all the logs should be
+    // in the file when the writes return, without any explicit sync
+    boolean enableGroupCommit = config.isEnableWalGroupCommit();
+    config.setEnableWalGroupCommit(true);
+    File tempRestore = new File("testtemp", "restore");
+    File tempProcessorStore = new File("testtemp", "processorStore");
+    tempRestore.getParentFile().mkdirs();
+    tempRestore.createNewFile();
+    tempProcessorStore.createNewFile();
+
+    WriteLogNode logNode = new ExclusiveWriteLogNode("root.logTestDevice", tempRestore.getPath(),
+        tempProcessorStore.getPath());
+    int threadNum = 4;
+    int logNum = 100;
+    Thread[] threads = new Thread[threadNum];
+    AtomicInteger failures = new AtomicInteger();
+    for (int i = 0; i < threadNum; i++) {
+      threads[i] = new Thread(() -> {
+        for (int j = 0; j < logNum; j++) {
+          try {
+            logNode.write(new InsertPlan(1, "root.logTestDevice", j,
+                Arrays.asList("s1", "s2"), Arrays.asList("1.0", "15")));
+          } catch (IOException e) {
+            failures.incrementAndGet();
+          }
+        }
+      });
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(0, failures.get());
+
+    File walFile = new File(
+        config.getWalFolder() + File.separator + "root.logTestDevice" + File.separator + "wal");
+    RAFLogReader reader = new RAFLogReader(walFile);
+    int count = 0;
+    while (reader.hasNext()) {
+      InsertPlan plan = (InsertPlan) reader.next();
+      assertEquals(Arrays.asList("s1", "s2"), plan.getMeasurements());
+      count++;
+    }
+    reader.close();
+    assertEquals(threadNum * logNum, count);
+
+    logNode.delete();
+    tempRestore.delete();
+    tempProcessorStore.delete();
+    tempRestore.getParentFile().delete();
+    config.setEnableWalGroupCommit(enableGroupCommit);
+  }
 }
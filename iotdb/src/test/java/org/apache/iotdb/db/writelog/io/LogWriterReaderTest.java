@@ -19,12 +19,16 @@
 package org.apache.iotdb.db.writelog.io;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.zip.CRC32;
 import org.apache.iotdb.db.exception.WALOverSizedException;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
@@ -81,4 +85,44 @@ public class LogWriterReaderTest {
       new File(filePath).delete();
     }
   }
+
+  @Test
+  public void testReadOldFormat() throws IOException {
+    // logs written before batches were introduced are checked one by one by CRC32
+    try (DataOutputStream outputStream = new DataOutputStream(new FileOutputStream(filePath))) {
+      CRC32 crc32 = new CRC32();
+      for (byte[] log : logs) {
+        crc32.reset();
+        crc32.update(log);
+        outputStream.writeInt(log.length);
+        outputStream.writeLong(crc32.getValue());
+        outputStream.write(log);
+      }
+    }
+    LogWriter writer = new LogWriter(filePath);
+    writer.write(logs);
+    try {
+      writer.close();
+      RAFLogReader reader = new RAFLogReader(new File(filePath));
+      List<byte[]> res = new ArrayList<>();
+      while (reader.hasNext()) {
+        res.add(PhysicalPlanLogTransfer.operatorToLog(reader.next()));
+      }
+      reader.close();
+      assertEquals(logs.size() * 2, res.size());
+      for (int i = 0; i < res.size(); i++) {
+        assertArrayEquals(logs.get(i % logs.size()), res.get(i));
+      }
+    } finally {
+      new File(filePath).delete();
+    }
+  }
+
+  @Test
+  public void testCRC32C() {
+    CRC32C crc32c = new CRC32C();
+    byte[] bytes = "123456789".getBytes();
+    crc32c.update(bytes, 0, bytes.length);
+    assertEquals(0xE3069283L, crc32c.getValue());
+  }
 }
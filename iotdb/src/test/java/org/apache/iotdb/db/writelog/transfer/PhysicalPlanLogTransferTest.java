@@ -19,6 +19,7 @@
 package org.apache.iotdb.db.writelog.transfer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.Arrays;
@@ -35,7 +36,13 @@ import org.apache.iotdb.db.qp.physical.sys.LoadDataPlan;
 import org.apache.iotdb.db.qp.physical.sys.MetadataPlan;
 import org.apache.iotdb.db.qp.physical.sys.PropertyPlan;
 import org.apache.iotdb.db.qp.utils.MemIntQpExecutor;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.record.datapoint.BooleanDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.DoubleDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.IntDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.StringDataPoint;
 import org.junit.Test;
 
 public class PhysicalPlanLogTransferTest {
@@ -154,4 +161,23 @@ public class PhysicalPlanLogTransferTest {
     assertEquals(true, propertyPlanTest.equals(propertyPlan));
 
   }
+
+  @Test
+  public void typedInsertPlanToLog() throws IOException {
+    InsertPlan typedInsertPlan = new InsertPlan(2, "device", 100,
+        Arrays.asList("s1", "s2", "s3", "s4"), null);
+    typedInsertPlan.setDataPoints(Arrays.asList(new DoubleDataPoint("s1", 0.1),
+        new IntDataPoint("s2", 100), new StringDataPoint("s3", new Binary("test")),
+        new BooleanDataPoint("s4", false)));
+    byte[] bytes = PhysicalPlanLogTransfer.operatorToLog(typedInsertPlan);
+    assertEquals(SystemLogOperator.TYPED_INSERT, bytes[0]);
+    // the typed values take less space than the strings
+    assertTrue(bytes.length < PhysicalPlanLogTransfer.operatorToLog(insertPlan).length);
+
+    InsertPlan decoded = (InsertPlan) PhysicalPlanLogTransfer.logToOperator(bytes);
+    assertEquals(typedInsertPlan, decoded);
+    assertEquals(Arrays.asList("0.1", "100", "test", "false"), decoded.getValues());
+    assertEquals(TSDataType.INT32, decoded.getDataPoints().get(1).getType());
+    assertEquals(2, decoded.getInsertType());
+  }
 }
\ No newline at end of file
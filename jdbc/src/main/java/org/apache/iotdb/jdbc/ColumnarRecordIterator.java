@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.jdbc;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.apache.iotdb.service.rpc.thrift.TSColumnarDataSet;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+/**
+ * Iterate over a TSColumnarDataSet row by row. The buffers of the data set are decoded only when
+ * a row is visited, so no intermediate object is created for the cells.
+ */
+class ColumnarRecordIterator implements Iterator<RowRecord> {
+
+  private int rowCount;
+  private int rowIndex;
+  private ByteBuffer timeBuffer;
+  private ByteBuffer[] valueBuffers;
+  private ByteBuffer[] bitmapBuffers;
+  private TSDataType[] dataTypes;
+
+  ColumnarRecordIterator(TSColumnarDataSet dataSet) {
+    this.rowCount = dataSet.getRowCount();
+    this.timeBuffer = dataSet.bufferForTime().slice();
+    List<ByteBuffer> valueList = dataSet.getValueList();
+    List<ByteBuffer> bitmapList = dataSet.getBitmapList();
+    List<String> dataTypeList = dataSet.getDataTypeList();
+    int columnCount = valueList.size();
+    valueBuffers = new ByteBuffer[columnCount];
+    bitmapBuffers = new ByteBuffer[columnCount];
+    dataTypes = new TSDataType[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      valueBuffers[i] = valueList.get(i).slice();
+      bitmapBuffers[i] = bitmapList.get(i).slice();
+      dataTypes[i] = TSDataType.valueOf(dataTypeList.get(i));
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    return rowIndex < rowCount;
+  }
+
+  @Override
+  public RowRecord next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    RowRecord record = new RowRecord(timeBuffer.getLong());
+    for (int i = 0; i < valueBuffers.length; i++) {
+      if (isNull(bitmapBuffers[i], rowIndex)) {
+        Field field = new Field(null);
+        field.setNull();
+        record.getFields().add(field);
+      } else {
+        record.getFields().add(readField(valueBuffers[i], dataTypes[i]));
+      }
+    }
+    rowIndex++;
+    return record;
+  }
+
+  private static boolean isNull(ByteBuffer bitmap, int row) {
+    return (bitmap.get(row / 8) & (1 << (7 - row % 8))) == 0;
+  }
+
+  private static Field readField(ByteBuffer buffer, TSDataType dataType) {
+    Field field = new Field(dataType);
+    switch (dataType) {
+      case BOOLEAN:
+        field.setBoolV(buffer.get() != 0);
+        break;
+      case INT32:
+        field.setIntV(buffer.getInt());
+        break;
+      case INT64:
+        field.setLongV(buffer.getLong());
+        break;
+      case FLOAT:
+        field.setFloatV(buffer.getFloat());
+        break;
+      case DOUBLE:
+        field.setDoubleV(buffer.getDouble());
+        break;
+      case TEXT:
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        field.setBinaryV(new Binary(bytes));
+        break;
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("data type %s is not supported when convert data at client",
+                dataType));
+    }
+    return field;
+  }
+}
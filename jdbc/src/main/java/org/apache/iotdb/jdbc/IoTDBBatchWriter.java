@@ -0,0 +1,231 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.jdbc;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.service.rpc.thrift.TSBatchInsertionReq;
+import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementResp;
+import org.apache.iotdb.service.rpc.thrift.TS_StatusCode;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.thrift.TException;
+
+/**
+ * Write rows of one device in batches without SQL. The rows are packed column by column on the
+ * client, and the server inserts them without parsing any statement or value string.
+ * <p>
+ * Usage: add rows by <code>addRow()</code>, then send them by <code>executeBatch()</code>, which
+ * returns the result of each row as <code>Statement.executeBatch()</code> does.
+ * </p>
+ */
+public class IoTDBBatchWriter {
+
+  private IoTDBConnection connection;
+  private String deviceId;
+  private List<String> measurements;
+  private List<TSDataType> dataTypes;
+
+  private int rowCount;
+  private PublicBAOS timeBuffer = new PublicBAOS();
+  private DataOutputStream timeStream = new DataOutputStream(timeBuffer);
+  private PublicBAOS[] valueBuffers;
+  private DataOutputStream[] valueStreams;
+
+  IoTDBBatchWriter(IoTDBConnection connection, String deviceId, List<String> measurements,
+      List<TSDataType> dataTypes) {
+    this.connection = connection;
+    this.deviceId = deviceId;
+    this.measurements = measurements;
+    this.dataTypes = dataTypes;
+    valueBuffers = new PublicBAOS[measurements.size()];
+    valueStreams = new DataOutputStream[measurements.size()];
+    for (int i = 0; i < valueBuffers.length; i++) {
+      valueBuffers[i] = new PublicBAOS();
+      valueStreams[i] = new DataOutputStream(valueBuffers[i]);
+    }
+  }
+
+  /**
+   * add a row to the batch.
+   *
+   * @param time timestamp of the row
+   * @param values one value for each measurement, the type of which is Boolean, Integer, Long,
+   * Float, Double or String according to the data type of the measurement
+   */
+  public void addRow(long time, Object... values) throws SQLException {
+    if (values.length != measurements.size()) {
+      throw new SQLException(String.format("%d values are given for %d measurements",
+          values.length, measurements.size()));
+    }
+    // convert every value before writing any of them, so that a bad value leaves no partial row
+    // in the buffers to misalign the columns of the rows added later
+    Object[] converted = new Object[values.length];
+    for (int i = 0; i < values.length; i++) {
+      try {
+        converted[i] = convertValue(dataTypes.get(i), values[i]);
+      } catch (IOException | ClassCastException | NullPointerException
+          | UnSupportedDataTypeException e) {
+        throw new SQLException(String.format("Cannot add the row at time %d, the value of %s is "
+            + "not a valid %s", time, measurements.get(i), dataTypes.get(i)), e);
+      }
+    }
+    try {
+      timeStream.writeLong(time);
+      for (int i = 0; i < converted.length; i++) {
+        writeValue(valueStreams[i], dataTypes.get(i), converted[i]);
+      }
+    } catch (IOException e) {
+      // never happens when writing to a byte array
+      throw new SQLException(String.format("Cannot add the row at time %d", time), e);
+    }
+    rowCount++;
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * send all the added rows to the server, and clear the batch.
+   *
+   * @return the result of each row, Statement.SUCCESS_NO_INFO or Statement.EXECUTE_FAILED
+   */
+  public int[] executeBatch() throws SQLException {
+    if (rowCount == 0) {
+      return new int[0];
+    }
+    TSBatchInsertionReq req = new TSBatchInsertionReq();
+    req.setDeviceId(deviceId);
+    req.setMeasurements(measurements);
+    req.setDataTypes(new ArrayList<>());
+    for (TSDataType dataType : dataTypes) {
+      req.getDataTypes().add(dataType.toString());
+    }
+    req.setRowCount(rowCount);
+    req.setTimestamps(ByteBuffer.wrap(timeBuffer.getBuf(), 0, timeBuffer.size()));
+    req.setValues(new ArrayList<>());
+    for (PublicBAOS valueBuffer : valueBuffers) {
+      req.getValues().add(ByteBuffer.wrap(valueBuffer.getBuf(), 0, valueBuffer.size()));
+    }
+
+    TSExecuteBatchStatementResp resp;
+    try {
+      resp = executeInsertBatch(req);
+    } catch (TException e) {
+      if (!connection.reconnect()) {
+        throw new SQLException("Fail to reconnect to server when executing batch insertion. "
+            + "please check server status", e);
+      }
+      try {
+        resp = executeInsertBatch(req);
+      } catch (TException e2) {
+        throw new SQLException(
+            "Fail to execute batch insertion after reconnecting. please check server status", e2);
+      }
+    }
+    clear();
+
+    int[] result = new int[resp.getResultSize()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = resp.getResult().get(i);
+    }
+    if (resp.getStatus().getStatusCode() != TS_StatusCode.SUCCESS_STATUS) {
+      throw new BatchUpdateException(resp.getStatus().getErrorMessage(), result);
+    }
+    return result;
+  }
+
+  /**
+   * discard all the added rows.
+   */
+  public void clear() {
+    rowCount = 0;
+    timeBuffer.reset();
+    for (PublicBAOS valueBuffer : valueBuffers) {
+      valueBuffer.reset();
+    }
+  }
+
+  private TSExecuteBatchStatementResp executeInsertBatch(TSBatchInsertionReq req)
+      throws TException {
+    req.setSessionHandle(connection.sessionHandle);
+    return connection.client.executeInsertBatch(req);
+  }
+
+  /**
+   * check the type of the value and convert it to the form written by writeValue().
+   */
+  private static Object convertValue(TSDataType dataType, Object value)
+      throws UnsupportedEncodingException {
+    switch (dataType) {
+      case BOOLEAN:
+        return (boolean) (Boolean) value;
+      case INT32:
+        return (int) (Integer) value;
+      case INT64:
+        return (long) (Long) value;
+      case FLOAT:
+        return (float) (Float) value;
+      case DOUBLE:
+        return (double) (Double) value;
+      case TEXT:
+        return value instanceof Binary ? ((Binary) value).getValues()
+            : ((String) value).getBytes(TSFileConfig.STRING_ENCODING);
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("data type %s is not supported by batch insertion", dataType));
+    }
+  }
+
+  private static void writeValue(DataOutputStream stream, TSDataType dataType, Object value)
+      throws IOException {
+    switch (dataType) {
+      case BOOLEAN:
+        stream.writeBoolean((Boolean) value);
+        break;
+      case INT32:
+        stream.writeInt((Integer) value);
+        break;
+      case INT64:
+        stream.writeLong((Long) value);
+        break;
+      case FLOAT:
+        stream.writeFloat((Float) value);
+        break;
+      case DOUBLE:
+        stream.writeDouble((Double) value);
+        break;
+      default:
+        byte[] bytes = (byte[]) value;
+        stream.writeInt(bytes.length);
+        stream.write(bytes);
+        break;
+    }
+  }
+}
@@ -55,6 +55,7 @@ import org.apache.iotdb.service.rpc.thrift.TSProtocolVersion;
 import org.apache.iotdb.service.rpc.thrift.TSSetTimeZoneReq;
 import org.apache.iotdb.service.rpc.thrift.TSSetTimeZoneResp;
 import org.apache.iotdb.service.rpc.thrift.TS_SessionHandle;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.transport.TSocket;
@@ -87,6 +88,7 @@ public class IoTDBConnection implements Connection {
     params = Utils.parseUrl(url, info);
 
     supportedProtocols.add(TSProtocolVersion.TSFILE_SERVICE_PROTOCOL_V1);
+    supportedProtocols.add(TSProtocolVersion.TSFILE_SERVICE_PROTOCOL_V2);
 
     openTransport();
     client = new TSIService.Client(new TBinaryProtocol(transport));
@@ -170,6 +172,25 @@ public class IoTDBConnection implements Connection {
     throw new SQLException("Method not supported");
   }
 
+  /**
+   * create a writer which inserts the rows of one device in batches without SQL.
+   *
+   * @param deviceId the device of the rows
+   * @param measurements the measurements of each row
+   * @param dataTypes the data type of each measurement, which must be the same as the schema
+   */
+  public IoTDBBatchWriter createBatchWriter(String deviceId, List<String> measurements,
+      List<TSDataType> dataTypes) throws SQLException {
+    if (isClosed) {
+      throw new SQLException("Cannot create batch writer because connection is closed");
+    }
+    if (measurements.size() != dataTypes.size()) {
+      throw new SQLException(String.format("%d data types are given for %d measurements",
+          dataTypes.size(), measurements.size()));
+    }
+    return new IoTDBBatchWriter(this, deviceId, measurements, dataTypes);
+  }
+
   @Override
   public Statement createStatement() throws SQLException {
     if (isClosed) {
@@ -418,7 +439,7 @@ public class IoTDBConnection implements Connection {
   }
 
   private void openSession() throws SQLException {
-    TSOpenSessionReq openReq = new TSOpenSessionReq(TSProtocolVersion.TSFILE_SERVICE_PROTOCOL_V1);
+    TSOpenSessionReq openReq = new TSOpenSessionReq(TSProtocolVersion.TSFILE_SERVICE_PROTOCOL_V2);
 
     openReq.setUsername(params.getUsername());
     openReq.setPassword(params.getPassword());
@@ -707,6 +707,8 @@ public class IoTDBQueryResultSet implements ResultSet {
         Utils.verifySuccess(resp.getStatus());
         if (!resp.hasResultSet) {
           emptyResultSet = true;
+        } else if (resp.isSetColumnarDataSet()) {
+          recordItr = new ColumnarRecordIterator(resp.getColumnarDataSet());
         } else {
           TSQueryDataSet tsQueryDataSet = resp.getQueryDataSet();
           List<RowRecord> records = Utils.convertRowRecords(tsQueryDataSet);
@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import org.apache.iotdb.service.rpc.thrift.TSColumnarDataSet;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.junit.Test;
+
+public class ColumnarRecordIteratorTest {
+
+  @Test
+  public void testDecodeColumns() {
+    TSColumnarDataSet dataSet = new TSColumnarDataSet();
+    dataSet.setRowCount(3);
+    ByteBuffer time = ByteBuffer.allocate(24);
+    time.putLong(100L).putLong(200L).putLong(300L).flip();
+    dataSet.setTime(time);
+    dataSet.setValueList(new ArrayList<>());
+    dataSet.setBitmapList(new ArrayList<>());
+    dataSet.setDataTypeList(new ArrayList<>());
+
+    // INT64 column, the value of the second row is null
+    ByteBuffer longValues = ByteBuffer.allocate(16);
+    longValues.putLong(9999999999L).putLong(-1L).flip();
+    dataSet.getValueList().add(longValues);
+    dataSet.getBitmapList().add(ByteBuffer.wrap(new byte[]{(byte) 0b10100000}));
+    dataSet.getDataTypeList().add(TSDataType.INT64.toString());
+
+    // TEXT column, only the second row has a value
+    byte[] text = "iotdb-jdbc".getBytes();
+    ByteBuffer textValues = ByteBuffer.allocate(4 + text.length);
+    textValues.putInt(text.length).put(text).flip();
+    dataSet.getValueList().add(textValues);
+    dataSet.getBitmapList().add(ByteBuffer.wrap(new byte[]{(byte) 0b01000000}));
+    dataSet.getDataTypeList().add(TSDataType.TEXT.toString());
+
+    ColumnarRecordIterator iterator = new ColumnarRecordIterator(dataSet);
+    assertTrue(iterator.hasNext());
+    RowRecord record = iterator.next();
+    assertEquals(100L, record.getTimestamp());
+    assertEquals(9999999999L, record.getFields().get(0).getLongV());
+    assertTrue(record.getFields().get(1).isNull());
+
+    record = iterator.next();
+    assertEquals(200L, record.getTimestamp());
+    assertTrue(record.getFields().get(0).isNull());
+    assertEquals("iotdb-jdbc", record.getFields().get(1).getStringValue());
+
+    record = iterator.next();
+    assertEquals(300L, record.getTimestamp());
+    assertEquals(-1L, record.getFields().get(0).getLongV());
+    assertTrue(record.getFields().get(1).isNull());
+    assertFalse(iterator.hasNext());
+  }
+}
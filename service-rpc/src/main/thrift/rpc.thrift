@@ -77,6 +77,8 @@ struct TSExecuteStatementResp {
 
 enum TSProtocolVersion {
   TSFILE_SERVICE_PROTOCOL_V1,
+  // query results are transferred by TSColumnarDataSet instead of TSQueryDataSet
+  TSFILE_SERVICE_PROTOCOL_V2,
 }
 
 // Client-side handle to persistent session information on the server-side.
@@ -139,6 +141,19 @@ struct TSExecuteBatchStatementResp{
 	2: optional list<i32> result
 }
 
+// Insert a batch of rows of one device without SQL. The values of each measurement are packed in
+// the same way as TSColumnarDataSet, and every row must have a value for every measurement.
+struct TSBatchInsertionReq{
+  1: required TS_SessionHandle sessionHandle
+  2: required string deviceId
+  3: required list<string> measurements
+  4: required list<string> dataTypes
+  5: required i32 rowCount
+  // the timestamps of all the rows, each one is a big-endian i64
+  6: required binary timestamps
+  7: required list<binary> values
+}
+
 struct TSExecuteBatchStatementReq{
   // The session to execute the statement against
   1: required TS_SessionHandle sessionHandle
@@ -200,6 +215,22 @@ struct TSQueryDataSet{
 	1: required list<TSRowRecord> records
 }
 
+// Column oriented query result, used since TSFILE_SERVICE_PROTOCOL_V2.
+// time: the timestamps of all the rows, each one is a big-endian i64
+// valueList: the non-null values of each column, packed in the order of rows. BOOLEAN takes
+// 1 byte, INT32 and FLOAT take 4 bytes, INT64 and DOUBLE take 8 bytes, and TEXT is an i32
+// length followed by the bytes
+// bitmapList: the null bitmap of each column, the bit (7 - i % 8) of byte i / 8 is set if the
+// value of row i is not null
+// dataTypeList: the name of TSDataType of each column
+struct TSColumnarDataSet{
+	1: required i32 rowCount
+	2: required binary time
+	3: required list<binary> valueList
+	4: required list<binary> bitmapList
+	5: required list<string> dataTypeList
+}
+
 struct TSFetchResultsReq{
 	1: required string statement
 	2: required i32 fetch_size
@@ -209,6 +240,7 @@ struct TSFetchResultsResp{
 	1: required TS_Status status
 	2: required bool hasResultSet
 	3: optional TSQueryDataSet queryDataSet
+	4: optional TSColumnarDataSet columnarDataSet
 }
 
 struct TSFetchMetadataResp{
@@ -259,6 +291,8 @@ service TSIService {
 
 	TSExecuteBatchStatementResp executeBatchStatement(1:TSExecuteBatchStatementReq req);
 
+	TSExecuteBatchStatementResp executeInsertBatch(1:TSBatchInsertionReq req);
+
 	TSExecuteStatementResp executeQueryStatement(1:TSExecuteStatementReq req);
 
 	TSExecuteStatementResp executeUpdateStatement(1:TSExecuteStatementReq req);
@@ -127,10 +127,14 @@ public class TSFileConfig {
    */
   public static double dftSatisfyRate = 0.1;
   /**
-   * Data compression method, TsFile supports UNCOMPRESSED or SNAPPY. Default value is UNCOMPRESSED
-   * which means no compression
+   * Data compression method, TsFile supports UNCOMPRESSED, SNAPPY, LZ4 or GZIP. Default value is
+   * UNCOMPRESSED which means no compression
    */
   public static String compressor = "UNCOMPRESSED";
+  /**
+   * Compression level of GZIP from 1 (fastest) to 9 (smallest). Default value is 6.
+   */
+  public static int gzipCompressionLevel = 6;
   /**
    * Line count threshold for checking page memory occupied size.
    */
@@ -134,6 +134,9 @@ public class TSFileDescriptor {
       TSFileConfig.valueEncoder = properties
           .getProperty("value_encoder", TSFileConfig.valueEncoder);
       TSFileConfig.compressor = properties.getProperty("compressor", TSFileConfig.compressor);
+      TSFileConfig.gzipCompressionLevel = Integer.parseInt(properties
+          .getProperty("gzip_compression_level",
+              Integer.toString(TSFileConfig.gzipCompressionLevel)));
     } catch (IOException e) {
       LOGGER.warn("Cannot load config file, use default configuration", e);
     } catch (Exception e) {
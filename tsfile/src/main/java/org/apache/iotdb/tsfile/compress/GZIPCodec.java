@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.compress;
+
+import java.io.IOException;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * GZIP compression with the Deflater and Inflater of the JDK. The data is a GZIP member with a
+ * fixed header, so that the uncompressed size can be read from the trailer.
+ */
+class GZIPCodec {
+
+  private static final int HEADER_SIZE = 10;
+  private static final int TRAILER_SIZE = 8;
+  private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0,
+      (byte) 0xff};
+
+  private GZIPCodec() {
+  }
+
+  static int maxCompressedLength(int length) {
+    // the bound of zlib plus the header and the trailer of GZIP
+    return length + (length >> 12) + (length >> 14) + (length >> 25) + 13 + HEADER_SIZE
+        + TRAILER_SIZE;
+  }
+
+  /**
+   * @return the size of the compressed data
+   */
+  static int compress(byte[] src, int srcOff, int srcLen, byte[] dest, int destOff, int level)
+      throws IOException {
+    System.arraycopy(HEADER, 0, dest, destOff, HEADER_SIZE);
+    int dOff = destOff + HEADER_SIZE;
+    Deflater deflater = new Deflater(level, true);
+    try {
+      deflater.setInput(src, srcOff, srcLen);
+      deflater.finish();
+      int trailerOff = dest.length - TRAILER_SIZE;
+      while (!deflater.finished()) {
+        if (dOff >= trailerOff) {
+          throw new IOException("The buffer is too small for the compressed data");
+        }
+        dOff += deflater.deflate(dest, dOff, trailerOff - dOff);
+      }
+    } finally {
+      deflater.end();
+    }
+    CRC32 crc32 = new CRC32();
+    crc32.update(src, srcOff, srcLen);
+    writeIntLE(dest, dOff, (int) crc32.getValue());
+    writeIntLE(dest, dOff + 4, srcLen);
+    return dOff + TRAILER_SIZE - destOff;
+  }
+
+  static int getUncompressedLength(byte[] src, int srcOff, int srcLen) throws IOException {
+    checkHeader(src, srcOff, srcLen);
+    return readIntLE(src, srcOff + srcLen - 4);
+  }
+
+  /**
+   * @return the size of the uncompressed data
+   */
+  static int uncompress(byte[] src, int srcOff, int srcLen, byte[] dest, int destOff)
+      throws IOException {
+    int length = getUncompressedLength(src, srcOff, srcLen);
+    if (length < 0 || destOff + length > dest.length) {
+      throw new IOException("The buffer is too small for the uncompressed data");
+    }
+    Inflater inflater = new Inflater(true);
+    try {
+      // the trailer is given as well since the Inflater without the zlib wrapper may need an
+      // extra byte after the compressed data
+      inflater.setInput(src, srcOff + HEADER_SIZE, srcLen - HEADER_SIZE);
+      int dOff = destOff;
+      int destEnd = destOff + length;
+      while (dOff < destEnd) {
+        int size = inflater.inflate(dest, dOff, destEnd - dOff);
+        if (size == 0 && (inflater.finished() || inflater.needsInput()
+            || inflater.needsDictionary())) {
+          throw new IOException(String.format("Malformed GZIP data, expected %d bytes but got %d",
+              length, dOff - destOff));
+        }
+        dOff += size;
+      }
+      CRC32 crc32 = new CRC32();
+      crc32.update(dest, destOff, length);
+      if ((int) crc32.getValue() != readIntLE(src, srcOff + srcLen - TRAILER_SIZE)) {
+        throw new IOException("Malformed GZIP data, the CRC does not match");
+      }
+    } catch (DataFormatException e) {
+      throw new IOException("Malformed GZIP data", e);
+    } finally {
+      inflater.end();
+    }
+    return length;
+  }
+
+  private static void checkHeader(byte[] src, int srcOff, int srcLen) throws IOException {
+    if (srcLen < HEADER_SIZE + TRAILER_SIZE || src[srcOff] != HEADER[0]
+        || src[srcOff + 1] != HEADER[1] || src[srcOff + 2] != HEADER[2]) {
+      throw new IOException("Malformed GZIP data, invalid header");
+    }
+    if (src[srcOff + 3] != 0) {
+      // the optional fields are never written
+      throw new IOException("Unsupported GZIP data with the optional fields");
+    }
+  }
+
+  private static void writeIntLE(byte[] buf, int off, int value) {
+    buf[off] = (byte) value;
+    buf[off + 1] = (byte) (value >>> 8);
+    buf[off + 2] = (byte) (value >>> 16);
+    buf[off + 3] = (byte) (value >>> 24);
+  }
+
+  private static int readIntLE(byte[] buf, int off) {
+    return (buf[off] & 0xFF) | ((buf[off + 1] & 0xFF) << 8) | ((buf[off + 2] & 0xFF) << 16)
+        | ((buf[off + 3] & 0xFF) << 24);
+  }
+}
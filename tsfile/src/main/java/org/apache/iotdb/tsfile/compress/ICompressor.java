@@ -22,8 +22,11 @@ package org.apache.iotdb.tsfile.compress;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.exception.compress.CompressionTypeNotSupportedException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.xerial.snappy.Snappy;
 
 /**
@@ -51,6 +54,10 @@ public interface ICompressor extends Serializable {
         return new NoCompressor();
       case SNAPPY:
         return new SnappyCompressor();
+      case LZ4:
+        return new LZ4Compressor();
+      case GZIP:
+        return new GZIPCompressor(TSFileConfig.gzipCompressionLevel);
       default:
         throw new CompressionTypeNotSupportedException(name.toString());
     }
@@ -140,4 +147,106 @@ public interface ICompressor extends Serializable {
       return CompressionType.SNAPPY;
     }
   }
+
+  /**
+   * A compressor working on byte arrays, the direct buffers are copied into arrays.
+   */
+  abstract class ArrayCompressor implements ICompressor {
+
+    @Override
+    public byte[] compress(byte[] data) throws IOException {
+      if (data == null) {
+        return new byte[0];
+      }
+      byte[] compressed = new byte[getMaxBytesForCompression(data.length)];
+      int size = compress(data, 0, data.length, compressed);
+      return Arrays.copyOf(compressed, size);
+    }
+
+    @Override
+    public int compress(ByteBuffer data, ByteBuffer compressed) throws IOException {
+      int size;
+      if (data.hasArray() && compressed.hasArray()) {
+        size = compress(data.array(), data.arrayOffset() + data.position(), data.remaining(),
+            compressed.array(), compressed.arrayOffset() + compressed.position());
+      } else {
+        byte[] input = new byte[data.remaining()];
+        data.duplicate().get(input);
+        byte[] output = new byte[getMaxBytesForCompression(input.length)];
+        size = compress(input, 0, input.length, output);
+        ByteBuffer duplicate = compressed.duplicate();
+        duplicate.put(output, 0, size);
+      }
+      compressed.limit(compressed.position() + size);
+      return size;
+    }
+
+    /**
+     * compress into the output array from the offset.
+     */
+    abstract int compress(byte[] data, int offset, int length, byte[] compressed,
+        int compressedOffset) throws IOException;
+
+    @Override
+    public int compress(byte[] data, int offset, int length, byte[] compressed)
+        throws IOException {
+      return compress(data, offset, length, compressed, 0);
+    }
+  }
+
+  /**
+   * LZ4 is as fast as Snappy and implemented in Java. The compressed data starts with the
+   * uncompressed size in 4 bytes, followed by an LZ4 block.
+   */
+  class LZ4Compressor extends ArrayCompressor {
+
+    @Override
+    int compress(byte[] data, int offset, int length, byte[] compressed, int compressedOffset) {
+      BytesUtils.intToBytes(length, compressed, compressedOffset);
+      return Integer.BYTES + LZ4Codec
+          .compress(data, offset, length, compressed, compressedOffset + Integer.BYTES);
+    }
+
+    @Override
+    public int getMaxBytesForCompression(int uncompressedDataSize) {
+      return Integer.BYTES + LZ4Codec.maxCompressedLength(uncompressedDataSize);
+    }
+
+    @Override
+    public CompressionType getType() {
+      return CompressionType.LZ4;
+    }
+  }
+
+  /**
+   * GZIP is slower than LZ4 and Snappy but has a higher compression ratio, which suits the data
+   * that is rarely read.
+   */
+  class GZIPCompressor extends ArrayCompressor {
+
+    private final int level;
+
+    /**
+     * @param level from 1 (fastest) to 9 (smallest)
+     */
+    public GZIPCompressor(int level) {
+      this.level = level;
+    }
+
+    @Override
+    int compress(byte[] data, int offset, int length, byte[] compressed, int compressedOffset)
+        throws IOException {
+      return GZIPCodec.compress(data, offset, length, compressed, compressedOffset, level);
+    }
+
+    @Override
+    public int getMaxBytesForCompression(int uncompressedDataSize) {
+      return GZIPCodec.maxCompressedLength(uncompressedDataSize);
+    }
+
+    @Override
+    public CompressionType getType() {
+      return CompressionType.GZIP;
+    }
+  }
 }
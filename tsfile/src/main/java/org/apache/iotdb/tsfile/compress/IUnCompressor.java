@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import org.apache.iotdb.tsfile.exception.compress.CompressionTypeNotSupportedException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xerial.snappy.Snappy;
@@ -47,6 +48,10 @@ public interface IUnCompressor {
         return new NoUnCompressor();
       case SNAPPY:
         return new SnappyUnCompressor();
+      case LZ4:
+        return new LZ4UnCompressor();
+      case GZIP:
+        return new GZIPUnCompressor();
       default:
         throw new CompressionTypeNotSupportedException(name.toString());
     }
@@ -85,10 +90,12 @@ public interface IUnCompressor {
       throws IOException;
 
   /**
-   * if the data is large, using this function is better.
+   * uncompress the remaining bytes of a buffer into another buffer without allocating new arrays.
+   * The buffers are either both direct or both backed by arrays, and the uncompressed buffer must
+   * have enough space remaining. The position of the uncompressed buffer is not changed and its
+   * limit is set to the end of the uncompressed data.
    *
-   * @param compressed MUST be DirectByteBuffer
-   * @param uncompressed MUST be DirectByteBuffer
+   * @return the size of the uncompressed data
    */
   int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException;
 
@@ -118,8 +125,13 @@ public interface IUnCompressor {
     }
 
     @Override
-    public int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
-      throw new IOException("NoUnCompressor does not support this method.");
+    public int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) {
+      int position = uncompressed.position();
+      int size = compressed.remaining();
+      uncompressed.put(compressed.duplicate());
+      uncompressed.limit(position + size);
+      uncompressed.position(position);
+      return size;
     }
 
     @Override
@@ -167,25 +179,125 @@ public interface IUnCompressor {
     }
 
     @Override
-    public int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) {
+    public int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
       if (compressed == null || !compressed.hasRemaining()) {
         return 0;
       }
+      if (compressed.isDirect()) {
+        return Snappy.uncompress(compressed, uncompressed);
+      }
+      int size = Snappy.uncompress(compressed.array(),
+          compressed.arrayOffset() + compressed.position(), compressed.remaining(),
+          uncompressed.array(), uncompressed.arrayOffset() + uncompressed.position());
+      uncompressed.limit(uncompressed.position() + size);
+      return size;
+    }
+
+    @Override
+    public CompressionType getCodecName() {
+      return CompressionType.SNAPPY;
+    }
+  }
+
+  /**
+   * An uncompressor working on byte arrays, the direct buffers are copied into arrays.
+   */
+  abstract class ArrayUnCompressor implements IUnCompressor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArrayUnCompressor.class);
 
+    @Override
+    public int getUncompressedLength(ByteBuffer buffer) throws IOException {
+      if (buffer.hasArray()) {
+        return getUncompressedLength(buffer.array(), buffer.arrayOffset() + buffer.position(),
+            buffer.remaining());
+      }
+      byte[] input = new byte[buffer.remaining()];
+      buffer.duplicate().get(input);
+      return getUncompressedLength(input, 0, input.length);
+    }
+
+    @Override
+    public byte[] uncompress(byte[] bytes) {
+      if (bytes == null) {
+        return new byte[0];
+      }
       try {
-        return Snappy.uncompress(compressed, uncompressed);
+        byte[] uncompressed = new byte[getUncompressedLength(bytes, 0, bytes.length)];
+        uncompress(bytes, 0, bytes.length, uncompressed, 0);
+        return uncompressed;
       } catch (IOException e) {
-        LOGGER.error(
-            "tsfile-compression SnappyUnCompressor: errors occurs when uncompress input byte, "
-                + "bytes is {}",
-            compressed.array(), e);
+        LOGGER.error("tsfile-compression {}: errors occurs when uncompress input byte",
+            getCodecName(), e);
+      }
+      return new byte[0];
+    }
+
+    @Override
+    public int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
+      if (compressed == null || !compressed.hasRemaining()) {
+        return 0;
+      }
+      int size;
+      if (compressed.hasArray() && uncompressed.hasArray()) {
+        size = uncompress(compressed.array(), compressed.arrayOffset() + compressed.position(),
+            compressed.remaining(), uncompressed.array(),
+            uncompressed.arrayOffset() + uncompressed.position());
+      } else {
+        byte[] input = new byte[compressed.remaining()];
+        compressed.duplicate().get(input);
+        byte[] output = new byte[getUncompressedLength(input, 0, input.length)];
+        size = uncompress(input, 0, input.length, output, 0);
+        uncompressed.duplicate().put(output, 0, size);
+      }
+      uncompressed.limit(uncompressed.position() + size);
+      return size;
+    }
+  }
+
+  class LZ4UnCompressor extends ArrayUnCompressor {
+
+    @Override
+    public int getUncompressedLength(byte[] array, int offset, int length) throws IOException {
+      if (length < Integer.BYTES) {
+        throw new IOException("Malformed LZ4 data, the uncompressed size is missing");
       }
-      return 0;
+      return BytesUtils.bytesToInt(array, offset);
+    }
+
+    @Override
+    public int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
+        throws IOException {
+      int size = getUncompressedLength(byteArray, offset, length);
+      if (size < 0 || outOffset + size > output.length) {
+        throw new IOException("The buffer is too small for the uncompressed data");
+      }
+      return LZ4Codec.decompress(byteArray, offset + Integer.BYTES, length - Integer.BYTES,
+          output, outOffset, size);
     }
 
     @Override
     public CompressionType getCodecName() {
-      return CompressionType.SNAPPY;
+      return CompressionType.LZ4;
+    }
+  }
+
+  class GZIPUnCompressor extends ArrayUnCompressor {
+
+    @Override
+    public int getUncompressedLength(byte[] array, int offset, int length) throws IOException {
+      return GZIPCodec.getUncompressedLength(array, offset, length);
+    }
+
+    @Override
+    public int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
+        throws IOException {
+      return GZIPCodec.uncompress(byteArray, offset, length, output, outOffset);
+    }
+
+    @Override
+    public CompressionType getCodecName() {
+      return CompressionType.GZIP;
     }
   }
 }
@@ -0,0 +1,217 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.compress;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A pure Java implementation of the LZ4 block format, which is fast for both compression and
+ * decompression. Each sequence is a token, the literals and a match of at least 4 bytes
+ * referenced by an offset within 64KB, and the last sequence only contains literals.
+ */
+class LZ4Codec {
+
+  private static final int MIN_MATCH = 4;
+  private static final int MAX_DISTANCE = 65535;
+  /**
+   * the last 5 bytes are always literals and a match can not start within the last 12 bytes.
+   */
+  private static final int LAST_LITERALS = 5;
+  private static final int MF_LIMIT = 12;
+  private static final int MIN_LENGTH = MF_LIMIT + 1;
+
+  private static final int RUN_MASK = 15;
+  private static final int HASH_LOG = 12;
+
+  /**
+   * the last positions of the hashed 4-byte sequences, which are reused by the thread.
+   */
+  private static final ThreadLocal<int[]> HASH_TABLES = ThreadLocal
+      .withInitial(() -> new int[1 << HASH_LOG]);
+
+  private LZ4Codec() {
+  }
+
+  static int maxCompressedLength(int length) {
+    return length + length / 255 + 16;
+  }
+
+  /**
+   * @return the size of the compressed data
+   */
+  static int compress(byte[] src, int srcOff, int srcLen, byte[] dest, int destOff) {
+    int srcEnd = srcOff + srcLen;
+    int matchLimit = srcEnd - LAST_LITERALS;
+    int mfLimit = srcEnd - MF_LIMIT;
+    int dOff = destOff;
+    int anchor = srcOff;
+
+    if (srcLen >= MIN_LENGTH) {
+      int[] hashTable = HASH_TABLES.get();
+      Arrays.fill(hashTable, -1);
+      int sOff = srcOff;
+      while (sOff < mfLimit) {
+        int sequence = readInt(src, sOff);
+        int hash = hash(sequence);
+        int ref = hashTable[hash];
+        hashTable[hash] = sOff;
+        if (ref < 0 || sOff - ref > MAX_DISTANCE || readInt(src, ref) != sequence) {
+          // skip faster in data which can not be compressed
+          sOff += 1 + ((sOff - anchor) >>> 6);
+          continue;
+        }
+
+        while (sOff > anchor && ref > srcOff && src[sOff - 1] == src[ref - 1]) {
+          sOff--;
+          ref--;
+        }
+        int matchLen = MIN_MATCH;
+        while (sOff + matchLen < matchLimit && src[ref + matchLen] == src[sOff + matchLen]) {
+          matchLen++;
+        }
+        int tokenOff = dOff;
+        dOff = writeSequence(src, anchor, sOff - anchor, dest, dOff);
+        dest[dOff++] = (byte) (sOff - ref);
+        dest[dOff++] = (byte) ((sOff - ref) >>> 8);
+        dOff = writeMatchLength(dest, tokenOff, dOff, matchLen - MIN_MATCH);
+        sOff += matchLen;
+        anchor = sOff;
+      }
+    }
+
+    dOff = writeSequence(src, anchor, srcEnd - anchor, dest, dOff);
+    return dOff - destOff;
+  }
+
+  /**
+   * write the token and the literals of a sequence, the match length in the token is filled later.
+   */
+  private static int writeSequence(byte[] src, int literalOff, int literalLen, byte[] dest,
+      int dOff) {
+    if (literalLen >= RUN_MASK) {
+      dest[dOff++] = (byte) (RUN_MASK << 4);
+      dOff = writeLength(dest, dOff, literalLen - RUN_MASK);
+    } else {
+      dest[dOff++] = (byte) (literalLen << 4);
+    }
+    System.arraycopy(src, literalOff, dest, dOff, literalLen);
+    return dOff + literalLen;
+  }
+
+  private static int writeMatchLength(byte[] dest, int tokenOff, int dOff, int matchLen) {
+    if (matchLen >= RUN_MASK) {
+      dest[tokenOff] |= RUN_MASK;
+      return writeLength(dest, dOff, matchLen - RUN_MASK);
+    }
+    dest[tokenOff] |= matchLen;
+    return dOff;
+  }
+
+  private static int writeLength(byte[] dest, int dOff, int length) {
+    while (length >= 0xFF) {
+      dest[dOff++] = (byte) 0xFF;
+      length -= 0xFF;
+    }
+    dest[dOff++] = (byte) length;
+    return dOff;
+  }
+
+  /**
+   * @return the size of the decompressed data, which must be exactly destLen
+   */
+  static int decompress(byte[] src, int srcOff, int srcLen, byte[] dest, int destOff,
+      int destLen) throws IOException {
+    int srcEnd = srcOff + srcLen;
+    int destEnd = destOff + destLen;
+    int sOff = srcOff;
+    int dOff = destOff;
+    while (true) {
+      checkRange(sOff, 1, srcEnd);
+      int token = src[sOff++] & 0xFF;
+
+      int literalLen = token >>> 4;
+      if (literalLen == RUN_MASK) {
+        int b;
+        do {
+          checkRange(sOff, 1, srcEnd);
+          b = src[sOff++] & 0xFF;
+          literalLen += b;
+        } while (b == 0xFF);
+      }
+      checkRange(sOff, literalLen, srcEnd);
+      checkRange(dOff, literalLen, destEnd);
+      System.arraycopy(src, sOff, dest, dOff, literalLen);
+      sOff += literalLen;
+      dOff += literalLen;
+      if (sOff == srcEnd) {
+        break;
+      }
+
+      checkRange(sOff, 2, srcEnd);
+      int offset = (src[sOff] & 0xFF) | ((src[sOff + 1] & 0xFF) << 8);
+      sOff += 2;
+      int ref = dOff - offset;
+      if (offset == 0 || ref < destOff) {
+        throw new IOException("Malformed LZ4 data, invalid offset " + offset);
+      }
+      int matchLen = token & RUN_MASK;
+      if (matchLen == RUN_MASK) {
+        int b;
+        do {
+          checkRange(sOff, 1, srcEnd);
+          b = src[sOff++] & 0xFF;
+          matchLen += b;
+        } while (b == 0xFF);
+      }
+      matchLen += MIN_MATCH;
+      checkRange(dOff, matchLen, destEnd);
+      if (offset >= matchLen) {
+        System.arraycopy(dest, ref, dest, dOff, matchLen);
+      } else {
+        // the match overlaps the bytes being copied
+        for (int i = 0; i < matchLen; i++) {
+          dest[dOff + i] = dest[ref + i];
+        }
+      }
+      dOff += matchLen;
+    }
+    if (dOff != destEnd) {
+      throw new IOException(
+          String.format("Malformed LZ4 data, expected %d bytes but got %d", destLen,
+              dOff - destOff));
+    }
+    return destLen;
+  }
+
+  private static void checkRange(int off, int length, int end) throws IOException {
+    if (length < 0 || off + length > end) {
+      throw new IOException("Malformed LZ4 data, reach the end of the buffer");
+    }
+  }
+
+  private static int readInt(byte[] buf, int off) {
+    return (buf[off] & 0xFF) | ((buf[off + 1] & 0xFF) << 8) | ((buf[off + 2] & 0xFF) << 16)
+        | ((buf[off + 3] & 0xFF) << 24);
+  }
+
+  private static int hash(int sequence) {
+    return (sequence * -1640531535) >>> (32 - HASH_LOG);
+  }
+}
@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.compress;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+
+/**
+ * The buffers of a thread into which the pages are uncompressed, so that reading a page does not
+ * allocate new arrays. An uncompressed page is only valid until the next page is uncompressed by
+ * the same thread, which is enough for a reader decoding a whole page at once.
+ */
+public class UnCompressBuffer {
+
+  /**
+   * a larger page is uncompressed into a new buffer, which is not kept by the thread.
+   */
+  private static final int MAX_REUSED_SIZE = 4 * 1024 * 1024;
+
+  private static final ThreadLocal<UnCompressBuffer> BUFFERS = ThreadLocal
+      .withInitial(UnCompressBuffer::new);
+
+  private ByteBuffer heapBuffer = ByteBuffer.allocate(0);
+  private ByteBuffer directBuffer = ByteBuffer.allocateDirect(0);
+
+  private UnCompressBuffer() {
+  }
+
+  /**
+   * uncompress a page from the current position of the input, whose position is moved to the end
+   * of the compressed page.
+   *
+   * @param compressedSize size of the compressed page
+   * @param uncompressedSize size of the uncompressed page
+   * @return the uncompressed page, which is a slice of the input if the page is not compressed, or
+   * a reused buffer of the current thread otherwise
+   */
+  public static ByteBuffer uncompress(IUnCompressor unCompressor, ByteBuffer input,
+      int compressedSize, int uncompressedSize) throws IOException {
+    ByteBuffer compressed = input.slice();
+    compressed.limit(compressedSize);
+    input.position(input.position() + compressedSize);
+    if (unCompressor.getCodecName() == CompressionType.UNCOMPRESSED) {
+      return compressed;
+    }
+
+    ByteBuffer uncompressed = BUFFERS.get().getBuffer(uncompressedSize, compressed.isDirect());
+    unCompressor.uncompress(compressed, uncompressed);
+    return uncompressed;
+  }
+
+  /**
+   * @param direct the buffer is direct, or backed by an array otherwise
+   * @return a cleared buffer of the size
+   */
+  private ByteBuffer getBuffer(int size, boolean direct) {
+    if (size > MAX_REUSED_SIZE) {
+      return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+    }
+    ByteBuffer buffer = direct ? directBuffer : heapBuffer;
+    if (buffer.capacity() < size) {
+      // grow exponentially so that the pages of growing sizes do not allocate each time
+      int capacity = Math.min(MAX_REUSED_SIZE, Math.max(size, buffer.capacity() * 2));
+      buffer = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+      if (direct) {
+        directBuffer = buffer;
+      } else {
+        heapBuffer = buffer;
+      }
+    }
+    buffer.clear();
+    buffer.limit(size);
+    return buffer;
+  }
+}
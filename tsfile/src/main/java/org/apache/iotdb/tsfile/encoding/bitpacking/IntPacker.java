@@ -152,17 +152,37 @@ public class IntPacker {
    * @param values decoded result.
    */
   public void unpackAllValues(byte[] buf, int length, int[] values) {
-    int idx = 0;
-    int k = 0;
-    while (idx < length) {
-      int[] tv = new int[8];
-      // decode 8 values one time, current result will be saved in the array named 'tv'
-      unpack8Values(buf, idx, tv);
-      for (int i = 0; i < 8; i++) {
-        values[k + i] = tv[i];
+    if (width > 0) {
+      // the values are packed 8 by 8, and each group takes 'width' bytes
+      unpackValues(buf, 0, values, 0, (length + width - 1) / width * NUM_OF_INTS);
+    }
+  }
+
+  /**
+   * decode Integers which are packed continuously, e.g. several groups of 8 values. Unlike {@link
+   * #unpack8Values}, the bits are streamed through a long buffer without resetting it for each
+   * group, so that a value is extracted by one shift and one mask.
+   *
+   * @param buf array where bytes are in.
+   * @param offset offset of the first byte to be decoded in buf.
+   * @param values decoded result.
+   * @param valueOffset index in 'values' where the first decoded value is saved.
+   * @param num number of values to be decoded.
+   */
+  public void unpackValues(byte[] buf, int offset, int[] values, int valueOffset, int num) {
+    int byteIdx = offset;
+    long buffer = 0;
+    // number of available bits in the lowest bits of 'buffer', which never exceeds 39
+    int totalBits = 0;
+    long mask = (1L << width) - 1;
+    int end = valueOffset + num;
+    for (int i = valueOffset; i < end; i++) {
+      while (totalBits < width) {
+        buffer = (buffer << 8) | (buf[byteIdx++] & 0xFF);
+        totalBits += 8;
       }
-      idx += width;
-      k += 8;
+      totalBits -= width;
+      values[i] = (int) ((buffer >>> totalBits) & mask);
     }
   }
 
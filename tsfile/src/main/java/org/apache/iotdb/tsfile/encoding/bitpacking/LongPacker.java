@@ -19,6 +19,8 @@
 
 package org.apache.iotdb.tsfile.encoding.bitpacking;
 
+import org.apache.iotdb.tsfile.utils.BytesUtils;
+
 /**
  * This class is used to encode(decode) Long in Java with specified bit-width. User need to
  * guarantee that the length of every given Long in binary mode is less than or equal to the
@@ -165,17 +167,43 @@ public class LongPacker {
    * @param values decoded result
    */
   public void unpackAllValues(byte[] buf, int length, long[] values) {
-    int idx = 0;
-    int k = 0;
-    while (idx < length) {
-      long[] tv = new long[8];
-      // decode 8 values one time, current result will be saved in the array named 'tv'
-      unpack8Values(buf, idx, tv);
-      for (int i = 0; i < 8; i++) {
-        values[k + i] = tv[i];
+    if (width > 0) {
+      // the values are packed 8 by 8, and each group takes 'width' bytes
+      unpackValues(buf, 0, values, 0, (length + width - 1) / width * 8);
+    }
+  }
+
+  /**
+   * decode Longs which are packed continuously, e.g. several groups of 8 values. The bits are
+   * streamed through a long buffer, so that a value is extracted by one shift and one mask.
+   *
+   * @param buf array where bytes are in.
+   * @param offset offset of the first byte to be decoded in buf.
+   * @param values decoded result.
+   * @param valueOffset index in 'values' where the first decoded value is saved.
+   * @param num number of values to be decoded.
+   */
+  public void unpackValues(byte[] buf, int offset, long[] values, int valueOffset, int num) {
+    int end = valueOffset + num;
+    if (width > 56) {
+      // the bits of a value may span 9 bytes, which can not be held by the buffer
+      for (int i = valueOffset; i < end; i++) {
+        values[i] = BytesUtils.bytesToLong(buf, offset * 8 + (i - valueOffset) * width, width);
+      }
+      return;
+    }
+    int byteIdx = offset;
+    long buffer = 0;
+    // number of available bits in the lowest bits of 'buffer', which never exceeds 63
+    int totalBits = 0;
+    long mask = (1L << width) - 1;
+    for (int i = valueOffset; i < end; i++) {
+      while (totalBits < width) {
+        buffer = (buffer << 8) | (buf[byteIdx++] & 0xFF);
+        totalBits += 8;
       }
-      idx += width;
-      k += 8;
+      totalBits -= width;
+      values[i] = (buffer >>> totalBits) & mask;
     }
   }
 
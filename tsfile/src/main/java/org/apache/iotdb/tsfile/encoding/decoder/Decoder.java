@@ -130,6 +130,64 @@ public abstract class Decoder {
     throw new TsFileDecodingException("Method readBigDecimal is not supproted by Decoder");
   }
 
+  /**
+   * read at most {@code length} values into {@code values} from {@code offset}. The decoders which
+   * decode a block of values at a time override it to copy the values in bulk, which is faster
+   * than calling {@link #readInt} repeatedly.
+   *
+   * @return number of values read, which is less than length only when there is no more value
+   */
+  public int readInts(ByteBuffer buffer, int[] values, int offset, int length)
+      throws IOException {
+    int num = 0;
+    while (num < length && hasNext(buffer)) {
+      values[offset + num++] = readInt(buffer);
+    }
+    return num;
+  }
+
+  /**
+   * read at most {@code length} values into {@code values} in bulk.
+   *
+   * @see #readInts(ByteBuffer, int[], int, int)
+   */
+  public int readLongs(ByteBuffer buffer, long[] values, int offset, int length)
+      throws IOException {
+    int num = 0;
+    while (num < length && hasNext(buffer)) {
+      values[offset + num++] = readLong(buffer);
+    }
+    return num;
+  }
+
+  /**
+   * read at most {@code length} values into {@code values} in bulk.
+   *
+   * @see #readInts(ByteBuffer, int[], int, int)
+   */
+  public int readFloats(ByteBuffer buffer, float[] values, int offset, int length)
+      throws IOException {
+    int num = 0;
+    while (num < length && hasNext(buffer)) {
+      values[offset + num++] = readFloat(buffer);
+    }
+    return num;
+  }
+
+  /**
+   * read at most {@code length} values into {@code values} in bulk.
+   *
+   * @see #readInts(ByteBuffer, int[], int, int)
+   */
+  public int readDoubles(ByteBuffer buffer, double[] values, int offset, int length)
+      throws IOException {
+    int num = 0;
+    while (num < length && hasNext(buffer)) {
+      values[offset + num++] = readDouble(buffer);
+    }
+    return num;
+  }
+
   public abstract boolean hasNext(ByteBuffer buffer) throws IOException;
 
   public abstract void reset();
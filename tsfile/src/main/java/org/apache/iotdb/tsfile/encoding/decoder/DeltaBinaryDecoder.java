@@ -21,9 +21,10 @@ package org.apache.iotdb.tsfile.encoding.decoder;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import org.apache.iotdb.tsfile.encoding.bitpacking.IntPacker;
+import org.apache.iotdb.tsfile.encoding.bitpacking.LongPacker;
 import org.apache.iotdb.tsfile.encoding.encoder.DeltaBinaryEncoder;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
-import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
 /**
@@ -65,8 +66,6 @@ public abstract class DeltaBinaryDecoder extends Decoder {
 
   protected abstract void allocateDataArray();
 
-  protected abstract void readValue(int i);
-
   /**
    * calculate the bytes length containing v bits.
    *
@@ -77,6 +76,18 @@ public abstract class DeltaBinaryDecoder extends Decoder {
     return (int) Math.ceil((double) (v) / 8.0);
   }
 
+  /**
+   * read the packed deltas of the next pack into {@code deltaBuf}, which is reused when it is
+   * large enough.
+   */
+  protected void readDeltaBuf(ByteBuffer buffer) {
+    encodingLength = ceil(packNum * packWidth);
+    if (deltaBuf == null || deltaBuf.length < encodingLength) {
+      deltaBuf = new byte[encodingLength];
+    }
+    buffer.get(deltaBuf, 0, encodingLength);
+  }
+
   @Override
   public boolean hasNext(ByteBuffer buffer) throws IOException {
     return (nextReadIndex < readIntTotalCount) || buffer.remaining() > 0;
@@ -86,7 +97,7 @@ public abstract class DeltaBinaryDecoder extends Decoder {
 
     private int firstValue;
     private int[] data;
-    private int previous;
+    private IntPacker packer = new IntPacker(0);
     /**
      * minimum value for all difference.
      */
@@ -114,6 +125,25 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       return readT(buffer);
     }
 
+    @Override
+    public int readInts(ByteBuffer buffer, int[] values, int offset, int length) {
+      int num = 0;
+      while (num < length) {
+        if (nextReadIndex == readIntTotalCount) {
+          if (!buffer.hasRemaining()) {
+            break;
+          }
+          values[offset + num++] = loadIntBatch(buffer);
+        } else {
+          int copyNum = Math.min(length - num, readIntTotalCount - nextReadIndex);
+          System.arraycopy(data, nextReadIndex, values, offset + num, copyNum);
+          nextReadIndex += copyNum;
+          num += copyNum;
+        }
+      }
+      return num;
+    }
+
     /**
      * if remaining data has been run out, load next pack from InputStream.
      *
@@ -126,12 +156,9 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       count++;
       readHeader(buffer);
 
-      encodingLength = ceil(packNum * packWidth);
-      deltaBuf = new byte[encodingLength];
-      buffer.get(deltaBuf);
+      readDeltaBuf(buffer);
       allocateDataArray();
 
-      previous = firstValue;
       readIntTotalCount = packNum;
       nextReadIndex = 0;
       readPack();
@@ -139,9 +166,12 @@ public abstract class DeltaBinaryDecoder extends Decoder {
     }
 
     private void readPack() {
+      packer.setWidth(packWidth);
+      packer.unpackValues(deltaBuf, 0, data, 0, packNum);
+      int previous = firstValue;
       for (int i = 0; i < packNum; i++) {
-        readValue(i);
-        previous = data[i];
+        previous += minDeltaBase + data[i];
+        data[i] = previous;
       }
     }
 
@@ -153,13 +183,9 @@ public abstract class DeltaBinaryDecoder extends Decoder {
 
     @Override
     protected void allocateDataArray() {
-      data = new int[packNum];
-    }
-
-    @Override
-    protected void readValue(int i) {
-      int v = BytesUtils.bytesToInt(deltaBuf, packWidth * i, packWidth);
-      data[i] = previous + minDeltaBase + v;
+      if (data == null || data.length < packNum) {
+        data = new int[packNum];
+      }
     }
 
     @Override
@@ -172,7 +198,7 @@ public abstract class DeltaBinaryDecoder extends Decoder {
 
     private long firstValue;
     private long[] data;
-    private long previous;
+    private LongPacker packer = new LongPacker(0);
     /**
      * minimum value for all difference.
      */
@@ -207,12 +233,9 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       count++;
       readHeader(buffer);
 
-      encodingLength = ceil(packNum * packWidth);
-      deltaBuf = new byte[encodingLength];
-      buffer.get(deltaBuf);
+      readDeltaBuf(buffer);
       allocateDataArray();
 
-      previous = firstValue;
       readIntTotalCount = packNum;
       nextReadIndex = 0;
       readPack();
@@ -220,9 +243,12 @@ public abstract class DeltaBinaryDecoder extends Decoder {
     }
 
     private void readPack() {
+      packer.setWidth(packWidth);
+      packer.unpackValues(deltaBuf, 0, data, 0, packNum);
+      long previous = firstValue;
       for (int i = 0; i < packNum; i++) {
-        readValue(i);
-        previous = data[i];
+        previous += minDeltaBase + data[i];
+        data[i] = previous;
       }
     }
 
@@ -231,6 +257,25 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       return readT(buffer);
     }
 
+    @Override
+    public int readLongs(ByteBuffer buffer, long[] values, int offset, int length) {
+      int num = 0;
+      while (num < length) {
+        if (nextReadIndex == readIntTotalCount) {
+          if (!buffer.hasRemaining()) {
+            break;
+          }
+          values[offset + num++] = loadIntBatch(buffer);
+        } else {
+          int copyNum = Math.min(length - num, readIntTotalCount - nextReadIndex);
+          System.arraycopy(data, nextReadIndex, values, offset + num, copyNum);
+          nextReadIndex += copyNum;
+          num += copyNum;
+        }
+      }
+      return num;
+    }
+
     @Override
     protected void readHeader(ByteBuffer buffer) {
       minDeltaBase = ReadWriteIOUtils.readLong(buffer);
@@ -239,13 +284,9 @@ public abstract class DeltaBinaryDecoder extends Decoder {
 
     @Override
     protected void allocateDataArray() {
-      data = new long[packNum];
-    }
-
-    @Override
-    protected void readValue(int i) {
-      long v = BytesUtils.bytesToLong(deltaBuf, packWidth * i, packWidth);
-      data[i] = previous + minDeltaBase + v;
+      if (data == null || data.length < packNum) {
+        data = new long[packNum];
+      }
     }
 
     @Override
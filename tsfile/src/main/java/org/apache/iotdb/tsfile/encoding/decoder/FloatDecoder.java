@@ -50,6 +50,12 @@ public class FloatDecoder extends Decoder {
    */
   private boolean isMaxPointNumberRead;
 
+  /**
+   * buffer of the values decoded by {@code decoder} in bulk, before they are scaled.
+   */
+  private int[] intBuffer = new int[0];
+  private long[] longBuffer = new long[0];
+
   public FloatDecoder(TSEncoding encodingType, TSDataType dataType) {
     super(encodingType);
     if (encodingType == TSEncoding.RLE) {
@@ -96,6 +102,40 @@ public class FloatDecoder extends Decoder {
     return value / maxPointValue;
   }
 
+  @Override
+  public int readFloats(ByteBuffer buffer, float[] values, int offset, int length)
+      throws IOException {
+    if (!hasNext(buffer)) {
+      return 0;
+    }
+    readMaxPointValue(buffer);
+    if (intBuffer.length < length) {
+      intBuffer = new int[length];
+    }
+    int num = decoder.readInts(buffer, intBuffer, 0, length);
+    for (int i = 0; i < num; i++) {
+      values[offset + i] = (float) (intBuffer[i] / maxPointValue);
+    }
+    return num;
+  }
+
+  @Override
+  public int readDoubles(ByteBuffer buffer, double[] values, int offset, int length)
+      throws IOException {
+    if (!hasNext(buffer)) {
+      return 0;
+    }
+    readMaxPointValue(buffer);
+    if (longBuffer.length < length) {
+      longBuffer = new long[length];
+    }
+    int num = decoder.readLongs(buffer, longBuffer, 0, length);
+    for (int i = 0; i < num; i++) {
+      values[offset + i] = longBuffer[i] / maxPointValue;
+    }
+    return num;
+  }
+
   private void readMaxPointValue(ByteBuffer buffer) {
     if (!isMaxPointNumberRead) {
       int maxPointNumber = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
@@ -21,6 +21,7 @@ package org.apache.iotdb.tsfile.encoding.decoder;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.encoding.bitpacking.LongPacker;
 import org.apache.iotdb.tsfile.encoding.common.EndianType;
@@ -99,6 +100,38 @@ public class LongRleDecoder extends RleDecoder {
     return result;
   }
 
+  /**
+   * read values a rle run or a bit-packing group at a time, i.e., a run is filled and a group is
+   * copied instead of being returned value by value.
+   */
+  @Override
+  public int readLongs(ByteBuffer buffer, long[] values, int offset, int length)
+      throws IOException {
+    int num = 0;
+    while (num < length && hasNext(buffer)) {
+      if (!isLengthAndBitWidthReaded) {
+        // start to read a new rle+bit-packing pattern
+        readLengthAndBitWidth(buffer);
+      }
+      if (currentCount == 0) {
+        readNext();
+      }
+      int readNum = Math.min(length - num, currentCount);
+      if (mode == Mode.RLE) {
+        Arrays.fill(values, offset + num, offset + num + readNum, currentValue);
+      } else {
+        System.arraycopy(currentBuffer, bitPackingNum - currentCount, values, offset + num,
+            readNum);
+      }
+      currentCount -= readNum;
+      num += readNum;
+      if (!hasNextPackage()) {
+        isLengthAndBitWidthReaded = false;
+      }
+    }
+    return num;
+  }
+
   @Override
   protected void initPacker() {
     packer = new LongPacker(bitWidth);
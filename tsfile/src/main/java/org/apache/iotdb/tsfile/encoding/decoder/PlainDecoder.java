@@ -22,6 +22,7 @@ package org.apache.iotdb.tsfile.encoding.decoder;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import org.apache.iotdb.tsfile.encoding.common.EndianType;
 import org.apache.iotdb.tsfile.exception.encoding.TsFileDecodingException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
@@ -109,6 +110,54 @@ public class PlainDecoder extends Decoder {
     return Double.longBitsToDouble(readLong(buffer));
   }
 
+  /**
+   * the values have a fixed size, so they are read through a view of the buffer in bulk.
+   */
+  @Override
+  public int readInts(ByteBuffer buffer, int[] values, int offset, int length) throws IOException {
+    if (endianType != EndianType.LITTLE_ENDIAN) {
+      return super.readInts(buffer, values, offset, length);
+    }
+    int num = Math.min(length, buffer.remaining() / Integer.BYTES);
+    littleEndianView(buffer).asIntBuffer().get(values, offset, num);
+    buffer.position(buffer.position() + num * Integer.BYTES);
+    return num;
+  }
+
+  @Override
+  public int readLongs(ByteBuffer buffer, long[] values, int offset, int length)
+      throws IOException {
+    int num = Math.min(length, buffer.remaining() / Long.BYTES);
+    littleEndianView(buffer).asLongBuffer().get(values, offset, num);
+    buffer.position(buffer.position() + num * Long.BYTES);
+    return num;
+  }
+
+  @Override
+  public int readFloats(ByteBuffer buffer, float[] values, int offset, int length)
+      throws IOException {
+    if (endianType != EndianType.LITTLE_ENDIAN) {
+      return super.readFloats(buffer, values, offset, length);
+    }
+    int num = Math.min(length, buffer.remaining() / Float.BYTES);
+    littleEndianView(buffer).asFloatBuffer().get(values, offset, num);
+    buffer.position(buffer.position() + num * Float.BYTES);
+    return num;
+  }
+
+  @Override
+  public int readDoubles(ByteBuffer buffer, double[] values, int offset, int length)
+      throws IOException {
+    int num = Math.min(length, buffer.remaining() / Double.BYTES);
+    littleEndianView(buffer).asDoubleBuffer().get(values, offset, num);
+    buffer.position(buffer.position() + num * Double.BYTES);
+    return num;
+  }
+
+  private ByteBuffer littleEndianView(ByteBuffer buffer) {
+    return buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+  }
+
   @Override
   public Binary readBinary(ByteBuffer buffer) {
     int length = readInt(buffer);
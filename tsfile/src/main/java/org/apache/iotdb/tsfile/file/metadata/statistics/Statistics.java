@@ -23,7 +23,10 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
+import java.util.Map;
+import org.apache.iotdb.tsfile.common.constant.StatisticConstant;
 import org.apache.iotdb.tsfile.exception.write.UnknownColumnTypeException;
+import org.apache.iotdb.tsfile.file.metadata.TsDigest;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.reader.TsFileInput;
 import org.apache.iotdb.tsfile.utils.Binary;
@@ -93,6 +96,43 @@ public abstract class Statistics<T> {
     return statistics;
   }
 
+  /**
+   * rebuild statistics from the digest of a chunk, which keeps the same fields as statistics.
+   *
+   * @param digest digest in ChunkMetaData
+   * @param dataType data type of the chunk
+   * @return Statistics, null if the digest does not contain all the fields
+   */
+  public static Statistics deserialize(TsDigest digest, TSDataType dataType) throws IOException {
+    Map<String, ByteBuffer> digestMap = digest.getStatistics();
+    if (digestMap == null) {
+      return null;
+    }
+    ByteBuffer min = digestMap.get(StatisticConstant.MIN_VALUE);
+    ByteBuffer max = digestMap.get(StatisticConstant.MAX_VALUE);
+    ByteBuffer first = digestMap.get(StatisticConstant.FIRST);
+    ByteBuffer last = digestMap.get(StatisticConstant.LAST);
+    ByteBuffer sum = digestMap.get(StatisticConstant.SUM);
+    if (min == null || max == null || first == null || last == null || sum == null) {
+      return null;
+    }
+
+    // reorganize the fields as the serialized format of statistics
+    boolean withLength = dataType == TSDataType.TEXT;
+    ByteBuffer buffer = ByteBuffer.allocate(
+        4 * Integer.BYTES + min.remaining() + max.remaining() + first.remaining() + last
+            .remaining() + sum.remaining());
+    for (ByteBuffer field : new ByteBuffer[]{min, max, first, last}) {
+      if (withLength) {
+        buffer.putInt(field.remaining());
+      }
+      buffer.put(field.duplicate());
+    }
+    buffer.put(sum.duplicate());
+    buffer.flip();
+    return deserialize(buffer, dataType);
+  }
+
   public abstract void setMinMaxFromBytes(byte[] minBytes, byte[] maxBytes);
 
   public abstract T getMin();
@@ -93,6 +93,18 @@ public class TsFileSequenceReader implements AutoCloseable{
     }
   }
 
+  /**
+   * Create a file reader of the given file, which is read through the given input, e.g. a
+   * {@link org.apache.iotdb.tsfile.read.reader.MappedTsFileInput}.
+   *
+   * @param file the data file
+   * @param input the input of the data file
+   */
+  public TsFileSequenceReader(String file, TsFileInput input) throws IOException {
+    this(input, true);
+    this.file = file;
+  }
+
   /**
    * Create a file reader of the given file. The reader will read the tail of the file to get the
    * file metadata size.Then the reader will skip the first TSFileConfig.MAGIC_STRING.length() bytes
@@ -378,18 +390,20 @@ public class TsFileSequenceReader implements AutoCloseable{
   private ByteBuffer readPage(PageHeader header, CompressionType type, long position)
       throws IOException {
     ByteBuffer buffer = readData(position, header.getCompressedSize());
+    if (type == CompressionType.UNCOMPRESSED) {
+      return buffer;
+    }
+    // the page is returned to the caller, so it is not uncompressed into a reused buffer
     IUnCompressor unCompressor = IUnCompressor.getUnCompressor(type);
     ByteBuffer uncompressedBuffer = ByteBuffer.allocate(header.getUncompressedSize());
-    switch (type) {
-      case UNCOMPRESSED:
-        return buffer;
-      default:
-        // FIXME if the buffer is not array-implemented.
-        unCompressor.uncompress(buffer.array(), buffer.position(), buffer.remaining(),
-            uncompressedBuffer.array(),
-            0);
-        return uncompressedBuffer;
+    if (!buffer.hasArray()) {
+      // e.g. a slice of a memory-mapped file
+      byte[] compressed = new byte[buffer.remaining()];
+      buffer.get(compressed);
+      buffer = ByteBuffer.wrap(compressed);
     }
+    unCompressor.uncompress(buffer, uncompressedBuffer);
+    return uncompressedBuffer;
   }
 
   /**
@@ -432,18 +446,13 @@ public class TsFileSequenceReader implements AutoCloseable{
    * @return data that been read.
    */
   private ByteBuffer readData(long position, int size) throws IOException {
-    ByteBuffer buffer = ByteBuffer.allocate(size);
     if (position == -1) {
-      if (ReadWriteIOUtils.readAsPossible(tsFileInput, buffer) != size) {
-        throw new IOException("reach the end of the data");
-      }
-    } else {
-      if (ReadWriteIOUtils.readAsPossible(tsFileInput, buffer, position, size) != size) {
-        throw new IOException("reach the end of the data");
-      }
+      long currentPosition = tsFileInput.position();
+      ByteBuffer buffer = tsFileInput.readBuffer(currentPosition, size);
+      tsFileInput.position(currentPosition + size);
+      return buffer;
     }
-    buffer.flip();
-    return buffer;
+    return tsFileInput.readBuffer(position, size);
   }
 
   /**
@@ -120,6 +120,44 @@ public class BatchData {
     }
   }
 
+  /**
+   * move the cursor forward to the first point whose time is not less than the given time. The
+   * points are sorted by time, so the point is found by galloping from the cursor, i.e. the step
+   * doubles until the time is passed, followed by a binary search in the last step.
+   *
+   * @param time the time to find
+   * @return false if all the remaining points are before the time
+   */
+  public boolean skipTo(long time) {
+    if (curIdx >= timeLength || getTimeByIndex(curIdx) >= time) {
+      return curIdx < timeLength;
+    }
+    // getTimeByIndex(low) < time <= getTimeByIndex(high) if high < timeLength
+    int low = curIdx;
+    int step = 1;
+    int high = low + step;
+    while (high < timeLength && getTimeByIndex(high) < time) {
+      low = high;
+      step <<= 1;
+      high = low + step;
+    }
+    high = Math.min(high, timeLength);
+    while (high - low > 1) {
+      int mid = (low + high) >>> 1;
+      if (getTimeByIndex(mid) < time) {
+        low = mid;
+      } else {
+        high = mid;
+      }
+    }
+    curIdx = high;
+    return curIdx < timeLength;
+  }
+
+  private long getTimeByIndex(int idx) {
+    return timeRet.get(idx / timeCapacity)[idx % timeCapacity];
+  }
+
   public TSDataType getDataType() {
     return dataType;
   }
@@ -204,6 +242,29 @@ public class BatchData {
     timeLength++;
   }
 
+  /**
+   * put timestamps in bulk.
+   *
+   * @param v array of the timestamps
+   * @param offset index of the first one to put in the array
+   * @param length number of the timestamps to put
+   */
+  public void putTimes(long[] v, int offset, int length) {
+    int end = offset + length;
+    while (offset < end) {
+      if (curTimeIdx == timeCapacity) {
+        // let putTime() allocate the space
+        putTime(v[offset++]);
+      } else {
+        int num = Math.min(end - offset, timeCapacity - curTimeIdx);
+        System.arraycopy(v, offset, timeRet.get(timeArrayIdx), curTimeIdx, num);
+        curTimeIdx += num;
+        timeLength += num;
+        offset += num;
+      }
+    }
+  }
+
   /**
    * put boolean data.
    *
@@ -252,6 +313,29 @@ public class BatchData {
     valueLength++;
   }
 
+  /**
+   * put int data in bulk.
+   *
+   * @param v array of the int data
+   * @param offset index of the first one to put in the array
+   * @param length number of the int data to put
+   */
+  public void putInts(int[] v, int offset, int length) {
+    int end = offset + length;
+    while (offset < end) {
+      if (curValueIdx == valueCapacity) {
+        // let putInt() allocate the space
+        putInt(v[offset++]);
+      } else {
+        int num = Math.min(end - offset, valueCapacity - curValueIdx);
+        System.arraycopy(v, offset, intRet.get(valueArrayIdx), curValueIdx, num);
+        curValueIdx += num;
+        valueLength += num;
+        offset += num;
+      }
+    }
+  }
+
   /**
    * put long data.
    *
@@ -276,6 +360,29 @@ public class BatchData {
     valueLength++;
   }
 
+  /**
+   * put long data in bulk.
+   *
+   * @param v array of the long data
+   * @param offset index of the first one to put in the array
+   * @param length number of the long data to put
+   */
+  public void putLongs(long[] v, int offset, int length) {
+    int end = offset + length;
+    while (offset < end) {
+      if (curValueIdx == valueCapacity) {
+        // let putLong() allocate the space
+        putLong(v[offset++]);
+      } else {
+        int num = Math.min(end - offset, valueCapacity - curValueIdx);
+        System.arraycopy(v, offset, longRet.get(valueArrayIdx), curValueIdx, num);
+        curValueIdx += num;
+        valueLength += num;
+        offset += num;
+      }
+    }
+  }
+
   /**
    * put float data.
    *
@@ -300,6 +407,29 @@ public class BatchData {
     valueLength++;
   }
 
+  /**
+   * put float data in bulk.
+   *
+   * @param v array of the float data
+   * @param offset index of the first one to put in the array
+   * @param length number of the float data to put
+   */
+  public void putFloats(float[] v, int offset, int length) {
+    int end = offset + length;
+    while (offset < end) {
+      if (curValueIdx == valueCapacity) {
+        // let putFloat() allocate the space
+        putFloat(v[offset++]);
+      } else {
+        int num = Math.min(end - offset, valueCapacity - curValueIdx);
+        System.arraycopy(v, offset, floatRet.get(valueArrayIdx), curValueIdx, num);
+        curValueIdx += num;
+        valueLength += num;
+        offset += num;
+      }
+    }
+  }
+
   /**
    * put double data.
    *
@@ -324,6 +454,29 @@ public class BatchData {
     valueLength++;
   }
 
+  /**
+   * put double data in bulk.
+   *
+   * @param v array of the double data
+   * @param offset index of the first one to put in the array
+   * @param length number of the double data to put
+   */
+  public void putDoubles(double[] v, int offset, int length) {
+    int end = offset + length;
+    while (offset < end) {
+      if (curValueIdx == valueCapacity) {
+        // let putDouble() allocate the space
+        putDouble(v[offset++]);
+      } else {
+        int num = Math.min(end - offset, valueCapacity - curValueIdx);
+        System.arraycopy(v, offset, doubleRet.get(valueArrayIdx), curValueIdx, num);
+        curValueIdx += num;
+        valueLength += num;
+        offset += num;
+      }
+    }
+  }
+
   /**
    * put binary data.
    *
@@ -53,4 +53,15 @@ public interface Filter {
    *            end time of a page, series or device
    */
   boolean satisfyStartEndTime(long startTime, long endTime);
+
+  /**
+   * To examine whether all the time in [startTime, endTime] are satisfied with the filter. Filters
+   * on value always return false since the values are unknown.
+   *
+   * @param startTime
+   *            start time of a page, series or device
+   * @param endTime
+   *            end time of a page, series or device
+   */
+  boolean containStartEndTime(long startTime, long endTime);
 }
@@ -64,6 +64,16 @@ public class Gt<T extends Comparable<T>> extends UnaryFilter<T> {
     }
   }
 
+  @Override
+  public boolean containStartEndTime(long startTime, long endTime) {
+    if (filterType == FilterType.TIME_FILTER) {
+      long time = (Long) value;
+      return time < startTime;
+    } else {
+      return false;
+    }
+  }
+
   @Override
   public String toString() {
     return getFilterType() + " > " + value;
@@ -63,6 +63,16 @@ public class Lt<T extends Comparable<T>> extends UnaryFilter<T> {
     }
   }
 
+  @Override
+  public boolean containStartEndTime(long startTime, long endTime) {
+    if (filterType == FilterType.TIME_FILTER) {
+      long time = (Long) value;
+      return time > endTime;
+    } else {
+      return false;
+    }
+  }
+
   @Override
   public String toString() {
     return getFilterType() + " < " + value;
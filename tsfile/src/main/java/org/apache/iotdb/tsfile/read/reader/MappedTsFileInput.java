@@ -0,0 +1,193 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A TsFileInput of a sealed TsFile, which is not modified any more, backed by memory-mapped
+ * windows of the file. The windows are mapped lazily and unmapped when the input is closed.
+ *
+ * <p>
+ * The buffers returned by {@link #readBuffer(long, int)} are slices of the windows instead of
+ * copies, so they must not be used after the input is closed. A read crossing the boundary of two
+ * windows falls back to reading the file channel.
+ * </p>
+ */
+public class MappedTsFileInput extends DefaultTsFileInput {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MappedTsFileInput.class);
+
+  public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+  private static final Unmapper UNMAPPER = Unmapper.create();
+
+  private final long fileSize;
+  private final int windowSize;
+  private final AtomicReferenceArray<MappedByteBuffer> windows;
+  private volatile boolean closed = false;
+
+  public MappedTsFileInput(Path file) throws IOException {
+    this(file, DEFAULT_WINDOW_SIZE);
+  }
+
+  /**
+   * @param windowSize the max size in byte of a mapped window of the file
+   */
+  public MappedTsFileInput(Path file, int windowSize) throws IOException {
+    super(file);
+    this.fileSize = channel.size();
+    this.windowSize = windowSize;
+    this.windows = new AtomicReferenceArray<>((int) ((fileSize + windowSize - 1) / windowSize));
+  }
+
+  @Override
+  public long size() {
+    return fileSize;
+  }
+
+  @Override
+  public int read(ByteBuffer dst, long position) throws IOException {
+    if (position >= fileSize) {
+      return -1;
+    }
+    int size = (int) Math.min(dst.remaining(), fileSize - position);
+    ByteBuffer slice = slice(position, size);
+    if (slice == null) {
+      return super.read(dst, position);
+    }
+    dst.put(slice);
+    return size;
+  }
+
+  @Override
+  public ByteBuffer readBuffer(long position, int size) throws IOException {
+    if (position + size > fileSize) {
+      throw new IOException("reach the end of the data");
+    }
+    ByteBuffer slice = slice(position, size);
+    return slice != null ? slice : super.readBuffer(position, size);
+  }
+
+  /**
+   * @return null if the range crosses the boundary of two windows
+   */
+  private ByteBuffer slice(long position, int size) throws IOException {
+    if (size == 0) {
+      return ByteBuffer.allocate(0);
+    }
+    int index = (int) (position / windowSize);
+    int offset = (int) (position % windowSize);
+    if (offset + size > windowSize) {
+      return null;
+    }
+    // the shared window is duplicated so that its position is never modified
+    ByteBuffer slice = getWindow(index).duplicate();
+    slice.position(offset);
+    slice.limit(offset + size);
+    return slice.slice();
+  }
+
+  private MappedByteBuffer getWindow(int index) throws IOException {
+    MappedByteBuffer window = windows.get(index);
+    if (window != null) {
+      return window;
+    }
+    synchronized (this) {
+      if (closed) {
+        throw new IOException("the input has been closed");
+      }
+      window = windows.get(index);
+      if (window == null) {
+        long start = (long) index * windowSize;
+        window = channel.map(MapMode.READ_ONLY, start, Math.min(windowSize, fileSize - start));
+        windows.set(index, window);
+      }
+      return window;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (this) {
+      closed = true;
+      for (int i = 0; i < windows.length(); i++) {
+        MappedByteBuffer window = windows.getAndSet(i, null);
+        if (window != null) {
+          UNMAPPER.unmap(window);
+        }
+      }
+    }
+    super.close();
+  }
+
+  /**
+   * releases a mapped buffer explicitly instead of waiting for the GC, which is done by
+   * sun.misc.Unsafe#invokeCleaner since Java 9, or by the cleaner of the buffer in Java 8.
+   */
+  private static class Unmapper {
+
+    private final Object unsafe;
+    private final Method invokeCleaner;
+
+    private Unmapper(Object unsafe, Method invokeCleaner) {
+      this.unsafe = unsafe;
+      this.invokeCleaner = invokeCleaner;
+    }
+
+    private static Unmapper create() {
+      try {
+        Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+        Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        return new Unmapper(theUnsafe.get(null), invokeCleaner);
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        // Java 8
+        return new Unmapper(null, null);
+      }
+    }
+
+    private void unmap(MappedByteBuffer buffer) {
+      try {
+        if (invokeCleaner != null) {
+          invokeCleaner.invoke(unsafe, buffer);
+        } else {
+          Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+          cleanerMethod.setAccessible(true);
+          Object cleaner = cleanerMethod.invoke(buffer);
+          if (cleaner != null) {
+            cleaner.getClass().getMethod("clean").invoke(cleaner);
+          }
+        }
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        LOGGER.warn("Cannot unmap the buffer, which is left to the GC", e);
+      }
+    }
+  }
+}
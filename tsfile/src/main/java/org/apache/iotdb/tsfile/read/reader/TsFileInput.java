@@ -26,6 +26,7 @@ import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
 public interface TsFileInput {
 
@@ -103,6 +104,29 @@ public interface TsFileInput {
    */
   int read(ByteBuffer dst, long position) throws IOException;
 
+  /**
+   * Reads the given number of bytes starting at the given position into a flipped buffer. This
+   * method does not modify this TsFileInput's position.
+   *
+   * <p>
+   * The returned buffer is a copy by default, while an implementation may return a view of its
+   * own memory, e.g. a slice of a memory-mapped file, which must not be used after the TsFileInput
+   * is closed.
+   * </p>
+   *
+   * @param position The position at which the transfer is to begin; must be non-negative
+   * @param size The number of bytes to read
+   * @throws IOException If the input ends before the given number of bytes are read
+   */
+  default ByteBuffer readBuffer(long position, int size) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    if (ReadWriteIOUtils.readAsPossible(this, buffer, position, size) != size) {
+      throw new IOException("reach the end of the data");
+    }
+    buffer.flip();
+    return buffer;
+  }
+
   /**
    * read a byte from the Input.
    */
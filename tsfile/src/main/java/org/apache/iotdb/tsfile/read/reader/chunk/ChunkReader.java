@@ -20,9 +20,9 @@ package org.apache.iotdb.tsfile.read.reader.chunk;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.compress.UnCompressBuffer;
 import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
@@ -48,6 +48,11 @@ public abstract class ChunkReader {
 
   private BatchData data;
 
+  /**
+   * header of the next satisfied page, which has been read but whose data has not been consumed.
+   */
+  private PageHeader nextPageHeader;
+
   /**
    * Data whose timestamp <= deletedAt should be considered deleted(not be returned).
    */
@@ -75,7 +80,7 @@ public abstract class ChunkReader {
   }
 
   public boolean hasNextBatch() {
-    return chunkDataBuffer.remaining() > 0;
+    return nextPageHeader != null || chunkDataBuffer.remaining() > 0;
   }
 
   /**
@@ -87,24 +92,49 @@ public abstract class ChunkReader {
   public BatchData nextBatch() throws IOException {
 
     // construct next satisfied page header
-    while (chunkDataBuffer.remaining() > 0) {
+    while (nextPageHeader() != null) {
+      PageReader pageReader = constructPageReaderForNextPage(nextPageHeader);
+      nextPageHeader = null;
+      if (pageReader.hasNextBatch()) {
+        data = pageReader.nextBatch();
+        return data;
+      }
+    }
+
+    return data;
+  }
+
+  /**
+   * get the header of next satisfied page without reading its data, so that the statistics in the
+   * header can be used instead of decoding the page. The page must be consumed by
+   * <code>nextBatch()</code> or <code>skipPageData()</code> before moving on.
+   *
+   * @return header of next satisfied page, null if there is no more satisfied page
+   */
+  public PageHeader nextPageHeader() throws IOException {
+    while (nextPageHeader == null && chunkDataBuffer.remaining() > 0) {
       // deserialize a PageHeader from chunkDataBuffer
       PageHeader pageHeader = PageHeader
           .deserializeFrom(chunkDataBuffer, chunkHeader.getDataType());
 
       // if the current page satisfies
       if (pageSatisfied(pageHeader)) {
-        PageReader pageReader = constructPageReaderForNextPage(pageHeader.getCompressedSize());
-        if (pageReader.hasNextBatch()) {
-          data = pageReader.nextBatch();
-          return data;
-        }
+        nextPageHeader = pageHeader;
       } else {
         skipBytesInStreamByLength(pageHeader.getCompressedSize());
       }
     }
+    return nextPageHeader;
+  }
 
-    return data;
+  /**
+   * skip the data of the page whose header is returned by <code>nextPageHeader()</code>.
+   */
+  public void skipPageData() {
+    if (nextPageHeader != null) {
+      skipBytesInStreamByLength(nextPageHeader.getCompressedSize());
+      nextPageHeader = null;
+    }
   }
 
   public BatchData currentBatch() {
@@ -117,22 +147,25 @@ public abstract class ChunkReader {
 
   public abstract boolean pageSatisfied(PageHeader pageHeader);
 
-  private PageReader constructPageReaderForNextPage(int compressedPageBodyLength)
+  /**
+   * the page is uncompressed into a buffer reused by the thread, which is released once the page is
+   * decoded by <code>PageReader.nextBatch()</code>.
+   */
+  private PageReader constructPageReaderForNextPage(PageHeader pageHeader)
       throws IOException {
-    byte[] compressedPageBody = new byte[compressedPageBodyLength];
+    int compressedPageBodyLength = pageHeader.getCompressedSize();
 
     // already in memory
     if (compressedPageBodyLength > chunkDataBuffer.remaining()) {
       throw new IOException(
           "unexpected byte read length when read compressedPageBody. Expected:"
-              + Arrays.toString(compressedPageBody) + ". Actual:" + chunkDataBuffer
-              .remaining());
+              + compressedPageBodyLength + ". Actual:" + chunkDataBuffer.remaining());
     }
 
-    chunkDataBuffer.get(compressedPageBody, 0, compressedPageBodyLength);
+    ByteBuffer pageData = UnCompressBuffer.uncompress(unCompressor, chunkDataBuffer,
+        compressedPageBodyLength, pageHeader.getUncompressedSize());
     valueDecoder.reset();
-    PageReader reader = new PageReader(ByteBuffer.wrap(unCompressor.uncompress(compressedPageBody)),
-        chunkHeader.getDataType(),
+    PageReader reader = new PageReader(pageData, chunkHeader.getDataType(),
         valueDecoder, timeDecoder, filter);
     reader.setDeletedAt(deletedAt);
     return reader;
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.tsfile.read.reader.chunk;
 
+import java.io.IOException;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.read.common.Chunk;
 
@@ -36,6 +37,23 @@ public class ChunkReaderByTimestamp extends ChunkReader {
     return maxTimestamp >= currentTimestamp && maxTimestamp > deletedAt;
   }
 
+  /**
+   * the page returned before may have been passed by the timestamps queried since, in which case
+   * it is skipped without being decoded.
+   */
+  @Override
+  public PageHeader nextPageHeader() throws IOException {
+    PageHeader pageHeader = super.nextPageHeader();
+    while (pageHeader != null && !pageSatisfied(pageHeader)) {
+      skipPageData();
+      pageHeader = super.nextPageHeader();
+    }
+    return pageHeader;
+  }
+
+  /**
+   * set the timestamp to query, the pages before which are skipped.
+   */
   public void setCurrentTimestamp(long currentTimestamp) {
     this.currentTimestamp = currentTimestamp;
   }
@@ -30,6 +30,11 @@ import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 
 public class PageReader {
 
+  /**
+   * the numeric values are decoded block by block, each of which has at most BLOCK_SIZE points.
+   */
+  private static final int BLOCK_SIZE = 1024;
+
   private TSDataType dataType;
 
   /** decoder for value column */
@@ -50,6 +55,9 @@ public class PageReader {
 
   private long deletedAt = -1;
 
+  /** timestamps of the current block */
+  private long[] times;
+
   public PageReader(ByteBuffer pageData, TSDataType dataType, Decoder valueDecoder,
       Decoder timeDecoder,
       Filter filter) {
@@ -82,18 +90,18 @@ public class PageReader {
   }
 
   public boolean hasNextBatch() throws IOException {
-    return timeDecoder.hasNext(timeBuffer);
+    return timeBuffer != null && timeDecoder.hasNext(timeBuffer);
   }
 
   /**
+   * decode the whole page, after which the page data is not referred to any more, so that its
+   * buffer can be reused by the caller.
+   *
    * may return an empty BatchData
    */
   public BatchData nextBatch() throws IOException {
-    if (filter == null) {
-      data = getAllPageData();
-    } else {
-      data = getAllPageDataWithFilter();
-    }
+    data = getAllPageData();
+    close();
 
     return data;
   }
@@ -103,140 +111,159 @@ public class PageReader {
   }
 
   private BatchData getAllPageData() throws IOException {
-
     BatchData pageData = new BatchData(dataType, true);
-
-    while (timeDecoder.hasNext(timeBuffer)) {
-      long timestamp = timeDecoder.readLong(timeBuffer);
-
-      switch (dataType) {
-        case BOOLEAN:
+    switch (dataType) {
+      case BOOLEAN:
+        while (timeDecoder.hasNext(timeBuffer)) {
+          long timestamp = timeDecoder.readLong(timeBuffer);
           boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
-          if (timestamp > deletedAt) {
+          if (satisfy(timestamp, aBoolean)) {
             pageData.putTime(timestamp);
             pageData.putBoolean(aBoolean);
           }
-          break;
-        case INT32:
-          int anInt = valueDecoder.readInt(valueBuffer);
-          if (timestamp > deletedAt) {
-            pageData.putTime(timestamp);
-            pageData.putInt(anInt);
-          }
-          break;
-        case INT64:
-          long aLong = valueDecoder.readLong(valueBuffer);
-          if (timestamp > deletedAt) {
-            pageData.putTime(timestamp);
-            pageData.putLong(aLong);
-          }
-          break;
-        case FLOAT:
-          float aFloat = valueDecoder.readFloat(valueBuffer);
-          if (timestamp > deletedAt) {
-            pageData.putTime(timestamp);
-            pageData.putFloat(aFloat);
-          }
-          break;
-        case DOUBLE:
-          double aDouble = valueDecoder.readDouble(valueBuffer);
-          if (timestamp > deletedAt) {
-            pageData.putTime(timestamp);
-            pageData.putDouble(aDouble);
-          }
-          break;
-        case TEXT:
+        }
+        break;
+      case INT32:
+        readInts(pageData);
+        break;
+      case INT64:
+        readLongs(pageData);
+        break;
+      case FLOAT:
+        readFloats(pageData);
+        break;
+      case DOUBLE:
+        readDoubles(pageData);
+        break;
+      case TEXT:
+        while (timeDecoder.hasNext(timeBuffer)) {
+          long timestamp = timeDecoder.readLong(timeBuffer);
           Binary aBinary = valueDecoder.readBinary(valueBuffer);
-          if (timestamp > deletedAt) {
+          if (satisfy(timestamp, aBinary)) {
             pageData.putTime(timestamp);
             pageData.putBinary(aBinary);
           }
-          break;
-        default:
-          throw new UnSupportedDataTypeException(String.valueOf(dataType));
-      }
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
     }
     return pageData;
   }
 
-  private BatchData getAllPageDataWithFilter() throws IOException {
-    BatchData pageData = new BatchData(dataType, true);
+  private boolean satisfy(long timestamp, Object value) {
+    return timestamp > deletedAt && (filter == null || filter.satisfy(timestamp, value));
+  }
 
-    while (timeDecoder.hasNext(timeBuffer)) {
-      long timestamp = timeDecoder.readLong(timeBuffer);
-
-      switch (dataType) {
-        case BOOLEAN:
-          readBoolean(pageData, timestamp);
-          break;
-        case INT32:
-          readInt(pageData, timestamp);
-          break;
-        case INT64:
-          readLong(pageData, timestamp);
-          break;
-        case FLOAT:
-          readFloat(pageData, timestamp);
-          break;
-        case DOUBLE:
-          readDouble(pageData, timestamp);
-          break;
-        case TEXT:
-          readText(pageData, timestamp);
-          break;
-        default:
-          throw new UnSupportedDataTypeException(String.valueOf(dataType));
-      }
+  /**
+   * decode the next block of timestamps into {@code times}.
+   *
+   * @return number of timestamps decoded, 0 if the page is over
+   */
+  private int readTimes() throws IOException {
+    if (times == null) {
+      times = new long[BLOCK_SIZE];
     }
-
-    return pageData;
+    return timeDecoder.readLongs(timeBuffer, times, 0, BLOCK_SIZE);
   }
 
-  private void readBoolean(BatchData pageData, long timestamp) {
-    boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, aBoolean)) {
-      pageData.putTime(timestamp);
-      pageData.putBoolean(aBoolean);
+  /**
+   * the timestamps in a page are increasing, so the deleted ones are at the head of the page.
+   *
+   * @return index of the first timestamp which is not deleted in the block
+   */
+  private int skipDeleted(int num) {
+    int start = 0;
+    while (start < num && times[start] <= deletedAt) {
+      start++;
     }
+    return start;
   }
 
-  private void readInt(BatchData pageData, long timestamp) {
-    int anInt = valueDecoder.readInt(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, anInt)) {
-      pageData.putTime(timestamp);
-      pageData.putInt(anInt);
+  private void checkValueNum(int valueNum, int timeNum) throws IOException {
+    if (valueNum != timeNum) {
+      throw new IOException(String.format(
+          "the page has %d timestamps but only %d values in a block", timeNum, valueNum));
     }
   }
 
-  private void readLong(BatchData pageData, long timestamp) {
-    long aLong = valueDecoder.readLong(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, aLong)) {
-      pageData.putTime(timestamp);
-      pageData.putLong(aLong);
+  private void readInts(BatchData pageData) throws IOException {
+    int[] values = new int[BLOCK_SIZE];
+    int num;
+    while ((num = readTimes()) > 0) {
+      checkValueNum(valueDecoder.readInts(valueBuffer, values, 0, num), num);
+      int start = skipDeleted(num);
+      if (filter == null) {
+        pageData.putTimes(times, start, num - start);
+        pageData.putInts(values, start, num - start);
+        continue;
+      }
+      for (int i = start; i < num; i++) {
+        if (filter.satisfy(times[i], values[i])) {
+          pageData.putTime(times[i]);
+          pageData.putInt(values[i]);
+        }
+      }
     }
   }
 
-  private void readFloat(BatchData pageData, long timestamp) {
-    float aFloat = valueDecoder.readFloat(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, aFloat)) {
-      pageData.putTime(timestamp);
-      pageData.putFloat(aFloat);
+  private void readLongs(BatchData pageData) throws IOException {
+    long[] values = new long[BLOCK_SIZE];
+    int num;
+    while ((num = readTimes()) > 0) {
+      checkValueNum(valueDecoder.readLongs(valueBuffer, values, 0, num), num);
+      int start = skipDeleted(num);
+      if (filter == null) {
+        pageData.putTimes(times, start, num - start);
+        pageData.putLongs(values, start, num - start);
+        continue;
+      }
+      for (int i = start; i < num; i++) {
+        if (filter.satisfy(times[i], values[i])) {
+          pageData.putTime(times[i]);
+          pageData.putLong(values[i]);
+        }
+      }
     }
   }
 
-  private void readDouble(BatchData pageData, long timestamp) {
-    double aDouble = valueDecoder.readDouble(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, aDouble)) {
-      pageData.putTime(timestamp);
-      pageData.putDouble(aDouble);
+  private void readFloats(BatchData pageData) throws IOException {
+    float[] values = new float[BLOCK_SIZE];
+    int num;
+    while ((num = readTimes()) > 0) {
+      checkValueNum(valueDecoder.readFloats(valueBuffer, values, 0, num), num);
+      int start = skipDeleted(num);
+      if (filter == null) {
+        pageData.putTimes(times, start, num - start);
+        pageData.putFloats(values, start, num - start);
+        continue;
+      }
+      for (int i = start; i < num; i++) {
+        if (filter.satisfy(times[i], values[i])) {
+          pageData.putTime(times[i]);
+          pageData.putFloat(values[i]);
+        }
+      }
     }
   }
 
-  private void readText(BatchData pageData, long timestamp) {
-    Binary aBinary = valueDecoder.readBinary(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, aBinary)) {
-      pageData.putTime(timestamp);
-      pageData.putBinary(aBinary);
+  private void readDoubles(BatchData pageData) throws IOException {
+    double[] values = new double[BLOCK_SIZE];
+    int num;
+    while ((num = readTimes()) > 0) {
+      checkValueNum(valueDecoder.readDoubles(valueBuffer, values, 0, num), num);
+      int start = skipDeleted(num);
+      if (filter == null) {
+        pageData.putTimes(times, start, num - start);
+        pageData.putDoubles(values, start, num - start);
+        continue;
+      }
+      for (int i = start; i < num; i++) {
+        if (filter.satisfy(times[i], values[i])) {
+          pageData.putTime(times[i]);
+          pageData.putDouble(values[i]);
+        }
+      }
     }
   }
 
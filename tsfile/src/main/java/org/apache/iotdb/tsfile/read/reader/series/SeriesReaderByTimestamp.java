@@ -20,12 +20,12 @@ package org.apache.iotdb.tsfile.read.reader.series;
 
 import java.io.IOException;
 import java.util.List;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.controller.ChunkLoader;
-import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
 import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReaderByTimestamp;
 
 /**
@@ -40,7 +40,7 @@ public class SeriesReaderByTimestamp {
   protected List<ChunkMetaData> chunkMetaDataList;
   private int currentChunkIndex = 0;
 
-  private ChunkReader chunkReader;
+  private ChunkReaderByTimestamp chunkReader;
   private long currentTimestamp;
   private BatchData data = null; // current batch data
 
@@ -58,69 +58,79 @@ public class SeriesReaderByTimestamp {
   }
 
   /**
-   * get value with time equals timestamp. If there is no such point, return null.
+   * get value with time equals timestamp. If there is no such point, return null. The timestamps
+   * must be queried in ascending order.
+   *
+   * <p>The point is located without decoding the pages before it: the chunk is found by binary
+   * search on the end times of the chunks, the pages before the timestamp are skipped by their
+   * headers, and a page starting after the timestamp is not decoded until it is needed.
    */
   public Object getValueInTimestamp(long timestamp) throws IOException {
     this.currentTimestamp = timestamp;
 
-    // first initialization, only invoked in the first time
-    if (chunkReader == null) {
-      if (!constructNextSatisfiedChunkReader()) {
-        return null;
-      }
-
-      if (chunkReader.hasNextBatch()) {
-        data = chunkReader.nextBatch();
-      } else {
-        return null;
+    while (true) {
+      if (data != null && data.skipTo(timestamp)) {
+        return data.currentTime() == timestamp ? data.currentValue() : null;
       }
-    }
 
-    while (data != null) {
-      while (data.hasNext()) {
-        if (data.currentTime() < timestamp) {
-          data.next();
-        } else {
-          break;
+      // the decoded page has been passed, find the page containing the timestamp
+      if (chunkReader != null) {
+        chunkReader.setCurrentTimestamp(timestamp);
+        PageHeader pageHeader = chunkReader.nextPageHeader();
+        if (pageHeader != null) {
+          if (pageHeader.getMinTimestamp() > timestamp) {
+            return null;
+          }
+          data = chunkReader.nextBatch();
+          continue;
         }
+        chunkReader = null;
       }
 
-      if (data.hasNext()) {
-        if (data.currentTime() == timestamp) {
-          return data.currentValue();
-        }
+      if (!constructNextSatisfiedChunkReader()) {
         return null;
-      } else {
-        if (chunkReader.hasNextBatch()) {
-          data = chunkReader.nextBatch();
-        } else if (!constructNextSatisfiedChunkReader()) {
-          return null;
-        }
       }
     }
-
-    return null;
   }
 
+  /**
+   * open the chunk which may contain currentTimestamp.
+   *
+   * @return false if there is no such chunk, in which case the next chunk is not opened until it is
+   * needed
+   */
   private boolean constructNextSatisfiedChunkReader() throws IOException {
-    while (currentChunkIndex < chunkMetaDataList.size()) {
-      ChunkMetaData chunkMetaData = chunkMetaDataList.get(currentChunkIndex++);
-      if (chunkSatisfied(chunkMetaData)) {
-        initChunkReader(chunkMetaData);
-        ((ChunkReaderByTimestamp) chunkReader).setCurrentTimestamp(currentTimestamp);
-        return true;
+    currentChunkIndex = searchChunk(currentTimestamp);
+    if (currentChunkIndex == chunkMetaDataList.size()
+        || chunkMetaDataList.get(currentChunkIndex).getStartTime() > currentTimestamp) {
+      return false;
+    }
+    initChunkReader(chunkMetaDataList.get(currentChunkIndex++));
+    return true;
+  }
+
+  /**
+   * the chunks are sorted by time, so the first chunk ending at or after the timestamp is found by
+   * binary search among the chunks not read yet.
+   */
+  private int searchChunk(long timestamp) {
+    int low = currentChunkIndex;
+    int high = chunkMetaDataList.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (chunkMetaDataList.get(mid).getEndTime() < timestamp) {
+        low = mid + 1;
+      } else {
+        high = mid;
       }
     }
-    return false;
+    return low;
   }
 
   private void initChunkReader(ChunkMetaData chunkMetaData) throws IOException {
     Chunk chunk = chunkLoader.getChunk(chunkMetaData);
     this.chunkReader = new ChunkReaderByTimestamp(chunk);
-  }
-
-  private boolean chunkSatisfied(ChunkMetaData chunkMetaData) {
-    return chunkMetaData.getEndTime() >= currentTimestamp;
+    this.data = null;
   }
 
 }
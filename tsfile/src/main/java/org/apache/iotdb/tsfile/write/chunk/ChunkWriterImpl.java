@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.exception.write.PageException;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
@@ -80,6 +81,11 @@ public class ChunkWriterImpl implements IChunkWriter {
 
   private MeasurementSchema measurementSchema;
 
+  /**
+   * drops the points before encoding if the series is lossy, null otherwise.
+   */
+  private LossyFilter lossyFilter;
+
   /**
    * constructor of ChunkWriterImpl.
    *
@@ -89,6 +95,20 @@ public class ChunkWriterImpl implements IChunkWriter {
    */
   public ChunkWriterImpl(MeasurementSchema measurementSchema, ChunkBuffer chunkBuffer,
       int pageSizeThreshold) {
+    this(measurementSchema, chunkBuffer, pageSizeThreshold, true);
+  }
+
+  /**
+   * constructor of ChunkWriterImpl.
+   *
+   * @param measurementSchema measurement schema
+   * @param chunkBuffer chunk in buffer
+   * @param pageSizeThreshold page size threshold
+   * @param lossy whether to apply the lossy filter of the series, which should be false when the
+   * data has been filtered, otherwise the errors accumulate
+   */
+  public ChunkWriterImpl(MeasurementSchema measurementSchema, ChunkBuffer chunkBuffer,
+      int pageSizeThreshold, boolean lossy) {
     this.measurementSchema = measurementSchema;
     this.dataType = measurementSchema.getType();
     this.chunkBuffer = chunkBuffer;
@@ -106,6 +126,9 @@ public class ChunkWriterImpl implements IChunkWriter {
 
     this.dataPageWriter.setTimeEncoder(measurementSchema.getTimeEncoder());
     this.dataPageWriter.setValueEncoder(measurementSchema.getValueEncoder());
+    if (lossy) {
+      this.lossyFilter = LossyFilter.getFilter(dataType, measurementSchema.getProps());
+    }
   }
 
   /**
@@ -117,6 +140,14 @@ public class ChunkWriterImpl implements IChunkWriter {
 
   @Override
   public void write(long time, long value) throws IOException {
+    if (lossyFilter == null) {
+      writeLong(time, value);
+    } else if (lossyFilter.filter(time, value)) {
+      writeKeptPoint();
+    }
+  }
+
+  private void writeLong(long time, long value) throws IOException {
     this.time = time;
     ++valueCountInOnePage;
     dataPageWriter.write(time, value);
@@ -129,6 +160,14 @@ public class ChunkWriterImpl implements IChunkWriter {
 
   @Override
   public void write(long time, int value) throws IOException {
+    if (lossyFilter == null) {
+      writeInt(time, value);
+    } else if (lossyFilter.filter(time, value)) {
+      writeKeptPoint();
+    }
+  }
+
+  private void writeInt(long time, int value) throws IOException {
     this.time = time;
     ++valueCountInOnePage;
     dataPageWriter.write(time, value);
@@ -153,6 +192,14 @@ public class ChunkWriterImpl implements IChunkWriter {
 
   @Override
   public void write(long time, float value) throws IOException {
+    if (lossyFilter == null) {
+      writeFloat(time, value);
+    } else if (lossyFilter.filter(time, value)) {
+      writeKeptPoint();
+    }
+  }
+
+  private void writeFloat(long time, float value) throws IOException {
     this.time = time;
     ++valueCountInOnePage;
     dataPageWriter.write(time, value);
@@ -165,6 +212,14 @@ public class ChunkWriterImpl implements IChunkWriter {
 
   @Override
   public void write(long time, double value) throws IOException {
+    if (lossyFilter == null) {
+      writeDouble(time, value);
+    } else if (lossyFilter.filter(time, value)) {
+      writeKeptPoint();
+    }
+  }
+
+  private void writeDouble(long time, double value) throws IOException {
     this.time = time;
     ++valueCountInOnePage;
     dataPageWriter.write(time, value);
@@ -199,6 +254,30 @@ public class ChunkWriterImpl implements IChunkWriter {
     checkPageSizeAndMayOpenANewPage();
   }
 
+  /**
+   * write the point kept by the lossy filter.
+   */
+  private void writeKeptPoint() throws IOException {
+    long keptTime = lossyFilter.getTime();
+    double keptValue = lossyFilter.getValue();
+    switch (dataType) {
+      case INT32:
+        writeInt(keptTime, (int) Math.round(keptValue));
+        break;
+      case INT64:
+        writeLong(keptTime, Math.round(keptValue));
+        break;
+      case FLOAT:
+        writeFloat(keptTime, (float) keptValue);
+        break;
+      case DOUBLE:
+        writeDouble(keptTime, keptValue);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
   /**
    * check occupied memory size, if it exceeds the PageSize threshold, flush them to given
    * OutputStream.
@@ -283,6 +362,13 @@ public class ChunkWriterImpl implements IChunkWriter {
 
   @Override
   public void sealCurrentPage() {
+    if (lossyFilter != null && lossyFilter.flush()) {
+      try {
+        writeKeptPoint();
+      } catch (IOException e) {
+        LOG.error("meet error when writing the last point of {}", measurementSchema, e);
+      }
+    }
     if (valueCountInOnePage > 0) {
       writePage();
     }
@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.write.chunk;
+
+import java.util.Map;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+/**
+ * A lossy stage before encoding, which drops the points that can be restored by the linear
+ * interpolation between the kept points within a deviation. It is enabled for a numeric series by
+ * the props of its schema, e.g. {loss=SDT, compdev=0.5}.
+ * <br>The points must be fed in the order of time, and a kept point may be returned later than
+ * it is fed, so <code>flush()</code> must be called at the end of the data.
+ */
+public abstract class LossyFilter {
+
+  public static final String LOSS = "loss";
+  public static final String COMP_DEV = "compdev";
+
+  protected final double compDev;
+
+  private long time;
+  private double value;
+
+  protected LossyFilter(double compDev) {
+    if (!(compDev >= 0)) {
+      throw new IllegalArgumentException("compdev must be non-negative: " + compDev);
+    }
+    this.compDev = compDev;
+  }
+
+  /**
+   * get the filter configured by the props of a series.
+   *
+   * @return null if the series is not lossy
+   * @throws IllegalArgumentException if the props are invalid
+   * @throws UnSupportedDataTypeException if the series is not numeric
+   */
+  public static LossyFilter getFilter(TSDataType dataType, Map<String, String> props) {
+    if (props == null || !props.containsKey(LOSS)) {
+      return null;
+    }
+    String loss = props.get(LOSS).trim().toUpperCase();
+    if (dataType != TSDataType.INT32 && dataType != TSDataType.INT64
+        && dataType != TSDataType.FLOAT && dataType != TSDataType.DOUBLE) {
+      throw new UnSupportedDataTypeException(
+          String.format("%s doesn't support data type: %s", loss, dataType));
+    }
+    String compDev = props.get(COMP_DEV);
+    if (CompressionType.SDT.name().equals(loss)) {
+      return new SDTFilter(
+          compDev == null ? TSFileConfig.sdtMaxError : Double.parseDouble(compDev));
+    } else if (CompressionType.PLA.name().equals(loss)) {
+      return new PLAFilter(
+          compDev == null ? TSFileConfig.plaMaxError : Double.parseDouble(compDev),
+          dataType == TSDataType.INT32 || dataType == TSDataType.INT64);
+    }
+    throw new IllegalArgumentException("Unsupported loss: " + loss);
+  }
+
+  /**
+   * feed a point.
+   *
+   * @return whether a point is kept, which can be got by <code>getTime()</code> and
+   * <code>getValue()</code>
+   */
+  public abstract boolean filter(long time, double value);
+
+  /**
+   * end the data, the filter can then be used for new data.
+   *
+   * @return whether the last point is kept
+   */
+  public abstract boolean flush();
+
+  public long getTime() {
+    return time;
+  }
+
+  public double getValue() {
+    return value;
+  }
+
+  protected boolean keep(long time, double value) {
+    this.time = time;
+    this.value = value;
+    return true;
+  }
+}
@@ -0,0 +1,113 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.write.chunk;
+
+/**
+ * Piecewise linear approximation by the swing filter. Different from SDT, the end of a segment is
+ * not necessarily an original point but the point closest to it on the lines satisfying all the
+ * points of the segment, and it starts the next segment. It keeps fewer points than SDT when the
+ * noise is comparable to the deviation, while SDT is better for smooth curves as its segments
+ * always start from original points.
+ */
+public class PLAFilter extends LossyFilter {
+
+  /**
+   * the values of an integer series are rounded, which introduces an error up to 0.5.
+   */
+  private static final double ROUNDING_ERROR = 0.5;
+
+  private final boolean rounded;
+  private final double deviation;
+
+  private boolean hasStart;
+  private long startTime;
+  private double startValue;
+
+  private boolean hasPending;
+  private long pendingTime;
+  private double pendingValue;
+
+  private double lowerSlope;
+  private double upperSlope;
+
+  /**
+   * @param rounded whether the values are rounded to integers
+   */
+  public PLAFilter(double compDev, boolean rounded) {
+    super(compDev);
+    this.rounded = rounded;
+    this.deviation = rounded ? Math.max(0, compDev - ROUNDING_ERROR) : compDev;
+  }
+
+  @Override
+  public boolean filter(long time, double value) {
+    if (!hasStart) {
+      hasStart = true;
+      startTime = time;
+      startValue = value;
+      resetSlopes();
+      return keep(time, value);
+    }
+
+    long interval = time - startTime;
+    double lower = (value - deviation - startValue) / interval;
+    double upper = (value + deviation - startValue) / interval;
+    boolean kept = false;
+    if (hasPending && (lower > upperSlope || upper < lowerSlope)) {
+      // no line satisfies all the points, so the segment ends at the pending point
+      kept = endSegment();
+      interval = time - startTime;
+      lower = (value - deviation - startValue) / interval;
+      upper = (value + deviation - startValue) / interval;
+    }
+    lowerSlope = Math.max(lowerSlope, lower);
+    upperSlope = Math.min(upperSlope, upper);
+    hasPending = true;
+    pendingTime = time;
+    pendingValue = value;
+    return kept;
+  }
+
+  @Override
+  public boolean flush() {
+    boolean kept = hasPending && endSegment();
+    hasStart = false;
+    hasPending = false;
+    return kept;
+  }
+
+  private boolean endSegment() {
+    long interval = pendingTime - startTime;
+    double endValue = Math.max(startValue + lowerSlope * interval,
+        Math.min(startValue + upperSlope * interval, pendingValue));
+    if (rounded) {
+      endValue = Math.round(endValue);
+    }
+    startTime = pendingTime;
+    startValue = endValue;
+    resetSlopes();
+    hasPending = false;
+    return keep(startTime, endValue);
+  }
+
+  private void resetSlopes() {
+    lowerSlope = Double.NEGATIVE_INFINITY;
+    upperSlope = Double.POSITIVE_INFINITY;
+  }
+}
@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.write.chunk;
+
+/**
+ * Swinging door trending. The kept points are original points, and a point is dropped if the line
+ * from the last kept point to the next point passes within the deviation of it. The slopes of the
+ * lines satisfying all the dropped points are bounded by a lower and an upper door, and the
+ * previous point is kept when the next point is out of the doors.
+ */
+public class SDTFilter extends LossyFilter {
+
+  private boolean hasLastKept;
+  private long lastKeptTime;
+  private double lastKeptValue;
+
+  private boolean hasPending;
+  private long pendingTime;
+  private double pendingValue;
+
+  private double lowerSlope;
+  private double upperSlope;
+
+  public SDTFilter(double compDev) {
+    super(compDev);
+  }
+
+  @Override
+  public boolean filter(long time, double value) {
+    if (!hasLastKept) {
+      hasLastKept = true;
+      lastKeptTime = time;
+      lastKeptValue = value;
+      resetDoors();
+      return keep(time, value);
+    }
+
+    boolean kept = false;
+    double slope = (value - lastKeptValue) / (time - lastKeptTime);
+    if (hasPending && (slope < lowerSlope || slope > upperSlope)) {
+      // the pending point can not be dropped, so the doors start from it
+      lastKeptTime = pendingTime;
+      lastKeptValue = pendingValue;
+      resetDoors();
+      kept = keep(pendingTime, pendingValue);
+    }
+    // narrow the doors so that the point is within the deviation of the line from the last kept
+    // point if it is dropped later
+    long interval = time - lastKeptTime;
+    lowerSlope = Math.max(lowerSlope, (value - compDev - lastKeptValue) / interval);
+    upperSlope = Math.min(upperSlope, (value + compDev - lastKeptValue) / interval);
+    hasPending = true;
+    pendingTime = time;
+    pendingValue = value;
+    return kept;
+  }
+
+  @Override
+  public boolean flush() {
+    boolean kept = hasPending && keep(pendingTime, pendingValue);
+    hasLastKept = false;
+    hasPending = false;
+    return kept;
+  }
+
+  private void resetDoors() {
+    lowerSlope = Double.NEGATIVE_INFINITY;
+    upperSlope = Double.POSITIVE_INFINITY;
+  }
+}
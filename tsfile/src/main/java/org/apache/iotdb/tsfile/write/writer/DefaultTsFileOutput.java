@@ -24,6 +24,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /**
  * a TsFileOutput implementation with FileOutputStream. If the file is not existed, it will be
@@ -52,7 +53,10 @@ public class DefaultTsFileOutput implements TsFileOutput {
 
   @Override
   public void write(ByteBuffer b) throws IOException {
-    throw new UnsupportedOperationException();
+    FileChannel channel = outputStream.getChannel();
+    while (b.hasRemaining()) {
+      channel.write(b);
+    }
   }
 
   @Override
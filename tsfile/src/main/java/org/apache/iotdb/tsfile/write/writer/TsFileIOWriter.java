@@ -42,6 +42,7 @@ import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
@@ -188,6 +189,30 @@ public class TsFileIOWriter {
     currentChunkMetaData = null;
   }
 
+  /**
+   * write a chunk read from another TsFile into the current chunk group as it is, without decoding
+   * its pages.
+   *
+   * @param chunk the chunk to write, whose header and data are copied
+   * @param chunkMetaData the metadata of the chunk in its original TsFile
+   * @throws IOException if I/O error occurs
+   */
+  public void writeChunk(Chunk chunk, ChunkMetaData chunkMetaData) throws IOException {
+    LOG.debug("start copying series chunk:{}, file position {}", chunkMetaData,
+        out.getPosition());
+    ChunkMetaData newChunkMetaData = new ChunkMetaData(chunkMetaData.getMeasurementUid(),
+        chunkMetaData.getTsDataType(), out.getPosition(), chunkMetaData.getStartTime(),
+        chunkMetaData.getEndTime());
+    newChunkMetaData.setDigest(chunkMetaData.getDigest());
+    newChunkMetaData.setNumOfPoints(chunkMetaData.getNumOfPoints());
+
+    chunk.getHeader().serializeTo(out.wrapAsStream());
+    out.write(chunk.getData().duplicate());
+    currentChunkGroupMetaData.addTimeSeriesChunkMetaData(newChunkMetaData);
+    LOG.debug("finish copying series chunk:{}, file position {}", newChunkMetaData,
+        out.getPosition());
+  }
+
   /**
    * end chunk and write some log.
    *
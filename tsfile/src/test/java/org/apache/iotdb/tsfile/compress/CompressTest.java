@@ -18,10 +18,17 @@
  */
 package org.apache.iotdb.tsfile.compress;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.Random;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.junit.After;
 import org.junit.Before;
@@ -72,6 +79,100 @@ public class CompressTest {
     assertEquals(inputString, result);
   }
 
+  @Test
+  public void snappyByteBufferTest() throws IOException {
+    byte[] input = inputString.getBytes("UTF-8");
+    byte[] compressed = Snappy.compress(input);
+    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(CompressionType.SNAPPY);
+    for (boolean direct : new boolean[]{false, true}) {
+      // the compressed data is in the middle of the buffer
+      ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(compressed.length + 4)
+          : ByteBuffer.allocate(compressed.length + 4);
+      buffer.putInt(0).put(compressed).flip();
+      buffer.getInt();
+      ByteBuffer uncompressed = UnCompressBuffer
+          .uncompress(unCompressor, buffer, compressed.length, input.length);
+      assertEquals(direct, uncompressed.isDirect());
+      assertEquals(0, buffer.remaining());
+      byte[] result = new byte[uncompressed.remaining()];
+      uncompressed.get(result);
+      assertEquals(inputString, new String(result, "UTF-8"));
+
+      // the buffer of the thread is reused
+      buffer.position(4);
+      assertSame(uncompressed, UnCompressBuffer
+          .uncompress(unCompressor, buffer, compressed.length, input.length));
+    }
+  }
+
+  @Test
+  public void lz4Test() throws IOException {
+    testCompressor(CompressionType.LZ4);
+  }
+
+  @Test
+  public void gzipTest() throws IOException {
+    testCompressor(CompressionType.GZIP);
+  }
+
+  private void testCompressor(CompressionType type) throws IOException {
+    ICompressor compressor = ICompressor.getCompressor(type);
+    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(type);
+    Random random = new Random(0);
+    byte[] repeated = new byte[100000];
+    for (int i = 0; i < repeated.length; i++) {
+      // long runs, short runs overlapping themselves and literals
+      repeated[i] = (byte) (i % 3000 < 2000 ? i / 300 : (i % 7 == 0 ? random.nextInt() : i % 3));
+    }
+    byte[] randomBytes = new byte[70000];
+    random.nextBytes(randomBytes);
+    byte[][] inputs = {new byte[0], new byte[]{1, 2, 3}, inputString.getBytes("UTF-8"), repeated,
+        randomBytes, new byte[1 << 20]};
+
+    for (byte[] input : inputs) {
+      byte[] compressed = compressor.compress(input);
+      assertTrue(compressed.length <= compressor.getMaxBytesForCompression(input.length));
+      assertEquals(input.length,
+          unCompressor.getUncompressedLength(compressed, 0, compressed.length));
+      assertArrayEquals(input, unCompressor.uncompress(compressed));
+
+      // with offsets in the arrays
+      byte[] output = new byte[input.length + 2];
+      assertEquals(input.length,
+          unCompressor.uncompress(compressed, 0, compressed.length, output, 2));
+      assertArrayEquals(input, Arrays.copyOfRange(output, 2, output.length));
+
+      // heap and direct buffers
+      for (boolean direct : new boolean[]{false, true}) {
+        ByteBuffer data = direct ? ByteBuffer.allocateDirect(input.length)
+            : ByteBuffer.allocate(input.length);
+        data.put(input).flip();
+        int maxSize = compressor.getMaxBytesForCompression(input.length);
+        ByteBuffer compressedBuffer = direct ? ByteBuffer.allocateDirect(maxSize)
+            : ByteBuffer.allocate(maxSize);
+        int size = compressor.compress(data, compressedBuffer);
+        assertEquals(size, compressedBuffer.remaining());
+        ByteBuffer uncompressed = direct ? ByteBuffer.allocateDirect(input.length)
+            : ByteBuffer.allocate(input.length);
+        assertEquals(input.length, unCompressor.uncompress(compressedBuffer, uncompressed));
+        byte[] result = new byte[uncompressed.remaining()];
+        uncompressed.get(result);
+        assertArrayEquals(input, result);
+      }
+    }
+    assertTrue(compressor.compress(repeated).length < repeated.length / 2);
+
+    // corrupted data is detected instead of being uncompressed into a wrong size
+    byte[] compressed = compressor.compress(repeated);
+    byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+    try {
+      unCompressor.uncompress(truncated, 0, truncated.length, new byte[repeated.length], 0);
+      fail();
+    } catch (IOException e) {
+      // expected
+    }
+  }
+
   @Test
   public void snappyTest() throws IOException {
     byte[] compressed = Snappy.compress(inputString.getBytes("UTF-8"));
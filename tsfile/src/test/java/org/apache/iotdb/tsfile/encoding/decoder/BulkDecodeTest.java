@@ -0,0 +1,189 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.junit.Test;
+
+/**
+ * checks that the bulk read methods of the decoders return the same values as reading them one by
+ * one, with block sizes which do not align with the packs and runs of the encodings.
+ */
+public class BulkDecodeTest {
+
+  private static final int POINT_NUM = 10000;
+  private static final int[] BLOCK_SIZES = {1, 7, 100, 1024, POINT_NUM + 1};
+
+  private Random random = new Random(19);
+
+  /**
+   * runs of a repeated value, small values and values of the full range, so that both the rle runs
+   * and the bit-packing groups of every width are decoded.
+   */
+  private long nextLong(int i) {
+    switch (i / 1000 % 3) {
+      case 0:
+        return i / 50;
+      case 1:
+        return random.nextInt(1000) - 500;
+      default:
+        return random.nextLong();
+    }
+  }
+
+  @Test
+  public void testInts() throws IOException {
+    int[] expected = new int[POINT_NUM];
+    for (int i = 0; i < POINT_NUM; i++) {
+      expected[i] = (int) nextLong(i);
+    }
+    for (TSEncoding encoding : new TSEncoding[]{TSEncoding.PLAIN, TSEncoding.RLE,
+        TSEncoding.TS_2DIFF}) {
+      Encoder encoder = TSEncodingBuilder.getConverter(encoding).getEncoder(TSDataType.INT32);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (int value : expected) {
+        encoder.encode(value, out);
+      }
+      encoder.flush(out);
+
+      Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.INT32);
+      ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+      int[] actual = new int[POINT_NUM];
+      for (int i = 0; i < POINT_NUM; i++) {
+        actual[i] = decoder.readInt(buffer);
+      }
+      assertArrayEquals(encoding.toString(), expected, actual);
+
+      for (int blockSize : BLOCK_SIZES) {
+        decoder = Decoder.getDecoderByType(encoding, TSDataType.INT32);
+        buffer = ByteBuffer.wrap(out.toByteArray());
+        actual = new int[POINT_NUM + blockSize];
+        int num = 0;
+        int readNum;
+        while ((readNum = decoder.readInts(buffer, actual, num, blockSize)) > 0) {
+          num += readNum;
+        }
+        assertEquals(POINT_NUM, num);
+        assertFalse(decoder.hasNext(buffer));
+        for (int i = 0; i < POINT_NUM; i++) {
+          assertEquals(encoding + " " + blockSize, expected[i], actual[i]);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testLongs() throws IOException {
+    long[] expected = new long[POINT_NUM];
+    for (int i = 0; i < POINT_NUM; i++) {
+      expected[i] = nextLong(i);
+    }
+    for (TSEncoding encoding : new TSEncoding[]{TSEncoding.PLAIN, TSEncoding.RLE,
+        TSEncoding.TS_2DIFF}) {
+      Encoder encoder = TSEncodingBuilder.getConverter(encoding).getEncoder(TSDataType.INT64);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (long value : expected) {
+        encoder.encode(value, out);
+      }
+      encoder.flush(out);
+
+      for (int blockSize : BLOCK_SIZES) {
+        Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.INT64);
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        long[] actual = new long[POINT_NUM + blockSize];
+        int num = 0;
+        int readNum;
+        while ((readNum = decoder.readLongs(buffer, actual, num, blockSize)) > 0) {
+          num += readNum;
+        }
+        assertEquals(POINT_NUM, num);
+        assertFalse(decoder.hasNext(buffer));
+        for (int i = 0; i < POINT_NUM; i++) {
+          assertEquals(encoding + " " + blockSize, expected[i], actual[i]);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testFloatsAndDoubles() throws IOException {
+    for (TSEncoding encoding : new TSEncoding[]{TSEncoding.PLAIN, TSEncoding.RLE,
+        TSEncoding.TS_2DIFF, TSEncoding.GORILLA}) {
+      Encoder floatEncoder = TSEncodingBuilder.getConverter(encoding).getEncoder(TSDataType.FLOAT);
+      Encoder doubleEncoder = TSEncodingBuilder.getConverter(encoding)
+          .getEncoder(TSDataType.DOUBLE);
+      ByteArrayOutputStream floatOut = new ByteArrayOutputStream();
+      ByteArrayOutputStream doubleOut = new ByteArrayOutputStream();
+      for (int i = 0; i < POINT_NUM; i++) {
+        double value = (nextLong(i) % 100000) / 100.0;
+        floatEncoder.encode((float) value, floatOut);
+        doubleEncoder.encode(value, doubleOut);
+      }
+      floatEncoder.flush(floatOut);
+      doubleEncoder.flush(doubleOut);
+
+      Decoder floatDecoder = Decoder.getDecoderByType(encoding, TSDataType.FLOAT);
+      Decoder doubleDecoder = Decoder.getDecoderByType(encoding, TSDataType.DOUBLE);
+      ByteBuffer floatBuffer = ByteBuffer.wrap(floatOut.toByteArray());
+      ByteBuffer doubleBuffer = ByteBuffer.wrap(doubleOut.toByteArray());
+      float[] expectedFloats = new float[POINT_NUM];
+      double[] expectedDoubles = new double[POINT_NUM];
+      for (int i = 0; i < POINT_NUM; i++) {
+        expectedFloats[i] = floatDecoder.readFloat(floatBuffer);
+        expectedDoubles[i] = doubleDecoder.readDouble(doubleBuffer);
+      }
+
+      for (int blockSize : BLOCK_SIZES) {
+        floatDecoder = Decoder.getDecoderByType(encoding, TSDataType.FLOAT);
+        doubleDecoder = Decoder.getDecoderByType(encoding, TSDataType.DOUBLE);
+        floatBuffer = ByteBuffer.wrap(floatOut.toByteArray());
+        doubleBuffer = ByteBuffer.wrap(doubleOut.toByteArray());
+        float[] floats = new float[POINT_NUM + blockSize];
+        double[] doubles = new double[POINT_NUM + blockSize];
+        int floatNum = 0;
+        int doubleNum = 0;
+        int readNum;
+        while ((readNum = floatDecoder.readFloats(floatBuffer, floats, floatNum, blockSize)) > 0) {
+          floatNum += readNum;
+        }
+        while ((readNum = doubleDecoder.readDoubles(doubleBuffer, doubles, doubleNum, blockSize))
+            > 0) {
+          doubleNum += readNum;
+        }
+        assertEquals(POINT_NUM, floatNum);
+        assertEquals(POINT_NUM, doubleNum);
+        for (int i = 0; i < POINT_NUM; i++) {
+          assertEquals(encoding + " " + blockSize, expectedFloats[i], floats[i], 0);
+          assertEquals(encoding + " " + blockSize, expectedDoubles[i], doubles[i], 0);
+        }
+      }
+    }
+  }
+}
@@ -104,4 +104,40 @@ public class ReaderByTimestampTest {
     System.out.println("SeriesReadWithFilterTest. [Time used]: " + (endTimestamp - startTimestamp)
         + " ms. [Read Count]: " + count);
   }
+
+  @Test
+  public void readBySparseTimestamps() throws IOException {
+    ChunkLoaderImpl seriesChunkLoader = new ChunkLoaderImpl(fileReader);
+    List<ChunkMetaData> chunkMetaDataList = metadataQuerierByFile
+        .getChunkMetaDataList(new Path("d1.s1"));
+    FileSeriesReader seriesReader = new FileSeriesReaderWithoutFilter(seriesChunkLoader,
+        chunkMetaDataList);
+
+    // every 997th point and the gaps before them, so that most of the pages are skipped
+    List<Long> timeList = new ArrayList<>();
+    List<Object> valueList = new ArrayList<>();
+    int count = 0;
+    while (seriesReader.hasNextBatch()) {
+      BatchData data = seriesReader.nextBatch();
+      while (data.hasNext()) {
+        if (count++ % 997 == 0) {
+          timeList.add(data.currentTime() - 1);
+          valueList.add(null);
+          timeList.add(data.currentTime());
+          valueList.add(data.currentValue());
+        }
+        data.next();
+      }
+    }
+    // a timestamp after all the data
+    timeList.add(Long.MAX_VALUE);
+    valueList.add(null);
+
+    SeriesReaderByTimestamp seriesReaderByTimestamp = new SeriesReaderByTimestamp(
+        seriesChunkLoader, chunkMetaDataList);
+    for (int i = 0; i < timeList.size(); i++) {
+      Assert.assertEquals(valueList.get(i),
+          seriesReaderByTimestamp.getValueInTimestamp(timeList.get(i)));
+    }
+  }
 }
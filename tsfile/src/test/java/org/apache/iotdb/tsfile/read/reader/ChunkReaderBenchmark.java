@@ -0,0 +1,110 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.controller.ChunkLoaderImpl;
+import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReaderWithoutFilter;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+/**
+ * Full series scan benchmark. Scan all the chunks of a series several times and get the time used
+ * and the bytes allocated on the heap for each point, which is dominated by the page buffers if
+ * they are not reused.
+ */
+public class ChunkReaderBenchmark {
+
+  private static String filePath = "chunkReaderBenchmark.tsfile";
+  private static int numOfPoint = 10000000;
+  private static int numOfScan = 10;
+
+  public static void main(String[] args) throws IOException, WriteProcessException {
+    for (CompressionType compressionType : new CompressionType[]{CompressionType.UNCOMPRESSED,
+        CompressionType.SNAPPY, CompressionType.LZ4, CompressionType.GZIP}) {
+      writeFile(compressionType);
+      long fileSize = new File(filePath).length();
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(filePath)) {
+        // warm up
+        scan(reader);
+        com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long startBytes = threadMXBean.getThreadAllocatedBytes(threadId);
+        long startTime = System.currentTimeMillis();
+        long count = 0;
+        for (int i = 0; i < numOfScan; i++) {
+          count += scan(reader);
+        }
+        long endTime = System.currentTimeMillis();
+        long allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - startBytes;
+        System.out.println(String.format(
+            "Compression: %s, File size: %d, Num of points scanned: %d, The total time: %d ms, "
+                + "Allocated bytes for each point: %.2f. ", compressionType, fileSize, count,
+            endTime - startTime, (double) allocatedBytes / count));
+      } finally {
+        new File(filePath).delete();
+      }
+    }
+  }
+
+  private static void writeFile(CompressionType compressionType)
+      throws IOException, WriteProcessException {
+    TsFileWriter writer = new TsFileWriter(new File(filePath));
+    writer.addMeasurement(
+        new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.RLE, compressionType));
+    for (long time = 0; time < numOfPoint; time++) {
+      TSRecord record = new TSRecord(time, "d1");
+      record.addTuple(new LongDataPoint("s1", time % 1000));
+      writer.write(record);
+    }
+    writer.close();
+  }
+
+  private static long scan(TsFileSequenceReader reader) throws IOException {
+    List<ChunkMetaData> chunkMetaDataList = new MetadataQuerierByFileImpl(reader)
+        .getChunkMetaDataList(new Path("d1.s1"));
+    // the chunks are not cached so that they are read from the file in each scan
+    ChunkLoaderImpl chunkLoader = new ChunkLoaderImpl(reader, 0);
+    long count = 0;
+    for (ChunkMetaData chunkMetaData : chunkMetaDataList) {
+      ChunkReader chunkReader = new ChunkReaderWithoutFilter(chunkLoader.getChunk(chunkMetaData));
+      while (chunkReader.hasNextBatch()) {
+        BatchData batchData = chunkReader.nextBatch();
+        count += batchData.length();
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.read.ReadOnlyTsFile;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.TsFileGeneratorForTest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedTsFileInputTest {
+
+  private static final String FILE_PATH = TsFileGeneratorForTest.outputDataFile;
+
+  @Before
+  public void before() throws InterruptedException, WriteProcessException, IOException {
+    TsFileGeneratorForTest.generateFile(1000, 16 * 1024 * 1024, 10000);
+  }
+
+  @After
+  public void after() {
+    TsFileGeneratorForTest.after();
+  }
+
+  @Test
+  public void testReadBuffer() throws IOException {
+    DefaultTsFileInput defaultInput = new DefaultTsFileInput(Paths.get(FILE_PATH));
+    // small windows so that some reads cross the boundaries
+    MappedTsFileInput mappedInput = new MappedTsFileInput(Paths.get(FILE_PATH), 1000);
+    long size = defaultInput.size();
+    Assert.assertEquals(size, mappedInput.size());
+    for (long position = 0; position < size; position += 333) {
+      int length = (int) Math.min(500, size - position);
+      Assert.assertEquals(defaultInput.readBuffer(position, length),
+          mappedInput.readBuffer(position, length));
+
+      ByteBuffer buffer = ByteBuffer.allocate(length);
+      Assert.assertEquals(length, mappedInput.read(buffer, position));
+      buffer.flip();
+      Assert.assertEquals(defaultInput.readBuffer(position, length), buffer);
+    }
+    Assert.assertEquals(-1, mappedInput.read(ByteBuffer.allocate(1), size));
+    defaultInput.close();
+    mappedInput.close();
+    try {
+      mappedInput.readBuffer(0, 1);
+      Assert.fail();
+    } catch (IOException e) {
+      // the windows have been unmapped
+    }
+  }
+
+  @Test
+  public void testQuery() throws IOException {
+    List<String> expected = query(new TsFileSequenceReader(FILE_PATH));
+    Assert.assertEquals(1000, expected.size());
+    Assert.assertEquals(expected, query(new TsFileSequenceReader(FILE_PATH,
+        new MappedTsFileInput(Paths.get(FILE_PATH)))));
+    Assert.assertEquals(expected, query(new TsFileSequenceReader(FILE_PATH,
+        new MappedTsFileInput(Paths.get(FILE_PATH), 4096))));
+  }
+
+  private List<String> query(TsFileSequenceReader reader) throws IOException {
+    ReadOnlyTsFile tsFile = new ReadOnlyTsFile(reader);
+    QueryExpression queryExpression = QueryExpression.create().addSelectedPath(new Path("d1.s1"))
+        .addSelectedPath(new Path("d1.s4"));
+    QueryDataSet queryDataSet = tsFile.query(queryExpression);
+    List<String> records = new ArrayList<>();
+    while (queryDataSet.hasNext()) {
+      records.add(queryDataSet.next().toString());
+    }
+    tsFile.close();
+    return records;
+  }
+}
@@ -20,15 +20,29 @@ package org.apache.iotdb.tsfile.write;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.footer.ChunkGroupFooter;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.TimeSeriesMetadataTest;
 import org.apache.iotdb.tsfile.file.metadata.TsFileMetaData;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.file.metadata.utils.TestHelper;
+import org.apache.iotdb.tsfile.read.ReadOnlyTsFile;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
 import org.apache.iotdb.tsfile.write.schema.FileSchema;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
@@ -103,4 +117,51 @@ public class TsFileIOWriterTest {
     Assert.assertEquals(TimeSeriesMetadataTest.measurementUID, actual.getMeasurementId());
     Assert.assertEquals(1, metaData.getDeviceMap().size());
   }
+
+  @Test
+  public void writeChunkTest() throws IOException, WriteProcessException {
+    String sourceFile = "target/tsfileIOWriterTest.source.tsfile";
+    MeasurementSchema measurementSchema = new MeasurementSchema("sensor_1", TSDataType.INT64,
+        TSEncoding.RLE);
+    TsFileWriter tsFileWriter = new TsFileWriter(new File(sourceFile));
+    tsFileWriter.addMeasurement(measurementSchema);
+    for (long i = 1; i <= 1000; i++) {
+      TSRecord tsRecord = new TSRecord(i, deviceId);
+      tsRecord.addTuple(new LongDataPoint("sensor_1", i * 2));
+      tsFileWriter.write(tsRecord);
+    }
+    tsFileWriter.close();
+
+    // copy the chunks of the source file without decoding them
+    FileSchema fileSchema = new FileSchema();
+    fileSchema.registerMeasurement(measurementSchema);
+    TsFileSequenceReader sourceReader = new TsFileSequenceReader(sourceFile);
+    List<ChunkMetaData> chunkMetaDataList = new MetadataQuerierByFileImpl(sourceReader)
+        .getChunkMetaDataList(new Path(deviceId, "sensor_1"));
+    TsFileIOWriter writer = new TsFileIOWriter(new File(tsfile));
+    writer.startFlushChunkGroup(deviceId);
+    long startPos = writer.getPos();
+    for (ChunkMetaData chunkMetaData : chunkMetaDataList) {
+      writer.writeChunk(sourceReader.readMemChunk(chunkMetaData), chunkMetaData);
+    }
+    writer.endChunkGroup(
+        new ChunkGroupFooter(deviceId, writer.getPos() - startPos, chunkMetaDataList.size()), 0);
+    writer.endFile(fileSchema);
+    sourceReader.close();
+    new File(sourceFile).delete();
+
+    TsFileSequenceReader reader = new TsFileSequenceReader(tsfile);
+    ReadOnlyTsFile readTsFile = new ReadOnlyTsFile(reader);
+    QueryDataSet queryDataSet = readTsFile.query(QueryExpression
+        .create(Collections.singletonList(new Path(deviceId, "sensor_1")), null));
+    long i = 1;
+    while (queryDataSet.hasNext()) {
+      RowRecord r = queryDataSet.next();
+      Assert.assertEquals(i, r.getTimestamp());
+      Assert.assertEquals(i * 2, r.getFields().get(0).getLongV());
+      i++;
+    }
+    Assert.assertEquals(1001, i);
+    reader.close();
+  }
 }
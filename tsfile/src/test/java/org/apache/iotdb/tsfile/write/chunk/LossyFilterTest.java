@@ -0,0 +1,197 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.write.chunk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.ReadOnlyTsFile;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.DoubleDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.junit.Test;
+
+public class LossyFilterTest {
+
+  private static final int POINT_NUM = 100000;
+  private static final double DELTA = 0.0000001;
+
+  @Test
+  public void testSDT() {
+    double[] values = generateValues();
+    List<double[]> kept = filter(new SDTFilter(0.5), values);
+    checkError(kept, values, 0.5);
+    // the kept points are original points
+    for (double[] point : kept) {
+      assertEquals(values[(int) point[0]], point[1], 0);
+    }
+    assertTrue(kept.size() < POINT_NUM / 10);
+  }
+
+  @Test
+  public void testPLA() {
+    double[] values = generateValues();
+    List<double[]> kept = filter(new PLAFilter(0.5, false), values);
+    checkError(kept, values, 0.5);
+    assertTrue(kept.size() < POINT_NUM / 10);
+    // the noise is up to 0.2
+    assertTrue(filter(new PLAFilter(0.1, false), values).size() < filter(new SDTFilter(0.1),
+        values).size());
+  }
+
+  @Test
+  public void testPLARounded() {
+    double[] values = generateValues();
+    for (int i = 0; i < values.length; i++) {
+      values[i] = Math.round(values[i] * 10);
+    }
+    List<double[]> kept = filter(new PLAFilter(3, true), values);
+    checkError(kept, values, 3);
+    for (double[] point : kept) {
+      assertEquals(Math.round(point[1]), point[1], 0);
+    }
+    assertTrue(kept.size() < POINT_NUM / 10);
+  }
+
+  @Test
+  public void testGetFilter() {
+    assertNull(LossyFilter.getFilter(TSDataType.INT32, Collections.emptyMap()));
+    Map<String, String> props = new HashMap<>();
+    props.put(LossyFilter.LOSS, "sdt");
+    props.put(LossyFilter.COMP_DEV, "0.5");
+    assertTrue(LossyFilter.getFilter(TSDataType.FLOAT, props) instanceof SDTFilter);
+    props.put(LossyFilter.LOSS, "PLA");
+    assertTrue(LossyFilter.getFilter(TSDataType.INT64, props) instanceof PLAFilter);
+    try {
+      LossyFilter.getFilter(TSDataType.TEXT, props);
+      assertTrue(false);
+    } catch (UnSupportedDataTypeException e) {
+      // expected
+    }
+    props.put(LossyFilter.LOSS, "PAA");
+    try {
+      LossyFilter.getFilter(TSDataType.INT64, props);
+      assertTrue(false);
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testWriteLossySeries() throws IOException, WriteProcessException {
+    String filePath = "lossyFilterTest.tsfile";
+    Map<String, String> props = new HashMap<>();
+    props.put(LossyFilter.LOSS, "SDT");
+    props.put(LossyFilter.COMP_DEV, "0.1");
+    TsFileWriter writer = new TsFileWriter(new File(filePath));
+    writer.addMeasurement(new MeasurementSchema("s1", TSDataType.DOUBLE, TSEncoding.GORILLA,
+        CompressionType.UNCOMPRESSED, props));
+    // two lines
+    for (int i = 0; i < 1000; i++) {
+      TSRecord record = new TSRecord(i, "d1");
+      record.addTuple(new DoubleDataPoint("s1", i < 500 ? i : 1000 - i));
+      writer.write(record);
+    }
+    writer.close();
+
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(filePath)) {
+      List<Path> paths = Collections.singletonList(new Path("d1.s1"));
+      QueryDataSet dataSet = new ReadOnlyTsFile(reader)
+          .query(QueryExpression.create(paths, null));
+      long[] times = {0, 500, 999};
+      double[] values = {0, 500, 1};
+      int i = 0;
+      while (dataSet.hasNext()) {
+        RowRecord record = dataSet.next();
+        assertEquals(times[i], record.getTimestamp());
+        assertEquals(values[i], record.getFields().get(0).getDoubleV(), DELTA);
+        i++;
+      }
+      assertEquals(times.length, i);
+    } finally {
+      new File(filePath).delete();
+    }
+  }
+
+  /**
+   * a sine wave with noise and steps, sampled every millisecond.
+   */
+  private double[] generateValues() {
+    Random random = new Random(0);
+    double[] values = new double[POINT_NUM];
+    for (int i = 0; i < POINT_NUM; i++) {
+      values[i] = 10 * Math.sin(i / 2000.0) + random.nextDouble() * 0.2 + (i / 20000) * 5;
+    }
+    return values;
+  }
+
+  /**
+   * @return the kept points as {time, value}
+   */
+  private List<double[]> filter(LossyFilter filter, double[] values) {
+    List<double[]> kept = new ArrayList<>();
+    for (int i = 0; i < values.length; i++) {
+      if (filter.filter(i, values[i])) {
+        kept.add(new double[]{filter.getTime(), filter.getValue()});
+      }
+    }
+    if (filter.flush()) {
+      kept.add(new double[]{filter.getTime(), filter.getValue()});
+    }
+    return kept;
+  }
+
+  /**
+   * check the points restored by the linear interpolation between the kept points.
+   */
+  private void checkError(List<double[]> kept, double[] values, double compDev) {
+    assertEquals(0, kept.get(0)[0], 0);
+    assertEquals(values.length - 1, kept.get(kept.size() - 1)[0], 0);
+    for (int k = 1; k < kept.size(); k++) {
+      double[] start = kept.get(k - 1);
+      double[] end = kept.get(k);
+      assertTrue(end[0] > start[0]);
+      double slope = (end[1] - start[1]) / (end[0] - start[0]);
+      for (int i = (int) start[0]; i <= end[0]; i++) {
+        double restored = start[1] + slope * (i - start[0]);
+        assertEquals(values[i], restored, compDev + DELTA);
+      }
+    }
+  }
+}